@@ -0,0 +1,15 @@
+-- 版本：1.1.10
+-- 修改目的：庫存異動改用預先配發的主鍵，合併寫入時可批次新增異動記錄
+-- 修改日期：2026-10-17
+
+-- 使用 meow_db 數據庫
+USE meow_db;
+
+-- 初始化配發值（區段大小 50，起始值須為現有最大主鍵加上區段大小）
+INSERT INTO id_generators (`gen_name`, `gen_value`)
+SELECT 'stock_movements', COALESCE(MAX(`id`), 0) + 50 FROM stock_movements;
+
+-- 更新 DBversion 記錄
+UPDATE key_values 
+SET `value` = '1.1.10', `updated_at` = CURRENT_TIMESTAMP(3)
+WHERE `key` = 'DBversion';
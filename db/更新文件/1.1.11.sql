@@ -0,0 +1,76 @@
+-- 版本：1.1.11
+-- 修改目的：庫存異動表依建立時間按月分區，新增月彙總表供已壓縮月份查詢
+-- 修改日期：2026-10-17
+
+-- 使用 meow_db 數據庫
+USE meow_db;
+
+-- 分區欄位必須包含在主鍵內，主鍵改為 (id, created_at)；索引改為附帶 created_at 以支援依時間範圍查詢
+UPDATE stock_movements SET `created_at` = COALESCE(`updated_at`, CURRENT_TIMESTAMP(3)) WHERE `created_at` IS NULL;
+
+ALTER TABLE stock_movements
+    MODIFY `created_at` DATETIME(3) NOT NULL COMMENT '建立時間',
+    DROP PRIMARY KEY,
+    ADD PRIMARY KEY (`id`, `created_at`),
+    DROP INDEX idx_movement_stock,
+    DROP INDEX idx_movement_product,
+    DROP INDEX idx_movement_type,
+    ADD INDEX idx_movement_stock_created (`stock_id`, `created_at`),
+    ADD INDEX idx_movement_product_created (`product_id`, `created_at`),
+    ADD INDEX idx_movement_type_created (`movement_type`, `created_at`);
+
+-- 按月分區，之後的月份由應用程式定期從 pmax 切出
+ALTER TABLE stock_movements
+PARTITION BY RANGE COLUMNS (`created_at`)
+(
+    PARTITION p_history VALUES LESS THAN ('2025-01-01'),
+    PARTITION p202501 VALUES LESS THAN ('2025-02-01'),
+    PARTITION p202502 VALUES LESS THAN ('2025-03-01'),
+    PARTITION p202503 VALUES LESS THAN ('2025-04-01'),
+    PARTITION p202504 VALUES LESS THAN ('2025-05-01'),
+    PARTITION p202505 VALUES LESS THAN ('2025-06-01'),
+    PARTITION p202506 VALUES LESS THAN ('2025-07-01'),
+    PARTITION p202507 VALUES LESS THAN ('2025-08-01'),
+    PARTITION p202508 VALUES LESS THAN ('2025-09-01'),
+    PARTITION p202509 VALUES LESS THAN ('2025-10-01'),
+    PARTITION p202510 VALUES LESS THAN ('2025-11-01'),
+    PARTITION p202511 VALUES LESS THAN ('2025-12-01'),
+    PARTITION p202512 VALUES LESS THAN ('2026-01-01'),
+    PARTITION p202601 VALUES LESS THAN ('2026-02-01'),
+    PARTITION p202602 VALUES LESS THAN ('2026-03-01'),
+    PARTITION p202603 VALUES LESS THAN ('2026-04-01'),
+    PARTITION p202604 VALUES LESS THAN ('2026-05-01'),
+    PARTITION p202605 VALUES LESS THAN ('2026-06-01'),
+    PARTITION p202606 VALUES LESS THAN ('2026-07-01'),
+    PARTITION p202607 VALUES LESS THAN ('2026-08-01'),
+    PARTITION p202608 VALUES LESS THAN ('2026-09-01'),
+    PARTITION p202609 VALUES LESS THAN ('2026-10-01'),
+    PARTITION p202610 VALUES LESS THAN ('2026-11-01'),
+    PARTITION p202611 VALUES LESS THAN ('2026-12-01'),
+    PARTITION p202612 VALUES LESS THAN ('2027-01-01'),
+    PARTITION p202701 VALUES LESS THAN ('2027-02-01'),
+    PARTITION p202702 VALUES LESS THAN ('2027-03-01'),
+    PARTITION p202703 VALUES LESS THAN ('2027-04-01'),
+    PARTITION pmax VALUES LESS THAN (MAXVALUE)
+);
+
+-- 創建 stock_movement_monthly_summaries 表 - 庫存異動月彙總表
+CREATE TABLE stock_movement_monthly_summaries
+(
+    `id`             BIGINT AUTO_INCREMENT PRIMARY KEY COMMENT '彙總ID',
+    `summary_month`  DATE NOT NULL COMMENT '彙總月份（該月1日）',
+    `product_id`     BIGINT NOT NULL COMMENT '商品ID',
+    `movement_type`  TINYINT NOT NULL COMMENT '異動類型：1=入庫、2=出庫',
+    `movement_count` BIGINT NOT NULL DEFAULT 0 COMMENT '異動筆數',
+    `total_qty`      BIGINT NOT NULL DEFAULT 0 COMMENT '異動數量合計',
+    `total_cost`     DECIMAL(14,2) NOT NULL DEFAULT 0 COMMENT '異動總成本合計',
+    `created_at`     DATETIME(3) NOT NULL COMMENT '建立時間',
+    `updated_at`     DATETIME(3) NOT NULL COMMENT '最後更新時間',
+    UNIQUE INDEX     uk_movement_summary (`summary_month`, `product_id`, `movement_type`),
+    INDEX            idx_movement_summary_product (`product_id`, `summary_month`)
+) COMMENT = '庫存異動月彙總表（已壓縮月份的異動明細彙總）';
+
+-- 更新 DBversion 記錄
+UPDATE key_values 
+SET `value` = '1.1.11', `updated_at` = CURRENT_TIMESTAMP(3)
+WHERE `key` = 'DBversion';
@@ -0,0 +1,25 @@
+-- 版本：1.1.12
+-- 修改目的：新增庫存檢查點表，歷史時點庫存由最近檢查點加上其後的異動重播求得
+-- 修改日期：2026-10-17
+
+-- 使用 meow_db 數據庫
+USE meow_db;
+
+-- 創建 stock_checkpoints 表 - 庫存檢查點表
+CREATE TABLE stock_checkpoints
+(
+    `id`            BIGINT AUTO_INCREMENT PRIMARY KEY COMMENT '檢查點ID',
+    `product_id`    BIGINT NOT NULL COMMENT '商品ID',
+    `checkpoint_at` DATETIME(3) NOT NULL COMMENT '檢查點時間（包含此時間之前的全部異動）',
+    `qty`           INT NOT NULL COMMENT '庫存數量',
+    `avg_cost`      DECIMAL(10,2) NOT NULL COMMENT '平均成本',
+    `total_cost`    DECIMAL(14,2) NOT NULL COMMENT '庫存價值',
+    `created_at`    DATETIME(3) NOT NULL COMMENT '建立時間',
+    UNIQUE INDEX    uk_checkpoint_product_at (`product_id`, `checkpoint_at`),
+    INDEX           idx_checkpoint_at (`checkpoint_at`)
+) COMMENT = '庫存檢查點表（每月月初的各商品庫存，供歷史時點查詢重播起點）';
+
+-- 更新 DBversion 記錄
+UPDATE key_values 
+SET `value` = '1.1.12', `updated_at` = CURRENT_TIMESTAMP(3)
+WHERE `key` = 'DBversion';
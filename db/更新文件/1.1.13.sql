@@ -0,0 +1,16 @@
+-- 版本：1.1.13
+-- 修改目的：庫存新增各商品的再訂購點與安全庫存
+-- 修改日期：2026-10-17
+
+-- 使用 meow_db 數據庫
+USE meow_db;
+
+-- 未設定時不追蹤該商品的低庫存
+ALTER TABLE stock
+    ADD COLUMN `reorder_point` INT NULL COMMENT '再訂購點（庫存小於等於此值時需補貨）' AFTER `total_cost`,
+    ADD COLUMN `safety_stock`  INT NULL COMMENT '安全庫存（庫存小於等於此值時為緊急）' AFTER `reorder_point`;
+
+-- 更新 DBversion 記錄
+UPDATE key_values 
+SET `value` = '1.1.13', `updated_at` = CURRENT_TIMESTAMP(3)
+WHERE `key` = 'DBversion';
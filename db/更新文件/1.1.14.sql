@@ -0,0 +1,14 @@
+-- 版本：1.1.14
+-- 修改目的：庫存新增版本號，每次更新遞增，供記憶體可用量快取判斷新舊
+-- 修改日期：2026-10-17
+
+-- 使用 meow_db 數據庫
+USE meow_db;
+
+ALTER TABLE stock
+    ADD COLUMN `version` BIGINT NOT NULL DEFAULT 0 COMMENT '版本號（每次更新遞增）' AFTER `safety_stock`;
+
+-- 更新 DBversion 記錄
+UPDATE key_values 
+SET `value` = '1.1.14', `updated_at` = CURRENT_TIMESTAMP(3)
+WHERE `key` = 'DBversion';
@@ -0,0 +1,44 @@
+-- 版本：1.1.15
+-- 修改目的：庫存商品ID改為唯一索引，庫存列建立改以 INSERT ... ON DUPLICATE KEY UPDATE 進行，避免同時首次入庫產生重複庫存記錄
+-- 修改日期：2026-10-17
+
+-- 使用 meow_db 數據庫
+USE meow_db;
+
+-- 合併既有的重複庫存記錄：保留 id 最小的一筆，數量與庫存價值加總後重算平均成本
+UPDATE stock s
+    JOIN (SELECT product_id, MIN(id) AS keep_id, SUM(qty) AS qty, SUM(total_cost) AS total_cost
+          FROM stock
+          WHERE product_id IS NOT NULL
+          GROUP BY product_id
+          HAVING COUNT(*) > 1) d ON s.id = d.keep_id
+SET s.qty        = d.qty,
+    s.total_cost = d.total_cost,
+    s.avg_cost   = IF(d.qty > 0, ROUND(d.total_cost / d.qty, 2), s.avg_cost),
+    s.version    = s.version + 1,
+    s.updated_at = CURRENT_TIMESTAMP(3);
+
+-- 重複記錄的異動改指向保留的庫存記錄
+UPDATE stock_movements m
+    JOIN stock s ON m.stock_id = s.id
+    JOIN (SELECT product_id, MIN(id) AS keep_id
+          FROM stock
+          WHERE product_id IS NOT NULL
+          GROUP BY product_id) k ON k.product_id = s.product_id AND s.id <> k.keep_id
+SET m.stock_id = k.keep_id;
+
+DELETE s
+FROM stock s
+    JOIN (SELECT product_id, MIN(id) AS keep_id
+          FROM stock
+          WHERE product_id IS NOT NULL
+          GROUP BY product_id) k ON k.product_id = s.product_id AND s.id <> k.keep_id;
+
+ALTER TABLE stock
+    DROP INDEX idx_stock_product,
+    ADD UNIQUE INDEX uk_stock_product (`product_id`);
+
+-- 更新 DBversion 記錄
+UPDATE key_values 
+SET `value` = '1.1.15', `updated_at` = CURRENT_TIMESTAMP(3)
+WHERE `key` = 'DBversion';
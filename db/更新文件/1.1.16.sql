@@ -0,0 +1,63 @@
+-- 版本：1.1.16
+-- 修改目的：新增庫存預留，未出貨訂單的明細預留庫存，庫存列以已預留數量增量維護可用量
+-- 修改日期：2026-10-17
+
+-- 使用 meow_db 數據庫
+USE meow_db;
+
+ALTER TABLE stock
+    ADD COLUMN `reserved_qty` INT NOT NULL DEFAULT 0 COMMENT '已預留數量（未出貨訂單保留，可用量 = 庫存數量 - 已預留數量）' AFTER `qty`;
+
+-- 創建 stock_reservations 表 - 庫存預留表
+CREATE TABLE stock_reservations
+(
+    `id`            BIGINT AUTO_INCREMENT PRIMARY KEY COMMENT '預留ID',
+    `order_id`      BIGINT NOT NULL COMMENT '訂單ID',
+    `order_item_id` BIGINT NOT NULL COMMENT '訂單明細ID',
+    `product_id`    BIGINT NOT NULL COMMENT '商品ID',
+    `qty`           INT NOT NULL COMMENT '預留數量',
+    `expires_at`    DATETIME(3) NULL COMMENT '到期時間（已付款訂單為空，不會到期）',
+    `created_at`    DATETIME(3) NULL COMMENT '建立時間',
+    `updated_at`    DATETIME(3) NULL COMMENT '最後更新時間',
+    UNIQUE INDEX    uk_reservation_order_item (`order_item_id`),
+    INDEX           idx_reservation_order (`order_id`),
+    INDEX           idx_reservation_expires (`expires_at`)
+) COMMENT = '庫存預留表（已下單、已付款訂單的明細預留）';
+
+-- 已下單訂單預留的存活時數，需與應用設定 erp.stock.reservation.pending-ttl（預設 PT24H）一致
+SET @pending_ttl_hours = 24;
+
+-- 既有的已下單、已付款訂單補建預留，已下單訂單自本次更新起算到期時間
+-- 服務類明細（product_type = 2）不管理庫存，不補建預留
+INSERT INTO stock_reservations (order_id, order_item_id, product_id, qty, expires_at, created_at, updated_at)
+SELECT oi.order_id, oi.id, oi.product_id, oi.qty,
+       IF(o.status = 1, DATE_ADD(CURRENT_TIMESTAMP(3), INTERVAL @pending_ttl_hours HOUR), NULL),
+       CURRENT_TIMESTAMP(3), CURRENT_TIMESTAMP(3)
+FROM order_items oi
+    JOIN orders o ON o.id = oi.order_id
+WHERE o.status IN (1, 2)
+  AND oi.product_id IS NOT NULL
+  AND oi.qty > 0
+  AND (oi.product_type IS NULL OR oi.product_type <> 2);
+
+-- 列出預留總數超過庫存數量的商品，這些訂單需人工處理（補貨或取消）
+SELECT r.product_id, s.qty, r.reserved_qty
+FROM (SELECT product_id, SUM(qty) AS reserved_qty
+      FROM stock_reservations
+      GROUP BY product_id) r
+    JOIN stock s ON s.product_id = r.product_id
+WHERE r.reserved_qty > s.qty;
+
+-- 已預留數量最多為庫存數量，可用量不會為負；釋放預留時 reserved_qty 以 0 為下限
+UPDATE stock s
+    JOIN (SELECT product_id, SUM(qty) AS reserved_qty
+          FROM stock_reservations
+          GROUP BY product_id) r ON r.product_id = s.product_id
+SET s.reserved_qty = LEAST(r.reserved_qty, GREATEST(s.qty, 0)),
+    s.version      = s.version + 1,
+    s.updated_at   = CURRENT_TIMESTAMP(3);
+
+-- 更新 DBversion 記錄
+UPDATE key_values 
+SET `value` = '1.1.16', `updated_at` = CURRENT_TIMESTAMP(3)
+WHERE `key` = 'DBversion';
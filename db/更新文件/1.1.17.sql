@@ -0,0 +1,15 @@
+-- 版本：1.1.17
+-- 修改目的：庫存異動新增訂單ID，訂單出貨時自動扣庫存、出貨後取消時回補，異動記錄對應到訂單
+-- 修改日期：2026-10-17
+
+-- 使用 meow_db 數據庫
+USE meow_db;
+
+ALTER TABLE stock_movements
+    ADD COLUMN `order_id` BIGINT NULL COMMENT '訂單ID（訂單出貨扣庫存、取消回補時）' AFTER `product_id`,
+    ADD INDEX idx_movement_order (`order_id`);
+
+-- 更新 DBversion 記錄
+UPDATE key_values 
+SET `value` = '1.1.17', `updated_at` = CURRENT_TIMESTAMP(3)
+WHERE `key` = 'DBversion';
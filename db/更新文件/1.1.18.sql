@@ -0,0 +1,23 @@
+-- 版本：1.1.18
+-- 修改目的：新增訂單庫存異動保留表，壓縮庫存異動分區前保留帶訂單ID的異動，取消較早出貨的訂單時仍可回補庫存
+-- 修改日期：2026-10-17
+
+-- 使用 meow_db 數據庫
+USE meow_db;
+
+CREATE TABLE stock_order_movements
+(
+    `id`            BIGINT NOT NULL PRIMARY KEY COMMENT '原異動紀錄ID（stock_movements.id）',
+    `order_id`      BIGINT NOT NULL COMMENT '訂單ID',
+    `product_id`    BIGINT NULL COMMENT '商品ID',
+    `movement_type` TINYINT NULL COMMENT '異動類型：1=入庫、2=出庫',
+    `qty`           INT NULL COMMENT '異動數量（永遠正數）',
+    `unit_cost`     DECIMAL(10,2) NULL COMMENT '單位成本',
+    `created_at`    DATETIME(3) NOT NULL COMMENT '原異動建立時間',
+    INDEX           idx_order_movement_order (`order_id`)
+) COMMENT = '訂單庫存異動保留表（壓縮刪除分區前保留帶訂單ID的異動，供取消已出貨訂單時回補）';
+
+-- 更新 DBversion 記錄
+UPDATE key_values 
+SET `value` = '1.1.18', `updated_at` = CURRENT_TIMESTAMP(3)
+WHERE `key` = 'DBversion';
@@ -0,0 +1,35 @@
+-- 版本：1.1.4
+-- 修改目的：建立訂單編號每日序號表，訂單編號改為唯一索引
+-- 修改日期：2026-10-17
+
+-- 使用 meow_db 數據庫
+USE meow_db;
+
+-- 創建 order_no_sequences 表 - 訂單編號每日序號表
+CREATE TABLE order_no_sequences
+(
+    `seq_date`   DATE NOT NULL PRIMARY KEY COMMENT '序號日期',
+    `next_value` BIGINT NOT NULL COMMENT '下一個尚未分配的序號',
+    `created_at` DATETIME(3) NULL COMMENT '建立時間',
+    `updated_at` DATETIME(3) NULL COMMENT '最後更新時間'
+) COMMENT = '訂單編號每日序號表';
+
+-- 依現有訂單初始化每日序號（格式：ORD + yyyyMMdd + 序號）
+INSERT INTO order_no_sequences (`seq_date`, `next_value`, `created_at`, `updated_at`)
+SELECT STR_TO_DATE(SUBSTRING(`no`, 4, 8), '%Y%m%d'),
+       MAX(CAST(SUBSTRING(`no`, 12) AS UNSIGNED)) + 1,
+       CURRENT_TIMESTAMP(3),
+       CURRENT_TIMESTAMP(3)
+FROM orders
+WHERE `no` REGEXP '^ORD[0-9]{9,}$'
+GROUP BY SUBSTRING(`no`, 4, 8);
+
+-- 訂單編號改為唯一索引
+ALTER TABLE orders
+    DROP INDEX idx_order_no,
+    ADD UNIQUE INDEX uk_order_no (`no`);
+
+-- 更新 DBversion 記錄
+UPDATE key_values 
+SET `value` = '1.1.4', `updated_at` = CURRENT_TIMESTAMP(3)
+WHERE `key` = 'DBversion';
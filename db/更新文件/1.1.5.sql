@@ -0,0 +1,25 @@
+-- 版本：1.1.5
+-- 修改目的：建立主鍵區段配發表，訂單與訂單明細改用預先配發的主鍵以支援批次寫入
+-- 修改日期：2026-10-17
+
+-- 使用 meow_db 數據庫
+USE meow_db;
+
+-- 創建 id_generators 表 - 主鍵區段配發表
+CREATE TABLE id_generators
+(
+    `gen_name`  VARCHAR(64) NOT NULL PRIMARY KEY COMMENT '配發器名稱（通常為表名）',
+    `gen_value` BIGINT NOT NULL COMMENT '目前已配發區段的上限'
+) COMMENT = '主鍵區段配發表';
+
+-- 初始化配發值（區段大小 50，起始值須為現有最大主鍵加上區段大小）
+INSERT INTO id_generators (`gen_name`, `gen_value`)
+SELECT 'orders', COALESCE(MAX(`id`), 0) + 50 FROM orders;
+
+INSERT INTO id_generators (`gen_name`, `gen_value`)
+SELECT 'order_items', COALESCE(MAX(`id`), 0) + 50 FROM order_items;
+
+-- 更新 DBversion 記錄
+UPDATE key_values 
+SET `value` = '1.1.5', `updated_at` = CURRENT_TIMESTAMP(3)
+WHERE `key` = 'DBversion';
@@ -0,0 +1,28 @@
+-- 版本：1.1.6
+-- 修改目的：新增 (created_at, id) 複合索引，支援游標分頁
+-- 修改日期：2026-10-17
+
+-- 使用 meow_db 數據庫
+USE meow_db;
+
+-- customers 表新增游標分頁索引
+ALTER TABLE customers
+    ADD INDEX idx_customer_created_id (`created_at`, `id`);
+
+-- products 表新增游標分頁索引
+ALTER TABLE products
+    ADD INDEX idx_product_created_id (`created_at`, `id`);
+
+-- orders 表新增游標分頁索引
+ALTER TABLE orders
+    ADD INDEX idx_order_created_id (`created_at`, `id`);
+
+-- stock_movements 表以複合索引取代建立時間索引
+ALTER TABLE stock_movements
+    DROP INDEX idx_movement_created,
+    ADD INDEX idx_movement_created_id (`created_at`, `id`);
+
+-- 更新 DBversion 記錄
+UPDATE key_values 
+SET `value` = '1.1.6', `updated_at` = CURRENT_TIMESTAMP(3)
+WHERE `key` = 'DBversion';
@@ -0,0 +1,59 @@
+-- 版本：1.1.7
+-- 修改目的：建立每日訂單與商品銷售彙總表，統計查詢改讀彙總資料
+-- 修改日期：2026-10-17
+
+-- 使用 meow_db 數據庫
+USE meow_db;
+
+-- 創建 daily_order_stats 表 - 每日訂單彙總表
+CREATE TABLE daily_order_stats
+(
+    `id`              BIGINT AUTO_INCREMENT PRIMARY KEY COMMENT '彙總ID',
+    `stat_date`       DATE NOT NULL COMMENT '統計日期（訂單建立日期）',
+    `status`          TINYINT NOT NULL COMMENT '訂單狀態（與 orders.status 相同編碼，-1 表示未指定）',
+    `payment_method`  TINYINT NOT NULL COMMENT '支付方式（與 orders.payment_method 相同編碼，-1 表示未指定）',
+    `order_count`     BIGINT NOT NULL DEFAULT 0 COMMENT '訂單數',
+    `total_amount`    DECIMAL(14,2) NOT NULL DEFAULT 0 COMMENT '訂單總額合計',
+    `discount_amount` DECIMAL(14,2) NOT NULL DEFAULT 0 COMMENT '折扣金額合計',
+    `final_amount`    DECIMAL(14,2) NOT NULL DEFAULT 0 COMMENT '實付金額合計',
+    `updated_at`      DATETIME(3) NULL COMMENT '最後更新時間',
+    UNIQUE INDEX      uk_daily_order_stats (`stat_date`, `status`, `payment_method`)
+) COMMENT = '每日訂單彙總表';
+
+-- 創建 daily_order_item_stats 表 - 每日商品銷售彙總表
+CREATE TABLE daily_order_item_stats
+(
+    `id`           BIGINT AUTO_INCREMENT PRIMARY KEY COMMENT '彙總ID',
+    `stat_date`    DATE NOT NULL COMMENT '統計日期（明細建立日期）',
+    `product_type` TINYINT NOT NULL COMMENT '商品類型（與 order_items.product_type 相同編碼，-1 表示未指定）',
+    `product_id`   BIGINT NOT NULL COMMENT '商品ID（0 表示未指定）',
+    `item_count`   BIGINT NOT NULL DEFAULT 0 COMMENT '明細筆數',
+    `total_qty`    BIGINT NOT NULL DEFAULT 0 COMMENT '銷售數量合計',
+    `total_amount` DECIMAL(14,2) NOT NULL DEFAULT 0 COMMENT '銷售金額合計（qty * unit_price）',
+    `updated_at`   DATETIME(3) NULL COMMENT '最後更新時間',
+    UNIQUE INDEX   uk_daily_order_item_stats (`stat_date`, `product_type`, `product_id`),
+    INDEX          idx_item_stats_product (`product_id`)
+) COMMENT = '每日商品銷售彙總表';
+
+-- 依現有資料初始化彙總
+INSERT INTO daily_order_stats (`stat_date`, `status`, `payment_method`, `order_count`,
+                               `total_amount`, `discount_amount`, `final_amount`, `updated_at`)
+SELECT DATE(`created_at`), COALESCE(`status`, -1), COALESCE(`payment_method`, -1), COUNT(*),
+       COALESCE(SUM(`total_amount`), 0), COALESCE(SUM(`discount_amount`), 0), COALESCE(SUM(`final_amount`), 0),
+       CURRENT_TIMESTAMP(3)
+FROM orders
+WHERE `created_at` IS NOT NULL
+GROUP BY DATE(`created_at`), COALESCE(`status`, -1), COALESCE(`payment_method`, -1);
+
+INSERT INTO daily_order_item_stats (`stat_date`, `product_type`, `product_id`, `item_count`,
+                                    `total_qty`, `total_amount`, `updated_at`)
+SELECT DATE(`created_at`), COALESCE(`product_type`, -1), COALESCE(`product_id`, 0), COUNT(*),
+       COALESCE(SUM(`qty`), 0), COALESCE(SUM(`unit_price` * `qty`), 0), CURRENT_TIMESTAMP(3)
+FROM order_items
+WHERE `created_at` IS NOT NULL
+GROUP BY DATE(`created_at`), COALESCE(`product_type`, -1), COALESCE(`product_id`, 0);
+
+-- 更新 DBversion 記錄
+UPDATE key_values 
+SET `value` = '1.1.7', `updated_at` = CURRENT_TIMESTAMP(3)
+WHERE `key` = 'DBversion';
@@ -0,0 +1,15 @@
+-- 版本：1.1.8
+-- 修改目的：orders 表新增樂觀鎖版本欄位，狀態轉換改為條件式更新
+-- 修改日期：2026-10-17
+
+-- 使用 meow_db 數據庫
+USE meow_db;
+
+-- orders 表新增 version 欄位
+ALTER TABLE orders
+    ADD COLUMN `version` BIGINT NOT NULL DEFAULT 0 COMMENT '樂觀鎖版本號' AFTER `notes`;
+
+-- 更新 DBversion 記錄
+UPDATE key_values 
+SET `value` = '1.1.8', `updated_at` = CURRENT_TIMESTAMP(3)
+WHERE `key` = 'DBversion';
@@ -0,0 +1,32 @@
+-- 版本：1.1.9
+-- 修改目的：建立未完成訂單提醒表，orders 表新增 (status, order_time) 索引供逾時掃描使用
+-- 修改日期：2026-10-17
+
+-- 使用 meow_db 數據庫
+USE meow_db;
+
+-- orders 表以 (status, order_time) 複合索引取代單欄 status 索引
+ALTER TABLE orders
+    ADD INDEX idx_status_order_time (`status`, `order_time`),
+    DROP INDEX idx_status;
+
+-- 創建 order_reminders 表 - 未完成訂單提醒表
+CREATE TABLE order_reminders
+(
+    `id`          BIGINT AUTO_INCREMENT PRIMARY KEY COMMENT '提醒ID',
+    `order_id`    BIGINT NOT NULL COMMENT '訂單ID',
+    `order_no`    VARCHAR(50) NULL COMMENT '訂單編號',
+    `customer_id` BIGINT NULL COMMENT '客戶ID',
+    `status`      TINYINT NOT NULL COMMENT '逾時時的訂單狀態：1=已下單，2=已付款，3=已出貨',
+    `order_time`  DATETIME(3) NOT NULL COMMENT '下單時間',
+    `overdue_at`  DATETIME(3) NOT NULL COMMENT '逾時時間點（下單時間加上該狀態的允許時長）',
+    `created_at`  DATETIME(3) NOT NULL COMMENT '提醒建立時間',
+    `resolved_at` DATETIME(3) NULL COMMENT '解除時間（訂單已離開該狀態）',
+    UNIQUE INDEX  uk_order_reminder (`order_id`, `status`),
+    INDEX         idx_reminder_resolved_status (`resolved_at`, `status`)
+) COMMENT = '未完成訂單提醒表';
+
+-- 更新 DBversion 記錄
+UPDATE key_values 
+SET `value` = '1.1.9', `updated_at` = CURRENT_TIMESTAMP(3)
+WHERE `key` = 'DBversion';
@@ -1,7 +1,7 @@
 -- MeowManager 資料庫架構檔案
--- 版本：1.1.3
--- 建立日期：2025-08-10
--- 說明：包含完整的資料庫架構，整合了版本 1.1.1 到 1.1.3 的所有變更
+-- 版本：1.1.18
+-- 建立日期：2026-10-17
+-- 說明：包含完整的資料庫架構，整合了版本 1.1.1 到 1.1.18 的所有變更
 
 -- 設定字符集
 SET NAMES utf8mb4;
@@ -26,6 +26,13 @@ CREATE TABLE key_values
     INDEX         idx_key (`key`)
 ) COMMENT = '系統配置參數存儲表';
 
+-- 創建 id_generators 表 - 主鍵區段配發表
+CREATE TABLE id_generators
+(
+    `gen_name`  VARCHAR(64) NOT NULL PRIMARY KEY COMMENT '配發器名稱（通常為表名）',
+    `gen_value` BIGINT NOT NULL COMMENT '目前已配發區段的上限'
+) COMMENT = '主鍵區段配發表';
+
 -- ==========================================
 -- 客戶管理相關表
 -- ==========================================
@@ -50,7 +57,8 @@ CREATE TABLE customers
     INDEX         idx_name (`name`),
     INDEX         idx_phone (`phone`),
     INDEX         idx_email (`email`),
-    INDEX         idx_status (`status`)
+    INDEX         idx_status (`status`),
+    INDEX         idx_customer_created_id (`created_at`, `id`)
 ) COMMENT = '客戶資料表';
 
 -- ==========================================
@@ -71,7 +79,8 @@ CREATE TABLE products
     `updated_at`  DATETIME(3) NULL COMMENT '最後更新時間',
     INDEX         idx_product_name (`name`),
     INDEX         idx_product_type (`type`),
-    INDEX         idx_product_status (`status`)
+    INDEX         idx_product_status (`status`),
+    INDEX         idx_product_created_id (`created_at`, `id`)
 ) COMMENT = '商品表';
 
 -- ==========================================
@@ -91,14 +100,25 @@ CREATE TABLE orders
     `final_amount`    DECIMAL(10,2) NULL COMMENT '實付金額',
     `payment_method`  TINYINT NULL COMMENT '支付方式：1=現金，2=信用卡，3=LINE Pay，4=銀行轉帳，5=行動支付，99=其他',
     `notes`           TEXT NULL COMMENT '備註（例如特殊需求、寵物名）',
+    `version`         BIGINT NOT NULL DEFAULT 0 COMMENT '樂觀鎖版本號',
     `created_at`      DATETIME(3) NULL COMMENT '建立時間',
     `updated_at`      DATETIME(3) NULL COMMENT '更新時間',
-    INDEX             idx_order_no (`no`),
+    UNIQUE INDEX      uk_order_no (`no`),
     INDEX             idx_customer_id (`customer_id`),
     INDEX             idx_order_time (`order_time`),
-    INDEX             idx_status (`status`)
+    INDEX             idx_status_order_time (`status`, `order_time`),
+    INDEX             idx_order_created_id (`created_at`, `id`)
 ) COMMENT = '訂單表';
 
+-- 創建 order_no_sequences 表 - 訂單編號每日序號表
+CREATE TABLE order_no_sequences
+(
+    `seq_date`   DATE NOT NULL PRIMARY KEY COMMENT '序號日期',
+    `next_value` BIGINT NOT NULL COMMENT '下一個尚未分配的序號',
+    `created_at` DATETIME(3) NULL COMMENT '建立時間',
+    `updated_at` DATETIME(3) NULL COMMENT '最後更新時間'
+) COMMENT = '訂單編號每日序號表';
+
 -- 創建 order_items 表 - 訂單明細表
 CREATE TABLE order_items
 (
@@ -135,6 +155,22 @@ CREATE TABLE order_payments
     INDEX            idx_paid_time (`paid_time`)
 ) COMMENT = '訂單支付表（支援多種支付方式）';
 
+-- 創建 order_reminders 表 - 未完成訂單提醒表
+CREATE TABLE order_reminders
+(
+    `id`          BIGINT AUTO_INCREMENT PRIMARY KEY COMMENT '提醒ID',
+    `order_id`    BIGINT NOT NULL COMMENT '訂單ID',
+    `order_no`    VARCHAR(50) NULL COMMENT '訂單編號',
+    `customer_id` BIGINT NULL COMMENT '客戶ID',
+    `status`      TINYINT NOT NULL COMMENT '逾時時的訂單狀態：1=已下單，2=已付款，3=已出貨',
+    `order_time`  DATETIME(3) NOT NULL COMMENT '下單時間',
+    `overdue_at`  DATETIME(3) NOT NULL COMMENT '逾時時間點（下單時間加上該狀態的允許時長）',
+    `created_at`  DATETIME(3) NOT NULL COMMENT '提醒建立時間',
+    `resolved_at` DATETIME(3) NULL COMMENT '解除時間（訂單已離開該狀態）',
+    UNIQUE INDEX  uk_order_reminder (`order_id`, `status`),
+    INDEX         idx_reminder_resolved_status (`resolved_at`, `status`)
+) COMMENT = '未完成訂單提醒表';
+
 -- ==========================================
 -- 庫存管理相關表
 -- ==========================================
@@ -145,30 +181,162 @@ CREATE TABLE stock
     `id`         BIGINT AUTO_INCREMENT PRIMARY KEY COMMENT '庫存ID',
     `product_id` BIGINT NULL COMMENT '商品ID',
     `qty`        INT NULL COMMENT '庫存數量',
+    `reserved_qty` INT NOT NULL DEFAULT 0 COMMENT '已預留數量（未出貨訂單保留，可用量 = 庫存數量 - 已預留數量）',
     `avg_cost`   DECIMAL(10,2) NULL COMMENT '平均成本',
     `total_cost` DECIMAL(10,2) NULL COMMENT '庫存價值',
+    `reorder_point` INT NULL COMMENT '再訂購點（庫存小於等於此值時需補貨）',
+    `safety_stock`  INT NULL COMMENT '安全庫存（庫存小於等於此值時為緊急）',
+    `version`    BIGINT NOT NULL DEFAULT 0 COMMENT '版本號（每次更新遞增）',
     `created_at` DATETIME(3) NULL COMMENT '建立時間',
     `updated_at` DATETIME(3) NULL COMMENT '最後更新時間',
-    INDEX        idx_stock_product (`product_id`)
+    UNIQUE INDEX uk_stock_product (`product_id`)
 ) COMMENT = '庫存快照表';
 
--- 創建 stock_movements 表 - 庫存異動表
+-- 創建 stock_reservations 表 - 庫存預留表
+CREATE TABLE stock_reservations
+(
+    `id`            BIGINT AUTO_INCREMENT PRIMARY KEY COMMENT '預留ID',
+    `order_id`      BIGINT NOT NULL COMMENT '訂單ID',
+    `order_item_id` BIGINT NOT NULL COMMENT '訂單明細ID',
+    `product_id`    BIGINT NOT NULL COMMENT '商品ID',
+    `qty`           INT NOT NULL COMMENT '預留數量',
+    `expires_at`    DATETIME(3) NULL COMMENT '到期時間（已付款訂單為空，不會到期）',
+    `created_at`    DATETIME(3) NULL COMMENT '建立時間',
+    `updated_at`    DATETIME(3) NULL COMMENT '最後更新時間',
+    UNIQUE INDEX    uk_reservation_order_item (`order_item_id`),
+    INDEX           idx_reservation_order (`order_id`),
+    INDEX           idx_reservation_expires (`expires_at`)
+) COMMENT = '庫存預留表（已下單、已付款訂單的明細預留）';
+
+-- 創建 stock_movements 表 - 庫存異動表（依建立時間按月分區）
 CREATE TABLE stock_movements
 (
-    `id`            BIGINT AUTO_INCREMENT PRIMARY KEY COMMENT '異動紀錄ID',
+    `id`            BIGINT AUTO_INCREMENT COMMENT '異動紀錄ID',
     `stock_id`      BIGINT NULL COMMENT '對應 stock.id',
     `product_id`    BIGINT NULL COMMENT '商品ID（冗餘欄位，方便查詢）',
+    `order_id`      BIGINT NULL COMMENT '訂單ID（訂單出貨扣庫存、取消回補時）',
     `movement_type` TINYINT NULL COMMENT '異動類型：1=入庫、2=出庫',
     `qty`           INT NULL COMMENT '異動數量（永遠正數）',
     `unit_cost`     DECIMAL(10,2) NULL COMMENT '單位成本',
     `total_cost`    DECIMAL(10,2) NULL COMMENT '異動總成本',
-    `created_at`    DATETIME(3) NULL COMMENT '建立時間',
+    `created_at`    DATETIME(3) NOT NULL COMMENT '建立時間',
     `updated_at`    DATETIME(3) NULL COMMENT '最後更新時間',
-    INDEX           idx_movement_stock (`stock_id`),
-    INDEX           idx_movement_product (`product_id`),
-    INDEX           idx_movement_type (`movement_type`),
-    INDEX           idx_movement_created (`created_at`)
-) COMMENT = '庫存異動表';
+    PRIMARY KEY (`id`, `created_at`),
+    INDEX           idx_movement_stock_created (`stock_id`, `created_at`),
+    INDEX           idx_movement_product_created (`product_id`, `created_at`),
+    INDEX           idx_movement_type_created (`movement_type`, `created_at`),
+    INDEX           idx_movement_created_id (`created_at`, `id`),
+    INDEX           idx_movement_order (`order_id`)
+) COMMENT = '庫存異動表'
+PARTITION BY RANGE COLUMNS (`created_at`)
+(
+    PARTITION p_history VALUES LESS THAN ('2025-01-01'),
+    PARTITION p202501 VALUES LESS THAN ('2025-02-01'),
+    PARTITION p202502 VALUES LESS THAN ('2025-03-01'),
+    PARTITION p202503 VALUES LESS THAN ('2025-04-01'),
+    PARTITION p202504 VALUES LESS THAN ('2025-05-01'),
+    PARTITION p202505 VALUES LESS THAN ('2025-06-01'),
+    PARTITION p202506 VALUES LESS THAN ('2025-07-01'),
+    PARTITION p202507 VALUES LESS THAN ('2025-08-01'),
+    PARTITION p202508 VALUES LESS THAN ('2025-09-01'),
+    PARTITION p202509 VALUES LESS THAN ('2025-10-01'),
+    PARTITION p202510 VALUES LESS THAN ('2025-11-01'),
+    PARTITION p202511 VALUES LESS THAN ('2025-12-01'),
+    PARTITION p202512 VALUES LESS THAN ('2026-01-01'),
+    PARTITION p202601 VALUES LESS THAN ('2026-02-01'),
+    PARTITION p202602 VALUES LESS THAN ('2026-03-01'),
+    PARTITION p202603 VALUES LESS THAN ('2026-04-01'),
+    PARTITION p202604 VALUES LESS THAN ('2026-05-01'),
+    PARTITION p202605 VALUES LESS THAN ('2026-06-01'),
+    PARTITION p202606 VALUES LESS THAN ('2026-07-01'),
+    PARTITION p202607 VALUES LESS THAN ('2026-08-01'),
+    PARTITION p202608 VALUES LESS THAN ('2026-09-01'),
+    PARTITION p202609 VALUES LESS THAN ('2026-10-01'),
+    PARTITION p202610 VALUES LESS THAN ('2026-11-01'),
+    PARTITION p202611 VALUES LESS THAN ('2026-12-01'),
+    PARTITION p202612 VALUES LESS THAN ('2027-01-01'),
+    PARTITION p202701 VALUES LESS THAN ('2027-02-01'),
+    PARTITION p202702 VALUES LESS THAN ('2027-03-01'),
+    PARTITION p202703 VALUES LESS THAN ('2027-04-01'),
+    PARTITION pmax VALUES LESS THAN (MAXVALUE)
+);
+
+-- 創建 stock_checkpoints 表 - 庫存檢查點表
+CREATE TABLE stock_checkpoints
+(
+    `id`            BIGINT AUTO_INCREMENT PRIMARY KEY COMMENT '檢查點ID',
+    `product_id`    BIGINT NOT NULL COMMENT '商品ID',
+    `checkpoint_at` DATETIME(3) NOT NULL COMMENT '檢查點時間（包含此時間之前的全部異動）',
+    `qty`           INT NOT NULL COMMENT '庫存數量',
+    `avg_cost`      DECIMAL(10,2) NOT NULL COMMENT '平均成本',
+    `total_cost`    DECIMAL(14,2) NOT NULL COMMENT '庫存價值',
+    `created_at`    DATETIME(3) NOT NULL COMMENT '建立時間',
+    UNIQUE INDEX    uk_checkpoint_product_at (`product_id`, `checkpoint_at`),
+    INDEX           idx_checkpoint_at (`checkpoint_at`)
+) COMMENT = '庫存檢查點表（每月月初的各商品庫存，供歷史時點查詢重播起點）';
+
+-- 創建 stock_order_movements 表 - 訂單庫存異動保留表
+CREATE TABLE stock_order_movements
+(
+    `id`            BIGINT NOT NULL PRIMARY KEY COMMENT '原異動紀錄ID（stock_movements.id）',
+    `order_id`      BIGINT NOT NULL COMMENT '訂單ID',
+    `product_id`    BIGINT NULL COMMENT '商品ID',
+    `movement_type` TINYINT NULL COMMENT '異動類型：1=入庫、2=出庫',
+    `qty`           INT NULL COMMENT '異動數量（永遠正數）',
+    `unit_cost`     DECIMAL(10,2) NULL COMMENT '單位成本',
+    `created_at`    DATETIME(3) NOT NULL COMMENT '原異動建立時間',
+    INDEX           idx_order_movement_order (`order_id`)
+) COMMENT = '訂單庫存異動保留表（壓縮刪除分區前保留帶訂單ID的異動，供取消已出貨訂單時回補）';
+
+-- 創建 stock_movement_monthly_summaries 表 - 庫存異動月彙總表
+CREATE TABLE stock_movement_monthly_summaries
+(
+    `id`             BIGINT AUTO_INCREMENT PRIMARY KEY COMMENT '彙總ID',
+    `summary_month`  DATE NOT NULL COMMENT '彙總月份（該月1日）',
+    `product_id`     BIGINT NOT NULL COMMENT '商品ID',
+    `movement_type`  TINYINT NOT NULL COMMENT '異動類型：1=入庫、2=出庫',
+    `movement_count` BIGINT NOT NULL DEFAULT 0 COMMENT '異動筆數',
+    `total_qty`      BIGINT NOT NULL DEFAULT 0 COMMENT '異動數量合計',
+    `total_cost`     DECIMAL(14,2) NOT NULL DEFAULT 0 COMMENT '異動總成本合計',
+    `created_at`     DATETIME(3) NOT NULL COMMENT '建立時間',
+    `updated_at`     DATETIME(3) NOT NULL COMMENT '最後更新時間',
+    UNIQUE INDEX     uk_movement_summary (`summary_month`, `product_id`, `movement_type`),
+    INDEX            idx_movement_summary_product (`product_id`, `summary_month`)
+) COMMENT = '庫存異動月彙總表（已壓縮月份的異動明細彙總）';
+
+-- ==========================================
+-- 報表統計相關表
+-- ==========================================
+
+-- 創建 daily_order_stats 表 - 每日訂單彙總表
+CREATE TABLE daily_order_stats
+(
+    `id`              BIGINT AUTO_INCREMENT PRIMARY KEY COMMENT '彙總ID',
+    `stat_date`       DATE NOT NULL COMMENT '統計日期（訂單建立日期）',
+    `status`          TINYINT NOT NULL COMMENT '訂單狀態（與 orders.status 相同編碼，-1 表示未指定）',
+    `payment_method`  TINYINT NOT NULL COMMENT '支付方式（與 orders.payment_method 相同編碼，-1 表示未指定）',
+    `order_count`     BIGINT NOT NULL DEFAULT 0 COMMENT '訂單數',
+    `total_amount`    DECIMAL(14,2) NOT NULL DEFAULT 0 COMMENT '訂單總額合計',
+    `discount_amount` DECIMAL(14,2) NOT NULL DEFAULT 0 COMMENT '折扣金額合計',
+    `final_amount`    DECIMAL(14,2) NOT NULL DEFAULT 0 COMMENT '實付金額合計',
+    `updated_at`      DATETIME(3) NULL COMMENT '最後更新時間',
+    UNIQUE INDEX      uk_daily_order_stats (`stat_date`, `status`, `payment_method`)
+) COMMENT = '每日訂單彙總表';
+
+-- 創建 daily_order_item_stats 表 - 每日商品銷售彙總表
+CREATE TABLE daily_order_item_stats
+(
+    `id`           BIGINT AUTO_INCREMENT PRIMARY KEY COMMENT '彙總ID',
+    `stat_date`    DATE NOT NULL COMMENT '統計日期（明細建立日期）',
+    `product_type` TINYINT NOT NULL COMMENT '商品類型（與 order_items.product_type 相同編碼，-1 表示未指定）',
+    `product_id`   BIGINT NOT NULL COMMENT '商品ID（0 表示未指定）',
+    `item_count`   BIGINT NOT NULL DEFAULT 0 COMMENT '明細筆數',
+    `total_qty`    BIGINT NOT NULL DEFAULT 0 COMMENT '銷售數量合計',
+    `total_amount` DECIMAL(14,2) NOT NULL DEFAULT 0 COMMENT '銷售金額合計（qty * unit_price）',
+    `updated_at`   DATETIME(3) NULL COMMENT '最後更新時間',
+    UNIQUE INDEX   uk_daily_order_item_stats (`stat_date`, `product_type`, `product_id`),
+    INDEX          idx_item_stats_product (`product_id`)
+) COMMENT = '每日商品銷售彙總表';
 
 -- ==========================================
 -- 初始化資料
@@ -176,4 +344,10 @@ CREATE TABLE stock_movements
 
 -- 插入 DBversion 記錄
 INSERT INTO key_values (`key`, `value`, `description`)
-VALUES ('DBversion', '1.1.3', '資料庫架構版本');
+VALUES ('DBversion', '1.1.18', '資料庫架構版本');
+
+-- 插入主鍵區段配發初始值（區段大小 50）
+INSERT INTO id_generators (`gen_name`, `gen_value`)
+VALUES ('orders', 50),
+       ('order_items', 50),
+       ('stock_movements', 50);
@@ -108,6 +108,16 @@ public class ErrorCode {
      * 訂單總額驗證失敗
      */
     public static final String ORDER_TOTAL_AMOUNT_INVALID = "ORDER_TOTAL_AMOUNT_INVALID";
+
+    /**
+     * 訂單狀態轉換不合法
+     */
+    public static final String ORDER_INVALID_STATUS_TRANSITION = "ORDER_INVALID_STATUS_TRANSITION";
+
+    /**
+     * 訂單已被其他人修改
+     */
+    public static final String ORDER_VERSION_CONFLICT = "ORDER_VERSION_CONFLICT";
     //endregion
 
     //region 構造函數
@@ -49,6 +49,13 @@ public abstract class BaseController<T, ID> {
         return ResponseEntity.ok(ApiResponse.success(BasePageResponse.of(page)));
     }
 
+    /**
+     * 分頁響應包裝（已組裝好的分頁響應，例如游標分頁）
+     */
+    protected <R> ResponseEntity<ApiResponse<BasePageResponse<R>>> pageSuccess(BasePageResponse<R> page) {
+        return ResponseEntity.ok(ApiResponse.success(page));
+    }
+
     /**
      * 創建Pageable對象的通用方法
      */
@@ -0,0 +1,27 @@
+package erp.common.converter;
+
+import erp.common.money.Money;
+import jakarta.persistence.AttributeConverter;
+import jakarta.persistence.Converter;
+import org.hibernate.annotations.Immutable;
+
+import java.math.BigDecimal;
+
+/**
+ * 金額轉換器
+ * 將 Money 對應到 DECIMAL(10,2) 欄位；Money 不可變，Hibernate 無需為髒檢查複製快照
+ */
+@Converter(autoApply = true)
+@Immutable
+public class MoneyConverter implements AttributeConverter<Money, BigDecimal> {
+
+    @Override
+    public BigDecimal convertToDatabaseColumn(Money attribute) {
+        return Money.toDecimal(attribute);
+    }
+
+    @Override
+    public Money convertToEntityAttribute(BigDecimal dbData) {
+        return Money.ofNullable(dbData);
+    }
+}
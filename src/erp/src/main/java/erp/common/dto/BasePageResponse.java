@@ -6,10 +6,13 @@ import lombok.AllArgsConstructor;
 import org.springframework.data.domain.Page;
 
 import java.util.List;
+import java.util.function.Function;
 
 /**
  * 基礎分頁響應DTO
  * 解決頁碼1-based轉換問題，並簡化不必要的字段
+ * 游標分頁時不提供頁碼與總數（為 null），改以 nextCursor 續讀
+ * 不計算總數（Slice）時不提供總數與總頁數（為 null），以 last 判斷是否還有下一頁
  */
 @Data
 @NoArgsConstructor
@@ -24,7 +27,7 @@ public class BasePageResponse<T> {
     /**
      * 當前頁碼（1-based，給前端使用）
      */
-    private int currentPage;
+    private Integer currentPage;
     
     /**
      * 每頁大小
@@ -34,12 +37,12 @@ public class BasePageResponse<T> {
     /**
      * 總記錄數
      */
-    private long totalElements;
+    private Long totalElements;
     
     /**
      * 總頁數
      */
-    private int totalPages;
+    private Integer totalPages;
     
     /**
      * 是否第一頁
@@ -61,6 +64,11 @@ public class BasePageResponse<T> {
      */
     private boolean empty;
     
+    /**
+     * 下一頁游標（僅游標分頁時提供，null 表示沒有下一頁）
+     */
+    private String nextCursor;
+    
     /**
      * 從Spring Page對象轉換為基礎分頁響應
      * 自動處理0-based到1-based的頁碼轉換
@@ -78,4 +86,53 @@ public class BasePageResponse<T> {
         response.setEmpty(page.isEmpty());
         return response;
     }
+    
+    /**
+     * 建立不計算總數的分頁響應
+     * @param content 當前頁資料
+     * @param currentPage 當前頁碼（1-based）
+     * @param pageSize 每頁大小
+     * @param hasNext 是否還有下一頁
+     * @param totalElements 快取的總數（可為null）
+     */
+    public static <T> BasePageResponse<T> ofSlice(List<T> content, int currentPage, int pageSize,
+                                                  boolean hasNext, Long totalElements) {
+        BasePageResponse<T> response = new BasePageResponse<>();
+        response.setContent(content);
+        response.setCurrentPage(currentPage);
+        response.setPageSize(pageSize);
+        if (totalElements != null) {
+            response.setTotalElements(totalElements);
+            response.setTotalPages((int) ((totalElements + pageSize - 1) / pageSize));
+        }
+        response.setFirst(currentPage == 1);
+        response.setLast(!hasNext);
+        response.setNumberOfElements(content.size());
+        response.setEmpty(content.isEmpty());
+        return response;
+    }
+    
+    /**
+     * 建立游標分頁響應
+     */
+    public static <T> BasePageResponse<T> ofCursor(List<T> content, int pageSize, String nextCursor, boolean first) {
+        BasePageResponse<T> response = new BasePageResponse<>();
+        response.setContent(content);
+        response.setPageSize(pageSize);
+        response.setFirst(first);
+        response.setLast(nextCursor == null);
+        response.setNumberOfElements(content.size());
+        response.setEmpty(content.isEmpty());
+        response.setNextCursor(nextCursor);
+        return response;
+    }
+    
+    /**
+     * 轉換內容類型，保留分頁資訊
+     */
+    public <R> BasePageResponse<R> map(Function<? super T, ? extends R> converter) {
+        List<R> mappedContent = content.stream().<R>map(converter).toList();
+        return new BasePageResponse<>(mappedContent, currentPage, pageSize, totalElements, totalPages,
+                first, last, numberOfElements, empty, nextCursor);
+    }
 }
\ No newline at end of file
@@ -1,5 +1,6 @@
 package erp.common.dto;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 import lombok.AllArgsConstructor;
@@ -24,6 +25,68 @@ public class BasePageableRequest {
      */
     private Integer size = 20;
     
+    /**
+     * 游標分頁續讀標記
+     * 為 null 時使用頁碼分頁；傳空字串取第一頁，之後帶入回應中的 nextCursor
+     */
+    private String cursor;
+    
+    /**
+     * 是否計算總數，預設為 true
+     * 設為 false 時不執行 COUNT 查詢，回應只提供 hasNext（last），不提供總數與總頁數
+     */
+    private Boolean withTotal = true;
+    
+    /**
+     * 不計算總數時，第一頁是否附上快取的總數
+     * 總數在短時間內重複使用，可能與實際資料略有落差
+     */
+    private Boolean cachedTotal = false;
+    
+    public BasePageableRequest(Integer page, Integer size) {
+        this.page = page;
+        this.size = size;
+    }
+    
+    /**
+     * 是否使用游標分頁
+     * 
+     * @return 是否使用游標分頁
+     */
+    @JsonIgnore
+    public boolean isCursorMode() {
+        return cursor != null;
+    }
+    
+    /**
+     * 是否使用不計算總數的分頁（Slice）
+     * 
+     * @return 是否略過 COUNT 查詢
+     */
+    @JsonIgnore
+    public boolean isSliceMode() {
+        return Boolean.FALSE.equals(withTotal);
+    }
+    
+    /**
+     * 是否需要附上快取的總數
+     * 
+     * @return 是否附上快取的總數
+     */
+    @JsonIgnore
+    public boolean isCachedTotalRequested() {
+        return Boolean.TRUE.equals(cachedTotal);
+    }
+    
+    /**
+     * 取得有效的每頁大小
+     * 
+     * @return 每頁大小，至少為1
+     */
+    public int resolvePageSize() {
+        return (size != null && size > 0) ? size : 20;
+    }
+    
     /**
      * 轉換為Spring的Pageable對象
      * 將1-based頁碼轉換為0-based
@@ -34,8 +97,8 @@ public class BasePageableRequest {
         // 確保頁碼至少為1
         int pageNumber = (page != null && page > 0) ? page - 1 : 0;
         // 確保每頁大小至少為1
-        int pageSize = (size != null && size > 0) ? size : 20;
+        int pageSize = resolvePageSize();
         
         return PageRequest.of(pageNumber, pageSize);
     }
-}
\ No newline at end of file
+}
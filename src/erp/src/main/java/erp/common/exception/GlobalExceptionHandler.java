@@ -5,6 +5,7 @@ import erp.common.dto.ApiResponse;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
 import org.springframework.validation.BindException;
 import org.springframework.validation.FieldError;
 import org.springframework.web.bind.MethodArgumentNotValidException;
@@ -19,6 +20,26 @@ import java.util.Map;
 @Slf4j
 public class GlobalExceptionHandler {
 
+    /**
+     * 處理訂單併發修改衝突
+     */
+    @ExceptionHandler(OrderConflictException.class)
+    public ResponseEntity<ApiResponse<Object>> handleOrderConflictException(OrderConflictException e) {
+        log.warn("訂單修改衝突: {} - {}", e.getErrorCode(), e.getMessage());
+        return ResponseEntity.status(HttpStatus.CONFLICT)
+                .body(ApiResponse.error(e.getMessage(), e.getErrorCode()));
+    }
+
+    /**
+     * 處理樂觀鎖版本衝突（JPA 寫入時版本號不符）
+     */
+    @ExceptionHandler(ObjectOptimisticLockingFailureException.class)
+    public ResponseEntity<ApiResponse<Object>> handleOptimisticLockingFailure(ObjectOptimisticLockingFailureException e) {
+        log.warn("樂觀鎖版本衝突: {}", e.getMessage());
+        return ResponseEntity.status(HttpStatus.CONFLICT)
+                .body(ApiResponse.error("資料已被其他人修改，請重新載入後再試", ErrorCode.ORDER_VERSION_CONFLICT));
+    }
+
     /**
      * 處理業務邏輯異常（含客戶異常）
      */
@@ -0,0 +1,11 @@
+package erp.common.exception;
+
+/**
+ * 訂單併發修改衝突異常
+ * 狀態或版本號與預期不符時丟出，由全域處理器回應 409
+ */
+public class OrderConflictException extends OrderException {
+    public OrderConflictException(String message, String errorCode) {
+        super(message, errorCode);
+    }
+}
@@ -0,0 +1,198 @@
+package erp.common.money;
+
+import com.fasterxml.jackson.annotation.JsonCreator;
+import com.fasterxml.jackson.annotation.JsonValue;
+
+import java.io.Serializable;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.function.Function;
+import java.util.function.ToIntFunction;
+
+/**
+ * 金額值物件
+ * 以 long 儲存最小單位（分），對應資料庫 DECIMAL(10,2) 欄位；
+ * 所有運算皆為精確整數運算，溢位時拋出 ArithmeticException
+ */
+public final class Money implements Comparable<Money>, Serializable {
+
+    /**
+     * 小數位數
+     */
+    public static final int SCALE = 2;
+
+    /**
+     * 零元
+     */
+    public static final Money ZERO = new Money(0L);
+
+    private final long minorUnits;
+
+    private Money(long minorUnits) {
+        this.minorUnits = minorUnits;
+    }
+
+    //region 建立
+    /**
+     * 以最小單位（分）建立金額
+     * @param minorUnits 最小單位數量
+     * @return 金額
+     */
+    public static Money ofMinor(long minorUnits) {
+        return minorUnits == 0L ? ZERO : new Money(minorUnits);
+    }
+
+    /**
+     * 由 BigDecimal 建立金額，小數超過兩位或超出範圍時拋出 IllegalArgumentException
+     * @param amount 金額
+     * @return 金額
+     */
+    @JsonCreator(mode = JsonCreator.Mode.DELEGATING)
+    public static Money of(BigDecimal amount) {
+        if (amount == null) {
+            throw new IllegalArgumentException("金額不能為空");
+        }
+        try {
+            return ofMinor(amount.setScale(SCALE, RoundingMode.UNNECESSARY).unscaledValue().longValueExact());
+        } catch (ArithmeticException e) {
+            throw new IllegalArgumentException("金額最多兩位小數且不能超出範圍: " + amount, e);
+        }
+    }
+
+    /**
+     * 由 BigDecimal 建立金額，null 時回傳 null
+     * @param amount 金額
+     * @return 金額或 null
+     */
+    public static Money ofNullable(BigDecimal amount) {
+        return amount != null ? of(amount) : null;
+    }
+    //endregion
+
+    //region 運算
+    public Money plus(Money other) {
+        return ofMinor(Math.addExact(minorUnits, other.minorUnits));
+    }
+
+    public Money minus(Money other) {
+        return ofMinor(Math.subtractExact(minorUnits, other.minorUnits));
+    }
+
+    public Money times(long multiplier) {
+        return ofMinor(Math.multiplyExact(minorUnits, multiplier));
+    }
+
+    public Money negate() {
+        return ofMinor(Math.negateExact(minorUnits));
+    }
+
+    /**
+     * 除以整數並四捨五入到分
+     * @param divisor 除數（不可為 0）
+     * @return 金額
+     */
+    public Money dividedBy(long divisor) {
+        return ofMinor(divideHalfUp(minorUnits, divisor));
+    }
+
+    /**
+     * 加總明細金額（單價 × 數量）
+     * 以 long 累加，每筆明細不建立任何物件，只在最後建立一個結果
+     * @param lines 明細
+     * @param unitPrice 取單價（為 null 的明細不計）
+     * @param qty 取數量
+     * @return 合計金額
+     */
+    public static <T> Money sumOfLines(Iterable<T> lines, Function<? super T, Money> unitPrice,
+                                       ToIntFunction<? super T> qty) {
+        long total = 0L;
+        for (T line : lines) {
+            Money price = unitPrice.apply(line);
+            if (price != null) {
+                total = Math.addExact(total, Math.multiplyExact(price.minorUnits, (long) qty.applyAsInt(line)));
+            }
+        }
+        return ofMinor(total);
+    }
+
+    /**
+     * 加權平均單價：(a × aQty + b × bQty) / (aQty + bQty)，四捨五入到分
+     * @return 平均單價，總數量為 0 時回傳零元
+     */
+    public static Money weightedAverage(Money a, long aQty, Money b, long bQty) {
+        long totalQty = Math.addExact(aQty, bQty);
+        if (totalQty == 0L) {
+            return ZERO;
+        }
+        long total = Math.addExact(Math.multiplyExact(a.minorUnits, aQty), Math.multiplyExact(b.minorUnits, bQty));
+        return ofMinor(divideHalfUp(total, totalQty));
+    }
+
+    private static long divideHalfUp(long dividend, long divisor) {
+        long quotient = dividend / divisor;
+        long remainder = dividend % divisor;
+        if (Math.abs(remainder) * 2 >= Math.abs(divisor)) {
+            quotient += (dividend ^ divisor) < 0 ? -1 : 1;
+        }
+        return quotient;
+    }
+    //endregion
+
+    //region 查詢
+    public long minorUnits() {
+        return minorUnits;
+    }
+
+    public int signum() {
+        return Long.signum(minorUnits);
+    }
+
+    public boolean isZero() {
+        return minorUnits == 0L;
+    }
+
+    public boolean isNegative() {
+        return minorUnits < 0L;
+    }
+    //endregion
+
+    //region 轉換
+    /**
+     * 轉為兩位小數的 BigDecimal，JSON 序列化時輸出為數字
+     * @return 金額
+     */
+    @JsonValue
+    public BigDecimal toBigDecimal() {
+        return BigDecimal.valueOf(minorUnits, SCALE);
+    }
+
+    /**
+     * 轉為 BigDecimal，null 時回傳 null
+     * @param money 金額
+     * @return 金額或 null
+     */
+    public static BigDecimal toDecimal(Money money) {
+        return money != null ? money.toBigDecimal() : null;
+    }
+    //endregion
+
+    @Override
+    public int compareTo(Money other) {
+        return Long.compare(minorUnits, other.minorUnits);
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        return this == o || (o instanceof Money other && minorUnits == other.minorUnits);
+    }
+
+    @Override
+    public int hashCode() {
+        return Long.hashCode(minorUnits);
+    }
+
+    @Override
+    public String toString() {
+        return toBigDecimal().toPlainString();
+    }
+}
@@ -0,0 +1,24 @@
+package erp.common.money;
+
+import java.math.BigDecimal;
+
+/**
+ * MapStruct 金額轉換方法
+ * 供各映射器以 uses 引用，處理 DTO 的 BigDecimal 與實體的 Money 互轉
+ */
+public final class MoneyMapper {
+
+    public static Money toMoney(BigDecimal amount) {
+        return Money.ofNullable(amount);
+    }
+
+    public static BigDecimal toDecimal(Money money) {
+        return Money.toDecimal(money);
+    }
+
+    //region 構造函數
+    private MoneyMapper() {
+        // 私有構造函數，防止實例化
+    }
+    //endregion
+}
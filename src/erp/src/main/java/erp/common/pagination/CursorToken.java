@@ -0,0 +1,56 @@
+package erp.common.pagination;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+
+/**
+ * 游標分頁續讀標記
+ * 以 (created_at, id) 作為排序鍵，對外編碼為不透明字串
+ */
+@Getter
+@AllArgsConstructor
+public class CursorToken {
+
+    private static final String SEPARATOR = "|";
+
+    /**
+     * 上一頁最後一筆的建立時間
+     */
+    private final LocalDateTime createdAt;
+
+    /**
+     * 上一頁最後一筆的ID
+     */
+    private final Long id;
+
+    /**
+     * 編碼為不透明字串
+     * @return 游標字串
+     */
+    public String encode() {
+        String raw = createdAt + SEPARATOR + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * 從游標字串解碼
+     * @param cursor 游標字串
+     * @return 續讀標記
+     * @throws IllegalArgumentException 游標格式不正確時
+     */
+    public static CursorToken decode(String cursor) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            int index = raw.lastIndexOf(SEPARATOR);
+            return new CursorToken(LocalDateTime.parse(raw.substring(0, index)),
+                    Long.parseLong(raw.substring(index + 1)));
+        } catch (IllegalArgumentException | IndexOutOfBoundsException | DateTimeParseException e) {
+            throw new IllegalArgumentException("無效的分頁游標: " + cursor);
+        }
+    }
+}
@@ -0,0 +1,84 @@
+package erp.common.pagination;
+
+import erp.common.dto.BasePageResponse;
+import erp.common.dto.BasePageableRequest;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Path;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * 游標（keyset）分頁查詢執行器
+ * 依 (createdAt DESC, id DESC) 排序，以 WHERE 條件取代 OFFSET，且不執行 COUNT；
+ * 實體需具備 createdAt 與 id 屬性，並由 (created_at, id) 複合索引支撐
+ */
+@Component
+@RequiredArgsConstructor
+public class KeysetPaginationExecutor {
+
+    private static final String CREATED_AT = "createdAt";
+    private static final String ID = "id";
+
+    private final EntityManager entityManager;
+
+    /**
+     * 查詢游標之後的一頁資料
+     * createdAt 為空的資料無法作為排序鍵，不會出現在游標分頁結果中
+     * @param entityClass 實體類型
+     * @param specification 篩選條件（可為null）
+     * @param request 分頁請求（cursor 為空字串表示第一頁）
+     * @param cursorExtractor 從實體取得續讀標記
+     * @return 分頁響應，nextCursor 為 null 表示沒有下一頁
+     */
+    public <T> BasePageResponse<T> findPage(Class<T> entityClass, Specification<T> specification,
+                                            BasePageableRequest request,
+                                            Function<T, CursorToken> cursorExtractor) {
+        int pageSize = request.resolvePageSize();
+        String cursor = request.getCursor();
+        CursorToken after = (cursor == null || cursor.isEmpty()) ? null : CursorToken.decode(cursor);
+
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<T> query = cb.createQuery(entityClass);
+        Root<T> root = query.from(entityClass);
+        Path<LocalDateTime> createdAt = root.get(CREATED_AT);
+        Path<Long> id = root.get(ID);
+
+        List<Predicate> predicates = new ArrayList<>();
+        if (specification != null) {
+            Predicate predicate = specification.toPredicate(root, query, cb);
+            if (predicate != null) {
+                predicates.add(predicate);
+            }
+        }
+        predicates.add(cb.isNotNull(createdAt));
+        if (after != null) {
+            predicates.add(cb.or(
+                    cb.lessThan(createdAt, after.getCreatedAt()),
+                    cb.and(cb.equal(createdAt, after.getCreatedAt()), cb.lessThan(id, after.getId()))));
+        }
+
+        query.select(root)
+                .where(predicates.toArray(new Predicate[0]))
+                .orderBy(cb.desc(createdAt), cb.desc(id));
+
+        // 多取一筆判斷是否還有下一頁
+        List<T> rows = entityManager.createQuery(query)
+                .setMaxResults(pageSize + 1)
+                .getResultList();
+        boolean hasNext = rows.size() > pageSize;
+        List<T> content = hasNext ? new ArrayList<>(rows.subList(0, pageSize)) : rows;
+        String nextCursor = hasNext ? cursorExtractor.apply(content.get(content.size() - 1)).encode() : null;
+
+        return BasePageResponse.ofCursor(content, pageSize, nextCursor, after == null);
+    }
+}
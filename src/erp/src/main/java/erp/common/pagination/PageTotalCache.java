@@ -0,0 +1,47 @@
+package erp.common.pagination;
+
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.LongSupplier;
+
+/**
+ * 分頁總數快取
+ * 以「實體 + 篩選條件」為鍵，短時間內重複使用 COUNT 結果，供不計算總數的第一頁附上概略總數
+ */
+@Component
+public class PageTotalCache {
+
+    private static final long TTL_MILLIS = 60_000L;
+    private static final int MAX_ENTRIES = 1_000;
+
+    private final Map<String, CachedTotal> totals = new ConcurrentHashMap<>();
+
+    /**
+     * 取得快取的總數，不存在或已過期時重新計算
+     * @param key 快取鍵
+     * @param counter 實際計算總數的查詢
+     * @return 總數
+     */
+    public long getOrCount(String key, LongSupplier counter) {
+        long now = System.currentTimeMillis();
+        CachedTotal cached = totals.get(key);
+        if (cached != null && cached.expiresAt() > now) {
+            return cached.total();
+        }
+
+        long total = counter.getAsLong();
+        if (totals.size() >= MAX_ENTRIES) {
+            totals.values().removeIf(entry -> entry.expiresAt() <= now);
+            if (totals.size() >= MAX_ENTRIES) {
+                totals.clear();
+            }
+        }
+        totals.put(key, new CachedTotal(total, now + TTL_MILLIS));
+        return total;
+    }
+
+    private record CachedTotal(long total, long expiresAt) {
+    }
+}
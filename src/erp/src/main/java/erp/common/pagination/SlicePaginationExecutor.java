@@ -0,0 +1,128 @@
+package erp.common.pagination;
+
+import erp.common.dto.BasePageResponse;
+import erp.common.dto.BasePageableRequest;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Order;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 不計算總數的分頁（Slice）查詢執行器
+ * 多取一筆判斷是否還有下一頁，不執行 COUNT；
+ * 需要時第一頁可由 PageTotalCache 附上快取的總數
+ */
+@Component
+@RequiredArgsConstructor
+public class SlicePaginationExecutor {
+
+    private static final String ID = "id";
+
+    private final EntityManager entityManager;
+    private final PageTotalCache pageTotalCache;
+
+    /**
+     * 查詢一頁資料（不計算總數）
+     * @param entityClass 實體類型
+     * @param specification 篩選條件（可為null）
+     * @param request 分頁請求
+     * @param sort 排序（未排序時依 id 遞增）
+     * @param filterKey 篩選條件的快取鍵（僅在要求快取總數時使用）
+     * @return 分頁響應，totalElements 僅在要求快取總數且為第一頁時提供
+     */
+    public <T> BasePageResponse<T> findSlice(Class<T> entityClass, Specification<T> specification,
+                                             BasePageableRequest request, Sort sort, Object filterKey) {
+        return findSlice(entityClass, specification, request.toPageable(), sort,
+                request.isCachedTotalRequested(), filterKey);
+    }
+
+    /**
+     * 查詢一頁資料（不計算總數）
+     * @param entityClass 實體類型
+     * @param specification 篩選條件（可為null）
+     * @param pageable 分頁參數（0-based）
+     * @param sort 排序（未排序時依 id 遞增）
+     * @param cachedTotal 第一頁是否附上快取的總數
+     * @param filterKey 篩選條件的快取鍵
+     * @return 分頁響應
+     */
+    public <T> BasePageResponse<T> findSlice(Class<T> entityClass, Specification<T> specification,
+                                             Pageable pageable, Sort sort,
+                                             boolean cachedTotal, Object filterKey) {
+        int pageSize = pageable.getPageSize();
+
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<T> query = cb.createQuery(entityClass);
+        Root<T> root = query.from(entityClass);
+        Predicate predicate = toPredicate(specification, root, query, cb);
+        if (predicate != null) {
+            query.where(predicate);
+        }
+        query.select(root).orderBy(toOrders(sort, root, cb));
+
+        // 多取一筆判斷是否還有下一頁
+        List<T> rows = entityManager.createQuery(query)
+                .setFirstResult((int) pageable.getOffset())
+                .setMaxResults(pageSize + 1)
+                .getResultList();
+        boolean hasNext = rows.size() > pageSize;
+        List<T> content = hasNext ? new ArrayList<>(rows.subList(0, pageSize)) : rows;
+
+        Long total = null;
+        if (cachedTotal && pageable.getPageNumber() == 0) {
+            String key = entityClass.getName() + ":" + filterKey;
+            total = pageTotalCache.getOrCount(key, () -> count(entityClass, specification));
+        }
+        return BasePageResponse.ofSlice(content, pageable.getPageNumber() + 1, pageSize, hasNext, total);
+    }
+
+    /**
+     * 計算符合條件的總數
+     */
+    private <T> long count(Class<T> entityClass, Specification<T> specification) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Long> query = cb.createQuery(Long.class);
+        Root<T> root = query.from(entityClass);
+        Predicate predicate = toPredicate(specification, root, query, cb);
+        if (predicate != null) {
+            query.where(predicate);
+        }
+        query.select(cb.count(root));
+        return entityManager.createQuery(query).getSingleResult();
+    }
+
+    private <T> Predicate toPredicate(Specification<T> specification, Root<T> root,
+                                      CriteriaQuery<?> query, CriteriaBuilder cb) {
+        return specification != null ? specification.toPredicate(root, query, cb) : null;
+    }
+
+    /**
+     * 轉換排序條件，結尾補上 id 確保分頁順序穩定
+     */
+    private <T> List<Order> toOrders(Sort sort, Root<T> root, CriteriaBuilder cb) {
+        List<Order> orders = new ArrayList<>();
+        boolean hasId = false;
+        if (sort != null) {
+            for (Sort.Order order : sort) {
+                orders.add(order.isAscending()
+                        ? cb.asc(root.get(order.getProperty()))
+                        : cb.desc(root.get(order.getProperty())));
+                hasId |= ID.equals(order.getProperty());
+            }
+        }
+        if (!hasId) {
+            orders.add(cb.asc(root.get(ID)));
+        }
+        return orders;
+    }
+}
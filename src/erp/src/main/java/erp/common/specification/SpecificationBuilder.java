@@ -0,0 +1,171 @@
+package erp.common.specification;
+
+import jakarta.persistence.criteria.Predicate;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.lang.reflect.Field;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 動態查詢條件組合器
+ * 只為實際提供的參數產生條件（null 或空白字串視為未提供），
+ * 取代 (:param IS NULL OR ...) 寫法，讓 MySQL 能依實際條件選用索引；
+ * 相同條件組合產生相同的 SQL，可共用 Hibernate 與 JDBC 的查詢計畫快取；
+ * 屬性名稱在加入條件時即依實體類別檢查，拼錯的屬性不必等到執行查詢才失敗
+ */
+public final class SpecificationBuilder<T> {
+
+    /**
+     * 各實體類別（含父類別）宣告的屬性名稱
+     */
+    private static final ConcurrentHashMap<Class<?>, Set<String>> ATTRIBUTES = new ConcurrentHashMap<>();
+
+    private final Class<T> entityClass;
+    private final List<Specification<T>> specifications = new ArrayList<>();
+
+    private SpecificationBuilder(Class<T> entityClass) {
+        this.entityClass = entityClass;
+    }
+
+    /**
+     * 建立組合器
+     * @param entityClass 查詢的實體類別，用於檢查屬性名稱
+     */
+    public static <T> SpecificationBuilder<T> of(Class<T> entityClass) {
+        if (entityClass == null) {
+            throw new IllegalArgumentException("實體類別不能為空");
+        }
+        return new SpecificationBuilder<>(entityClass);
+    }
+
+    /**
+     * 等於
+     */
+    public SpecificationBuilder<T> equal(String attribute, Object value) {
+        requireAttribute(attribute);
+        if (value != null) {
+            specifications.add((root, query, cb) -> cb.equal(root.get(attribute), value));
+        }
+        return this;
+    }
+
+    /**
+     * 包含於集合
+     */
+    public SpecificationBuilder<T> in(String attribute, Collection<?> values) {
+        requireAttribute(attribute);
+        if (values != null && !values.isEmpty()) {
+            specifications.add((root, query, cb) -> root.get(attribute).in(values));
+        }
+        return this;
+    }
+
+    /**
+     * 大於等於
+     */
+    public <Y extends Comparable<? super Y>> SpecificationBuilder<T> greaterThanOrEqual(String attribute, Y value) {
+        requireAttribute(attribute);
+        if (value != null) {
+            specifications.add((root, query, cb) -> cb.greaterThanOrEqualTo(root.get(attribute), value));
+        }
+        return this;
+    }
+
+    /**
+     * 小於等於
+     */
+    public <Y extends Comparable<? super Y>> SpecificationBuilder<T> lessThanOrEqual(String attribute, Y value) {
+        requireAttribute(attribute);
+        if (value != null) {
+            specifications.add((root, query, cb) -> cb.lessThanOrEqualTo(root.get(attribute), value));
+        }
+        return this;
+    }
+
+    /**
+     * 範圍（上下限各自可為 null）
+     */
+    public <Y extends Comparable<? super Y>> SpecificationBuilder<T> between(String attribute, Y from, Y to) {
+        return greaterThanOrEqual(attribute, from).lessThanOrEqual(attribute, to);
+    }
+
+    /**
+     * 模糊查詢（區分大小寫依資料庫定序）
+     */
+    public SpecificationBuilder<T> contains(String attribute, String value) {
+        requireAttribute(attribute);
+        if (value != null && !value.isBlank()) {
+            String pattern = "%" + value + "%";
+            specifications.add((root, query, cb) -> cb.like(root.get(attribute), pattern));
+        }
+        return this;
+    }
+
+    /**
+     * 模糊查詢（不分大小寫）
+     */
+    public SpecificationBuilder<T> containsIgnoreCase(String attribute, String value) {
+        requireAttribute(attribute);
+        if (value != null && !value.isBlank()) {
+            String pattern = "%" + value.toLowerCase() + "%";
+            specifications.add((root, query, cb) -> cb.like(cb.lower(root.get(attribute)), pattern));
+        }
+        return this;
+    }
+
+    /**
+     * 加入自訂條件
+     */
+    public SpecificationBuilder<T> and(Specification<T> specification) {
+        if (specification != null) {
+            specifications.add(specification);
+        }
+        return this;
+    }
+
+    /**
+     * 組合所有條件
+     * 沒有任何條件時回傳 null 述詞，查詢不會帶 WHERE
+     */
+    public Specification<T> build() {
+        List<Specification<T>> parts = List.copyOf(specifications);
+        return (root, query, cb) -> {
+            List<Predicate> predicates = new ArrayList<>(parts.size());
+            for (Specification<T> part : parts) {
+                Predicate predicate = part.toPredicate(root, query, cb);
+                if (predicate != null) {
+                    predicates.add(predicate);
+                }
+            }
+            if (predicates.isEmpty()) {
+                return null;
+            }
+            return predicates.size() == 1 ? predicates.get(0) : cb.and(predicates.toArray(new Predicate[0]));
+        };
+    }
+
+    /**
+     * 檢查屬性是否為實體類別（或其父類別）宣告的欄位
+     */
+    private void requireAttribute(String attribute) {
+        Set<String> attributes = ATTRIBUTES.computeIfAbsent(entityClass, SpecificationBuilder::declaredAttributes);
+        if (!attributes.contains(attribute)) {
+            throw new IllegalArgumentException(entityClass.getSimpleName() + " 沒有屬性: " + attribute);
+        }
+    }
+
+    private static Set<String> declaredAttributes(Class<?> type) {
+        Set<String> attributes = new HashSet<>();
+        for (Class<?> current = type; current != null && current != Object.class; current = current.getSuperclass()) {
+            for (Field field : current.getDeclaredFields()) {
+                attributes.add(field.getName());
+            }
+        }
+        return Set.copyOf(attributes);
+    }
+}
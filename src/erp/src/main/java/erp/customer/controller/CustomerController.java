@@ -95,6 +95,12 @@ public class CustomerController extends BaseController<Customer, Long> {
     @StandardQueryResponse
     @PostMapping(CustomerApiConstants.GET_ALL_PATH)
     public ResponseEntity<ApiResponse<BasePageResponse<Customer>>> getAllCustomers(@RequestBody BasePageableRequest request) {
+        if (request.isCursorMode()) {
+            return pageSuccess(customerService.searchCustomersByCursor(null, null, null, null, request));
+        }
+        if (request.isSliceMode()) {
+            return pageSuccess(customerService.searchCustomersBySlice(null, null, null, null, request));
+        }
         Pageable pageable = createPageable(request);
         Page<Customer> customers = customerService.getAllCustomers(pageable);
         return pageSuccess(customers);
@@ -160,6 +166,12 @@ public class CustomerController extends BaseController<Customer, Long> {
     @PostMapping(CustomerApiConstants.GET_BY_STATUS_PATH)
     public ResponseEntity<ApiResponse<BasePageResponse<Customer>>> getCustomersByStatus(@RequestBody CustomerSearchStatusRequest request) {
         try {
+            if (request.isCursorMode()) {
+                return pageSuccess(customerService.searchCustomersByCursor(null, null, null, request.getStatus(), request));
+            }
+            if (request.isSliceMode()) {
+                return pageSuccess(customerService.searchCustomersBySlice(null, null, null, request.getStatus(), request));
+            }
             Pageable pageable = createPageable(request);
             Page<Customer> customers = customerService.getCustomersByStatus(request.getStatus(), pageable);
             return pageSuccess(customers);
@@ -210,6 +222,14 @@ public class CustomerController extends BaseController<Customer, Long> {
     public ResponseEntity<ApiResponse<BasePageResponse<Customer>>> searchCustomers(@RequestBody CustomerSearchRequest request) {
         try {
             logRequest("多條件搜索客戶", request.getName(), request.getPhone(), request.getEmail(), request.getStatus());
+            if (request.isCursorMode()) {
+                return pageSuccess(customerService.searchCustomersByCursor(
+                    request.getName(), request.getPhone(), request.getEmail(), request.getStatus(), request));
+            }
+            if (request.isSliceMode()) {
+                return pageSuccess(customerService.searchCustomersBySlice(
+                    request.getName(), request.getPhone(), request.getEmail(), request.getStatus(), request));
+            }
             Pageable pageable = createPageable(request);
             Page<Customer> customers = customerService.searchCustomers(
                 request.getName(), request.getPhone(), request.getEmail(), request.getStatus(), pageable);
@@ -24,7 +24,8 @@ import java.time.LocalDateTime;
     @Index(name = "idx_name", columnList = "name"),
     @Index(name = "idx_phone", columnList = "phone"),
     @Index(name = "idx_email", columnList = "email"),
-    @Index(name = "idx_status", columnList = "status")
+    @Index(name = "idx_status", columnList = "status"),
+    @Index(name = "idx_customer_created_id", columnList = "created_at, id")
 })
 @Data
 @NoArgsConstructor
@@ -5,8 +5,8 @@ import erp.customer.enums.CustomerStatus;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
 import org.springframework.data.jpa.repository.Query;
-import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDate;
@@ -17,7 +17,7 @@ import java.util.Optional;
  * 客戶資料存取層
  */
 @Repository
-public interface CustomerRepository extends JpaRepository<Customer, Long> {
+public interface CustomerRepository extends JpaRepository<Customer, Long>, JpaSpecificationExecutor<Customer> {
 
     /**
      * 根據姓名查找客戶
@@ -64,21 +64,6 @@ public interface CustomerRepository extends JpaRepository<Customer, Long> {
      */
     boolean existsByEmail(String email);
 
-    /**
-     * 根據多個條件搜索客戶（支援模糊查詢）
-     */
-    @Query("SELECT c FROM Customer c WHERE " +
-           "(:name IS NULL OR LOWER(c.name) LIKE LOWER(CONCAT('%', :name, '%'))) AND " +
-           "(:phone IS NULL OR c.phone LIKE CONCAT('%', :phone, '%')) AND " +
-           "(:email IS NULL OR LOWER(c.email) LIKE LOWER(CONCAT('%', :email, '%'))) AND " +
-           "(:status IS NULL OR c.status = :status)")
-    Page<Customer> findByMultipleConditions(
-            @Param("name") String name,
-            @Param("phone") String phone,
-            @Param("email") String email,
-            @Param("status") CustomerStatus status,
-            Pageable pageable);
-
     /**
      * 統計各狀態的客戶數量
      */
@@ -1,5 +1,7 @@
 package erp.customer.service;
 
+import erp.common.dto.BasePageResponse;
+import erp.common.dto.BasePageableRequest;
 import erp.customer.dto.CustomerCreateRequest;
 import erp.customer.entity.Customer;
 import erp.customer.enums.CustomerStatus;
@@ -24,6 +26,8 @@ public interface CustomerService {
     List<Customer> getCustomersByStatus(CustomerStatus status);
     Page<Customer> getCustomersByStatus(CustomerStatus status, Pageable pageable);
     Page<Customer> searchCustomers(String name, String phone, String email, CustomerStatus status, Pageable pageable);
+    BasePageResponse<Customer> searchCustomersByCursor(String name, String phone, String email, CustomerStatus status, BasePageableRequest pageRequest);
+    BasePageResponse<Customer> searchCustomersBySlice(String name, String phone, String email, CustomerStatus status, BasePageableRequest pageRequest);
     Page<Customer> getAllCustomers(Pageable pageable);
     List<Customer> getCustomersByBirthDateRange(LocalDate startDate, LocalDate endDate);
     List<Customer> getRecentCustomers();
@@ -1,7 +1,13 @@
 package erp.customer.service.CustomerServiceImpl;
 
 import erp.common.constant.ErrorCode;
+import erp.common.dto.BasePageResponse;
+import erp.common.dto.BasePageableRequest;
 import erp.common.exception.CustomerException;
+import erp.common.pagination.CursorToken;
+import erp.common.pagination.KeysetPaginationExecutor;
+import erp.common.pagination.SlicePaginationExecutor;
+import erp.common.specification.SpecificationBuilder;
 import erp.customer.constant.CustomerConstants;
 import erp.customer.entity.Customer;
 import erp.customer.enums.CustomerStatus;
@@ -10,10 +16,13 @@ import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Component;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDate;
+import java.util.Arrays;
 import java.util.List;
 import java.util.Optional;
 
@@ -28,6 +37,8 @@ import java.util.Optional;
 public class CustomerQueryServiceImpl {
 
     private final CustomerRepository customerRepository;
+    private final KeysetPaginationExecutor keysetPaginationExecutor;
+    private final SlicePaginationExecutor slicePaginationExecutor;
 
     /**
      * 根據ID查找客戶
@@ -77,7 +88,27 @@ public class CustomerQueryServiceImpl {
      */
     public Page<Customer> searchCustomers(String name, String phone, String email, 
                                         CustomerStatus status, Pageable pageable) {
-        return customerRepository.findByMultipleConditions(name, phone, email, status, pageable);
+        return customerRepository.findAll(buildSearchSpecification(name, phone, email, status), pageable);
+    }
+
+    /**
+     * 多條件搜索客戶（游標分頁）
+     */
+    public BasePageResponse<Customer> searchCustomersByCursor(String name, String phone, String email,
+                                                            CustomerStatus status, BasePageableRequest pageRequest) {
+        return keysetPaginationExecutor.findPage(Customer.class,
+                buildSearchSpecification(name, phone, email, status), pageRequest,
+                customer -> new CursorToken(customer.getCreatedAt(), customer.getId()));
+    }
+
+    /**
+     * 多條件搜索客戶（不計算總數）
+     */
+    public BasePageResponse<Customer> searchCustomersBySlice(String name, String phone, String email,
+                                                           CustomerStatus status, BasePageableRequest pageRequest) {
+        return slicePaginationExecutor.findSlice(Customer.class,
+                buildSearchSpecification(name, phone, email, status), pageRequest, Sort.unsorted(),
+                Arrays.asList(name, phone, email, status));
     }
 
     /**
@@ -107,4 +138,18 @@ public class CustomerQueryServiceImpl {
     public List<Object[]> getCustomerStatusStatistics() {
         return customerRepository.countByStatus();
     }
-}
\ No newline at end of file
+
+    /**
+     * 建構客戶搜尋條件
+     * 只為有提供的參數產生條件
+     */
+    private Specification<Customer> buildSearchSpecification(String name, String phone, String email,
+                                                             CustomerStatus status) {
+        return SpecificationBuilder.of(Customer.class)
+                .containsIgnoreCase("name", name)
+                .contains("phone", phone)
+                .containsIgnoreCase("email", email)
+                .equal("status", status)
+                .build();
+    }
+}
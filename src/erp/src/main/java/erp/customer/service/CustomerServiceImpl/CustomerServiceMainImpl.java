@@ -1,5 +1,7 @@
 package erp.customer.service.CustomerServiceImpl;
 
+import erp.common.dto.BasePageResponse;
+import erp.common.dto.BasePageableRequest;
 import erp.customer.dto.CustomerCreateRequest;
 import erp.customer.entity.Customer;
 import erp.customer.enums.CustomerStatus;
@@ -61,6 +63,16 @@ public class CustomerServiceMainImpl implements CustomerService {
         return queryService.searchCustomers(name, phone, email, status, pageable);
     }
     
+    @Override
+    public BasePageResponse<Customer> searchCustomersByCursor(String name, String phone, String email, CustomerStatus status, BasePageableRequest pageRequest) {
+        return queryService.searchCustomersByCursor(name, phone, email, status, pageRequest);
+    }
+
+    @Override
+    public BasePageResponse<Customer> searchCustomersBySlice(String name, String phone, String email, CustomerStatus status, BasePageableRequest pageRequest) {
+        return queryService.searchCustomersBySlice(name, phone, email, status, pageRequest);
+    }
+    
     @Override
     public Page<Customer> getAllCustomers(Pageable pageable) {
         return queryService.getAllCustomers(pageable);
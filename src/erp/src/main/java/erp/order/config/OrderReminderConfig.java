@@ -0,0 +1,15 @@
+package erp.order.config;
+
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+/**
+ * 未完成訂單提醒設定
+ * 載入提醒參數並啟用排程
+ */
+@Configuration
+@EnableScheduling
+@EnableConfigurationProperties(OrderReminderProperties.class)
+public class OrderReminderConfig {
+}
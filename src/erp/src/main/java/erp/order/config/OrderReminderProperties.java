@@ -0,0 +1,72 @@
+package erp.order.config;
+
+import erp.order.enums.OrderStatus;
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * 未完成訂單提醒設定
+ * 對應 application.yml 的 erp.order.reminder 區塊
+ */
+@Data
+@ConfigurationProperties(prefix = "erp.order.reminder")
+public class OrderReminderProperties {
+
+    /**
+     * 是否啟用定期掃描
+     */
+    private boolean enabled = true;
+
+    /**
+     * 已下單狀態允許停留的時長
+     */
+    private Duration pendingAge = Duration.ofHours(24);
+
+    /**
+     * 已付款狀態允許停留的時長
+     */
+    private Duration paidAge = Duration.ofHours(48);
+
+    /**
+     * 已出貨狀態允許停留的時長
+     */
+    private Duration shippedAge = Duration.ofDays(7);
+
+    /**
+     * 每批掃描的訂單數
+     */
+    private int batchSize = 500;
+
+    /**
+     * 每個狀態每輪最多掃描的批數，超過的部分留待下一輪接續
+     */
+    private int maxBatchesPerCycle = 20;
+
+    /**
+     * 全量重掃間隔
+     * 掃描游標只會往前推進，訂單晚於游標才進入該狀態時需靠重掃補上
+     */
+    private Duration fullSweepInterval = Duration.ofHours(6);
+
+    /**
+     * 取得各狀態允許停留的時長，未設定或非正值的狀態不掃描
+     * @return 狀態與時長對照
+     */
+    public Map<OrderStatus, Duration> thresholds() {
+        Map<OrderStatus, Duration> thresholds = new EnumMap<>(OrderStatus.class);
+        putIfPositive(thresholds, OrderStatus.PENDING, pendingAge);
+        putIfPositive(thresholds, OrderStatus.PAID, paidAge);
+        putIfPositive(thresholds, OrderStatus.SHIPPED, shippedAge);
+        return thresholds;
+    }
+
+    private static void putIfPositive(Map<OrderStatus, Duration> thresholds, OrderStatus status, Duration age) {
+        if (age != null && !age.isNegative() && !age.isZero()) {
+            thresholds.put(status, age);
+        }
+    }
+}
@@ -71,6 +71,21 @@ public class OrderApiConstants {
      * 高級搜索路徑
      */
     public static final String ADVANCED_SEARCH_PATH = "/advanced-search";
+    
+    /**
+     * 匯出訂單路徑
+     */
+    public static final String EXPORT_PATH = "/export";
+    
+    /**
+     * 搜索未完成訂單提醒路徑
+     */
+    public static final String REMINDER_SEARCH_PATH = "/reminders/search";
+    
+    /**
+     * 批次更新訂單狀態路徑
+     */
+    public static final String BULK_STATUS_PATH = "/status/bulk";
     //endregion
 
     //region 構造函數
@@ -21,6 +21,11 @@ public class OrderConstants {
      */
     public static final String ORDER_STATUS_UPDATE_SUCCESS = "訂單狀態更新成功";
     
+    /**
+     * 訂單狀態批次更新完成
+     */
+    public static final String ORDER_BULK_STATUS_UPDATE_SUCCESS = "訂單狀態批次更新完成";
+    
     /**
      * 訂單取消成功
      */
@@ -63,6 +68,16 @@ public class OrderConstants {
      */
     public static final String ORDER_TOTAL_AMOUNT_INVALID = "訂單總額驗證失敗";
     
+    /**
+     * 訂單狀態轉換不合法錯誤訊息
+     */
+    public static final String ORDER_INVALID_STATUS_TRANSITION = "訂單狀態轉換不合法";
+    
+    /**
+     * 訂單版本衝突錯誤訊息
+     */
+    public static final String ORDER_VERSION_CONFLICT = "訂單已被其他人修改，請重新載入後再試";
+    
     /**
      * 庫存不足錯誤訊息
      */
@@ -85,6 +100,11 @@ public class OrderConstants {
      */
     public static final String LOG_UPDATE_ORDER_STATUS = "更新訂單狀態，ID：{}，狀態：{}";
     
+    /**
+     * 批次更新訂單狀態日誌
+     */
+    public static final String LOG_BULK_UPDATE_ORDER_STATUS = "批次更新訂單狀態，筆數：{}，狀態：{}";
+    
     /**
      * 取消訂單日誌
      */
@@ -109,6 +129,26 @@ public class OrderConstants {
      * 庫存回補日誌
      */
     public static final String LOG_STOCK_RESTORE = "回補商品庫存，商品ID：{}，回補數量：{}";
+    
+    /**
+     * 匯出訂單日誌
+     */
+    public static final String LOG_EXPORT_ORDERS = "匯出訂單，格式：{}，壓縮：{}，日期範圍：{} - {}";
+    
+    /**
+     * 匯出訂單完成日誌
+     */
+    public static final String LOG_EXPORT_ORDERS_DONE = "匯出訂單完成，訂單數：{}，明細數：{}";
+    
+    /**
+     * 提醒掃描完成日誌
+     */
+    public static final String LOG_REMINDER_CYCLE_DONE = "未完成訂單提醒掃描完成，逾時訂單：{}，解除提醒：{}";
+    
+    /**
+     * 提醒掃描失敗日誌
+     */
+    public static final String LOG_REMINDER_CYCLE_FAILED = "未完成訂單提醒掃描失敗";
     //endregion
 
     //region 業務常量
@@ -117,10 +157,36 @@ public class OrderConstants {
      */
     public static final String ORDER_NO_PREFIX = "ORD";
     
+    /**
+     * 訂單編號日期格式
+     */
+    public static final String ORDER_NO_DATE_PATTERN = "yyyyMMdd";
+    
+    /**
+     * 訂單編號每次預留的序號區段大小
+     */
+    public static final int ORDER_NO_BLOCK_SIZE = 50;
+    
     /**
      * 預設折扣金額
      */
     public static final String DEFAULT_DISCOUNT_AMOUNT = "0.00";
+    
+    /**
+     * 匯出訂單時的 JDBC fetch size
+     * MySQL Connector/J 以 Integer.MIN_VALUE 表示逐列串流，不將結果集整批載入記憶體
+     */
+    public static final int EXPORT_FETCH_SIZE = Integer.MIN_VALUE;
+    
+    /**
+     * 匯出訂單時每寫入多少筆訂單刷新一次輸出
+     */
+    public static final int EXPORT_FLUSH_INTERVAL = 500;
+    
+    /**
+     * 批次更新訂單狀態時單次最多的訂單數
+     */
+    public static final int BULK_STATUS_MAX_SIZE = 500;
     //endregion
 
     //region 構造函數
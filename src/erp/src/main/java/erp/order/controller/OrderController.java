@@ -1,19 +1,33 @@
 package erp.order.controller;
 
 import erp.common.annotation.StandardCreateResponse;
+import erp.common.annotation.StandardSearchResponse;
 import erp.common.dto.ApiResponse;
+import erp.common.dto.BasePageResponse;
+import erp.order.constant.OrderApiConstants;
 import erp.order.constant.OrderConstants;
 import erp.order.dto.OrderCreateRequestDto;
 import erp.order.dto.OrderCreateResponseDto;
+import erp.order.dto.OrderExportRequestDto;
 import erp.order.dto.OrderUpdateRequestDto;
 import erp.order.dto.OrderUpdateResponseDto;
 import erp.order.dto.OrderStatusUpdateDto;
+import erp.order.dto.OrderBulkStatusUpdateDto;
+import erp.order.dto.OrderBulkStatusUpdateResponseDto;
+import erp.order.dto.OrderSearchRequestDto;
+import erp.order.dto.OrderReminderSearchRequestDto;
+import erp.order.entity.Order;
+import erp.order.entity.OrderReminder;
+import erp.order.enums.OrderExportFormat;
 import erp.order.service.OrderService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
@@ -22,6 +36,10 @@ import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
 
 @RestController
 @RequestMapping("/api/orders")
@@ -45,6 +63,61 @@ public class OrderController {
         ));
     }
     
+    /**
+     * 多條件搜索訂單
+     * 帶入 cursor 時使用游標分頁，否則使用頁碼分頁
+     */
+    @PostMapping(OrderApiConstants.SEARCH_PATH)
+    @Operation(summary = "多條件搜索訂單", description = "根據多個條件搜索訂單，支援頁碼分頁與游標分頁")
+    @StandardSearchResponse
+    public ResponseEntity<ApiResponse<BasePageResponse<Order>>> searchOrders(
+            @RequestBody OrderSearchRequestDto request) {
+        
+        BasePageResponse<Order> response = orderService.searchOrders(request);
+        
+        return ResponseEntity.ok(ApiResponse.success(response));
+    }
+    
+    /**
+     * 匯出訂單與明細
+     * 以串流方式逐筆寫出，支援 CSV 與 NDJSON，可選擇 gzip 壓縮
+     */
+    @PostMapping(OrderApiConstants.EXPORT_PATH)
+    @Operation(summary = "匯出訂單", description = "以 CSV 或 NDJSON 串流匯出訂單與明細，資料量大時可開啟 gzip")
+    public ResponseEntity<StreamingResponseBody> exportOrders(@RequestBody OrderExportRequestDto request) {
+        
+        OrderExportFormat format = request.getFormat() != null ? request.getFormat() : OrderExportFormat.CSV;
+        boolean gzip = Boolean.TRUE.equals(request.getGzip());
+        String fileName = "orders-" + LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyyMMddHHmmss"))
+                + "." + format.getExtension() + (gzip ? ".gz" : "");
+        MediaType mediaType = gzip
+                ? MediaType.parseMediaType("application/gzip")
+                : MediaType.parseMediaType(format.getContentType() + ";charset=UTF-8");
+        
+        StreamingResponseBody body = outputStream -> orderService.exportOrders(request, outputStream);
+        
+        return ResponseEntity.ok()
+                .contentType(mediaType)
+                .header(HttpHeaders.CONTENT_DISPOSITION,
+                        ContentDisposition.attachment().filename(fileName).build().toString())
+                .body(body);
+    }
+    
+    /**
+     * 搜索未完成訂單提醒
+     * 提醒由排程定期掃描逾時訂單產生，預設只列出未解除的提醒
+     */
+    @PostMapping(OrderApiConstants.REMINDER_SEARCH_PATH)
+    @Operation(summary = "搜索未完成訂單提醒", description = "列出停留在已下單、已付款、已出貨狀態過久的訂單提醒，依逾時時間排序")
+    @StandardSearchResponse
+    public ResponseEntity<ApiResponse<BasePageResponse<OrderReminder>>> searchOrderReminders(
+            @RequestBody OrderReminderSearchRequestDto request) {
+        
+        BasePageResponse<OrderReminder> response = orderService.searchOrderReminders(request);
+        
+        return ResponseEntity.ok(ApiResponse.success(response));
+    }
+    
     /**
      * 更新訂單
      */
@@ -54,7 +127,7 @@ public class OrderController {
         @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "200", description = "更新成功"),
         @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "400", description = "請求參數錯誤"),
         @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "404", description = "訂單不存在"),
-        @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "409", description = "訂單狀態不允許修改")
+        @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "409", description = "訂單已被其他人修改")
     })
     public ResponseEntity<ApiResponse<OrderUpdateResponseDto>> updateOrder(
             @PathVariable Long id,
@@ -75,11 +148,12 @@ public class OrderController {
      * 更新訂單狀態
      */
     @PatchMapping("/{id}/status")
-    @Operation(summary = "更新訂單狀態", description = "僅更新訂單狀態")
+    @Operation(summary = "更新訂單狀態", description = "依狀態轉換表更新訂單狀態，狀態或版本已被變更時回應 409")
     @ApiResponses(value = {
         @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "200", description = "狀態更新成功"),
         @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "400", description = "狀態變更不合法"),
-        @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "404", description = "訂單不存在")
+        @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "404", description = "訂單不存在"),
+        @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "409", description = "訂單已被其他人修改")
     })
     public ResponseEntity<ApiResponse<OrderUpdateResponseDto>> updateOrderStatus(
             @PathVariable Long id,
@@ -94,4 +168,25 @@ public class OrderController {
             response
         ));
     }
+
+    /**
+     * 批次更新訂單狀態
+     */
+    @PatchMapping(OrderApiConstants.BULK_STATUS_PATH)
+    @Operation(summary = "批次更新訂單狀態", description = "將多筆訂單轉為同一狀態，各訂單依狀態轉換表個別驗證，回傳各訂單的結果")
+    @ApiResponses(value = {
+        @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "200", description = "批次更新完成，各訂單結果見回應"),
+        @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "400", description = "請求參數不合法"),
+        @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "409", description = "訂單已被其他人修改")
+    })
+    public ResponseEntity<ApiResponse<OrderBulkStatusUpdateResponseDto>> bulkUpdateOrderStatus(
+            @Valid @RequestBody OrderBulkStatusUpdateDto request) {
+        
+        OrderBulkStatusUpdateResponseDto response = orderService.bulkUpdateOrderStatus(request);
+        
+        return ResponseEntity.ok(ApiResponse.success(
+            OrderConstants.ORDER_BULK_STATUS_UPDATE_SUCCESS, 
+            response
+        ));
+    }
 }
\ No newline at end of file
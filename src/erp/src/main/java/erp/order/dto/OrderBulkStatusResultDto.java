@@ -0,0 +1,34 @@
+package erp.order.dto;
+
+import erp.order.enums.OrderStatus;
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@Schema(description = "訂單狀態批次更新單筆結果DTO")
+public class OrderBulkStatusResultDto {
+    
+    @Schema(description = "訂單ID", example = "1")
+    private Long id;
+    
+    @Schema(description = "是否更新成功", example = "true")
+    private boolean success;
+    
+    @Schema(description = "更新前的訂單狀態（訂單不存在時為空）", example = "PAID")
+    private OrderStatus previousStatus;
+    
+    @Schema(description = "更新後的訂單狀態（失敗時為目前狀態）", example = "SHIPPED")
+    private OrderStatus status;
+    
+    @Schema(description = "更新後的版本號（失敗時為目前版本號）", example = "4")
+    private Long version;
+    
+    @Schema(description = "失敗原因", example = "訂單狀態轉換不合法: COMPLETED -> SHIPPED")
+    private String message;
+}
@@ -0,0 +1,34 @@
+package erp.order.dto;
+
+import erp.order.constant.OrderConstants;
+import erp.order.enums.OrderStatus;
+import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@Schema(description = "訂單狀態批次更新DTO")
+public class OrderBulkStatusUpdateDto {
+    
+    @Schema(description = "訂單ID列表，各訂單可處於不同的目前狀態", example = "[1, 2, 3]")
+    @NotEmpty(message = "訂單ID列表不能為空")
+    @Size(max = OrderConstants.BULK_STATUS_MAX_SIZE, message = "單次最多更新 " + OrderConstants.BULK_STATUS_MAX_SIZE + " 筆訂單")
+    private List<@NotNull(message = "訂單ID不能為空") Long> ids;
+    
+    @Schema(description = "新的訂單狀態", example = "SHIPPED")
+    @NotNull(message = "訂單狀態不能為空")
+    private OrderStatus status;
+    
+    @Schema(description = "狀態變更備註", example = "早班出貨")
+    private String reason;
+}
@@ -0,0 +1,26 @@
+package erp.order.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@Schema(description = "訂單狀態批次更新回應DTO")
+public class OrderBulkStatusUpdateResponseDto {
+    
+    @Schema(description = "成功筆數", example = "120")
+    private int successCount;
+    
+    @Schema(description = "失敗筆數", example = "2")
+    private int failureCount;
+    
+    @Schema(description = "各訂單結果，依請求順序")
+    private List<OrderBulkStatusResultDto> results;
+}
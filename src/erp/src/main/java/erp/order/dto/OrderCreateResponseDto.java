@@ -52,6 +52,9 @@ public class OrderCreateResponseDto {
     @Schema(description = "創建時間", example = "2025-08-10T17:29:00")
     private LocalDateTime createdAt;
     
+    @Schema(description = "訂單版本號", example = "0")
+    private Long version;
+    
     @Schema(description = "訂單物品清單")
     private List<OrderItemResponseDto> orderItems;
 }
\ No newline at end of file
@@ -0,0 +1,39 @@
+package erp.order.dto;
+
+import erp.order.enums.OrderExportFormat;
+import erp.order.enums.OrderStatus;
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+
+import java.time.LocalDateTime;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@Schema(description = "訂單匯出請求DTO")
+public class OrderExportRequestDto {
+
+    @Schema(description = "匯出格式：CSV 每列一筆明細，NDJSON 每行一筆訂單（含明細）", example = "CSV")
+    @Builder.Default
+    private OrderExportFormat format = OrderExportFormat.CSV;
+
+    @Schema(description = "是否以 gzip 壓縮輸出", example = "false")
+    @Builder.Default
+    private Boolean gzip = false;
+
+    @Schema(description = "客戶ID", example = "1")
+    private Long customerId;
+
+    @Schema(description = "訂單狀態", example = "COMPLETED")
+    private OrderStatus status;
+
+    @Schema(description = "建立時間起", example = "2025-08-01T00:00:00")
+    private LocalDateTime startDate;
+
+    @Schema(description = "建立時間迄", example = "2025-08-31T23:59:59")
+    private LocalDateTime endDate;
+}
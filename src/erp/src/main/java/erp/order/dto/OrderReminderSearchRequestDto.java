@@ -0,0 +1,29 @@
+package erp.order.dto;
+
+import erp.common.dto.BasePageableRequest;
+import erp.order.enums.OrderStatus;
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.Data;
+import lombok.EqualsAndHashCode;
+import lombok.NoArgsConstructor;
+import lombok.AllArgsConstructor;
+
+/**
+ * 未完成訂單提醒搜索請求DTO
+ */
+@Data
+@EqualsAndHashCode(callSuper = true)
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(description = "未完成訂單提醒搜索請求DTO")
+public class OrderReminderSearchRequestDto extends BasePageableRequest {
+
+    @Schema(description = "逾時時的訂單狀態", example = "PAID")
+    private OrderStatus status;
+
+    @Schema(description = "客戶ID", example = "1")
+    private Long customerId;
+
+    @Schema(description = "是否包含已解除的提醒", example = "false")
+    private Boolean includeResolved = false;
+}
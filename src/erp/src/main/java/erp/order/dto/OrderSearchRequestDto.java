@@ -0,0 +1,45 @@
+package erp.order.dto;
+
+import erp.common.dto.BasePageableRequest;
+import erp.order.enums.OrderStatus;
+import erp.payment.enums.PaymentMethod;
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.Data;
+import lombok.EqualsAndHashCode;
+import lombok.NoArgsConstructor;
+import lombok.AllArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * 訂單多條件搜索請求DTO
+ */
+@Data
+@EqualsAndHashCode(callSuper = true)
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(description = "訂單多條件搜索請求DTO")
+public class OrderSearchRequestDto extends BasePageableRequest {
+
+    @Schema(description = "客戶ID", example = "1")
+    private Long customerId;
+
+    @Schema(description = "訂單狀態", example = "PENDING")
+    private OrderStatus status;
+
+    @Schema(description = "付款方式", example = "CASH")
+    private PaymentMethod paymentMethod;
+
+    @Schema(description = "最低實付金額", example = "100.00")
+    private BigDecimal minAmount;
+
+    @Schema(description = "最高實付金額", example = "1000.00")
+    private BigDecimal maxAmount;
+
+    @Schema(description = "建立時間起", example = "2025-08-01T00:00:00")
+    private LocalDateTime startDate;
+
+    @Schema(description = "建立時間迄", example = "2025-08-31T23:59:59")
+    private LocalDateTime endDate;
+}
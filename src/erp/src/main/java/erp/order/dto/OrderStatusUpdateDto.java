@@ -25,4 +25,7 @@ public class OrderStatusUpdateDto {
     
     @Schema(description = "狀態變更備註", example = "客戶已確認訂單")
     private String reason;
+    
+    @Schema(description = "客戶端持有的訂單版本號，與目前版本不符時回應 409（不帶則以讀取到的版本為準）", example = "3")
+    private Long version;
 }
\ No newline at end of file
@@ -50,6 +50,9 @@ public class OrderUpdateRequestDto {
     @Schema(description = "備註資訊", example = "寵物名：小白，特殊需求：需要溫柔對待")
     private String notes;
     
+    @Schema(description = "客戶端持有的訂單版本號，與目前版本不符時回應 409", example = "3")
+    private Long version;
+    
     @Schema(description = "訂單物品清單")
     @Valid
     private List<OrderItemUpdateDto> orderItems;
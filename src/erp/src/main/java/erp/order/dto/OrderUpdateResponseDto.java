@@ -52,6 +52,9 @@ public class OrderUpdateResponseDto {
     @Schema(description = "更新時間", example = "2025-08-10T18:40:00")
     private LocalDateTime updatedAt;
     
+    @Schema(description = "訂單版本號", example = "4")
+    private Long version;
+    
     @Schema(description = "訂單物品清單")
     private List<OrderItemResponseDto> orderItems;
 }
\ No newline at end of file
@@ -0,0 +1,10 @@
+package erp.order.dto;
+
+import java.time.LocalDateTime;
+
+/**
+ * 逾時掃描取得的訂單欄位
+ * 只取建立提醒所需的欄位，避免載入整筆訂單
+ */
+public record OverdueOrderRow(Long id, String no, Long customerId, LocalDateTime orderTime) {
+}
@@ -1,10 +1,10 @@
 package erp.order.entity;
 
+import erp.common.money.Money;
 import erp.order.enums.OrderStatus;
 import erp.payment.enums.PaymentMethod;
 import io.swagger.v3.oas.annotations.media.Schema;
 import jakarta.persistence.*;
-import jakarta.validation.constraints.DecimalMin;
 import jakarta.validation.constraints.NotNull;
 import jakarta.validation.constraints.Size;
 import lombok.Data;
@@ -22,10 +22,11 @@ import java.time.LocalDateTime;
 @Entity
 @Schema(description = "訂單實體")
 @Table(name = "orders", indexes = {
-    @Index(name = "idx_order_no", columnList = "order_no"),
+    @Index(name = "uk_order_no", columnList = "no", unique = true),
     @Index(name = "idx_customer_id", columnList = "customer_id"),
     @Index(name = "idx_order_time", columnList = "order_time"),
-    @Index(name = "idx_status", columnList = "status")
+    @Index(name = "idx_status_order_time", columnList = "status, order_time"),
+    @Index(name = "idx_order_created_id", columnList = "created_at, id")
 })
 @Data
 @NoArgsConstructor
@@ -37,7 +38,9 @@ public class Order {
      * 訂單ID
      */
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.TABLE, generator = "orders_id")
+    @TableGenerator(name = "orders_id", table = "id_generators", pkColumnName = "gen_name",
+            valueColumnName = "gen_value", pkColumnValue = "orders", allocationSize = 50)
     @Column(name = "id", nullable = false, columnDefinition = "BIGINT COMMENT '訂單ID'")
     @Schema(description = "訂單ID", example = "1")
     private Long id;
@@ -76,25 +79,22 @@ public class Order {
      * 訂單總額
      */
     @Column(name = "total_amount", precision = 10, scale = 2, columnDefinition = "DECIMAL(10,2) COMMENT '訂單總額'")
-    @DecimalMin(value = "0.00", message = "訂單總額不能為負數")
-    @Schema(description = "訂單總額", example = "1000.00")
-    private BigDecimal totalAmount;
+    @Schema(implementation = BigDecimal.class, description = "訂單總額", example = "1000.00")
+    private Money totalAmount;
 
     /**
      * 折扣金額
      */
     @Column(name = "discount_amount", precision = 10, scale = 2, columnDefinition = "DECIMAL(10,2) COMMENT '折扣金額'")
-    @DecimalMin(value = "0.00", message = "折扣金額不能為負數")
-    @Schema(description = "折扣金額", example = "100.00")
-    private BigDecimal discountAmount;
+    @Schema(implementation = BigDecimal.class, description = "折扣金額", example = "100.00")
+    private Money discountAmount;
 
     /**
      * 實付金額
      */
     @Column(name = "final_amount", precision = 10, scale = 2, columnDefinition = "DECIMAL(10,2) COMMENT '實付金額'")
-    @DecimalMin(value = "0.00", message = "實付金額不能為負數")
-    @Schema(description = "實付金額", example = "900.00")
-    private BigDecimal finalAmount;
+    @Schema(implementation = BigDecimal.class, description = "實付金額", example = "900.00")
+    private Money finalAmount;
 
     /**
      * 支付方式（現金、信用卡、LINE Pay…）
@@ -110,6 +110,14 @@ public class Order {
     @Schema(description = "備註資訊", example = "寵物名：小白，特殊需求：需要溫柔對待")
     private String notes;
 
+    /**
+     * 樂觀鎖版本號
+     */
+    @Version
+    @Column(name = "version", nullable = false, columnDefinition = "BIGINT NOT NULL DEFAULT 0 COMMENT '樂觀鎖版本號'")
+    @Schema(description = "樂觀鎖版本號", example = "0")
+    private Long version;
+
     /**
      * 建立時間
      */
@@ -1,9 +1,9 @@
 package erp.order.entity;
 
+import erp.common.money.Money;
 import erp.product.enums.ProductType;
 import io.swagger.v3.oas.annotations.media.Schema;
 import jakarta.persistence.*;
-import jakarta.validation.constraints.DecimalMin;
 import jakarta.validation.constraints.Min;
 import jakarta.validation.constraints.NotNull;
 import jakarta.validation.constraints.Size;
@@ -36,7 +36,9 @@ public class OrderItem {
      * 明細ID
      */
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.TABLE, generator = "order_items_id")
+    @TableGenerator(name = "order_items_id", table = "id_generators", pkColumnName = "gen_name",
+            valueColumnName = "gen_value", pkColumnValue = "order_items", allocationSize = 50)
     @Column(name = "id", nullable = false, columnDefinition = "BIGINT COMMENT '明細ID'")
     @Schema(description = "明細ID", example = "1")
     private Long id;
@@ -84,17 +86,15 @@ public class OrderItem {
      * 單價（下單當時）
      */
     @Column(name = "unit_price", precision = 10, scale = 2, columnDefinition = "DECIMAL(10,2) COMMENT '單價（下單當時）'")
-    @DecimalMin(value = "0.00", message = "單價不能為負數")
-    @Schema(description = "單價", example = "500.00")
-    private BigDecimal unitPrice;
+    @Schema(implementation = BigDecimal.class, description = "單價", example = "500.00")
+    private Money unitPrice;
 
     /**
      * 小計（qty * unit_price）
      */
     @Column(name = "subtotal", precision = 10, scale = 2, columnDefinition = "DECIMAL(10,2) COMMENT '小計（qty * unit_price）'")
-    @DecimalMin(value = "0.00", message = "小計不能為負數")
-    @Schema(description = "小計", example = "1000.00")
-    private BigDecimal subtotal;
+    @Schema(implementation = BigDecimal.class, description = "小計", example = "1000.00")
+    private Money subtotal;
 
     /**
      * 備註（例如毛色、生日、服務細節）
@@ -142,7 +142,7 @@ public class OrderItem {
      */
     private void calculateSubtotal() {
         if (qty != null && unitPrice != null) {
-            subtotal = unitPrice.multiply(BigDecimal.valueOf(qty));
+            subtotal = unitPrice.times(qty);
         }
     }
 }
\ No newline at end of file
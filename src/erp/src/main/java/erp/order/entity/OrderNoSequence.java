@@ -0,0 +1,54 @@
+package erp.order.entity;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.persistence.*;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * 訂單編號每日序號實體類
+ * 對應資料庫表：order_no_sequences
+ */
+@Entity
+@Schema(description = "訂單編號每日序號實體")
+@Table(name = "order_no_sequences")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class OrderNoSequence {
+
+    /**
+     * 序號日期
+     */
+    @Id
+    @Column(name = "seq_date", nullable = false, columnDefinition = "DATE COMMENT '序號日期'")
+    @Schema(description = "序號日期", example = "2025-08-06")
+    private LocalDate seqDate;
+
+    /**
+     * 下一個尚未分配的序號
+     */
+    @Column(name = "next_value", nullable = false, columnDefinition = "BIGINT COMMENT '下一個尚未分配的序號'")
+    @Schema(description = "下一個尚未分配的序號", example = "51")
+    private Long nextValue;
+
+    /**
+     * 建立時間
+     */
+    @Column(name = "created_at", columnDefinition = "DATETIME(3) COMMENT '建立時間'")
+    @Schema(description = "建立時間", example = "2025-08-06T22:18:00")
+    private LocalDateTime createdAt;
+
+    /**
+     * 最後更新時間
+     */
+    @Column(name = "updated_at", columnDefinition = "DATETIME(3) COMMENT '最後更新時間'")
+    @Schema(description = "最後更新時間", example = "2025-08-06T22:18:00")
+    private LocalDateTime updatedAt;
+}
@@ -0,0 +1,94 @@
+package erp.order.entity;
+
+import erp.order.enums.OrderStatus;
+import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.persistence.*;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+
+import java.time.LocalDateTime;
+
+/**
+ * 未完成訂單提醒實體類
+ * 對應資料庫表：order_reminders
+ * 由 OrderReminderServiceImpl 定期掃描逾時訂單產生，同一訂單同一狀態只會有一筆
+ */
+@Entity
+@Schema(description = "未完成訂單提醒實體")
+@Table(name = "order_reminders", indexes = {
+    @Index(name = "uk_order_reminder", columnList = "order_id, status", unique = true),
+    @Index(name = "idx_reminder_resolved_status", columnList = "resolved_at, status")
+})
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class OrderReminder {
+
+    /**
+     * 提醒ID
+     */
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @Column(name = "id", nullable = false, columnDefinition = "BIGINT COMMENT '提醒ID'")
+    @Schema(description = "提醒ID", example = "1")
+    private Long id;
+
+    /**
+     * 訂單ID
+     */
+    @Column(name = "order_id", nullable = false, columnDefinition = "BIGINT COMMENT '訂單ID'")
+    @Schema(description = "訂單ID", example = "1")
+    private Long orderId;
+
+    /**
+     * 訂單編號
+     */
+    @Column(name = "order_no", length = 50, columnDefinition = "VARCHAR(50) COMMENT '訂單編號'")
+    @Schema(description = "訂單編號", example = "ORD20250806001")
+    private String orderNo;
+
+    /**
+     * 客戶ID
+     */
+    @Column(name = "customer_id", columnDefinition = "BIGINT COMMENT '客戶ID'")
+    @Schema(description = "客戶ID", example = "1")
+    private Long customerId;
+
+    /**
+     * 逾時時的訂單狀態
+     */
+    @Column(name = "status", nullable = false, columnDefinition = "TINYINT COMMENT '逾時時的訂單狀態：1=已下單，2=已付款，3=已出貨'")
+    @Schema(description = "逾時時的訂單狀態", example = "PAID")
+    private OrderStatus status;
+
+    /**
+     * 下單時間
+     */
+    @Column(name = "order_time", nullable = false, columnDefinition = "DATETIME(3) COMMENT '下單時間'")
+    @Schema(description = "下單時間", example = "2025-08-06T22:18:00")
+    private LocalDateTime orderTime;
+
+    /**
+     * 逾時時間點
+     */
+    @Column(name = "overdue_at", nullable = false, columnDefinition = "DATETIME(3) COMMENT '逾時時間點（下單時間加上該狀態的允許時長）'")
+    @Schema(description = "逾時時間點", example = "2025-08-08T22:18:00")
+    private LocalDateTime overdueAt;
+
+    /**
+     * 提醒建立時間
+     */
+    @Column(name = "created_at", nullable = false, columnDefinition = "DATETIME(3) COMMENT '提醒建立時間'")
+    @Schema(description = "提醒建立時間", example = "2025-08-08T22:20:00")
+    private LocalDateTime createdAt;
+
+    /**
+     * 解除時間（訂單已離開該狀態）
+     */
+    @Column(name = "resolved_at", columnDefinition = "DATETIME(3) COMMENT '解除時間（訂單已離開該狀態）'")
+    @Schema(description = "解除時間", example = "2025-08-09T10:00:00")
+    private LocalDateTime resolvedAt;
+}
@@ -0,0 +1,23 @@
+package erp.order.enums;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.Getter;
+
+/**
+ * 訂單匯出格式枚舉
+ */
+@Getter
+@Schema(description = "訂單匯出格式", example = "CSV")
+public enum OrderExportFormat {
+    CSV("text/csv", "csv"),
+    NDJSON("application/x-ndjson", "ndjson");
+
+    private final String contentType;
+    private final String extension;
+
+    OrderExportFormat(String contentType, String extension) {
+        this.contentType = contentType;
+        this.extension = extension;
+    }
+
+}
@@ -25,4 +25,30 @@ public enum OrderStatus implements CodedEnum {
         this.description = description;
     }
 
+    /**
+     * 是否允許轉換到目標狀態
+     * DRAFT → PENDING → PAID → SHIPPED → COMPLETED，COMPLETED 以外的狀態皆可轉為 CANCELLED
+     * @param target 目標狀態
+     * @return 是否允許
+     */
+    public boolean canTransitionTo(OrderStatus target) {
+        if (target == null || target == this) {
+            return false;
+        }
+        return switch (this) {
+            case DRAFT -> target == PENDING || target == CANCELLED;
+            case PENDING -> target == PAID || target == CANCELLED;
+            case PAID -> target == SHIPPED || target == CANCELLED;
+            case SHIPPED -> target == COMPLETED || target == CANCELLED;
+            case COMPLETED, CANCELLED -> false;
+        };
+    }
+
+    /**
+     * 是否為終止狀態（已完成或已取消）
+     * @return 是否為終止狀態
+     */
+    public boolean isTerminal() {
+        return this == COMPLETED || this == CANCELLED;
+    }
 }
\ No newline at end of file
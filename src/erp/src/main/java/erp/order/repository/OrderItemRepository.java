@@ -1,16 +1,19 @@
 package erp.order.repository;
 
+import erp.common.money.Money;
 import erp.order.entity.OrderItem;
 import erp.product.enums.ProductType;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -19,7 +22,7 @@ import java.util.Optional;
  * 提供訂單明細相關的資料庫操作方法
  */
 @Repository
-public interface OrderItemRepository extends JpaRepository<OrderItem, Long> {
+public interface OrderItemRepository extends JpaRepository<OrderItem, Long>, JpaSpecificationExecutor<OrderItem> {
     
     //region 基本查詢方法
     /**
@@ -28,6 +31,13 @@ public interface OrderItemRepository extends JpaRepository<OrderItem, Long> {
      * @return 訂單明細列表
      */
     List<OrderItem> findByOrderId(Long orderId);
+
+    /**
+     * 根據多筆訂單ID查詢所有訂單明細
+     * @param orderIds 訂單ID列表
+     * @return 訂單明細列表
+     */
+    List<OrderItem> findByOrderIdIn(Collection<Long> orderIds);
     
     /**
      * 根據訂單ID分頁查詢訂單明細
@@ -147,7 +157,7 @@ public interface OrderItemRepository extends JpaRepository<OrderItem, Long> {
      * @param maxPrice 最大單價
      * @return 訂單明細列表
      */
-    List<OrderItem> findByUnitPriceBetween(BigDecimal minPrice, BigDecimal maxPrice);
+    List<OrderItem> findByUnitPriceBetween(Money minPrice, Money maxPrice);
     
     /**
      * 根據單價範圍分頁查詢訂單明細
@@ -156,21 +166,21 @@ public interface OrderItemRepository extends JpaRepository<OrderItem, Long> {
      * @param pageable 分頁參數
      * @return 訂單明細分頁結果
      */
-    Page<OrderItem> findByUnitPriceBetween(BigDecimal minPrice, BigDecimal maxPrice, Pageable pageable);
+    Page<OrderItem> findByUnitPriceBetween(Money minPrice, Money maxPrice, Pageable pageable);
     
     /**
      * 查詢單價大於等於指定值的訂單明細
      * @param price 單價下限
      * @return 訂單明細列表
      */
-    List<OrderItem> findByUnitPriceGreaterThanEqual(BigDecimal price);
+    List<OrderItem> findByUnitPriceGreaterThanEqual(Money price);
     
     /**
      * 查詢單價小於等於指定值的訂單明細
      * @param price 單價上限
      * @return 訂單明細列表
      */
-    List<OrderItem> findByUnitPriceLessThanEqual(BigDecimal price);
+    List<OrderItem> findByUnitPriceLessThanEqual(Money price);
     //endregion
     
     //region 按總額查詢
@@ -180,7 +190,7 @@ public interface OrderItemRepository extends JpaRepository<OrderItem, Long> {
      * @param maxAmount 最大總額
      * @return 訂單明細列表
      */
-    @Query("SELECT oi FROM OrderItem oi WHERE (oi.unitPrice * oi.qty) BETWEEN :minAmount AND :maxAmount")
+    @Query("SELECT oi FROM OrderItem oi WHERE (CAST(oi.unitPrice AS BigDecimal) * oi.qty) BETWEEN :minAmount AND :maxAmount")
     List<OrderItem> findByTotalAmountBetween(@Param("minAmount") BigDecimal minAmount,
                                            @Param("maxAmount") BigDecimal maxAmount);
     
@@ -191,7 +201,7 @@ public interface OrderItemRepository extends JpaRepository<OrderItem, Long> {
      * @param pageable 分頁參數
      * @return 訂單明細分頁結果
      */
-    @Query("SELECT oi FROM OrderItem oi WHERE (oi.unitPrice * oi.qty) BETWEEN :minAmount AND :maxAmount")
+    @Query("SELECT oi FROM OrderItem oi WHERE (CAST(oi.unitPrice AS BigDecimal) * oi.qty) BETWEEN :minAmount AND :maxAmount")
     Page<OrderItem> findByTotalAmountBetween(@Param("minAmount") BigDecimal minAmount,
                                            @Param("maxAmount") BigDecimal maxAmount,
                                            Pageable pageable);
@@ -260,14 +270,14 @@ public interface OrderItemRepository extends JpaRepository<OrderItem, Long> {
      * 按產品統計總金額
      * @return 產品ID-總金額對應列表
      */
-    @Query("SELECT oi.productId, SUM(oi.unitPrice * oi.qty) FROM OrderItem oi GROUP BY oi.productId")
+    @Query("SELECT oi.productId, SUM(CAST(oi.unitPrice AS BigDecimal) * oi.qty) FROM OrderItem oi GROUP BY oi.productId")
     List<Object[]> sumAmountByProduct();
     
     /**
      * 按產品類型統計平均單價
      * @return 產品類型-平均單價對應列表
      */
-    @Query("SELECT oi.productType, AVG(oi.unitPrice) FROM OrderItem oi GROUP BY oi.productType")
+    @Query("SELECT oi.productType, AVG(CAST(oi.unitPrice AS BigDecimal)) FROM OrderItem oi GROUP BY oi.productType")
     List<Object[]> avgPriceByProductType();
     
     /**
@@ -275,7 +285,7 @@ public interface OrderItemRepository extends JpaRepository<OrderItem, Long> {
      * @param orderId 訂單ID
      * @return 總金額
      */
-    @Query("SELECT SUM(oi.unitPrice * oi.qty) FROM OrderItem oi WHERE oi.orderId = :orderId")
+    @Query("SELECT SUM(CAST(oi.unitPrice AS BigDecimal) * oi.qty) FROM OrderItem oi WHERE oi.orderId = :orderId")
     BigDecimal sumAmountByOrder(@Param("orderId") Long orderId);
     
     /**
@@ -291,7 +301,7 @@ public interface OrderItemRepository extends JpaRepository<OrderItem, Long> {
      * @param productType 產品類型
      * @return 平均單價
      */
-    @Query("SELECT AVG(oi.unitPrice) FROM OrderItem oi WHERE oi.productType = :productType")
+    @Query("SELECT AVG(CAST(oi.unitPrice AS BigDecimal)) FROM OrderItem oi WHERE oi.productType = :productType")
     BigDecimal avgPriceByProductType(@Param("productType") ProductType productType);
     //endregion
     
@@ -329,40 +339,6 @@ public interface OrderItemRepository extends JpaRepository<OrderItem, Long> {
     List<OrderItem> findTop5ByOrderIdOrderByQtyDesc(Long orderId);
     //endregion
     
-    //region 複合條件查詢
-    /**
-     * 多條件查詢訂單明細
-     * @param orderId 訂單ID（可為null）
-     * @param productId 產品ID（可為null）
-     * @param productType 產品類型（可為null）
-     * @param minQty 最小數量（可為null）
-     * @param maxQty 最大數量（可為null）
-     * @param minPrice 最小單價（可為null）
-     * @param maxPrice 最大單價（可為null）
-     * @param productName 產品名稱關鍵字（可為null）
-     * @param pageable 分頁參數
-     * @return 訂單明細分頁結果
-     */
-    @Query("SELECT oi FROM OrderItem oi WHERE " +
-           "(:orderId IS NULL OR oi.orderId = :orderId) AND " +
-           "(:productId IS NULL OR oi.productId = :productId) AND " +
-           "(:productType IS NULL OR oi.productType = :productType) AND " +
-           "(:minQty IS NULL OR oi.qty >= :minQty) AND " +
-           "(:maxQty IS NULL OR oi.qty <= :maxQty) AND " +
-           "(:minPrice IS NULL OR oi.unitPrice >= :minPrice) AND " +
-           "(:maxPrice IS NULL OR oi.unitPrice <= :maxPrice) AND " +
-           "(:productName IS NULL OR LOWER(oi.productName) LIKE LOWER(CONCAT('%', :productName, '%')))")
-    Page<OrderItem> findByMultipleConditions(@Param("orderId") Long orderId,
-                                            @Param("productId") Long productId,
-                                            @Param("productType") ProductType productType,
-                                            @Param("minQty") Integer minQty,
-                                            @Param("maxQty") Integer maxQty,
-                                            @Param("minPrice") BigDecimal minPrice,
-                                            @Param("maxPrice") BigDecimal maxPrice,
-                                            @Param("productName") String productName,
-                                            Pageable pageable);
-    //endregion
-    
     //region 日期查詢
     /**
      * 根據創建日期範圍查詢訂單明細
@@ -0,0 +1,43 @@
+package erp.order.repository;
+
+import erp.order.entity.OrderNoSequence;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+
+/**
+ * 訂單編號每日序號資料存取層
+ * 以每日一列的計數器分段配發訂單序號
+ */
+@Repository
+public interface OrderNoSequenceRepository extends JpaRepository<OrderNoSequence, LocalDate> {
+
+    //region 序號配發方法
+    /**
+     * 預留指定日期的一段序號
+     * 當日首次配發時插入計數列，否則將計數器推進一個區段；
+     * 執行後該列會被鎖定直到交易結束，多個節點之間不會拿到重疊的區段
+     * @param seqDate 序號日期
+     * @param blockSize 區段大小
+     * @return 影響筆數
+     */
+    @Modifying
+    @Query(value = "INSERT INTO order_no_sequences (seq_date, next_value, created_at, updated_at) " +
+           "VALUES (:seqDate, :blockSize + 1, CURRENT_TIMESTAMP(3), CURRENT_TIMESTAMP(3)) " +
+           "ON DUPLICATE KEY UPDATE next_value = next_value + :blockSize, updated_at = CURRENT_TIMESTAMP(3)",
+           nativeQuery = true)
+    int reserveBlock(@Param("seqDate") LocalDate seqDate, @Param("blockSize") int blockSize);
+
+    /**
+     * 查詢指定日期下一個尚未分配的序號
+     * @param seqDate 序號日期
+     * @return 下一個尚未分配的序號
+     */
+    @Query(value = "SELECT next_value FROM order_no_sequences WHERE seq_date = :seqDate", nativeQuery = true)
+    Long findNextValue(@Param("seqDate") LocalDate seqDate);
+    //endregion
+}
@@ -0,0 +1,44 @@
+package erp.order.repository;
+
+import erp.order.entity.OrderReminder;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+
+/**
+ * 未完成訂單提醒 Repository
+ */
+@Repository
+public interface OrderReminderRepository extends JpaRepository<OrderReminder, Long>, JpaSpecificationExecutor<OrderReminder> {
+
+    /**
+     * 解除訂單已離開該狀態（或已被刪除）的提醒
+     * 只掃描未解除的提醒（resolved_at 索引），再依主鍵比對訂單目前狀態
+     * @param resolvedAt 解除時間
+     * @return 解除的提醒數
+     */
+    @Modifying
+    @Transactional
+    @Query(value = "UPDATE order_reminders r LEFT JOIN orders o ON o.id = r.order_id " +
+                   "SET r.resolved_at = :resolvedAt " +
+                   "WHERE r.resolved_at IS NULL AND (o.id IS NULL OR o.status <> r.status)", nativeQuery = true)
+    int resolveStaleReminders(@Param("resolvedAt") LocalDateTime resolvedAt);
+
+    /**
+     * 解除多筆訂單的全部未解除提醒（批次狀態轉換後，訂單已離開提醒的狀態）
+     * @param orderIds 訂單ID
+     * @param resolvedAt 解除時間
+     * @return 解除的提醒數
+     */
+    @Modifying
+    @Query(value = "UPDATE order_reminders SET resolved_at = :resolvedAt " +
+                   "WHERE order_id IN (:orderIds) AND resolved_at IS NULL", nativeQuery = true)
+    int resolveByOrderIdIn(@Param("orderIds") Collection<Long> orderIds, @Param("resolvedAt") LocalDateTime resolvedAt);
+}
@@ -1,17 +1,24 @@
 package erp.order.repository;
 
+import erp.common.money.Money;
+import erp.order.dto.OverdueOrderRow;
 import erp.order.entity.Order;
 import erp.order.enums.OrderStatus;
 import erp.payment.enums.PaymentMethod;
+import jakarta.persistence.LockModeType;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -20,7 +27,7 @@ import java.util.Optional;
  * 提供訂單相關的資料庫操作方法
  */
 @Repository
-public interface OrderRepository extends JpaRepository<Order, Long> {
+public interface OrderRepository extends JpaRepository<Order, Long>, JpaSpecificationExecutor<Order> {
     
     //region 基本查詢方法
     /**
@@ -131,7 +138,7 @@ public interface OrderRepository extends JpaRepository<Order, Long> {
      * @param maxAmount 最大金額
      * @return 訂單列表
      */
-    List<Order> findByTotalAmountBetween(BigDecimal minAmount, BigDecimal maxAmount);
+    List<Order> findByTotalAmountBetween(Money minAmount, Money maxAmount);
     
     /**
      * 根據總金額範圍分頁查詢訂單
@@ -140,7 +147,7 @@ public interface OrderRepository extends JpaRepository<Order, Long> {
      * @param pageable 分頁參數
      * @return 訂單分頁結果
      */
-    Page<Order> findByTotalAmountBetween(BigDecimal minAmount, BigDecimal maxAmount, Pageable pageable);
+    Page<Order> findByTotalAmountBetween(Money minAmount, Money maxAmount, Pageable pageable);
     
     /**
      * 根據最終金額範圍查詢訂單
@@ -148,7 +155,7 @@ public interface OrderRepository extends JpaRepository<Order, Long> {
      * @param maxAmount 最大金額
      * @return 訂單列表
      */
-    List<Order> findByFinalAmountBetween(BigDecimal minAmount, BigDecimal maxAmount);
+    List<Order> findByFinalAmountBetween(Money minAmount, Money maxAmount);
     
     /**
      * 根據最終金額範圍分頁查詢訂單
@@ -157,21 +164,21 @@ public interface OrderRepository extends JpaRepository<Order, Long> {
      * @param pageable 分頁參數
      * @return 訂單分頁結果
      */
-    Page<Order> findByFinalAmountBetween(BigDecimal minAmount, BigDecimal maxAmount, Pageable pageable);
+    Page<Order> findByFinalAmountBetween(Money minAmount, Money maxAmount, Pageable pageable);
     
     /**
      * 查詢金額大於等於指定值的訂單
      * @param amount 金額下限
      * @return 訂單列表
      */
-    List<Order> findByFinalAmountGreaterThanEqual(BigDecimal amount);
+    List<Order> findByFinalAmountGreaterThanEqual(Money amount);
     
     /**
      * 查詢金額小於等於指定值的訂單
      * @param amount 金額上限
      * @return 訂單列表
      */
-    List<Order> findByFinalAmountLessThanEqual(BigDecimal amount);
+    List<Order> findByFinalAmountLessThanEqual(Money amount);
     //endregion
     
     //region 排序查詢
@@ -224,7 +231,7 @@ public interface OrderRepository extends JpaRepository<Order, Long> {
      * @param status 訂單狀態
      * @return 平均金額
      */
-    @Query("SELECT AVG(o.finalAmount) FROM Order o WHERE o.status = :status")
+    @Query("SELECT AVG(CAST(o.finalAmount AS BigDecimal)) FROM Order o WHERE o.status = :status")
     BigDecimal avgAmountByStatus(@Param("status") OrderStatus status);
     
     /**
@@ -232,7 +239,7 @@ public interface OrderRepository extends JpaRepository<Order, Long> {
      * @param customerId 客戶ID
      * @return 總金額
      */
-    @Query("SELECT SUM(o.finalAmount) FROM Order o WHERE o.customerId = :customerId")
+    @Query("SELECT SUM(CAST(o.finalAmount AS BigDecimal)) FROM Order o WHERE o.customerId = :customerId")
     BigDecimal sumAmountByCustomer(@Param("customerId") Long customerId);
     //endregion
     
@@ -257,37 +264,6 @@ public interface OrderRepository extends JpaRepository<Order, Long> {
     List<Order> findTop5ByCustomerIdOrderByCreatedAtDesc(Long customerId);
     //endregion
     
-    //region 複合條件查詢
-    /**
-     * 多條件查詢訂單
-     * @param customerId 客戶ID（可為null）
-     * @param status 訂單狀態（可為null）
-     * @param paymentMethod 付款方式（可為null）
-     * @param minAmount 最小金額（可為null）
-     * @param maxAmount 最大金額（可為null）
-     * @param startDate 開始日期（可為null）
-     * @param endDate 結束日期（可為null）
-     * @param pageable 分頁參數
-     * @return 訂單分頁結果
-     */
-    @Query("SELECT o FROM Order o WHERE " +
-           "(:customerId IS NULL OR o.customerId = :customerId) AND " +
-           "(:status IS NULL OR o.status = :status) AND " +
-           "(:paymentMethod IS NULL OR o.paymentMethod = :paymentMethod) AND " +
-           "(:minAmount IS NULL OR o.finalAmount >= :minAmount) AND " +
-           "(:maxAmount IS NULL OR o.finalAmount <= :maxAmount) AND " +
-           "(:startDate IS NULL OR o.createdAt >= :startDate) AND " +
-           "(:endDate IS NULL OR o.createdAt <= :endDate)")
-    Page<Order> findByMultipleConditions(@Param("customerId") Long customerId,
-                                        @Param("status") OrderStatus status,
-                                        @Param("paymentMethod") PaymentMethod paymentMethod,
-                                        @Param("minAmount") BigDecimal minAmount,
-                                        @Param("maxAmount") BigDecimal maxAmount,
-                                        @Param("startDate") LocalDateTime startDate,
-                                        @Param("endDate") LocalDateTime endDate,
-                                        Pageable pageable);
-    //endregion
-    
     //region 其他實用方法
     /**
      * 查詢有備註的訂單
@@ -308,4 +284,71 @@ public interface OrderRepository extends JpaRepository<Order, Long> {
      */
     List<Order> findByNoContainingIgnoreCase(String orderNo);
     //endregion
+    
+    //region 狀態轉換
+    /**
+     * 條件式轉換訂單狀態
+     * 僅在狀態與版本號皆符合預期時更新，並遞增版本號
+     * @param id 訂單ID
+     * @param currentStatus 預期的目前狀態
+     * @param version 預期的版本號
+     * @param newStatus 新狀態
+     * @param updatedAt 更新時間
+     * @return 受影響的列數（0 表示狀態或版本已被其他交易變更）
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE Order o SET o.status = :newStatus, o.version = o.version + 1, o.updatedAt = :updatedAt " +
+           "WHERE o.id = :id AND o.status = :currentStatus AND o.version = :version")
+    int transitionStatus(@Param("id") Long id,
+                         @Param("currentStatus") OrderStatus currentStatus,
+                         @Param("version") Long version,
+                         @Param("newStatus") OrderStatus newStatus,
+                         @Param("updatedAt") LocalDateTime updatedAt);
+
+    /**
+     * 依訂單ID順序鎖定多筆訂單（批次狀態轉換時）
+     * @param ids 訂單ID
+     * @return 存在的訂單
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT o FROM Order o WHERE o.id IN :ids ORDER BY o.id")
+    List<Order> findForUpdateByIdIn(@Param("ids") Collection<Long> ids);
+
+    /**
+     * 以單一 UPDATE 轉換多筆訂單的狀態，並遞增版本號
+     * 呼叫前需已鎖定並驗證這些訂單
+     * @param ids 訂單ID
+     * @param newStatus 新狀態
+     * @param updatedAt 更新時間
+     * @return 受影響的列數
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE Order o SET o.status = :newStatus, o.version = o.version + 1, o.updatedAt = :updatedAt " +
+           "WHERE o.id IN :ids")
+    int bulkTransitionStatus(@Param("ids") Collection<Long> ids,
+                             @Param("newStatus") OrderStatus newStatus,
+                             @Param("updatedAt") LocalDateTime updatedAt);
+    //endregion
+    
+    //region 逾時掃描
+    /**
+     * 依 (status, order_time) 索引範圍掃描逾時訂單
+     * 以 (orderTime, id) 為游標，只取游標之後、截止時間之前的一批
+     * @param status 訂單狀態
+     * @param cutoff 截止時間（下單時間不晚於此時間視為逾時）
+     * @param afterTime 游標下單時間
+     * @param afterId 游標訂單ID
+     * @param pageable 批次大小（僅使用 pageSize）
+     * @return 逾時訂單欄位列表
+     */
+    @Query("SELECT new erp.order.dto.OverdueOrderRow(o.id, o.no, o.customerId, o.orderTime) FROM Order o " +
+           "WHERE o.status = :status AND o.orderTime >= :afterTime AND o.orderTime <= :cutoff " +
+           "AND (o.orderTime > :afterTime OR o.id > :afterId) " +
+           "ORDER BY o.orderTime ASC, o.id ASC")
+    List<OverdueOrderRow> findOverdueOrders(@Param("status") OrderStatus status,
+                                            @Param("cutoff") LocalDateTime cutoff,
+                                            @Param("afterTime") LocalDateTime afterTime,
+                                            @Param("afterId") Long afterId,
+                                            Pageable pageable);
+    //endregion
 }
\ No newline at end of file
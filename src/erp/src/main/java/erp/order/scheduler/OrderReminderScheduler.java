@@ -0,0 +1,33 @@
+package erp.order.scheduler;
+
+import erp.order.constant.OrderConstants;
+import erp.order.service.impl.OrderReminderServiceImpl;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * 未完成訂單提醒排程
+ * 以固定間隔觸發一輪掃描，erp.order.reminder.enabled=false 時不註冊
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+@ConditionalOnProperty(prefix = "erp.order.reminder", name = "enabled", havingValue = "true", matchIfMissing = true)
+public class OrderReminderScheduler {
+
+    private final OrderReminderServiceImpl orderReminderService;
+
+    @Scheduled(initialDelayString = "${erp.order.reminder.initial-delay:PT1M}",
+               fixedDelayString = "${erp.order.reminder.fixed-delay:PT5M}")
+    public void scanOverdueOrders() {
+        try {
+            orderReminderService.runCycle();
+        } catch (RuntimeException e) {
+            // 單輪失敗不影響後續排程，游標未推進的部分下一輪重試
+            log.error(OrderConstants.LOG_REMINDER_CYCLE_FAILED, e);
+        }
+    }
+}
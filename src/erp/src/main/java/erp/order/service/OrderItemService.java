@@ -1,6 +1,8 @@
 package erp.order.service;
 
+import erp.order.dto.OrderItemUpdateDto;
 import erp.order.entity.OrderItem;
+import erp.order.enums.OrderStatus;
 import erp.product.enums.ProductType;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
@@ -31,7 +33,10 @@ public interface OrderItemService {
     OrderItem updateOrderItem(Long itemId, Long productId, String productName, 
                              ProductType productType, Integer qty, BigDecimal unitPrice, 
                              String notes);
+    List<OrderItem> createOrderItems(Long orderId, List<OrderItem> orderItems);
+    List<OrderItem> createInitialOrderItems(Long orderId, OrderStatus status, List<OrderItem> orderItems);
     void deleteOrderItem(Long itemId);
+    List<OrderItem> applyOrderItemChanges(Long orderId, List<OrderItemUpdateDto> changes);
     //endregion
     
     //region 控制器專用業務邏輯區塊
@@ -1,16 +1,25 @@
 package erp.order.service;
 
+import erp.common.dto.BasePageResponse;
 import erp.order.dto.OrderCreateRequestDto;
 import erp.order.dto.OrderCreateResponseDto;
+import erp.order.dto.OrderExportRequestDto;
 import erp.order.dto.OrderUpdateRequestDto;
 import erp.order.dto.OrderUpdateResponseDto;
 import erp.order.dto.OrderStatusUpdateDto;
+import erp.order.dto.OrderBulkStatusUpdateDto;
+import erp.order.dto.OrderBulkStatusUpdateResponseDto;
+import erp.order.dto.OrderSearchRequestDto;
+import erp.order.dto.OrderReminderSearchRequestDto;
 import erp.order.entity.Order;
+import erp.order.entity.OrderReminder;
 import erp.order.enums.OrderStatus;
 import erp.payment.enums.PaymentMethod;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 
+import java.io.IOException;
+import java.io.OutputStream;
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
 import java.util.List;
@@ -42,6 +51,18 @@ public interface OrderService {
     Order updateOrderStatus(Long orderId, OrderStatus status);
     //endregion
     
+    //region 控制器專用業務邏輯區塊 - 查詢相關
+    BasePageResponse<Order> searchOrders(OrderSearchRequestDto request);
+    //endregion
+    
+    //region 控制器專用業務邏輯區塊 - 匯出相關
+    void exportOrders(OrderExportRequestDto request, OutputStream outputStream) throws IOException;
+    //endregion
+    
+    //region 控制器專用業務邏輯區塊 - 提醒相關
+    BasePageResponse<OrderReminder> searchOrderReminders(OrderReminderSearchRequestDto request);
+    //endregion
+    
     //region 控制器專用業務邏輯區塊 - 創建相關
     OrderCreateResponseDto createOrder(OrderCreateRequestDto request);
     //endregion
@@ -49,5 +70,6 @@ public interface OrderService {
     //region 控制器專用業務邏輯區塊 - 更新相關
     OrderUpdateResponseDto updateOrder(OrderUpdateRequestDto request);
     OrderUpdateResponseDto updateOrderStatus(OrderStatusUpdateDto request);
+    OrderBulkStatusUpdateResponseDto bulkUpdateOrderStatus(OrderBulkStatusUpdateDto request);
     //endregion
 }
\ No newline at end of file
@@ -1,17 +1,32 @@
 package erp.order.service.impl;
 
+import erp.common.constant.ErrorCode;
+import erp.common.exception.OrderConflictException;
+import erp.common.exception.OrderException;
+import erp.common.money.Money;
 import erp.order.constant.OrderConstants;
+import erp.order.dto.OrderBulkStatusResultDto;
+import erp.order.dto.OrderBulkStatusUpdateResponseDto;
 import erp.order.entity.Order;
 import erp.order.enums.OrderStatus;
+import erp.order.repository.OrderReminderRepository;
 import erp.order.repository.OrderRepository;
 import erp.payment.enums.PaymentMethod;
+import erp.report.dto.OrderRollupChange;
+import erp.report.dto.OrderRollupRow;
+import erp.report.service.impl.SalesRollupServiceImpl;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Component;
 import org.springframework.transaction.annotation.Transactional;
 
-import java.math.BigDecimal;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
 
 /**
  * 訂單創建更新功能實現
@@ -25,6 +40,10 @@ public class OrderCreateUpdateServiceImpl {
 
     private final OrderRepository orderRepository;
     private final OrderQueryServiceImpl queryService;
+    private final OrderNoAllocatorServiceImpl orderNoAllocator;
+    private final SalesRollupServiceImpl salesRollupService;
+    private final OrderStockServiceImpl orderStockService;
+    private final OrderReminderRepository orderReminderRepository;
 
     /**
      * 創建訂單
@@ -37,13 +56,13 @@ public class OrderCreateUpdateServiceImpl {
      * @param notes 備註
      * @return 創建的訂單
      */
-    public Order createOrder(Long customerId, OrderStatus status, BigDecimal totalAmount, 
-                            BigDecimal discountAmount, BigDecimal finalAmount, 
+    public Order createOrder(Long customerId, OrderStatus status, Money totalAmount, 
+                            Money discountAmount, Money finalAmount, 
                             PaymentMethod paymentMethod, String notes) {
         log.info(OrderConstants.LOG_CREATE_ORDER, customerId);
         
-        // 生成訂單編號
-        String orderNo = generateOrderNo();
+        // 配發訂單編號
+        String orderNo = orderNoAllocator.nextOrderNo();
         
         // 構建訂單實體
         Order order = Order.builder()
@@ -51,18 +70,19 @@ public class OrderCreateUpdateServiceImpl {
                 .customerId(customerId)
                 .status(status != null ? status : OrderStatus.PENDING)
                 .totalAmount(totalAmount)
-                .discountAmount(discountAmount != null ? discountAmount : BigDecimal.ZERO)
+                .discountAmount(discountAmount != null ? discountAmount : Money.ZERO)
                 .finalAmount(finalAmount)
                 .paymentMethod(paymentMethod)
                 .notes(notes)
                 .orderTime(LocalDateTime.now())
                 .build();
         
-        // 驗證訂單數據
-        validateOrder(order);
+        // 驗證訂單數據（配發的編號必定唯一，無需再查詢）
+        validateOrder(order, false);
         
-        // 保存訂單
+        // 保存訂單，並在同一交易內累加每日彙總
         Order savedOrder = orderRepository.save(order);
+        salesRollupService.applyOrderChange(null, OrderRollupRow.of(savedOrder));
         log.info("訂單創建成功，ID: {}, 編號: {}", savedOrder.getId(), savedOrder.getNo());
         return savedOrder;
     }
@@ -75,9 +95,10 @@ public class OrderCreateUpdateServiceImpl {
     public Order createOrder(Order order) {
         log.info(OrderConstants.LOG_CREATE_ORDER, order.getCustomerId());
         
-        // 如果沒有訂單編號，生成一個
-        if (order.getNo() == null || order.getNo().isEmpty()) {
-            order.setNo(generateOrderNo());
+        // 如果沒有訂單編號，配發一個；外部指定的編號才需檢查唯一性
+        boolean checkOrderNo = order.getNo() != null && !order.getNo().isEmpty();
+        if (!checkOrderNo) {
+            order.setNo(orderNoAllocator.nextOrderNo());
         }
         
         // 設置預設值
@@ -86,7 +107,7 @@ public class OrderCreateUpdateServiceImpl {
         }
         
         if (order.getDiscountAmount() == null) {
-            order.setDiscountAmount(BigDecimal.ZERO);
+            order.setDiscountAmount(Money.ZERO);
         }
         
         if (order.getOrderTime() == null) {
@@ -94,10 +115,11 @@ public class OrderCreateUpdateServiceImpl {
         }
         
         // 驗證訂單數據
-        validateOrder(order);
+        validateOrder(order, checkOrderNo);
         
-        // 保存訂單
+        // 保存訂單，並在同一交易內累加每日彙總
         Order savedOrder = orderRepository.save(order);
+        salesRollupService.applyOrderChange(null, OrderRollupRow.of(savedOrder));
         log.info("訂單創建成功，ID: {}, 編號: {}", savedOrder.getId(), savedOrder.getNo());
         return savedOrder;
     }
@@ -115,25 +137,59 @@ public class OrderCreateUpdateServiceImpl {
      * @return 更新後的訂單
      */
     public Order updateOrder(Long orderId, Long customerId, OrderStatus status, 
-                            BigDecimal totalAmount, BigDecimal discountAmount, 
-                            BigDecimal finalAmount, PaymentMethod paymentMethod, String notes) {
+                            Money totalAmount, Money discountAmount, 
+                            Money finalAmount, PaymentMethod paymentMethod, String notes) {
+        return updateOrder(orderId, customerId, status, totalAmount, discountAmount,
+                           finalAmount, paymentMethod, notes, null);
+    }
+
+    /**
+     * 更新訂單（帶版本檢查）
+     * 版本號不符時拋出衝突異常；讀取後被併發修改則由 JPA 版本檢查攔截
+     * @param orderId 訂單ID
+     * @param customerId 客戶ID
+     * @param status 訂單狀態
+     * @param totalAmount 總金額
+     * @param discountAmount 折扣金額
+     * @param finalAmount 最終金額
+     * @param paymentMethod 付款方式
+     * @param notes 備註
+     * @param expectedVersion 客戶端持有的版本號（null 表示不檢查）
+     * @return 更新後的訂單
+     */
+    public Order updateOrder(Long orderId, Long customerId, OrderStatus status, 
+                            Money totalAmount, Money discountAmount, 
+                            Money finalAmount, PaymentMethod paymentMethod, String notes,
+                            Long expectedVersion) {
         log.info(OrderConstants.LOG_UPDATE_ORDER, orderId);
         
         // 獲取現有訂單
         Order existingOrder = queryService.getOrderById(orderId);
         
-        // 檢查訂單狀態是否允許修改
+        // 檢查版本號與訂單狀態是否允許修改
+        validateVersion(existingOrder, expectedVersion);
         validateOrderModifiable(existingOrder);
+        if (status != null && status != existingOrder.getStatus()) {
+            validateStatusTransition(existingOrder.getStatus(), status);
+        }
+        
+        // 記錄異動前的彙總貢獻
+        OrderRollupRow before = OrderRollupRow.of(existingOrder);
+        OrderStatus previousStatus = existingOrder.getStatus();
         
         // 更新訂單欄位
         updateOrderFields(existingOrder, customerId, status, totalAmount, discountAmount, 
                          finalAmount, paymentMethod, notes);
         
         // 驗證更新後的訂單數據
-        validateOrder(existingOrder);
+        validateOrder(existingOrder, true);
         
-        // 保存更新
+        // 保存更新，並將差額套用到每日彙總；狀態變更時同步庫存預留、出貨扣減或取消回補
         Order updatedOrder = orderRepository.save(existingOrder);
+        salesRollupService.applyOrderChange(before, OrderRollupRow.of(updatedOrder));
+        if (updatedOrder.getStatus() != previousStatus) {
+            orderStockService.applyStatusChange(orderId, previousStatus, updatedOrder.getStatus());
+        }
         log.info("訂單更新成功，ID: {}", updatedOrder.getId());
         return updatedOrder;
     }
@@ -150,17 +206,29 @@ public class OrderCreateUpdateServiceImpl {
         // 獲取現有訂單
         Order existingOrder = queryService.getOrderById(orderId);
         
-        // 檢查訂單狀態是否允許修改
+        // 檢查版本號與訂單狀態是否允許修改
+        validateVersion(existingOrder, order.getVersion());
         validateOrderModifiable(existingOrder);
+        if (order.getStatus() != null && order.getStatus() != existingOrder.getStatus()) {
+            validateStatusTransition(existingOrder.getStatus(), order.getStatus());
+        }
+        
+        // 記錄異動前的彙總貢獻
+        OrderRollupRow before = OrderRollupRow.of(existingOrder);
+        OrderStatus previousStatus = existingOrder.getStatus();
         
         // 更新訂單欄位
         updateOrderFields(existingOrder, order);
         
         // 驗證更新後的訂單數據
-        validateOrder(existingOrder);
+        validateOrder(existingOrder, true);
         
-        // 保存更新
+        // 保存更新，並將差額套用到每日彙總；狀態變更時同步庫存預留、出貨扣減或取消回補
         Order updatedOrder = orderRepository.save(existingOrder);
+        salesRollupService.applyOrderChange(before, OrderRollupRow.of(updatedOrder));
+        if (updatedOrder.getStatus() != previousStatus) {
+            orderStockService.applyStatusChange(orderId, previousStatus, updatedOrder.getStatus());
+        }
         log.info("訂單更新成功，ID: {}", updatedOrder.getId());
         return updatedOrder;
     }
@@ -172,78 +240,155 @@ public class OrderCreateUpdateServiceImpl {
      * @return 更新後的訂單
      */
     public Order updateOrderStatus(Long orderId, OrderStatus status) {
+        return updateOrderStatus(orderId, status, null);
+    }
+
+    /**
+     * 更新訂單狀態（條件式更新）
+     * 依狀態轉換表驗證後，以 WHERE id/status/version 的單一 UPDATE 完成轉換，
+     * 狀態或版本已被其他交易變更時拋出衝突異常而不覆蓋
+     * @param orderId 訂單ID
+     * @param status 新狀態
+     * @param expectedVersion 客戶端持有的版本號（null 表示以讀取到的版本為準）
+     * @return 更新後的訂單
+     */
+    public Order updateOrderStatus(Long orderId, OrderStatus status, Long expectedVersion) {
         log.info(OrderConstants.LOG_UPDATE_ORDER_STATUS, orderId, status);
         
-        // 獲取現有訂單
+        // 獲取現有訂單（彙總需要異動前的金額與狀態）
         Order order = queryService.getOrderById(orderId);
+        OrderStatus currentStatus = order.getStatus();
+        
+        // 驗證版本號與狀態轉換是否合法
+        validateVersion(order, expectedVersion);
+        validateStatusTransition(currentStatus, status);
+        OrderRollupRow before = OrderRollupRow.of(order);
+        
+        // 條件式更新，狀態或版本不符表示已被併發修改
+        Long version = order.getVersion();
+        LocalDateTime now = LocalDateTime.now();
+        int updated = orderRepository.transitionStatus(orderId, currentStatus, version, status, now);
+        if (updated == 0) {
+            throw new OrderConflictException(OrderConstants.ORDER_VERSION_CONFLICT + "，ID: " + orderId,
+                    ErrorCode.ORDER_VERSION_CONFLICT);
+        }
         
-        // 驗證狀態變更是否合法
-        validateStatusChange(order.getStatus(), status);
-        
-        // 更新狀態
+        // 同步更新結果到實體，並將訂單移到新狀態的彙總列，依新狀態預留、釋放、扣減或回補庫存
         order.setStatus(status);
-        
-        // 保存更新
-        Order updatedOrder = orderRepository.save(order);
-        log.info("訂單狀態更新成功，ID: {}, 新狀態: {}", updatedOrder.getId(), status);
-        return updatedOrder;
+        order.setVersion(version + 1);
+        order.setUpdatedAt(now);
+        salesRollupService.applyOrderChange(before, OrderRollupRow.of(order));
+        orderStockService.applyStatusChange(orderId, currentStatus, status);
+        log.info("訂單狀態更新成功，ID: {}, {} -> {}", orderId, currentStatus, status);
+        return order;
     }
 
     /**
-     * 生成訂單編號
-     * @return 訂單編號
+     * 批次更新訂單狀態
+     * 以單一查詢依訂單ID順序鎖定全部訂單並逐筆驗證狀態轉換，不存在或轉換不合法的訂單回報失敗；
+     * 庫存（出貨扣減、取消回補、預留）、每日彙總與提醒解除皆批次處理，
+     * 庫存不足無法出貨的訂單回報失敗，其餘訂單以單一 UPDATE 完成轉換
+     * @param orderIds 訂單ID
+     * @param status 新狀態
+     * @return 各訂單結果，依請求順序（重複的訂單ID只處理一次）
      */
-    private String generateOrderNo() {
-        // 格式: ORD + 年月日 + 6位序號
-        String datePart = LocalDateTime.now().format(java.time.format.DateTimeFormatter.ofPattern("yyyyMMdd"));
-        String prefix = OrderConstants.ORDER_NO_PREFIX + datePart;
-        
-        // 查找當天最大的序號
-        String maxOrderNo = orderRepository.findByNoContainingIgnoreCase(prefix)
-                .stream()
-                .filter(order -> order.getNo().startsWith(prefix))
-                .map(Order::getNo)
-                .max(String::compareTo)
-                .orElse(prefix + "000000");
-        
-        // 生成下一個序號
-        int nextSequence = 1;
-        if (maxOrderNo.length() >= prefix.length() + 6) {
-            try {
-                String sequencePart = maxOrderNo.substring(prefix.length());
-                nextSequence = Integer.parseInt(sequencePart) + 1;
-            } catch (NumberFormatException e) {
-                log.warn("無法解析序號，使用預設值: {}", maxOrderNo);
+    public OrderBulkStatusUpdateResponseDto bulkUpdateOrderStatus(List<Long> orderIds, OrderStatus status) {
+        Set<Long> ids = new LinkedHashSet<>(orderIds);
+        log.info(OrderConstants.LOG_BULK_UPDATE_ORDER_STATUS, ids.size(), status);
+
+        // 一次鎖定並驗證狀態轉換
+        Map<Long, Order> orders = new HashMap<>();
+        for (Order order : orderRepository.findForUpdateByIdIn(ids)) {
+            orders.put(order.getId(), order);
+        }
+        Map<Long, String> failures = new HashMap<>();
+        Map<Long, OrderStatus> previousStatuses = new HashMap<>();
+        for (Long id : ids) {
+            Order order = orders.get(id);
+            if (order == null) {
+                failures.put(id, OrderConstants.ORDER_NOT_FOUND + id);
+            } else if (order.getStatus() == null || !order.getStatus().canTransitionTo(status)) {
+                failures.put(id, OrderConstants.ORDER_INVALID_STATUS_TRANSITION + ": " + order.getStatus() + " -> " + status);
+            } else {
+                previousStatuses.put(id, order.getStatus());
             }
         }
-        
-        return String.format("%s%06d", prefix, nextSequence);
+
+        // 批次套用庫存，無法出貨的訂單不轉換
+        Map<Long, String> rejected = orderStockService.applyBulkStatusChange(previousStatuses, status);
+        failures.putAll(rejected);
+        previousStatuses.keySet().removeAll(rejected.keySet());
+
+        // 單一 UPDATE 轉換狀態，再批次更新彙總與解除提醒
+        LocalDateTime now = LocalDateTime.now();
+        if (!previousStatuses.isEmpty()) {
+            int updated = orderRepository.bulkTransitionStatus(previousStatuses.keySet(), status, now);
+            if (updated != previousStatuses.size()) {
+                throw new OrderConflictException(OrderConstants.ORDER_VERSION_CONFLICT, ErrorCode.ORDER_VERSION_CONFLICT);
+            }
+            List<OrderRollupChange> changes = new ArrayList<>(previousStatuses.size());
+            for (Long id : previousStatuses.keySet()) {
+                Order order = orders.get(id);
+                OrderRollupRow before = OrderRollupRow.of(order);
+                order.setStatus(status);
+                order.setVersion(order.getVersion() + 1);
+                order.setUpdatedAt(now);
+                changes.add(new OrderRollupChange(before, OrderRollupRow.of(order)));
+            }
+            salesRollupService.applyOrderChanges(changes);
+            orderReminderRepository.resolveByOrderIdIn(previousStatuses.keySet(), now);
+        }
+
+        List<OrderBulkStatusResultDto> results = new ArrayList<>(ids.size());
+        for (Long id : ids) {
+            Order order = orders.get(id);
+            results.add(OrderBulkStatusResultDto.builder()
+                    .id(id)
+                    .success(previousStatuses.containsKey(id))
+                    .previousStatus(previousStatuses.containsKey(id) ? previousStatuses.get(id)
+                            : order != null ? order.getStatus() : null)
+                    .status(order != null ? order.getStatus() : null)
+                    .version(order != null ? order.getVersion() : null)
+                    .message(failures.get(id))
+                    .build());
+        }
+        int successCount = previousStatuses.size();
+        log.info("訂單狀態批次更新完成，狀態：{}，成功：{}，失敗：{}", status, successCount, ids.size() - successCount);
+        return OrderBulkStatusUpdateResponseDto.builder()
+                .successCount(successCount)
+                .failureCount(ids.size() - successCount)
+                .results(results)
+                .build();
     }
 
     /**
      * 驗證訂單數據
      * @param order 訂單實體
+     * @param checkOrderNo 是否檢查訂單編號唯一性
      */
-    private void validateOrder(Order order) {
+    private void validateOrder(Order order, boolean checkOrderNo) {
         // 驗證客戶ID
         if (order.getCustomerId() == null) {
             throw new IllegalArgumentException("客戶ID不能為空");
         }
         
         // 驗證金額
-        if (order.getTotalAmount() == null || order.getTotalAmount().compareTo(BigDecimal.ZERO) < 0) {
+        if (order.getTotalAmount() == null || order.getTotalAmount().isNegative()) {
             throw new IllegalArgumentException("總金額不能為空且不能為負數");
         }
         
-        if (order.getFinalAmount() == null || order.getFinalAmount().compareTo(BigDecimal.ZERO) < 0) {
+        if (order.getFinalAmount() == null || order.getFinalAmount().isNegative()) {
             throw new IllegalArgumentException("最終金額不能為空且不能為負數");
         }
         
-        if (order.getDiscountAmount() != null && order.getDiscountAmount().compareTo(BigDecimal.ZERO) < 0) {
+        if (order.getDiscountAmount() != null && order.getDiscountAmount().isNegative()) {
             throw new IllegalArgumentException("折扣金額不能為負數");
         }
         
         // 驗證訂單編號唯一性
+        if (!checkOrderNo) {
+            return;
+        }
         if (order.getId() == null && queryService.existsByOrderNo(order.getNo())) {
             throw new IllegalArgumentException("訂單編號已存在: " + order.getNo());
         } else if (order.getId() != null && queryService.existsByOrderNoExcludingId(order.getNo(), order.getId())) {
@@ -262,19 +407,28 @@ public class OrderCreateUpdateServiceImpl {
     }
 
     /**
-     * 驗證狀態變更是否合法
+     * 驗證版本號是否與現有訂單一致
+     * @param order 訂單實體
+     * @param expectedVersion 客戶端持有的版本號（null 表示不檢查）
+     */
+    private void validateVersion(Order order, Long expectedVersion) {
+        if (expectedVersion != null && !expectedVersion.equals(order.getVersion())) {
+            throw new OrderConflictException(OrderConstants.ORDER_VERSION_CONFLICT + "，ID: " + order.getId()
+                    + "，目前版本: " + order.getVersion() + "，請求版本: " + expectedVersion,
+                    ErrorCode.ORDER_VERSION_CONFLICT);
+        }
+    }
+
+    /**
+     * 驗證狀態轉換是否合法
      * @param currentStatus 當前狀態
      * @param newStatus 新狀態
      */
-    private void validateStatusChange(OrderStatus currentStatus, OrderStatus newStatus) {
-        // 已完成或已取消的訂單不能再變更狀態
-        if (currentStatus == OrderStatus.COMPLETED || currentStatus == OrderStatus.CANCELLED) {
-            if (newStatus != currentStatus) {
-                throw new IllegalStateException(OrderConstants.ORDER_STATUS_NOT_MODIFIABLE + ": " + currentStatus);
-            }
+    private void validateStatusTransition(OrderStatus currentStatus, OrderStatus newStatus) {
+        if (currentStatus == null || !currentStatus.canTransitionTo(newStatus)) {
+            throw new OrderException(OrderConstants.ORDER_INVALID_STATUS_TRANSITION + ": " + currentStatus + " -> " + newStatus,
+                    ErrorCode.ORDER_INVALID_STATUS_TRANSITION);
         }
-        
-        // 其他業務規則驗證可以在這裡添加
     }
 
     /**
@@ -289,8 +443,8 @@ public class OrderCreateUpdateServiceImpl {
      * @param notes 備註
      */
     private void updateOrderFields(Order existingOrder, Long customerId, OrderStatus status, 
-                                  BigDecimal totalAmount, BigDecimal discountAmount, 
-                                  BigDecimal finalAmount, PaymentMethod paymentMethod, String notes) {
+                                  Money totalAmount, Money discountAmount, 
+                                  Money finalAmount, PaymentMethod paymentMethod, String notes) {
         if (customerId != null) {
             existingOrder.setCustomerId(customerId);
         }
@@ -0,0 +1,363 @@
+package erp.order.service.impl;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import erp.common.enums.CodedEnum;
+import erp.order.constant.OrderConstants;
+import erp.order.dto.OrderExportRequestDto;
+import erp.order.enums.OrderExportFormat;
+import erp.order.enums.OrderStatus;
+import erp.payment.enums.PaymentMethod;
+import erp.product.enums.ProductType;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Component;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * 訂單匯出功能實現
+ * 以 JDBC 逐列串流讀取訂單與明細並直接寫出，不經過 JPA 持久化上下文，
+ * 記憶體用量與訂單數量無關
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class OrderExportServiceImpl {
+
+    private static final String EXPORT_SELECT =
+            "SELECT o.id, o.no, o.customer_id, o.order_time, o.status, o.total_amount, o.discount_amount, "
+            + "o.final_amount, o.payment_method, o.notes, o.created_at, "
+            + "oi.id AS item_id, oi.product_id, oi.product_name, oi.product_type, oi.qty, oi.unit_price, "
+            + "oi.subtotal, oi.notes AS item_notes "
+            + "FROM orders o LEFT JOIN order_items oi ON oi.order_id = o.id";
+
+    private static final String EXPORT_ORDER_BY = " ORDER BY o.id, oi.id";
+
+    private static final String[] CSV_HEADER = {
+            "order_id", "order_no", "customer_id", "order_time", "status", "total_amount", "discount_amount",
+            "final_amount", "payment_method", "order_notes", "created_at",
+            "item_id", "product_id", "product_name", "product_type", "qty", "unit_price", "subtotal", "item_notes"
+    };
+
+    private static final byte[] UTF8_BOM = {(byte) 0xEF, (byte) 0xBB, (byte) 0xBF};
+
+    private final JdbcTemplate jdbcTemplate;
+    private final ObjectMapper objectMapper;
+
+    /**
+     * 匯出訂單與明細
+     * @param request 匯出條件與格式
+     * @param outputStream 輸出串流（由呼叫端負責關閉）
+     * @throws IOException 寫出失敗時拋出
+     */
+    public void exportOrders(OrderExportRequestDto request, OutputStream outputStream) throws IOException {
+        OrderExportFormat format = request.getFormat() != null ? request.getFormat() : OrderExportFormat.CSV;
+        boolean gzip = Boolean.TRUE.equals(request.getGzip());
+        log.info(OrderConstants.LOG_EXPORT_ORDERS, format, gzip, request.getStartDate(), request.getEndDate());
+
+        GZIPOutputStream gzipStream = gzip ? new GZIPOutputStream(outputStream, 8192) : null;
+        OutputStream target = gzipStream != null ? gzipStream : outputStream;
+        ExportWriter writer = format == OrderExportFormat.NDJSON ? new NdjsonExportWriter(target) : new CsvExportWriter(target);
+
+        // 組裝查詢條件
+        StringBuilder sql = new StringBuilder(EXPORT_SELECT);
+        List<Object> params = new ArrayList<>();
+        List<String> conditions = new ArrayList<>();
+        if (request.getCustomerId() != null) {
+            conditions.add("o.customer_id = ?");
+            params.add(request.getCustomerId());
+        }
+        if (request.getStatus() != null) {
+            conditions.add("o.status = ?");
+            params.add(request.getStatus().ordinal());
+        }
+        if (request.getStartDate() != null) {
+            conditions.add("o.created_at >= ?");
+            params.add(Timestamp.valueOf(request.getStartDate()));
+        }
+        if (request.getEndDate() != null) {
+            conditions.add("o.created_at <= ?");
+            params.add(Timestamp.valueOf(request.getEndDate()));
+        }
+        if (!conditions.isEmpty()) {
+            sql.append(" WHERE ").append(String.join(" AND ", conditions));
+        }
+        sql.append(EXPORT_ORDER_BY);
+
+        RowCallbackHandler rowHandler = rs -> {
+            try {
+                writer.writeRow(rs);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        };
+        try {
+            jdbcTemplate.query(con -> prepareStreamingStatement(con, sql.toString(), params), rowHandler);
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+
+        writer.finish();
+        if (gzipStream != null) {
+            gzipStream.finish();
+        }
+        outputStream.flush();
+        log.info(OrderConstants.LOG_EXPORT_ORDERS_DONE, writer.orderCount, writer.itemCount);
+    }
+
+    /**
+     * 建立只進唯讀、逐列串流的查詢語句
+     */
+    private PreparedStatement prepareStreamingStatement(Connection con, String sql, List<Object> params) throws SQLException {
+        PreparedStatement ps = con.prepareStatement(sql, ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+        ps.setFetchSize(OrderConstants.EXPORT_FETCH_SIZE);
+        for (int i = 0; i < params.size(); i++) {
+            ps.setObject(i + 1, params.get(i));
+        }
+        return ps;
+    }
+
+    //region 枚舉解碼（orders.status、orders.payment_method 以序號儲存，order_items.product_type 以代碼儲存）
+    private static String decodeOrderStatus(ResultSet rs, String column) throws SQLException {
+        int value = rs.getInt(column);
+        return rs.wasNull() ? null : OrderStatus.values()[value].name();
+    }
+
+    private static String decodePaymentMethod(ResultSet rs, String column) throws SQLException {
+        int value = rs.getInt(column);
+        return rs.wasNull() ? null : PaymentMethod.values()[value].name();
+    }
+
+    private static String decodeProductType(ResultSet rs, String column) throws SQLException {
+        int value = rs.getInt(column);
+        return rs.wasNull() ? null : CodedEnum.fromCode(ProductType.class, value).name();
+    }
+
+    private static Long getLong(ResultSet rs, String column) throws SQLException {
+        long value = rs.getLong(column);
+        return rs.wasNull() ? null : value;
+    }
+
+    private static Integer getInteger(ResultSet rs, String column) throws SQLException {
+        int value = rs.getInt(column);
+        return rs.wasNull() ? null : value;
+    }
+
+    private static String getTimestamp(ResultSet rs, String column) throws SQLException {
+        Timestamp value = rs.getTimestamp(column);
+        return value != null ? value.toLocalDateTime().toString() : null;
+    }
+    //endregion
+
+    //region 輸出格式
+    /**
+     * 匯出寫出器基類，結果集依訂單ID、明細ID排序逐列傳入
+     */
+    private abstract static class ExportWriter {
+        long orderCount;
+        long itemCount;
+        Long currentOrderId;
+
+        abstract void writeRow(ResultSet rs) throws SQLException, IOException;
+
+        abstract void finish() throws IOException;
+
+        /**
+         * 判斷是否進入新的訂單，並依間隔計數
+         */
+        boolean startsNewOrder(ResultSet rs) throws SQLException {
+            long orderId = rs.getLong("id");
+            if (currentOrderId != null && currentOrderId == orderId) {
+                return false;
+            }
+            currentOrderId = orderId;
+            orderCount++;
+            return true;
+        }
+
+        boolean shouldFlush() {
+            return orderCount % OrderConstants.EXPORT_FLUSH_INTERVAL == 0;
+        }
+    }
+
+    /**
+     * CSV：每列一筆明細，訂單欄位重複；沒有明細的訂單輸出一列空明細
+     */
+    private static class CsvExportWriter extends ExportWriter {
+        private final Writer out;
+
+        CsvExportWriter(OutputStream target) throws IOException {
+            // 加上 BOM，讓試算表軟體正確辨識 UTF-8 中文
+            target.write(UTF8_BOM);
+            this.out = new BufferedWriter(new OutputStreamWriter(target, StandardCharsets.UTF_8));
+            writeLine(CSV_HEADER);
+        }
+
+        @Override
+        void writeRow(ResultSet rs) throws SQLException, IOException {
+            if (startsNewOrder(rs) && shouldFlush()) {
+                out.flush();
+            }
+            Long itemId = getLong(rs, "item_id");
+            if (itemId != null) {
+                itemCount++;
+            }
+            writeLine(
+                    String.valueOf(rs.getLong("id")),
+                    rs.getString("no"),
+                    toText(getLong(rs, "customer_id")),
+                    getTimestamp(rs, "order_time"),
+                    decodeOrderStatus(rs, "status"),
+                    toText(rs.getBigDecimal("total_amount")),
+                    toText(rs.getBigDecimal("discount_amount")),
+                    toText(rs.getBigDecimal("final_amount")),
+                    decodePaymentMethod(rs, "payment_method"),
+                    rs.getString("notes"),
+                    getTimestamp(rs, "created_at"),
+                    toText(itemId),
+                    toText(getLong(rs, "product_id")),
+                    rs.getString("product_name"),
+                    decodeProductType(rs, "product_type"),
+                    toText(getInteger(rs, "qty")),
+                    toText(rs.getBigDecimal("unit_price")),
+                    toText(rs.getBigDecimal("subtotal")),
+                    rs.getString("item_notes"));
+        }
+
+        @Override
+        void finish() throws IOException {
+            out.flush();
+        }
+
+        private void writeLine(String... values) throws IOException {
+            for (int i = 0; i < values.length; i++) {
+                if (i > 0) {
+                    out.write(',');
+                }
+                writeField(values[i]);
+            }
+            out.write("\r\n");
+        }
+
+        private void writeField(String value) throws IOException {
+            if (value == null) {
+                return;
+            }
+            boolean quote = value.indexOf(',') >= 0 || value.indexOf('"') >= 0
+                    || value.indexOf('\n') >= 0 || value.indexOf('\r') >= 0;
+            if (!quote) {
+                out.write(value);
+                return;
+            }
+            out.write('"');
+            out.write(value.replace("\"", "\"\""));
+            out.write('"');
+        }
+
+        private static String toText(Object value) {
+            if (value instanceof BigDecimal decimal) {
+                return decimal.toPlainString();
+            }
+            return value != null ? value.toString() : null;
+        }
+    }
+
+    /**
+     * NDJSON：每行一筆訂單，明細以 items 陣列內嵌
+     */
+    private class NdjsonExportWriter extends ExportWriter {
+        private final JsonGenerator generator;
+
+        NdjsonExportWriter(OutputStream target) throws IOException {
+            this.generator = objectMapper.getFactory().createGenerator(target);
+            this.generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+            // 每筆訂單之間由 endOrder 寫入換行，不使用預設的空白分隔
+            this.generator.setRootValueSeparator(null);
+        }
+
+        @Override
+        void writeRow(ResultSet rs) throws SQLException, IOException {
+            if (startsNewOrder(rs)) {
+                if (orderCount > 1) {
+                    endOrder();
+                    if (shouldFlush()) {
+                        generator.flush();
+                    }
+                }
+                startOrder(rs);
+            }
+            Long itemId = getLong(rs, "item_id");
+            if (itemId == null) {
+                return;
+            }
+            itemCount++;
+            generator.writeStartObject();
+            generator.writeNumberField("id", itemId);
+            writeNullableNumber("productId", getLong(rs, "product_id"));
+            generator.writeStringField("productName", rs.getString("product_name"));
+            generator.writeStringField("productType", decodeProductType(rs, "product_type"));
+            writeNullableNumber("qty", getInteger(rs, "qty"));
+            generator.writeNumberField("unitPrice", rs.getBigDecimal("unit_price"));
+            generator.writeNumberField("subtotal", rs.getBigDecimal("subtotal"));
+            generator.writeStringField("notes", rs.getString("item_notes"));
+            generator.writeEndObject();
+        }
+
+        @Override
+        void finish() throws IOException {
+            if (orderCount > 0) {
+                endOrder();
+            }
+            generator.flush();
+        }
+
+        private void startOrder(ResultSet rs) throws SQLException, IOException {
+            generator.writeStartObject();
+            generator.writeNumberField("id", rs.getLong("id"));
+            generator.writeStringField("no", rs.getString("no"));
+            writeNullableNumber("customerId", getLong(rs, "customer_id"));
+            generator.writeStringField("orderTime", getTimestamp(rs, "order_time"));
+            generator.writeStringField("status", decodeOrderStatus(rs, "status"));
+            generator.writeNumberField("totalAmount", rs.getBigDecimal("total_amount"));
+            generator.writeNumberField("discountAmount", rs.getBigDecimal("discount_amount"));
+            generator.writeNumberField("finalAmount", rs.getBigDecimal("final_amount"));
+            generator.writeStringField("paymentMethod", decodePaymentMethod(rs, "payment_method"));
+            generator.writeStringField("notes", rs.getString("notes"));
+            generator.writeStringField("createdAt", getTimestamp(rs, "created_at"));
+            generator.writeArrayFieldStart("items");
+        }
+
+        private void endOrder() throws IOException {
+            generator.writeEndArray();
+            generator.writeEndObject();
+            generator.writeRaw('\n');
+        }
+
+        private void writeNullableNumber(String field, Number value) throws IOException {
+            if (value == null) {
+                generator.writeNullField(field);
+            } else {
+                generator.writeNumberField(field, value.longValue());
+            }
+        }
+    }
+    //endregion
+}
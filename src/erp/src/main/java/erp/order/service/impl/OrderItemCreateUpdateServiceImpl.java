@@ -1,8 +1,15 @@
 package erp.order.service.impl;
 
+import erp.common.constant.ErrorCode;
+import erp.common.exception.OrderException;
+import erp.common.money.Money;
+import erp.order.dto.OrderItemUpdateDto;
 import erp.order.entity.OrderItem;
+import erp.order.enums.OrderStatus;
 import erp.order.repository.OrderItemRepository;
 import erp.product.enums.ProductType;
+import erp.report.dto.OrderItemRollupRow;
+import erp.report.service.impl.SalesRollupServiceImpl;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Component;
@@ -23,6 +30,8 @@ public class OrderItemCreateUpdateServiceImpl {
 
     private final OrderItemRepository orderItemRepository;
     private final OrderItemQueryServiceImpl queryService;
+    private final SalesRollupServiceImpl salesRollupService;
+    private final OrderStockServiceImpl orderStockService;
 
     /**
      * 創建訂單明細
@@ -47,7 +56,7 @@ public class OrderItemCreateUpdateServiceImpl {
                 .productName(productName)
                 .productType(productType)
                 .qty(qty)
-                .unitPrice(unitPrice)
+                .unitPrice(Money.ofNullable(unitPrice))
                 .notes(notes)
                 .build();
         
@@ -57,8 +66,10 @@ public class OrderItemCreateUpdateServiceImpl {
         // 檢查是否已存在相同訂單和產品的明細
         validateUniqueOrderProduct(orderItem.getOrderId(), orderItem.getProductId(), null);
         
-        // 保存明細
+        // 保存明細，並在同一交易內累加每日彙總
         OrderItem savedItem = orderItemRepository.save(orderItem);
+        salesRollupService.applyOrderItemChange(null, OrderItemRollupRow.of(savedItem));
+        orderStockService.sync(savedItem.getOrderId());
         log.info("訂單明細創建成功，ID: {}, 訂單ID: {}, 產品: {}", 
                 savedItem.getId(), savedItem.getOrderId(), savedItem.getProductName());
         return savedItem;
@@ -78,7 +89,7 @@ public class OrderItemCreateUpdateServiceImpl {
         }
         
         if (orderItem.getUnitPrice() == null) {
-            orderItem.setUnitPrice(BigDecimal.ZERO);
+            orderItem.setUnitPrice(Money.ZERO);
         }
         
         // 驗證明細數據
@@ -87,8 +98,10 @@ public class OrderItemCreateUpdateServiceImpl {
         // 檢查是否已存在相同訂單和產品的明細
         validateUniqueOrderProduct(orderItem.getOrderId(), orderItem.getProductId(), null);
         
-        // 保存明細
+        // 保存明細，並在同一交易內累加每日彙總
         OrderItem savedItem = orderItemRepository.save(orderItem);
+        salesRollupService.applyOrderItemChange(null, OrderItemRollupRow.of(savedItem));
+        orderStockService.sync(savedItem.getOrderId());
         log.info("訂單明細創建成功，ID: {}, 訂單ID: {}, 產品: {}", 
                 savedItem.getId(), savedItem.getOrderId(), savedItem.getProductName());
         return savedItem;
@@ -110,11 +123,12 @@ public class OrderItemCreateUpdateServiceImpl {
                                     String notes) {
         log.info("更新訂單明細，ID: {}", itemId);
         
-        // 獲取現有明細
+        // 獲取現有明細，並記錄異動前的彙總貢獻
         OrderItem existingItem = queryService.getOrderItemById(itemId);
+        OrderItemRollupRow before = OrderItemRollupRow.of(existingItem);
         
         // 更新明細欄位
-        updateOrderItemFields(existingItem, productId, productName, productType, qty, unitPrice, notes);
+        updateOrderItemFields(existingItem, productId, productName, productType, qty, Money.ofNullable(unitPrice), notes);
         
         // 驗證更新後的明細數據
         validateOrderItem(existingItem);
@@ -124,8 +138,10 @@ public class OrderItemCreateUpdateServiceImpl {
             validateUniqueOrderProduct(existingItem.getOrderId(), productId, itemId);
         }
         
-        // 保存更新
+        // 保存更新，並將差額套用到每日彙總
         OrderItem updatedItem = orderItemRepository.save(existingItem);
+        salesRollupService.applyOrderItemChange(before, OrderItemRollupRow.of(updatedItem));
+        orderStockService.sync(updatedItem.getOrderId());
         log.info("訂單明細更新成功，ID: {}", updatedItem.getId());
         return updatedItem;
     }
@@ -139,8 +155,9 @@ public class OrderItemCreateUpdateServiceImpl {
     public OrderItem updateOrderItem(Long itemId, OrderItem orderItem) {
         log.info("更新訂單明細，ID: {}", itemId);
         
-        // 獲取現有明細
+        // 獲取現有明細，並記錄異動前的彙總貢獻
         OrderItem existingItem = queryService.getOrderItemById(itemId);
+        OrderItemRollupRow before = OrderItemRollupRow.of(existingItem);
         
         // 更新明細欄位
         updateOrderItemFields(existingItem, orderItem);
@@ -153,34 +170,130 @@ public class OrderItemCreateUpdateServiceImpl {
             validateUniqueOrderProduct(existingItem.getOrderId(), orderItem.getProductId(), itemId);
         }
         
-        // 保存更新
+        // 保存更新，並將差額套用到每日彙總
         OrderItem updatedItem = orderItemRepository.save(existingItem);
+        salesRollupService.applyOrderItemChange(before, OrderItemRollupRow.of(updatedItem));
+        orderStockService.sync(updatedItem.getOrderId());
         log.info("訂單明細更新成功，ID: {}", updatedItem.getId());
         return updatedItem;
     }
 
     /**
      * 批量創建訂單明細
+     * 產品唯一性僅在記憶體中檢查，明細在同一交易內以 JDBC 批次寫入
      * @param orderId 訂單ID
      * @param orderItems 明細列表
      * @return 創建的明細列表
      */
     public java.util.List<OrderItem> createOrderItems(Long orderId, java.util.List<OrderItem> orderItems) {
-        log.info("批量創建訂單明細，訂單ID: {}, 明細數量: {}", orderId, orderItems.size());
+        java.util.List<OrderItem> savedItems = saveOrderItems(orderId, orderItems);
+        orderStockService.sync(orderId);
+        return savedItems;
+    }
+
+    /**
+     * 建立新訂單的明細
+     * 與批量創建相同，但依訂單建立時的狀態套用庫存，以已出貨、已完成狀態建立的訂單直接扣減庫存
+     * @param orderId 訂單ID
+     * @param status 訂單建立時的狀態
+     * @param orderItems 明細列表
+     * @return 創建的明細列表
+     */
+    public java.util.List<OrderItem> createInitialOrderItems(Long orderId, OrderStatus status,
+                                                            java.util.List<OrderItem> orderItems) {
+        java.util.List<OrderItem> savedItems = saveOrderItems(orderId, orderItems);
+        orderStockService.applyCreation(orderId, status);
+        return savedItems;
+    }
+
+    /**
+     * 套用訂單明細差異（ADD / UPDATE / DELETE）
+     * 只讀取一次訂單現有明細，在記憶體中合併並檢查產品唯一性；
+     * 未實際變更的 UPDATE 不寫入，新增、更新、刪除各自以 JDBC 批次在同一次 flush 送出
+     * @param orderId 訂單ID
+     * @param changes 明細異動
+     * @return 套用後訂單的全部明細
+     */
+    public java.util.List<OrderItem> applyOrderItemChanges(Long orderId, java.util.List<OrderItemUpdateDto> changes) {
+        log.info("套用訂單明細異動，訂單ID: {}, 異動數量: {}", orderId, changes.size());
         
-        // 設置訂單ID並驗證每個明細
-        for (OrderItem item : orderItems) {
-            item.setOrderId(orderId);
-            validateOrderItem(item);
+        // 一次讀取現有明細
+        java.util.Map<Long, OrderItem> currentItems = new java.util.LinkedHashMap<>();
+        for (OrderItem item : orderItemRepository.findByOrderId(orderId)) {
+            currentItems.put(item.getId(), item);
         }
         
-        // 檢查產品重複
-        validateNoDuplicateProducts(orderItems);
+        java.util.List<OrderItem> toInsert = new java.util.ArrayList<>();
+        java.util.List<OrderItem> toDelete = new java.util.ArrayList<>();
+        java.util.List<OrderItemRollupRow> deletedRows = new java.util.ArrayList<>();
+        java.util.Map<OrderItem, OrderItemRollupRow> updatedBefore = new java.util.IdentityHashMap<>();
         
-        // 批量保存
-        java.util.List<OrderItem> savedItems = orderItemRepository.saveAll(orderItems);
-        log.info("訂單明細批量創建成功，訂單ID: {}, 創建數量: {}", orderId, savedItems.size());
-        return savedItems;
+        // 在記憶體中合併異動
+        for (OrderItemUpdateDto change : changes) {
+            String action = change.getAction() != null ? change.getAction() : "";
+            switch (action) {
+                case "ADD" -> {
+                    OrderItem newItem = OrderItem.builder()
+                            .orderId(orderId)
+                            .productId(change.getProductId())
+                            .productName(change.getProductName())
+                            .productType(change.getProductType())
+                            .qty(change.getQty())
+                            .unitPrice(Money.ofNullable(change.getUnitPrice()))
+                            .notes(change.getNotes())
+                            .build();
+                    validateOrderItem(newItem);
+                    toInsert.add(newItem);
+                }
+                case "UPDATE" -> {
+                    OrderItem existingItem = requireOrderItem(currentItems, orderId, change.getId());
+                    OrderItemRollupRow before = OrderItemRollupRow.of(existingItem);
+                    boolean changed = updateOrderItemFields(existingItem, change.getProductId(), change.getProductName(),
+                            change.getProductType(), change.getQty(), Money.ofNullable(change.getUnitPrice()),
+                            change.getNotes());
+                    if (changed) {
+                        validateOrderItem(existingItem);
+                        updatedBefore.putIfAbsent(existingItem, before);
+                    }
+                }
+                case "DELETE" -> {
+                    OrderItem existingItem = requireOrderItem(currentItems, orderId, change.getId());
+                    // 先更新後刪除的明細，以更新前的內容扣除彙總
+                    OrderItemRollupRow original = updatedBefore.remove(existingItem);
+                    currentItems.remove(existingItem.getId());
+                    toDelete.add(existingItem);
+                    deletedRows.add(original != null ? original : OrderItemRollupRow.of(existingItem));
+                }
+                default -> throw new IllegalArgumentException("不支援的操作類型: " + change.getAction());
+            }
+        }
+        
+        // 合併結果的產品唯一性
+        java.util.List<OrderItem> mergedItems = new java.util.ArrayList<>(currentItems.values());
+        mergedItems.addAll(toInsert);
+        java.util.Set<Long> productIds = new java.util.HashSet<>();
+        for (OrderItem item : mergedItems) {
+            if (!productIds.add(item.getProductId())) {
+                throw new IllegalArgumentException(String.format("訂單 %d 中已存在產品 %d 的明細", orderId, item.getProductId()));
+            }
+        }
+        
+        // 寫入並在同一交易內套用每日彙總
+        for (OrderItemRollupRow deletedRow : deletedRows) {
+            salesRollupService.applyOrderItemChange(deletedRow, null);
+        }
+        orderItemRepository.deleteAll(toDelete);
+        for (OrderItem savedItem : orderItemRepository.saveAll(toInsert)) {
+            salesRollupService.applyOrderItemChange(null, OrderItemRollupRow.of(savedItem));
+        }
+        updatedBefore.forEach((item, before) ->
+                salesRollupService.applyOrderItemChange(before, OrderItemRollupRow.of(item)));
+        orderItemRepository.flush();
+        orderStockService.sync(orderId);
+        
+        log.info("訂單明細異動套用完成，訂單ID: {}, 新增: {}, 更新: {}, 刪除: {}",
+                orderId, toInsert.size(), updatedBefore.size(), toDelete.size());
+        return mergedItems;
     }
 
     /**
@@ -192,7 +305,11 @@ public class OrderItemCreateUpdateServiceImpl {
         
         // 檢查訂單是否有明細
         if (queryService.hasOrderItems(orderId)) {
+            for (OrderItem item : queryService.getOrderItemsByOrderId(orderId)) {
+                salesRollupService.applyOrderItemChange(OrderItemRollupRow.of(item), null);
+            }
             orderItemRepository.deleteByOrderId(orderId);
+            orderStockService.sync(orderId);
             log.info("訂單明細刪除成功，訂單ID: {}", orderId);
         } else {
             log.info("訂單沒有明細，無需刪除，訂單ID: {}", orderId);
@@ -210,13 +327,51 @@ public class OrderItemCreateUpdateServiceImpl {
         // 檢查明細是否存在
         OrderItem existingItem = queryService.getOrderItemById(itemId);
         if (existingItem != null) {
+            salesRollupService.applyOrderItemChange(OrderItemRollupRow.of(existingItem), null);
             orderItemRepository.deleteById(itemId);
+            orderStockService.sync(existingItem.getOrderId());
             log.info("訂單明細刪除成功，明細ID: {}", itemId);
         } else {
             log.warn("訂單明細不存在，無需刪除，明細ID: {}", itemId);
         }
     }
 
+    /**
+     * 驗證並批次寫入明細，在同一交易內累加每日彙總
+     */
+    private java.util.List<OrderItem> saveOrderItems(Long orderId, java.util.List<OrderItem> orderItems) {
+        log.info("批量創建訂單明細，訂單ID: {}, 明細數量: {}", orderId, orderItems.size());
+        
+        // 設置訂單ID並驗證每個明細
+        for (OrderItem item : orderItems) {
+            item.setOrderId(orderId);
+            validateOrderItem(item);
+        }
+        
+        // 檢查產品重複
+        validateNoDuplicateProducts(orderItems);
+        
+        // 批量保存
+        java.util.List<OrderItem> savedItems = orderItemRepository.saveAll(orderItems);
+        for (OrderItem savedItem : savedItems) {
+            salesRollupService.applyOrderItemChange(null, OrderItemRollupRow.of(savedItem));
+        }
+        log.info("訂單明細批量創建成功，訂單ID: {}, 創建數量: {}", orderId, savedItems.size());
+        return savedItems;
+    }
+
+    /**
+     * 從已讀取的訂單明細中取得指定明細，不存在或不屬於該訂單時拋出例外
+     */
+    private OrderItem requireOrderItem(java.util.Map<Long, OrderItem> currentItems, Long orderId, Long itemId) {
+        OrderItem item = itemId != null ? currentItems.get(itemId) : null;
+        if (item == null) {
+            throw new OrderException(String.format("訂單 %d 中不存在明細，ID: %s", orderId, itemId),
+                    ErrorCode.ORDER_ITEM_NOT_FOUND);
+        }
+        return item;
+    }
+
     /**
      * 驗證訂單明細數據
      * @param orderItem 訂單明細實體
@@ -243,7 +398,7 @@ public class OrderItemCreateUpdateServiceImpl {
         }
         
         // 驗證單價
-        if (orderItem.getUnitPrice() == null || orderItem.getUnitPrice().compareTo(BigDecimal.ZERO) < 0) {
+        if (orderItem.getUnitPrice() == null || orderItem.getUnitPrice().isNegative()) {
             throw new IllegalArgumentException("單價不能為空且不能為負數");
         }
         
@@ -303,28 +458,37 @@ public class OrderItemCreateUpdateServiceImpl {
      * @param qty 數量
      * @param unitPrice 單價
      * @param notes 備註
+     * @return 是否有欄位變更
      */
-    private void updateOrderItemFields(OrderItem existingItem, Long productId, String productName,
-                                      ProductType productType, Integer qty, BigDecimal unitPrice, 
-                                      String notes) {
-        if (productId != null) {
+    private boolean updateOrderItemFields(OrderItem existingItem, Long productId, String productName,
+                                         ProductType productType, Integer qty, Money unitPrice, 
+                                         String notes) {
+        boolean changed = false;
+        if (productId != null && !productId.equals(existingItem.getProductId())) {
             existingItem.setProductId(productId);
+            changed = true;
         }
-        if (productName != null) {
+        if (productName != null && !productName.equals(existingItem.getProductName())) {
             existingItem.setProductName(productName);
+            changed = true;
         }
-        if (productType != null) {
+        if (productType != null && productType != existingItem.getProductType()) {
             existingItem.setProductType(productType);
+            changed = true;
         }
-        if (qty != null) {
+        if (qty != null && !qty.equals(existingItem.getQty())) {
             existingItem.setQty(qty);
+            changed = true;
         }
-        if (unitPrice != null) {
+        if (unitPrice != null && !unitPrice.equals(existingItem.getUnitPrice())) {
             existingItem.setUnitPrice(unitPrice);
+            changed = true;
         }
-        if (notes != null) {
+        if (notes != null && !notes.equals(existingItem.getNotes())) {
             existingItem.setNotes(notes);
+            changed = true;
         }
+        return changed;
     }
 
     /**
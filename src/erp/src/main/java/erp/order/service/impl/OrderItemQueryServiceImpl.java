@@ -2,14 +2,18 @@ package erp.order.service.impl;
 
 import erp.common.constant.ErrorCode;
 import erp.common.exception.OrderException;
+import erp.common.money.Money;
+import erp.common.specification.SpecificationBuilder;
 import erp.order.constant.OrderConstants;
 import erp.order.entity.OrderItem;
 import erp.order.repository.OrderItemRepository;
 import erp.product.enums.ProductType;
+import erp.report.repository.DailyOrderItemStatRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Component;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -28,6 +32,7 @@ import java.util.List;
 public class OrderItemQueryServiceImpl {
 
     private final OrderItemRepository orderItemRepository;
+    private final DailyOrderItemStatRepository dailyOrderItemStatRepository;
 
     /**
      * 根據ID查找訂單明細
@@ -100,7 +105,7 @@ public class OrderItemQueryServiceImpl {
      */
     public List<OrderItem> getOrderItemsByPriceRange(BigDecimal minPrice, BigDecimal maxPrice) {
         log.debug("查詢訂單明細，單價範圍: {} - {}", minPrice, maxPrice);
-        return orderItemRepository.findByUnitPriceBetween(minPrice, maxPrice);
+        return orderItemRepository.findByUnitPriceBetween(Money.ofNullable(minPrice), Money.ofNullable(maxPrice));
     }
 
     /**
@@ -157,7 +162,7 @@ public class OrderItemQueryServiceImpl {
      */
     public Page<OrderItem> getOrderItemsByPriceRange(BigDecimal minPrice, BigDecimal maxPrice, Pageable pageable) {
         log.debug("分頁查詢訂單明細，單價範圍: {} - {}, 分頁參數: {}", minPrice, maxPrice, pageable);
-        return orderItemRepository.findByUnitPriceBetween(minPrice, maxPrice, pageable);
+        return orderItemRepository.findByUnitPriceBetween(Money.ofNullable(minPrice), Money.ofNullable(maxPrice), pageable);
     }
 
     /**
@@ -179,9 +184,15 @@ public class OrderItemQueryServiceImpl {
                                           String productName, Pageable pageable) {
         log.debug("多條件查詢訂單明細 - 訂單ID: {}, 產品ID: {}, 產品類型: {}, 數量範圍: {}-{}, 單價範圍: {}-{}, 產品名稱: {}", 
                 orderId, productId, productType, minQty, maxQty, minPrice, maxPrice, productName);
-        return orderItemRepository.findByMultipleConditions(orderId, productId, productType, 
-                                                           minQty, maxQty, minPrice, maxPrice, 
-                                                           productName, pageable);
+        Specification<OrderItem> spec = SpecificationBuilder.of(OrderItem.class)
+                .equal("orderId", orderId)
+                .equal("productId", productId)
+                .equal("productType", productType)
+                .between("qty", minQty, maxQty)
+                .between("unitPrice", Money.ofNullable(minPrice), Money.ofNullable(maxPrice))
+                .containsIgnoreCase("productName", productName)
+                .build();
+        return orderItemRepository.findAll(spec, pageable);
     }
 
     /**
@@ -331,7 +342,7 @@ public class OrderItemQueryServiceImpl {
      */
     public List<Object[]> getProductQuantityStatistics() {
         log.debug("統計產品總銷售數量");
-        return orderItemRepository.sumQuantityByProduct();
+        return dailyOrderItemStatRepository.sumQuantityByProduct();
     }
 
     /**
@@ -340,7 +351,7 @@ public class OrderItemQueryServiceImpl {
      */
     public List<Object[]> getProductAmountStatistics() {
         log.debug("統計產品總銷售金額");
-        return orderItemRepository.sumAmountByProduct();
+        return dailyOrderItemStatRepository.sumAmountByProduct();
     }
 
     /**
@@ -369,7 +380,7 @@ public class OrderItemQueryServiceImpl {
      */
     public Long getTotalQuantityByProduct(Long productId) {
         log.debug("計算產品總銷售數量，產品ID: {}", productId);
-        return orderItemRepository.sumQuantityByProductId(productId);
+        return dailyOrderItemStatRepository.sumQuantityByProductId(productId);
     }
 
     /**
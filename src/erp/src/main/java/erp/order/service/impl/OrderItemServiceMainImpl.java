@@ -1,6 +1,8 @@
 package erp.order.service.impl;
 
+import erp.order.dto.OrderItemUpdateDto;
 import erp.order.entity.OrderItem;
+import erp.order.enums.OrderStatus;
 import erp.order.service.OrderItemService;
 import erp.product.enums.ProductType;
 import lombok.RequiredArgsConstructor;
@@ -76,10 +78,25 @@ public class OrderItemServiceMainImpl implements OrderItemService {
                                                  qty, unitPrice, notes);
     }
     
+    @Override
+    public List<OrderItem> createOrderItems(Long orderId, List<OrderItem> orderItems) {
+        return createUpdateService.createOrderItems(orderId, orderItems);
+    }
+    
+    @Override
+    public List<OrderItem> createInitialOrderItems(Long orderId, OrderStatus status, List<OrderItem> orderItems) {
+        return createUpdateService.createInitialOrderItems(orderId, status, orderItems);
+    }
+    
     @Override
     public void deleteOrderItem(Long itemId) {
         createUpdateService.deleteOrderItem(itemId);
     }
+    
+    @Override
+    public List<OrderItem> applyOrderItemChanges(Long orderId, List<OrderItemUpdateDto> changes) {
+        return createUpdateService.applyOrderItemChanges(orderId, changes);
+    }
     //endregion
     
     //region 控制器專用業務邏輯區塊
@@ -0,0 +1,68 @@
+package erp.order.service.impl;
+
+import erp.order.constant.OrderConstants;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * 訂單編號配發功能實現
+ * 每個節點向每日計數器一次預留一段序號（hi/lo），區段用完或跨日才需存取資料庫；
+ * 不同節點取得的區段互不重疊，因此編號唯一，但跨節點不保證連號
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class OrderNoAllocatorServiceImpl {
+
+    private static final DateTimeFormatter DATE_FORMATTER =
+            DateTimeFormatter.ofPattern(OrderConstants.ORDER_NO_DATE_PATTERN);
+
+    private final OrderNoSequenceServiceImpl sequenceService;
+
+    private final ReentrantLock lock = new ReentrantLock();
+
+    /**
+     * 目前區段所屬日期
+     */
+    private LocalDate blockDate;
+
+    /**
+     * 目前區段下一個可用序號
+     */
+    private long nextValue;
+
+    /**
+     * 目前區段上限（不含）
+     */
+    private long upperBound;
+
+    /**
+     * 配發下一個訂單編號
+     * 格式: ORD + 年月日 + 6位序號
+     * @return 訂單編號
+     */
+    public String nextOrderNo() {
+        LocalDate today = LocalDate.now();
+        long sequence;
+
+        lock.lock();
+        try {
+            if (!today.equals(blockDate) || nextValue >= upperBound) {
+                int blockSize = OrderConstants.ORDER_NO_BLOCK_SIZE;
+                upperBound = sequenceService.reserveBlock(today, blockSize);
+                nextValue = upperBound - blockSize;
+                blockDate = today;
+            }
+            sequence = nextValue++;
+        } finally {
+            lock.unlock();
+        }
+
+        return String.format("%s%s%06d", OrderConstants.ORDER_NO_PREFIX, today.format(DATE_FORMATTER), sequence);
+    }
+}
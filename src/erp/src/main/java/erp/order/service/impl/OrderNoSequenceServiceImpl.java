@@ -0,0 +1,36 @@
+package erp.order.service.impl;
+
+import erp.order.repository.OrderNoSequenceRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+
+/**
+ * 訂單編號序號區段預留功能實現
+ * 以獨立交易推進每日計數器，避免序號列鎖被外層訂單交易長時間持有
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class OrderNoSequenceServiceImpl {
+
+    private final OrderNoSequenceRepository orderNoSequenceRepository;
+
+    /**
+     * 預留一段訂單序號
+     * @param seqDate 序號日期
+     * @param blockSize 區段大小
+     * @return 區段上限（不含），即區段為 [上限 - blockSize, 上限)
+     */
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    public long reserveBlock(LocalDate seqDate, int blockSize) {
+        orderNoSequenceRepository.reserveBlock(seqDate, blockSize);
+        long upperBound = orderNoSequenceRepository.findNextValue(seqDate);
+        log.debug("預留訂單序號區段，日期: {}, 區段: [{}, {})", seqDate, upperBound - blockSize, upperBound);
+        return upperBound;
+    }
+}
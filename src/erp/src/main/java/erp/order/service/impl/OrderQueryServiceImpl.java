@@ -1,21 +1,33 @@
 package erp.order.service.impl;
 
 import erp.common.constant.ErrorCode;
+import erp.common.dto.BasePageResponse;
 import erp.common.exception.OrderException;
+import erp.common.money.Money;
+import erp.common.pagination.CursorToken;
+import erp.common.pagination.KeysetPaginationExecutor;
+import erp.common.pagination.SlicePaginationExecutor;
+import erp.common.specification.SpecificationBuilder;
 import erp.order.constant.OrderConstants;
+import erp.order.dto.OrderSearchRequestDto;
 import erp.order.entity.Order;
 import erp.order.enums.OrderStatus;
 import erp.order.repository.OrderRepository;
 import erp.payment.enums.PaymentMethod;
+import erp.report.repository.DailyOrderStatRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Component;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.math.BigDecimal;
+import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.util.Arrays;
 import java.util.List;
 
 /**
@@ -29,6 +41,9 @@ import java.util.List;
 public class OrderQueryServiceImpl {
 
     private final OrderRepository orderRepository;
+    private final DailyOrderStatRepository dailyOrderStatRepository;
+    private final KeysetPaginationExecutor keysetPaginationExecutor;
+    private final SlicePaginationExecutor slicePaginationExecutor;
 
     /**
      * 根據ID查找訂單
@@ -113,7 +128,7 @@ public class OrderQueryServiceImpl {
      */
     public List<Order> getOrdersByAmountRange(BigDecimal minAmount, BigDecimal maxAmount) {
         log.debug("查詢訂單，金額範圍: {} - {}", minAmount, maxAmount);
-        return orderRepository.findByFinalAmountBetween(minAmount, maxAmount);
+        return orderRepository.findByFinalAmountBetween(Money.ofNullable(minAmount), Money.ofNullable(maxAmount));
     }
 
     /**
@@ -170,7 +185,7 @@ public class OrderQueryServiceImpl {
      */
     public Page<Order> getOrdersByAmountRange(BigDecimal minAmount, BigDecimal maxAmount, Pageable pageable) {
         log.debug("分頁查詢訂單，金額範圍: {} - {}, 分頁參數: {}", minAmount, maxAmount, pageable);
-        return orderRepository.findByFinalAmountBetween(minAmount, maxAmount, pageable);
+        return orderRepository.findByFinalAmountBetween(Money.ofNullable(minAmount), Money.ofNullable(maxAmount), pageable);
     }
 
     /**
@@ -191,8 +206,39 @@ public class OrderQueryServiceImpl {
                                    Pageable pageable) {
         log.debug("多條件查詢訂單 - 客戶ID: {}, 狀態: {}, 付款方式: {}, 金額範圍: {}-{}, 日期範圍: {}-{}", 
                 customerId, status, paymentMethod, minAmount, maxAmount, startDate, endDate);
-        return orderRepository.findByMultipleConditions(customerId, status, paymentMethod, 
-                                                       minAmount, maxAmount, startDate, endDate, pageable);
+        return orderRepository.findAll(buildSearchSpecification(customerId, status, paymentMethod,
+                                                                minAmount, maxAmount, startDate, endDate), pageable);
+    }
+
+    /**
+     * 多條件查詢訂單（游標分頁）
+     * 依建立時間由新到舊排序，不執行 COUNT，深層分頁成本與第一頁相同
+     * @param request 搜索條件與游標
+     * @return 訂單游標分頁結果
+     */
+    public BasePageResponse<Order> searchOrdersByCursor(OrderSearchRequestDto request) {
+        log.debug("游標查詢訂單 - 客戶ID: {}, 狀態: {}, 游標: {}", 
+                request.getCustomerId(), request.getStatus(), request.getCursor());
+        Specification<Order> spec = buildSearchSpecification(request.getCustomerId(), request.getStatus(),
+                request.getPaymentMethod(), request.getMinAmount(), request.getMaxAmount(),
+                request.getStartDate(), request.getEndDate());
+        return keysetPaginationExecutor.findPage(Order.class, spec, request,
+                order -> new CursorToken(order.getCreatedAt(), order.getId()));
+    }
+
+    /**
+     * 多條件查詢訂單（不計算總數）
+     * @param request 查詢條件與分頁參數
+     * @return 分頁響應，僅在要求快取總數時於第一頁提供總數
+     */
+    public BasePageResponse<Order> searchOrdersBySlice(OrderSearchRequestDto request) {
+        Specification<Order> spec = buildSearchSpecification(request.getCustomerId(), request.getStatus(),
+                request.getPaymentMethod(), request.getMinAmount(), request.getMaxAmount(),
+                request.getStartDate(), request.getEndDate());
+        return slicePaginationExecutor.findSlice(Order.class, spec, request, Sort.unsorted(),
+                Arrays.asList(request.getCustomerId(), request.getStatus(), request.getPaymentMethod(),
+                        request.getMinAmount(), request.getMaxAmount(),
+                        request.getStartDate(), request.getEndDate()));
     }
 
     /**
@@ -246,20 +292,37 @@ public class OrderQueryServiceImpl {
 
     /**
      * 統計各狀態的訂單數量
+     * 讀取每日訂單彙總，不掃描 orders 表
      * @return 狀態-數量對應列表
      */
     public List<Object[]> getOrderStatusStatistics() {
         log.debug("統計訂單狀態分佈");
-        return orderRepository.countByStatus();
+        return dailyOrderStatRepository.sumOrderCountByStatus().stream()
+                .map(row -> new Object[]{decodeOrdinal(OrderStatus.values(), row[0]), row[1]})
+                .toList();
     }
 
     /**
      * 統計各付款方式的訂單數量
+     * 讀取每日訂單彙總，不掃描 orders 表
      * @return 付款方式-數量對應列表
      */
     public List<Object[]> getPaymentMethodStatistics() {
         log.debug("統計付款方式分佈");
-        return orderRepository.countByPaymentMethod();
+        return dailyOrderStatRepository.sumOrderCountByPaymentMethod().stream()
+                .map(row -> new Object[]{decodeOrdinal(PaymentMethod.values(), row[0]), row[1]})
+                .toList();
+    }
+
+    /**
+     * 統計日期範圍內每日的訂單數與實付金額
+     * @param fromDate 起始日期（含）
+     * @param toDate 結束日期（含）
+     * @return 日期-訂單數-實付金額對應列表
+     */
+    public List<Object[]> getDailySalesStatistics(LocalDate fromDate, LocalDate toDate) {
+        log.debug("統計每日銷售，日期範圍: {} - {}", fromDate, toDate);
+        return dailyOrderStatRepository.sumDailyByStatDateBetween(fromDate, toDate);
     }
 
     /**
@@ -318,4 +381,36 @@ public class OrderQueryServiceImpl {
         log.debug("查詢沒有備註的訂單");
         return orderRepository.findByNotesIsNull();
     }
-}
\ No newline at end of file
+
+    /**
+     * 建構訂單搜尋條件
+     * 只為有提供的參數產生條件
+     * @param customerId 客戶ID（可為null）
+     * @param status 訂單狀態（可為null）
+     * @param paymentMethod 付款方式（可為null）
+     * @param minAmount 最小金額（可為null）
+     * @param maxAmount 最大金額（可為null）
+     * @param startDate 開始日期（可為null）
+     * @param endDate 結束日期（可為null）
+     * @return 查詢條件
+     */
+    private Specification<Order> buildSearchSpecification(Long customerId, OrderStatus status, PaymentMethod paymentMethod,
+                                                          BigDecimal minAmount, BigDecimal maxAmount,
+                                                          LocalDateTime startDate, LocalDateTime endDate) {
+        return SpecificationBuilder.of(Order.class)
+                .equal("customerId", customerId)
+                .equal("status", status)
+                .equal("paymentMethod", paymentMethod)
+                .between("finalAmount", Money.ofNullable(minAmount), Money.ofNullable(maxAmount))
+                .between("createdAt", startDate, endDate)
+                .build();
+    }
+
+    /**
+     * 將彙總表中的序號還原為枚舉，-1 表示未指定
+     */
+    private static <E extends Enum<E>> E decodeOrdinal(E[] values, Object ordinal) {
+        int value = ((Number) ordinal).intValue();
+        return value >= 0 && value < values.length ? values[value] : null;
+    }
+}
@@ -0,0 +1,164 @@
+package erp.order.service.impl;
+
+import erp.common.dto.BasePageResponse;
+import erp.common.specification.SpecificationBuilder;
+import erp.order.config.OrderReminderProperties;
+import erp.order.constant.OrderConstants;
+import erp.order.dto.OrderReminderSearchRequestDto;
+import erp.order.dto.OverdueOrderRow;
+import erp.order.entity.OrderReminder;
+import erp.order.enums.OrderStatus;
+import erp.order.repository.OrderReminderRepository;
+import erp.order.repository.OrderRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 未完成訂單提醒功能實現
+ * 依 (status, order_time) 索引分批掃描逾時訂單並建立提醒；
+ * 記憶體中保留各狀態已掃描到的游標，每輪只讀取游標之後新逾時的訂單
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class OrderReminderServiceImpl {
+
+    /**
+     * 游標起點（全量重掃時從此開始）
+     */
+    private static final ScanCursor SCAN_START = new ScanCursor(LocalDateTime.of(1970, 1, 1, 0, 0), 0L);
+
+    /**
+     * 以唯一鍵 (order_id, status) 去重，已存在的提醒直接略過
+     */
+    private static final String INSERT_REMINDER_SQL = "INSERT IGNORE INTO order_reminders " +
+            "(order_id, order_no, customer_id, status, order_time, overdue_at, created_at) " +
+            "VALUES (?, ?, ?, ?, ?, ?, ?)";
+
+    private final OrderRepository orderRepository;
+    private final OrderReminderRepository orderReminderRepository;
+    private final JdbcTemplate jdbcTemplate;
+    private final OrderReminderProperties properties;
+
+    /**
+     * 各狀態已掃描到的位置，只在 runCycle 內讀寫
+     */
+    private final Map<OrderStatus, ScanCursor> cursors = new EnumMap<>(OrderStatus.class);
+    private LocalDateTime lastFullSweepAt;
+
+    //region 掃描
+    /**
+     * 執行一輪提醒掃描
+     * 先解除已離開原狀態的提醒，再依各狀態的允許時長建立新逾時訂單的提醒
+     * @return 本輪掃描到的逾時訂單數
+     */
+    public synchronized int runCycle() {
+        LocalDateTime now = LocalDateTime.now();
+
+        // 游標只會往前推進，定期重置以補上晚於游標才進入該狀態的訂單
+        if (lastFullSweepAt == null || !now.isBefore(lastFullSweepAt.plus(properties.getFullSweepInterval()))) {
+            cursors.clear();
+            lastFullSweepAt = now;
+        }
+
+        int resolved = orderReminderRepository.resolveStaleReminders(now);
+        int scanned = 0;
+        for (Map.Entry<OrderStatus, Duration> threshold : properties.thresholds().entrySet()) {
+            scanned += scanStatus(threshold.getKey(), threshold.getValue(), now);
+        }
+        if (scanned > 0 || resolved > 0) {
+            log.info(OrderConstants.LOG_REMINDER_CYCLE_DONE, scanned, resolved);
+        }
+        return scanned;
+    }
+
+    /**
+     * 掃描單一狀態的逾時訂單
+     * 從游標之後分批讀取，每輪最多 maxBatchesPerCycle 批，未掃完的部分下一輪接續
+     */
+    private int scanStatus(OrderStatus status, Duration age, LocalDateTime now) {
+        LocalDateTime cutoff = now.minus(age);
+        int batchSize = Math.max(1, properties.getBatchSize());
+        ScanCursor cursor = cursors.getOrDefault(status, SCAN_START);
+        int scanned = 0;
+
+        for (int batch = 0; batch < properties.getMaxBatchesPerCycle(); batch++) {
+            List<OverdueOrderRow> rows = orderRepository.findOverdueOrders(
+                    status, cutoff, cursor.orderTime(), cursor.id(), PageRequest.of(0, batchSize));
+            if (rows.isEmpty()) {
+                break;
+            }
+            insertReminders(rows, status, age, now);
+            scanned += rows.size();
+
+            OverdueOrderRow last = rows.get(rows.size() - 1);
+            cursor = new ScanCursor(last.orderTime(), last.id());
+            if (rows.size() < batchSize) {
+                break;
+            }
+        }
+        cursors.put(status, cursor);
+        return scanned;
+    }
+
+    /**
+     * 批次寫入提醒，同一訂單同一狀態已有提醒時略過
+     */
+    private void insertReminders(List<OverdueOrderRow> rows, OrderStatus status, Duration age, LocalDateTime now) {
+        Timestamp createdAt = Timestamp.valueOf(now);
+        jdbcTemplate.batchUpdate(INSERT_REMINDER_SQL, rows, rows.size(), (ps, row) -> {
+            ps.setLong(1, row.id());
+            ps.setString(2, row.no());
+            ps.setObject(3, row.customerId());
+            ps.setInt(4, status.ordinal());
+            ps.setTimestamp(5, Timestamp.valueOf(row.orderTime()));
+            ps.setTimestamp(6, Timestamp.valueOf(row.orderTime().plus(age)));
+            ps.setTimestamp(7, createdAt);
+        });
+    }
+    //endregion
+
+    //region 查詢
+    /**
+     * 搜索提醒，預設只列出未解除的提醒，依逾時時間排序
+     * @param request 搜索請求
+     * @return 分頁結果
+     */
+    @Transactional(readOnly = true)
+    public BasePageResponse<OrderReminder> searchReminders(OrderReminderSearchRequestDto request) {
+        Specification<OrderReminder> unresolved = Boolean.TRUE.equals(request.getIncludeResolved())
+                ? null
+                : (root, query, cb) -> cb.isNull(root.get("resolvedAt"));
+        Specification<OrderReminder> spec = SpecificationBuilder.of(OrderReminder.class)
+                .equal("status", request.getStatus())
+                .equal("customerId", request.getCustomerId())
+                .and(unresolved)
+                .build();
+        Pageable pageable = request.toPageable();
+        Page<OrderReminder> reminders = orderReminderRepository.findAll(spec, PageRequest.of(
+                pageable.getPageNumber(), pageable.getPageSize(), Sort.by("overdueAt", "id")));
+        return BasePageResponse.of(reminders);
+    }
+    //endregion
+
+    /**
+     * 掃描游標：最後處理的下單時間與訂單ID
+     */
+    private record ScanCursor(LocalDateTime orderTime, Long id) {
+    }
+}
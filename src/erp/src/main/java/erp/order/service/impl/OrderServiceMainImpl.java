@@ -1,13 +1,20 @@
 package erp.order.service.impl;
 
+import erp.common.dto.BasePageResponse;
+import erp.common.money.Money;
 import erp.order.dto.OrderCreateRequestDto;
 import erp.order.dto.OrderCreateResponseDto;
+import erp.order.dto.OrderExportRequestDto;
 import erp.order.dto.OrderItemResponseDto;
 import erp.order.dto.OrderUpdateRequestDto;
 import erp.order.dto.OrderUpdateResponseDto;
 import erp.order.dto.OrderStatusUpdateDto;
-import erp.order.dto.OrderItemUpdateDto;
+import erp.order.dto.OrderBulkStatusUpdateDto;
+import erp.order.dto.OrderBulkStatusUpdateResponseDto;
+import erp.order.dto.OrderSearchRequestDto;
+import erp.order.dto.OrderReminderSearchRequestDto;
 import erp.order.entity.Order;
+import erp.order.entity.OrderReminder;
 import erp.order.entity.OrderItem;
 import erp.order.enums.OrderStatus;
 import erp.order.service.OrderItemService;
@@ -17,7 +24,10 @@ import lombok.RequiredArgsConstructor;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.io.IOException;
+import java.io.OutputStream;
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
 import java.util.List;
@@ -32,6 +42,8 @@ public class OrderServiceMainImpl implements OrderService {
     
     private final OrderQueryServiceImpl queryService;
     private final OrderCreateUpdateServiceImpl createUpdateService;
+    private final OrderExportServiceImpl exportService;
+    private final OrderReminderServiceImpl reminderService;
     private final OrderItemService orderItemService;
     
     //region 訂單查詢相關方法委派 (Read)
@@ -81,16 +93,18 @@ public class OrderServiceMainImpl implements OrderService {
     public Order createOrder(Long customerId, OrderStatus status, BigDecimal totalAmount, 
                            BigDecimal discountAmount, BigDecimal finalAmount, 
                            PaymentMethod paymentMethod, String notes) {
-        return createUpdateService.createOrder(customerId, status, totalAmount, discountAmount, 
-                                             finalAmount, paymentMethod, notes);
+        return createUpdateService.createOrder(customerId, status, Money.ofNullable(totalAmount),
+                                             Money.ofNullable(discountAmount), Money.ofNullable(finalAmount),
+                                             paymentMethod, notes);
     }
     
     @Override
     public Order updateOrder(Long orderId, Long customerId, OrderStatus status, 
                            BigDecimal totalAmount, BigDecimal discountAmount, 
                            BigDecimal finalAmount, PaymentMethod paymentMethod, String notes) {
-        return createUpdateService.updateOrder(orderId, customerId, status, totalAmount, 
-                                             discountAmount, finalAmount, paymentMethod, notes);
+        return createUpdateService.updateOrder(orderId, customerId, status, Money.ofNullable(totalAmount),
+                                             Money.ofNullable(discountAmount), Money.ofNullable(finalAmount),
+                                             paymentMethod, notes);
     }
     
     @Override
@@ -99,17 +113,68 @@ public class OrderServiceMainImpl implements OrderService {
     }
     //endregion
     
+    //region 控制器專用業務邏輯區塊 - 查詢相關
+    @Override
+    public BasePageResponse<Order> searchOrders(OrderSearchRequestDto request) {
+        // 游標分頁
+        if (request.isCursorMode()) {
+            return queryService.searchOrdersByCursor(request);
+        }
+        
+        // 不計算總數
+        if (request.isSliceMode()) {
+            return queryService.searchOrdersBySlice(request);
+        }
+        
+        // 頁碼分頁
+        Page<Order> orders = queryService.searchOrders(
+                request.getCustomerId(),
+                request.getStatus(),
+                request.getPaymentMethod(),
+                request.getMinAmount(),
+                request.getMaxAmount(),
+                request.getStartDate(),
+                request.getEndDate(),
+                request.toPageable()
+        );
+        return BasePageResponse.of(orders);
+    }
+    //endregion
+    
+    //region 控制器專用業務邏輯區塊 - 匯出相關
+    @Override
+    public void exportOrders(OrderExportRequestDto request, OutputStream outputStream) throws IOException {
+        exportService.exportOrders(request, outputStream);
+    }
+    //endregion
+    
+    //region 控制器專用業務邏輯區塊 - 提醒相關
+    @Override
+    public BasePageResponse<OrderReminder> searchOrderReminders(OrderReminderSearchRequestDto request) {
+        return reminderService.searchReminders(request);
+    }
+    //endregion
+    
     //region 控制器專用業務邏輯區塊 - 創建相關
     @Override
+    @Transactional
     public OrderCreateResponseDto createOrder(OrderCreateRequestDto request) {
-        // 計算訂單總額
-        BigDecimal totalAmount = request.getOrderItems().stream()
-                .map(item -> item.getUnitPrice().multiply(BigDecimal.valueOf(item.getQty())))
-                .reduce(BigDecimal.ZERO, BigDecimal::add);
+        // 構建訂單明細（單價只轉換一次，與訂單同一交易，提交時批次寫入）
+        List<OrderItem> orderItems = request.getOrderItems().stream()
+                .map(itemDto -> OrderItem.builder()
+                        .productId(itemDto.getProductId())
+                        .productName(itemDto.getProductName())
+                        .productType(itemDto.getProductType())
+                        .qty(itemDto.getQty())
+                        .unitPrice(Money.of(itemDto.getUnitPrice()))
+                        .notes(itemDto.getNotes())
+                        .build())
+                .toList();
         
-        // 計算實付金額
-        BigDecimal discountAmount = request.getDiscountAmount() != null ? request.getDiscountAmount() : BigDecimal.ZERO;
-        BigDecimal finalAmount = totalAmount.subtract(discountAmount);
+        // 計算訂單總額與實付金額（以分為單位累加，逐筆明細不配置物件）
+        Money totalAmount = Money.sumOfLines(orderItems, OrderItem::getUnitPrice, OrderItem::getQty);
+        Money discountAmount = request.getDiscountAmount() != null ? Money.of(request.getDiscountAmount()) : Money.ZERO;
+        Money finalAmount = totalAmount.minus(discountAmount);
         
         // 設置預設值
         OrderStatus status = request.getStatus() != null ? request.getStatus() : OrderStatus.PENDING;
@@ -126,31 +191,10 @@ public class OrderServiceMainImpl implements OrderService {
                 request.getNotes()
         );
         
-        // 創建訂單明細
-        List<OrderItemResponseDto> orderItemResponses = request.getOrderItems().stream()
-                .map(itemDto -> {
-                    OrderItem orderItem = orderItemService.createOrderItem(
-                            createdOrder.getId(),
-                            itemDto.getProductId(),
-                            itemDto.getProductName(),
-                            itemDto.getProductType(),
-                            itemDto.getQty(),
-                            itemDto.getUnitPrice(),
-                            itemDto.getNotes()
-                    );
-                    
-                    return OrderItemResponseDto.builder()
-                            .id(orderItem.getId())
-                            .productId(orderItem.getProductId())
-                            .productName(orderItem.getProductName())
-                            .productType(orderItem.getProductType())
-                            .qty(orderItem.getQty())
-                            .unitPrice(orderItem.getUnitPrice())
-                            .subtotal(orderItem.getSubtotal())
-                            .notes(orderItem.getNotes())
-                            .createdAt(orderItem.getCreatedAt())
-                            .build();
-                })
+        // 創建訂單明細，依建立時的狀態預留或扣減庫存
+        List<OrderItemResponseDto> orderItemResponses = orderItemService
+                .createInitialOrderItems(createdOrder.getId(), createdOrder.getStatus(), orderItems).stream()
+                .map(this::toOrderItemResponse)
                 .toList();
         
         // 構建回應DTO
@@ -160,12 +204,13 @@ public class OrderServiceMainImpl implements OrderService {
                 .customerId(createdOrder.getCustomerId())
                 .orderTime(createdOrder.getOrderTime())
                 .status(createdOrder.getStatus())
-                .totalAmount(createdOrder.getTotalAmount())
-                .discountAmount(createdOrder.getDiscountAmount())
-                .finalAmount(createdOrder.getFinalAmount())
+                .totalAmount(Money.toDecimal(createdOrder.getTotalAmount()))
+                .discountAmount(Money.toDecimal(createdOrder.getDiscountAmount()))
+                .finalAmount(Money.toDecimal(createdOrder.getFinalAmount()))
                 .paymentMethod(createdOrder.getPaymentMethod())
                 .notes(createdOrder.getNotes())
                 .createdAt(createdOrder.getCreatedAt())
+                .version(createdOrder.getVersion())
                 .orderItems(orderItemResponses)
                 .build();
     }
@@ -173,25 +218,26 @@ public class OrderServiceMainImpl implements OrderService {
     
     //region 控制器專用業務邏輯區塊 - 更新相關
     @Override
+    @Transactional
     public OrderUpdateResponseDto updateOrder(OrderUpdateRequestDto request) {
         // 獲取現有訂單
         Order existingOrder = queryService.getOrderById(request.getId());
         
-        // 計算訂單總額（如果有訂單項目更新）
-        BigDecimal totalAmount;
+        // 套用訂單明細異動，並以合併後的全部明細計算訂單總額
+        List<OrderItem> orderItems;
+        Money totalAmount;
         if (request.getOrderItems() != null && !request.getOrderItems().isEmpty()) {
-            totalAmount = request.getOrderItems().stream()
-                    .filter(item -> !"DELETE".equals(item.getAction()))
-                    .map(item -> item.getUnitPrice().multiply(BigDecimal.valueOf(item.getQty())))
-                    .reduce(BigDecimal.ZERO, BigDecimal::add);
+            orderItems = orderItemService.applyOrderItemChanges(request.getId(), request.getOrderItems());
+            totalAmount = Money.sumOfLines(orderItems, OrderItem::getUnitPrice, OrderItem::getQty);
         } else {
+            orderItems = orderItemService.getOrderItemsByOrderId(request.getId());
             totalAmount = existingOrder.getTotalAmount();
         }
         
         // 計算實付金額
-        BigDecimal discountAmount = request.getDiscountAmount() != null ? 
-                request.getDiscountAmount() : existingOrder.getDiscountAmount();
-        BigDecimal finalAmount = totalAmount.subtract(discountAmount);
+        Money discountAmount = request.getDiscountAmount() != null ? 
+                Money.of(request.getDiscountAmount()) : existingOrder.getDiscountAmount();
+        Money finalAmount = totalAmount.minus(discountAmount);
         
         // 使用請求中的值或保持原有值
         Long customerId = request.getCustomerId() != null ? 
@@ -212,30 +258,13 @@ public class OrderServiceMainImpl implements OrderService {
                 discountAmount,
                 finalAmount,
                 paymentMethod,
-                notes
+                notes,
+                request.getVersion()
         );
         
-        // 處理訂單項目更新
-        List<OrderItemResponseDto> orderItemResponses;
-        if (request.getOrderItems() != null && !request.getOrderItems().isEmpty()) {
-            orderItemResponses = processOrderItemUpdates(request.getId(), request.getOrderItems());
-        } else {
-            // 如果沒有項目更新，獲取現有項目
-            List<OrderItem> existingItems = orderItemService.getOrderItemsByOrderId(request.getId());
-            orderItemResponses = existingItems.stream()
-                    .map(item -> OrderItemResponseDto.builder()
-                            .id(item.getId())
-                            .productId(item.getProductId())
-                            .productName(item.getProductName())
-                            .productType(item.getProductType())
-                            .qty(item.getQty())
-                            .unitPrice(item.getUnitPrice())
-                            .subtotal(item.getSubtotal())
-                            .notes(item.getNotes())
-                            .createdAt(item.getCreatedAt())
-                            .build())
-                    .toList();
-        }
+        List<OrderItemResponseDto> orderItemResponses = orderItems.stream()
+                .map(this::toOrderItemResponse)
+                .toList();
         
         // 構建回應DTO
         return OrderUpdateResponseDto.builder()
@@ -244,12 +273,13 @@ public class OrderServiceMainImpl implements OrderService {
                 .customerId(updatedOrder.getCustomerId())
                 .orderTime(updatedOrder.getOrderTime())
                 .status(updatedOrder.getStatus())
-                .totalAmount(updatedOrder.getTotalAmount())
-                .discountAmount(updatedOrder.getDiscountAmount())
-                .finalAmount(updatedOrder.getFinalAmount())
+                .totalAmount(Money.toDecimal(updatedOrder.getTotalAmount()))
+                .discountAmount(Money.toDecimal(updatedOrder.getDiscountAmount()))
+                .finalAmount(Money.toDecimal(updatedOrder.getFinalAmount()))
                 .paymentMethod(updatedOrder.getPaymentMethod())
                 .notes(updatedOrder.getNotes())
                 .updatedAt(updatedOrder.getUpdatedAt())
+                .version(updatedOrder.getVersion())
                 .orderItems(orderItemResponses)
                 .build();
     }
@@ -257,22 +287,13 @@ public class OrderServiceMainImpl implements OrderService {
     @Override
     public OrderUpdateResponseDto updateOrderStatus(OrderStatusUpdateDto request) {
         // 更新訂單狀態
-        Order updatedOrder = createUpdateService.updateOrderStatus(request.getId(), request.getStatus());
+        Order updatedOrder = createUpdateService.updateOrderStatus(
+                request.getId(), request.getStatus(), request.getVersion());
         
         // 獲取現有訂單項目
         List<OrderItem> existingItems = orderItemService.getOrderItemsByOrderId(request.getId());
         List<OrderItemResponseDto> orderItemResponses = existingItems.stream()
-                .map(item -> OrderItemResponseDto.builder()
-                        .id(item.getId())
-                        .productId(item.getProductId())
-                        .productName(item.getProductName())
-                        .productType(item.getProductType())
-                        .qty(item.getQty())
-                        .unitPrice(item.getUnitPrice())
-                        .subtotal(item.getSubtotal())
-                        .notes(item.getNotes())
-                        .createdAt(item.getCreatedAt())
-                        .build())
+                .map(this::toOrderItemResponse)
                 .toList();
         
         // 構建回應DTO
@@ -282,67 +303,38 @@ public class OrderServiceMainImpl implements OrderService {
                 .customerId(updatedOrder.getCustomerId())
                 .orderTime(updatedOrder.getOrderTime())
                 .status(updatedOrder.getStatus())
-                .totalAmount(updatedOrder.getTotalAmount())
-                .discountAmount(updatedOrder.getDiscountAmount())
-                .finalAmount(updatedOrder.getFinalAmount())
+                .totalAmount(Money.toDecimal(updatedOrder.getTotalAmount()))
+                .discountAmount(Money.toDecimal(updatedOrder.getDiscountAmount()))
+                .finalAmount(Money.toDecimal(updatedOrder.getFinalAmount()))
                 .paymentMethod(updatedOrder.getPaymentMethod())
                 .notes(updatedOrder.getNotes())
                 .updatedAt(updatedOrder.getUpdatedAt())
+                .version(updatedOrder.getVersion())
                 .orderItems(orderItemResponses)
                 .build();
     }
     
+    @Override
+    public OrderBulkStatusUpdateResponseDto bulkUpdateOrderStatus(OrderBulkStatusUpdateDto request) {
+        // 批次更新狀態，回應只含各訂單的狀態與版本號，不重新載入明細
+        return createUpdateService.bulkUpdateOrderStatus(request.getIds(), request.getStatus());
+    }
+    
     /**
-     * 處理訂單項目更新
+     * 訂單明細實體轉換為回應DTO
      */
-    private List<OrderItemResponseDto> processOrderItemUpdates(Long orderId, List<OrderItemUpdateDto> itemUpdates) {
-        return itemUpdates.stream()
-                .map(itemDto -> {
-                    OrderItem orderItem;
-                    switch (itemDto.getAction()) {
-                        case "ADD":
-                            orderItem = orderItemService.createOrderItem(
-                                    orderId,
-                                    itemDto.getProductId(),
-                                    itemDto.getProductName(),
-                                    itemDto.getProductType(),
-                                    itemDto.getQty(),
-                                    itemDto.getUnitPrice(),
-                                    itemDto.getNotes()
-                            );
-                            break;
-                        case "UPDATE":
-                            orderItem = orderItemService.updateOrderItem(
-                                    itemDto.getId(),
-                                    itemDto.getProductId(),
-                                    itemDto.getProductName(),
-                                    itemDto.getProductType(),
-                                    itemDto.getQty(),
-                                    itemDto.getUnitPrice(),
-                                    itemDto.getNotes()
-                            );
-                            break;
-                        case "DELETE":
-                            orderItemService.deleteOrderItem(itemDto.getId());
-                            return null; // 刪除的項目不返回
-                        default:
-                            throw new IllegalArgumentException("不支援的操作類型: " + itemDto.getAction());
-                    }
-                    
-                    return OrderItemResponseDto.builder()
-                            .id(orderItem.getId())
-                            .productId(orderItem.getProductId())
-                            .productName(orderItem.getProductName())
-                            .productType(orderItem.getProductType())
-                            .qty(orderItem.getQty())
-                            .unitPrice(orderItem.getUnitPrice())
-                            .subtotal(orderItem.getSubtotal())
-                            .notes(orderItem.getNotes())
-                            .createdAt(orderItem.getCreatedAt())
-                            .build();
-                })
-                .filter(item -> item != null) // 過濾掉被刪除的項目
-                .toList();
+    private OrderItemResponseDto toOrderItemResponse(OrderItem item) {
+        return OrderItemResponseDto.builder()
+                .id(item.getId())
+                .productId(item.getProductId())
+                .productName(item.getProductName())
+                .productType(item.getProductType())
+                .qty(item.getQty())
+                .unitPrice(Money.toDecimal(item.getUnitPrice()))
+                .subtotal(Money.toDecimal(item.getSubtotal()))
+                .notes(item.getNotes())
+                .createdAt(item.getCreatedAt())
+                .build();
     }
     //endregion
 }
\ No newline at end of file
@@ -0,0 +1,179 @@
+package erp.order.service.impl;
+
+import erp.common.constant.ErrorCode;
+import erp.common.exception.OrderException;
+import erp.order.constant.OrderConstants;
+import erp.order.entity.Order;
+import erp.order.entity.OrderItem;
+import erp.order.enums.OrderStatus;
+import erp.order.repository.OrderItemRepository;
+import erp.order.repository.OrderRepository;
+import erp.stock.dto.StockReservationLine;
+import erp.stock.service.StockServiceImpl.StockReservationServiceImpl;
+import erp.stock.service.StockServiceImpl.StockTransactionServiceImpl;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 訂單庫存同步功能實現
+ * 訂單狀態或明細異動後，在同一交易內依訂單目前的狀態與明細調整庫存：
+ * 已下單、已付款的訂單預留全部明細，出貨時釋放預留並扣減庫存，
+ * 已出貨的訂單取消時回補庫存，其他狀態釋放全部預留；服務類明細不管理庫存，一律略過
+ */
+@Component
+@RequiredArgsConstructor
+@Transactional
+public class OrderStockServiceImpl {
+
+    private final OrderRepository orderRepository;
+    private final OrderItemRepository orderItemRepository;
+    private final StockReservationServiceImpl stockReservationService;
+    private final StockTransactionServiceImpl stockTransactionService;
+
+    /**
+     * 新訂單建立明細後套用庫存
+     * 以已出貨、已完成狀態建立的訂單直接扣減全部明細的庫存，其他狀態依狀態預留
+     * @param orderId 訂單ID
+     * @param status 訂單建立時的狀態
+     */
+    public void applyCreation(Long orderId, OrderStatus status) {
+        if (status == OrderStatus.SHIPPED || status == OrderStatus.COMPLETED) {
+            ship(orderId);
+        } else {
+            sync(orderId, status);
+        }
+    }
+
+    /**
+     * 既有訂單的明細異動後同步預留，以訂單目前的狀態為準
+     * 已出貨、已完成的訂單已依出貨時的明細扣減庫存，明細不可再異動，拋出例外使整筆異動回滾
+     * @param orderId 訂單ID
+     */
+    public void sync(Long orderId) {
+        OrderStatus status = orderRepository.findById(orderId).map(Order::getStatus).orElse(null);
+        if (status == OrderStatus.SHIPPED || status == OrderStatus.COMPLETED) {
+            throw new OrderException(OrderConstants.ORDER_STATUS_NOT_MODIFIABLE + ": " + status,
+                    ErrorCode.ORDER_STATUS_NOT_MODIFIABLE);
+        }
+        sync(orderId, status);
+    }
+
+    /**
+     * 狀態轉換後同步庫存
+     * 轉為已出貨時扣減全部明細的庫存，已出貨轉為已取消時回補，其他轉換依新狀態預留或釋放
+     * @param orderId 訂單ID
+     * @param previousStatus 訂單轉換前的狀態
+     * @param status 訂單轉換後的狀態
+     */
+    public void applyStatusChange(Long orderId, OrderStatus previousStatus, OrderStatus status) {
+        if (status == OrderStatus.SHIPPED) {
+            ship(orderId);
+        } else if (previousStatus == OrderStatus.SHIPPED && status == OrderStatus.CANCELLED) {
+            stockTransactionService.reverseOrderShipment(orderId);
+        } else {
+            sync(orderId, status);
+        }
+    }
+
+    /**
+     * 批次狀態轉換後同步庫存
+     * 轉為已出貨的訂單一次扣減、已出貨轉為已取消的訂單一次回補、其他轉為已取消的訂單一次釋放預留，
+     * 其餘轉換逐張依新狀態同步預留；庫存不足而無法出貨的訂單不扣減，重新建立原本的預留後回報
+     * @param previousStatuses 訂單ID → 轉換前的狀態
+     * @param status 訂單轉換後的狀態
+     * @return 無法轉換的訂單ID → 原因
+     */
+    public Map<Long, String> applyBulkStatusChange(Map<Long, OrderStatus> previousStatuses, OrderStatus status) {
+        if (previousStatuses.isEmpty()) {
+            return Map.of();
+        }
+        if (status == OrderStatus.SHIPPED) {
+            Map<Long, Map<Long, Integer>> orders = new HashMap<>();
+            previousStatuses.keySet().forEach(orderId -> orders.put(orderId, new HashMap<>()));
+            for (OrderItem item : orderItemRepository.findByOrderIdIn(previousStatuses.keySet())) {
+                if (isShippable(item)) {
+                    orders.get(item.getOrderId()).merge(item.getProductId(), item.getQty(), Integer::sum);
+                }
+            }
+            Map<Long, String> rejected = stockTransactionService.shipOrders(orders, new ArrayList<>());
+            rejected.keySet().forEach(orderId -> sync(orderId, previousStatuses.get(orderId)));
+            return rejected;
+        }
+        if (status == OrderStatus.CANCELLED) {
+            List<Long> shipped = new ArrayList<>();
+            List<Long> reserved = new ArrayList<>();
+            previousStatuses.forEach((orderId, previousStatus) ->
+                    (previousStatus == OrderStatus.SHIPPED ? shipped : reserved).add(orderId));
+            if (!shipped.isEmpty()) {
+                stockTransactionService.reverseOrderShipments(shipped);
+            }
+            stockReservationService.releaseOrders(reserved);
+            return Map.of();
+        }
+        previousStatuses.keySet().forEach(orderId -> sync(orderId, status));
+        return Map.of();
+    }
+
+    //region 私有方法
+    /**
+     * 扣減訂單全部明細的庫存，任一商品不足時整張訂單不扣減並拋出例外
+     */
+    private void ship(Long orderId) {
+        Map<Long, Integer> quantities = new HashMap<>();
+        for (OrderItem item : shippableItems(orderId)) {
+            quantities.merge(item.getProductId(), item.getQty(), Integer::sum);
+        }
+        stockTransactionService.shipOrder(orderId, quantities);
+    }
+
+    /**
+     * 依訂單狀態同步預留
+     */
+    private void sync(Long orderId, OrderStatus status) {
+        if (!holdsStock(status)) {
+            stockReservationService.releaseOrder(orderId);
+            return;
+        }
+        List<StockReservationLine> lines = new ArrayList<>();
+        for (OrderItem item : shippableItems(orderId)) {
+            lines.add(new StockReservationLine(item.getId(), item.getProductId(), item.getQty()));
+        }
+        // 已下單的預留會到期，付款後不再到期
+        stockReservationService.syncOrder(orderId, lines, status == OrderStatus.PENDING);
+    }
+
+    /**
+     * 取得需要預留、扣減庫存的明細
+     */
+    private List<OrderItem> shippableItems(Long orderId) {
+        List<OrderItem> items = new ArrayList<>();
+        for (OrderItem item : orderItemRepository.findByOrderId(orderId)) {
+            if (isShippable(item)) {
+                items.add(item);
+            }
+        }
+        return items;
+    }
+
+    /**
+     * 有商品、數量大於 0 且為管理庫存的商品類型（未標示類型的明細視為管理庫存）
+     */
+    private static boolean isShippable(OrderItem item) {
+        return item.getProductId() != null && item.getQty() != null && item.getQty() > 0
+                && (item.getProductType() == null || item.getProductType().isStockTracked());
+    }
+
+    /**
+     * 是否為需要預留庫存的狀態（已下單、已付款）
+     */
+    private static boolean holdsStock(OrderStatus status) {
+        return status == OrderStatus.PENDING || status == OrderStatus.PAID;
+    }
+    //endregion
+}
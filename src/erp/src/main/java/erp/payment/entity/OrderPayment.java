@@ -1,10 +1,10 @@
 package erp.payment.entity;
 
+import erp.common.money.Money;
 import erp.payment.enums.PaymentMethod;
 import erp.payment.enums.PaymentStatus;
 import io.swagger.v3.oas.annotations.media.Schema;
 import jakarta.persistence.*;
-import jakarta.validation.constraints.DecimalMin;
 import jakarta.validation.constraints.NotNull;
 import lombok.Data;
 import lombok.NoArgsConstructor;
@@ -62,9 +62,8 @@ public class OrderPayment {
      */
     @Column(name = "amount", precision = 10, scale = 2, columnDefinition = "DECIMAL(10,2) COMMENT '支付金額'")
     @NotNull(message = "支付金額不能為空")
-    @DecimalMin(value = "0.01", message = "支付金額必須大於0")
-    @Schema(description = "支付金額", example = "500.00")
-    private BigDecimal amount;
+    @Schema(implementation = BigDecimal.class, description = "支付金額", example = "500.00")
+    private Money amount;
 
     /**
      * 支付時間
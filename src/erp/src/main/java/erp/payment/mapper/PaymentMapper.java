@@ -1,5 +1,6 @@
 package erp.payment.mapper;
 
+import erp.common.money.MoneyMapper;
 import erp.payment.dto.PaymentResponse;
 import erp.payment.entity.OrderPayment;
 import org.mapstruct.Mapper;
@@ -10,7 +11,7 @@ import java.util.List;
 /**
  * 付款映射器介面
  */
-@Mapper(componentModel = "spring")
+@Mapper(componentModel = "spring", uses = MoneyMapper.class)
 public interface PaymentMapper {
     
     /**
@@ -1,10 +1,12 @@
 package erp.payment.repository;
 
+import erp.common.money.Money;
 import erp.payment.entity.OrderPayment;
 import erp.payment.enums.PaymentMethod;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
@@ -17,7 +19,7 @@ import java.util.List;
  * 訂單支付資料存取層
  */
 @Repository
-public interface OrderPaymentRepository extends JpaRepository<OrderPayment, Long> {
+public interface OrderPaymentRepository extends JpaRepository<OrderPayment, Long>, JpaSpecificationExecutor<OrderPayment> {
 
     /**
      * 根據訂單ID查找支付記錄
@@ -57,48 +59,29 @@ public interface OrderPaymentRepository extends JpaRepository<OrderPayment, Long
     /**
      * 根據支付金額範圍查找支付記錄
      */
-    List<OrderPayment> findByAmountBetween(BigDecimal minAmount, BigDecimal maxAmount);
+    List<OrderPayment> findByAmountBetween(Money minAmount, Money maxAmount);
 
     /**
      * 根據支付金額範圍分頁查找支付記錄
      */
-    Page<OrderPayment> findByAmountBetween(BigDecimal minAmount, BigDecimal maxAmount, Pageable pageable);
-
-    /**
-     * 根據多個條件搜索支付記錄
-     */
-    @Query("SELECT op FROM OrderPayment op WHERE " +
-           "(:orderId IS NULL OR op.orderId = :orderId) AND " +
-           "(:paymentMethod IS NULL OR op.paymentMethod = :paymentMethod) AND " +
-           "(:minAmount IS NULL OR op.amount >= :minAmount) AND " +
-           "(:maxAmount IS NULL OR op.amount <= :maxAmount) AND " +
-           "(:startTime IS NULL OR op.paidTime >= :startTime) AND " +
-           "(:endTime IS NULL OR op.paidTime <= :endTime)")
-    Page<OrderPayment> findByMultipleConditions(
-            @Param("orderId") Long orderId,
-            @Param("paymentMethod") PaymentMethod paymentMethod,
-            @Param("minAmount") BigDecimal minAmount,
-            @Param("maxAmount") BigDecimal maxAmount,
-            @Param("startTime") LocalDateTime startTime,
-            @Param("endTime") LocalDateTime endTime,
-            Pageable pageable);
+    Page<OrderPayment> findByAmountBetween(Money minAmount, Money maxAmount, Pageable pageable);
 
     /**
      * 根據訂單ID統計支付總額
      */
-    @Query("SELECT SUM(op.amount) FROM OrderPayment op WHERE op.orderId = :orderId")
+    @Query("SELECT SUM(CAST(op.amount AS BigDecimal)) FROM OrderPayment op WHERE op.orderId = :orderId")
     BigDecimal sumAmountByOrderId(@Param("orderId") Long orderId);
 
     /**
      * 根據支付方式統計支付總額
      */
-    @Query("SELECT SUM(op.amount) FROM OrderPayment op WHERE op.paymentMethod = :paymentMethod")
+    @Query("SELECT SUM(CAST(op.amount AS BigDecimal)) FROM OrderPayment op WHERE op.paymentMethod = :paymentMethod")
     BigDecimal sumAmountByPaymentMethod(@Param("paymentMethod") PaymentMethod paymentMethod);
 
     /**
      * 統計各支付方式的支付金額
      */
-    @Query("SELECT op.paymentMethod, SUM(op.amount) FROM OrderPayment op GROUP BY op.paymentMethod")
+    @Query("SELECT op.paymentMethod, SUM(CAST(op.amount AS BigDecimal)) FROM OrderPayment op GROUP BY op.paymentMethod")
     List<Object[]> sumAmountByPaymentMethod();
 
     /**
@@ -122,14 +105,14 @@ public interface OrderPaymentRepository extends JpaRepository<OrderPayment, Long
     /**
      * 統計今日各支付方式的收入
      */
-    @Query("SELECT op.paymentMethod, SUM(op.amount) FROM OrderPayment op " +
+    @Query("SELECT op.paymentMethod, SUM(CAST(op.amount AS BigDecimal)) FROM OrderPayment op " +
            "WHERE DATE(op.paidTime) = CURRENT_DATE GROUP BY op.paymentMethod")
     List<Object[]> sumTodayAmountByPaymentMethod();
 
     /**
      * 統計本月各支付方式的收入
      */
-    @Query("SELECT op.paymentMethod, SUM(op.amount) FROM OrderPayment op " +
+    @Query("SELECT op.paymentMethod, SUM(CAST(op.amount AS BigDecimal)) FROM OrderPayment op " +
            "WHERE YEAR(op.paidTime) = YEAR(CURRENT_DATE) AND MONTH(op.paidTime) = MONTH(CURRENT_DATE) " +
            "GROUP BY op.paymentMethod")
     List<Object[]> sumCurrentMonthAmountByPaymentMethod();
@@ -142,13 +125,13 @@ public interface OrderPaymentRepository extends JpaRepository<OrderPayment, Long
     /**
      * 根據時間範圍統計支付總額
      */
-    @Query("SELECT SUM(op.amount) FROM OrderPayment op WHERE op.paidTime BETWEEN :startTime AND :endTime")
+    @Query("SELECT SUM(CAST(op.amount AS BigDecimal)) FROM OrderPayment op WHERE op.paidTime BETWEEN :startTime AND :endTime")
     BigDecimal sumAmountByPaidTimeBetween(@Param("startTime") LocalDateTime startTime, @Param("endTime") LocalDateTime endTime);
 
     /**
      * 根據時間範圍和支付方式統計支付總額
      */
-    @Query("SELECT SUM(op.amount) FROM OrderPayment op WHERE op.paidTime BETWEEN :startTime AND :endTime AND op.paymentMethod = :paymentMethod")
+    @Query("SELECT SUM(CAST(op.amount AS BigDecimal)) FROM OrderPayment op WHERE op.paidTime BETWEEN :startTime AND :endTime AND op.paymentMethod = :paymentMethod")
     BigDecimal sumAmountByPaidTimeBetweenAndPaymentMethod(
             @Param("startTime") LocalDateTime startTime, 
             @Param("endTime") LocalDateTime endTime, 
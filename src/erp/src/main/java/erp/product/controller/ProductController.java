@@ -95,6 +95,13 @@ public class ProductController extends BaseController<Product, Long> {
     public ResponseEntity<ApiResponse<BasePageResponse<Product>>> getAllProducts(@RequestBody BasePageableRequest request) {
         logRequest("獲取所有產品", request.getPage(), request.getSize());
         
+        if (request.isCursorMode()) {
+            return pageSuccess(productService.searchProductsByCursor(new ProductSearchRequest(), request));
+        }
+        if (request.isSliceMode()) {
+            return pageSuccess(productService.searchProductsBySlice(new ProductSearchRequest(), request));
+        }
+        
         Pageable pageable = request.toPageable();
         Page<Product> products = productService.getAllProducts(pageable);
         
@@ -149,6 +156,13 @@ public class ProductController extends BaseController<Product, Long> {
     public ResponseEntity<ApiResponse<BasePageResponse<Product>>> searchProducts(@RequestBody ProductSearchRequest request) {
         logRequest("多條件搜索產品", request.getName(), request.getType(), request.getStatus());
         
+        if (request.isCursorMode()) {
+            return pageSuccess(productService.searchProductsByCursor(request, request));
+        }
+        if (request.isSliceMode()) {
+            return pageSuccess(productService.searchProductsBySlice(request, request));
+        }
+        
         Pageable pageable = request.toPageable();
         Page<Product> products = productService.searchProducts(request, pageable);
         
@@ -24,7 +24,8 @@ import java.time.LocalDateTime;
 @Table(name = "products", indexes = {
     @Index(name = "idx_product_name", columnList = "name"),
     @Index(name = "idx_product_type", columnList = "type"),
-    @Index(name = "idx_product_status", columnList = "status")
+    @Index(name = "idx_product_status", columnList = "status"),
+    @Index(name = "idx_product_created_id", columnList = "created_at, id")
 })
 @Data
 @NoArgsConstructor
@@ -22,4 +22,11 @@ public enum ProductType implements CodedEnum {
         this.description = description;
     }
 
+    /**
+     * 是否管理庫存，服務類商品沒有庫存列，不預留也不扣減
+     */
+    public boolean isStockTracked() {
+        return this != PET_SERVICE;
+    }
+
 }
\ No newline at end of file
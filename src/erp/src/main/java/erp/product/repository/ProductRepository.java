@@ -6,6 +6,7 @@ import erp.product.enums.ProductStatus;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
@@ -18,7 +19,7 @@ import java.util.Optional;
  * 商品資料存取層
  */
 @Repository
-public interface ProductRepository extends JpaRepository<Product, Long> {
+public interface ProductRepository extends JpaRepository<Product, Long>, JpaSpecificationExecutor<Product> {
 
     /**
      * 根據商品名稱查找商品
@@ -95,25 +96,6 @@ public interface ProductRepository extends JpaRepository<Product, Long> {
      */
     boolean existsByNameAndIdNot(String name, Long id);
 
-    /**
-     * 根據多個條件搜索商品
-     */
-    @Query("SELECT p FROM Product p WHERE " +
-           "(:name IS NULL OR LOWER(p.name) LIKE LOWER(CONCAT('%', :name, '%'))) AND " +
-           "(:type IS NULL OR p.type = :type) AND " +
-           "(:status IS NULL OR p.status = :status) AND " +
-           "(:minPrice IS NULL OR p.price >= :minPrice) AND " +
-           "(:maxPrice IS NULL OR p.price <= :maxPrice) AND " +
-           "(:description IS NULL OR LOWER(p.description) LIKE LOWER(CONCAT('%', :description, '%')))")
-    Page<Product> findByMultipleConditions(
-            @Param("name") String name,
-            @Param("type") ProductType type,
-            @Param("status") ProductStatus status,
-            @Param("minPrice") BigDecimal minPrice,
-            @Param("maxPrice") BigDecimal maxPrice,
-            @Param("description") String description,
-            Pageable pageable);
-
     /**
      * 統計各商品類型的商品數量
      */
@@ -1,5 +1,7 @@
 package erp.product.service;
 
+import erp.common.dto.BasePageResponse;
+import erp.common.dto.BasePageableRequest;
 import erp.product.dto.*;
 import erp.product.entity.Product;
 import erp.product.enums.ProductStatus;
@@ -23,6 +25,8 @@ public interface ProductService {
     List<Product> getProductsByStatus(ProductStatus status);
     List<Product> searchProductsByName(String name);
     Page<Product> searchProducts(ProductSearchRequest request, Pageable pageable);
+    BasePageResponse<Product> searchProductsByCursor(ProductSearchRequest request, BasePageableRequest pageRequest);
+    BasePageResponse<Product> searchProductsBySlice(ProductSearchRequest request, BasePageableRequest pageRequest);
     List<Product> getProductsByPriceRange(BigDecimal minPrice, BigDecimal maxPrice);
     ProductStatistics getProductStatistics();
     
@@ -1,5 +1,11 @@
 package erp.product.service.impl;
 
+import erp.common.dto.BasePageResponse;
+import erp.common.dto.BasePageableRequest;
+import erp.common.pagination.CursorToken;
+import erp.common.pagination.KeysetPaginationExecutor;
+import erp.common.pagination.SlicePaginationExecutor;
+import erp.common.specification.SpecificationBuilder;
 import erp.product.dto.ProductSearchRequest;
 import erp.product.dto.ProductStatistics;
 import erp.product.entity.Product;
@@ -10,10 +16,13 @@ import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Component;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.math.BigDecimal;
+import java.util.Arrays;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -28,6 +37,8 @@ import java.util.Map;
 public class ProductQueryServiceImpl {
     
     private final ProductRepository productRepository;
+    private final KeysetPaginationExecutor keysetPaginationExecutor;
+    private final SlicePaginationExecutor slicePaginationExecutor;
     
     public Product getProductById(Long id) {
         return productRepository.findById(id)
@@ -52,15 +63,20 @@ public class ProductQueryServiceImpl {
     
     public Page<Product> searchProducts(ProductSearchRequest request, Pageable pageable) {
         // 實現多條件搜索邏輯
-        return productRepository.findByMultipleConditions(
-                request.getName(),
-                request.getType(),
-                request.getStatus(),
-                request.getMinPrice(),
-                request.getMaxPrice(),
-                request.getDescription(),
-                pageable
-        );
+        return productRepository.findAll(buildSearchSpecification(request), pageable);
+    }
+    
+    public BasePageResponse<Product> searchProductsByCursor(ProductSearchRequest request, BasePageableRequest pageRequest) {
+        // 游標分頁，不執行 COUNT
+        return keysetPaginationExecutor.findPage(Product.class, buildSearchSpecification(request), pageRequest,
+                product -> new CursorToken(product.getCreatedAt(), product.getId()));
+    }
+    
+    public BasePageResponse<Product> searchProductsBySlice(ProductSearchRequest request, BasePageableRequest pageRequest) {
+        // 不計算總數，多取一筆判斷是否還有下一頁
+        return slicePaginationExecutor.findSlice(Product.class, buildSearchSpecification(request), pageRequest,
+                Sort.unsorted(), Arrays.asList(request.getName(), request.getType(), request.getStatus(),
+                        request.getMinPrice(), request.getMaxPrice(), request.getDescription()));
     }
     
     public List<Product> getProductsByPriceRange(BigDecimal minPrice, BigDecimal maxPrice) {
@@ -94,4 +110,18 @@ public class ProductQueryServiceImpl {
                 disabledCount
         );
     }
-}
\ No newline at end of file
+    
+    /**
+     * 建構產品搜尋條件
+     * 只為有提供的參數產生條件
+     */
+    private Specification<Product> buildSearchSpecification(ProductSearchRequest request) {
+        return SpecificationBuilder.of(Product.class)
+                .containsIgnoreCase("name", request.getName())
+                .equal("type", request.getType())
+                .equal("status", request.getStatus())
+                .between("price", request.getMinPrice(), request.getMaxPrice())
+                .containsIgnoreCase("description", request.getDescription())
+                .build();
+    }
+}
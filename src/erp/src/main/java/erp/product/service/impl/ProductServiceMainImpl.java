@@ -1,5 +1,7 @@
 package erp.product.service.impl;
 
+import erp.common.dto.BasePageResponse;
+import erp.common.dto.BasePageableRequest;
 import erp.product.dto.ProductCreateRequest;
 import erp.product.dto.ProductSearchRequest;
 import erp.product.dto.ProductStatistics;
@@ -57,6 +59,16 @@ public class ProductServiceMainImpl implements ProductService {
         return queryService.searchProducts(request, pageable);
     }
     
+    @Override
+    public BasePageResponse<Product> searchProductsByCursor(ProductSearchRequest request, BasePageableRequest pageRequest) {
+        return queryService.searchProductsByCursor(request, pageRequest);
+    }
+    
+    @Override
+    public BasePageResponse<Product> searchProductsBySlice(ProductSearchRequest request, BasePageableRequest pageRequest) {
+        return queryService.searchProductsBySlice(request, pageRequest);
+    }
+    
     @Override
     public List<Product> getProductsByPriceRange(BigDecimal minPrice, BigDecimal maxPrice) {
         return queryService.getProductsByPriceRange(minPrice, maxPrice);
@@ -0,0 +1,40 @@
+package erp.report.dto;
+
+import erp.common.money.Money;
+import erp.order.entity.OrderItem;
+
+import java.time.LocalDate;
+
+/**
+ * 單筆訂單明細對每日商品銷售彙總的貢獻
+ * 商品類型以代碼儲存，未指定時為 -1；商品ID未指定時為 0
+ */
+public record OrderItemRollupRow(LocalDate statDate, int productType, long productId,
+                                 long qty, Money amount) {
+
+    /**
+     * 從訂單明細擷取彙總欄位，建立時間未知的明細不列入彙總
+     * @param item 訂單明細實體
+     * @return 彙總貢獻，無法歸日時為 null
+     */
+    public static OrderItemRollupRow of(OrderItem item) {
+        if (item == null || item.getCreatedAt() == null) {
+            return null;
+        }
+        long qty = item.getQty() != null ? item.getQty() : 0L;
+        Money amount = item.getUnitPrice() != null ? item.getUnitPrice().times(qty) : Money.ZERO;
+        return new OrderItemRollupRow(
+                item.getCreatedAt().toLocalDate(),
+                item.getProductType() != null ? item.getProductType().getCode() : -1,
+                item.getProductId() != null ? item.getProductId() : 0L,
+                qty,
+                amount);
+    }
+
+    /**
+     * 是否與另一筆落在同一個彙總列
+     */
+    public boolean sameKey(OrderItemRollupRow other) {
+        return statDate.equals(other.statDate) && productType == other.productType && productId == other.productId;
+    }
+}
@@ -0,0 +1,9 @@
+package erp.report.dto;
+
+/**
+ * 單筆訂單異動前、後對每日訂單彙總的貢獻（批次套用時使用）
+ * @param before 異動前的貢獻（新增時為 null）
+ * @param after 異動後的貢獻（刪除時為 null）
+ */
+public record OrderRollupChange(OrderRollupRow before, OrderRollupRow after) {
+}
@@ -0,0 +1,43 @@
+package erp.report.dto;
+
+import erp.common.money.Money;
+import erp.order.entity.Order;
+
+import java.time.LocalDate;
+
+/**
+ * 單筆訂單對每日訂單彙總的貢獻
+ * 維度編碼與 orders 表相同（狀態、支付方式以序號儲存），未指定時為 -1
+ */
+public record OrderRollupRow(LocalDate statDate, int status, int paymentMethod,
+                             Money totalAmount, Money discountAmount, Money finalAmount) {
+
+    /**
+     * 從訂單擷取彙總欄位，建立時間未知的訂單不列入彙總
+     * @param order 訂單實體
+     * @return 彙總貢獻，無法歸日時為 null
+     */
+    public static OrderRollupRow of(Order order) {
+        if (order == null || order.getCreatedAt() == null) {
+            return null;
+        }
+        return new OrderRollupRow(
+                order.getCreatedAt().toLocalDate(),
+                order.getStatus() != null ? order.getStatus().ordinal() : -1,
+                order.getPaymentMethod() != null ? order.getPaymentMethod().ordinal() : -1,
+                zeroIfNull(order.getTotalAmount()),
+                zeroIfNull(order.getDiscountAmount()),
+                zeroIfNull(order.getFinalAmount()));
+    }
+
+    /**
+     * 是否與另一筆落在同一個彙總列
+     */
+    public boolean sameKey(OrderRollupRow other) {
+        return statDate.equals(other.statDate) && status == other.status && paymentMethod == other.paymentMethod;
+    }
+
+    private static Money zeroIfNull(Money value) {
+        return value != null ? value : Money.ZERO;
+    }
+}
@@ -0,0 +1,88 @@
+package erp.report.entity;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.persistence.*;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * 每日商品銷售彙總實體類
+ * 對應資料庫表：daily_order_item_stats
+ * 由 SalesRollupServiceImpl 隨訂單寫入同步累加，統計查詢只讀取本表
+ */
+@Entity
+@Schema(description = "每日商品銷售彙總實體")
+@Table(name = "daily_order_item_stats", indexes = {
+    @Index(name = "uk_daily_order_item_stats", columnList = "stat_date, product_type, product_id", unique = true),
+    @Index(name = "idx_item_stats_product", columnList = "product_id")
+})
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class DailyOrderItemStat {
+
+    /**
+     * 彙總ID
+     */
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @Column(name = "id", nullable = false, columnDefinition = "BIGINT COMMENT '彙總ID'")
+    @Schema(description = "彙總ID", example = "1")
+    private Long id;
+
+    /**
+     * 統計日期（明細建立日期）
+     */
+    @Column(name = "stat_date", nullable = false, columnDefinition = "DATE COMMENT '統計日期（明細建立日期）'")
+    @Schema(description = "統計日期（明細建立日期）", example = "2025-08-06")
+    private LocalDate statDate;
+
+    /**
+     * 商品類型（與 order_items.product_type 相同編碼，-1 表示未指定）
+     */
+    @Column(name = "product_type", nullable = false, columnDefinition = "TINYINT COMMENT '商品類型（與 order_items.product_type 相同編碼，-1 表示未指定）'")
+    @Schema(description = "商品類型（與 order_items.product_type 相同編碼，-1 表示未指定）", example = "1")
+    private Integer productType;
+
+    /**
+     * 商品ID（0 表示未指定）
+     */
+    @Column(name = "product_id", nullable = false, columnDefinition = "BIGINT COMMENT '商品ID（0 表示未指定）'")
+    @Schema(description = "商品ID（0 表示未指定）", example = "1")
+    private Long productId;
+
+    /**
+     * 明細筆數
+     */
+    @Column(name = "item_count", nullable = false, columnDefinition = "BIGINT COMMENT '明細筆數'")
+    @Schema(description = "明細筆數", example = "8")
+    private Long itemCount;
+
+    /**
+     * 銷售數量合計
+     */
+    @Column(name = "total_qty", nullable = false, columnDefinition = "BIGINT COMMENT '銷售數量合計'")
+    @Schema(description = "銷售數量合計", example = "20")
+    private Long totalQty;
+
+    /**
+     * 銷售金額合計（qty * unit_price）
+     */
+    @Column(name = "total_amount", precision = 14, scale = 2, nullable = false, columnDefinition = "DECIMAL(14,2) COMMENT '銷售金額合計（qty * unit_price）'")
+    @Schema(description = "銷售金額合計（qty * unit_price）", example = "2400.00")
+    private BigDecimal totalAmount;
+
+    /**
+     * 最後更新時間
+     */
+    @Column(name = "updated_at", columnDefinition = "DATETIME(3) COMMENT '最後更新時間'")
+    @Schema(description = "最後更新時間", example = "2025-08-06T22:18:00")
+    private LocalDateTime updatedAt;
+}
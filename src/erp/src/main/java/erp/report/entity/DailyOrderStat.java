@@ -0,0 +1,94 @@
+package erp.report.entity;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.persistence.*;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * 每日訂單彙總實體類
+ * 對應資料庫表：daily_order_stats
+ * 由 SalesRollupServiceImpl 隨訂單寫入同步累加，統計查詢只讀取本表
+ */
+@Entity
+@Schema(description = "每日訂單彙總實體")
+@Table(name = "daily_order_stats", indexes = {
+    @Index(name = "uk_daily_order_stats", columnList = "stat_date, status, payment_method", unique = true)
+})
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class DailyOrderStat {
+
+    /**
+     * 彙總ID
+     */
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @Column(name = "id", nullable = false, columnDefinition = "BIGINT COMMENT '彙總ID'")
+    @Schema(description = "彙總ID", example = "1")
+    private Long id;
+
+    /**
+     * 統計日期（訂單建立日期）
+     */
+    @Column(name = "stat_date", nullable = false, columnDefinition = "DATE COMMENT '統計日期（訂單建立日期）'")
+    @Schema(description = "統計日期（訂單建立日期）", example = "2025-08-06")
+    private LocalDate statDate;
+
+    /**
+     * 訂單狀態（與 orders.status 相同編碼，-1 表示未指定）
+     */
+    @Column(name = "status", nullable = false, columnDefinition = "TINYINT COMMENT '訂單狀態（與 orders.status 相同編碼，-1 表示未指定）'")
+    @Schema(description = "訂單狀態（與 orders.status 相同編碼，-1 表示未指定）", example = "1")
+    private Integer status;
+
+    /**
+     * 支付方式（與 orders.payment_method 相同編碼，-1 表示未指定）
+     */
+    @Column(name = "payment_method", nullable = false, columnDefinition = "TINYINT COMMENT '支付方式（與 orders.payment_method 相同編碼，-1 表示未指定）'")
+    @Schema(description = "支付方式（與 orders.payment_method 相同編碼，-1 表示未指定）", example = "0")
+    private Integer paymentMethod;
+
+    /**
+     * 訂單數
+     */
+    @Column(name = "order_count", nullable = false, columnDefinition = "BIGINT COMMENT '訂單數'")
+    @Schema(description = "訂單數", example = "12")
+    private Long orderCount;
+
+    /**
+     * 訂單總額合計
+     */
+    @Column(name = "total_amount", precision = 14, scale = 2, nullable = false, columnDefinition = "DECIMAL(14,2) COMMENT '訂單總額合計'")
+    @Schema(description = "訂單總額合計", example = "12000.00")
+    private BigDecimal totalAmount;
+
+    /**
+     * 折扣金額合計
+     */
+    @Column(name = "discount_amount", precision = 14, scale = 2, nullable = false, columnDefinition = "DECIMAL(14,2) COMMENT '折扣金額合計'")
+    @Schema(description = "折扣金額合計", example = "500.00")
+    private BigDecimal discountAmount;
+
+    /**
+     * 實付金額合計
+     */
+    @Column(name = "final_amount", precision = 14, scale = 2, nullable = false, columnDefinition = "DECIMAL(14,2) COMMENT '實付金額合計'")
+    @Schema(description = "實付金額合計", example = "11500.00")
+    private BigDecimal finalAmount;
+
+    /**
+     * 最後更新時間
+     */
+    @Column(name = "updated_at", columnDefinition = "DATETIME(3) COMMENT '最後更新時間'")
+    @Schema(description = "最後更新時間", example = "2025-08-06T22:18:00")
+    private LocalDateTime updatedAt;
+}
@@ -0,0 +1,85 @@
+package erp.report.repository;
+
+import erp.report.entity.DailyOrderItemStat;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * 每日商品銷售彙總資料存取層
+ */
+@Repository
+public interface DailyOrderItemStatRepository extends JpaRepository<DailyOrderItemStat, Long> {
+
+    //region 增量累加
+    /**
+     * 將增量累加到指定彙總列，彙總列不存在時建立
+     * @return 影響筆數
+     */
+    @Modifying
+    @Query(value = "INSERT INTO daily_order_item_stats (stat_date, product_type, product_id, item_count, " +
+           "total_qty, total_amount, updated_at) " +
+           "VALUES (:statDate, :productType, :productId, :itemCount, :totalQty, :totalAmount, CURRENT_TIMESTAMP(3)) " +
+           "ON DUPLICATE KEY UPDATE item_count = item_count + :itemCount, total_qty = total_qty + :totalQty, " +
+           "total_amount = total_amount + :totalAmount, updated_at = CURRENT_TIMESTAMP(3)",
+           nativeQuery = true)
+    int applyDelta(@Param("statDate") LocalDate statDate, @Param("productType") int productType,
+                   @Param("productId") long productId, @Param("itemCount") long itemCount,
+                   @Param("totalQty") long totalQty, @Param("totalAmount") BigDecimal totalAmount);
+    //endregion
+
+    //region 重建
+    /**
+     * 刪除日期範圍內的彙總列
+     */
+    @Modifying
+    @Query(value = "DELETE FROM daily_order_item_stats WHERE stat_date BETWEEN :fromDate AND :toDate", nativeQuery = true)
+    int deleteByStatDateRange(@Param("fromDate") LocalDate fromDate, @Param("toDate") LocalDate toDate);
+
+    /**
+     * 從 order_items 表重新彙總時間範圍 [fromTime, toTime) 內建立的明細
+     */
+    @Modifying
+    @Query(value = "INSERT INTO daily_order_item_stats (stat_date, product_type, product_id, item_count, " +
+           "total_qty, total_amount, updated_at) " +
+           "SELECT DATE(created_at), COALESCE(product_type, -1), COALESCE(product_id, 0), COUNT(*), " +
+           "COALESCE(SUM(qty), 0), COALESCE(SUM(unit_price * qty), 0), CURRENT_TIMESTAMP(3) " +
+           "FROM order_items WHERE created_at >= :fromTime AND created_at < :toTime " +
+           "GROUP BY DATE(created_at), COALESCE(product_type, -1), COALESCE(product_id, 0)",
+           nativeQuery = true)
+    int rebuildRange(@Param("fromTime") LocalDateTime fromTime, @Param("toTime") LocalDateTime toTime);
+    //endregion
+
+    //region 統計查詢
+    /**
+     * 按產品統計總數量
+     * @return 產品ID-總數量對應列表
+     */
+    @Query("SELECT s.productId, SUM(s.totalQty) FROM DailyOrderItemStat s GROUP BY s.productId " +
+           "HAVING SUM(s.itemCount) > 0")
+    List<Object[]> sumQuantityByProduct();
+
+    /**
+     * 按產品統計總金額
+     * @return 產品ID-總金額對應列表
+     */
+    @Query("SELECT s.productId, SUM(s.totalAmount) FROM DailyOrderItemStat s GROUP BY s.productId " +
+           "HAVING SUM(s.itemCount) > 0")
+    List<Object[]> sumAmountByProduct();
+
+    /**
+     * 計算指定產品的總銷售數量
+     * @param productId 產品ID
+     * @return 總銷售數量
+     */
+    @Query("SELECT SUM(s.totalQty) FROM DailyOrderItemStat s WHERE s.productId = :productId")
+    Long sumQuantityByProductId(@Param("productId") Long productId);
+    //endregion
+}
@@ -0,0 +1,88 @@
+package erp.report.repository;
+
+import erp.report.entity.DailyOrderStat;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * 每日訂單彙總資料存取層
+ */
+@Repository
+public interface DailyOrderStatRepository extends JpaRepository<DailyOrderStat, Long> {
+
+    //region 增量累加
+    /**
+     * 將增量累加到指定彙總列，彙總列不存在時建立
+     * @return 影響筆數
+     */
+    @Modifying
+    @Query(value = "INSERT INTO daily_order_stats (stat_date, status, payment_method, order_count, " +
+           "total_amount, discount_amount, final_amount, updated_at) " +
+           "VALUES (:statDate, :status, :paymentMethod, :orderCount, :totalAmount, :discountAmount, :finalAmount, " +
+           "CURRENT_TIMESTAMP(3)) " +
+           "ON DUPLICATE KEY UPDATE order_count = order_count + :orderCount, " +
+           "total_amount = total_amount + :totalAmount, discount_amount = discount_amount + :discountAmount, " +
+           "final_amount = final_amount + :finalAmount, updated_at = CURRENT_TIMESTAMP(3)",
+           nativeQuery = true)
+    int applyDelta(@Param("statDate") LocalDate statDate, @Param("status") int status,
+                   @Param("paymentMethod") int paymentMethod, @Param("orderCount") long orderCount,
+                   @Param("totalAmount") BigDecimal totalAmount, @Param("discountAmount") BigDecimal discountAmount,
+                   @Param("finalAmount") BigDecimal finalAmount);
+    //endregion
+
+    //region 重建
+    /**
+     * 刪除日期範圍內的彙總列
+     */
+    @Modifying
+    @Query(value = "DELETE FROM daily_order_stats WHERE stat_date BETWEEN :fromDate AND :toDate", nativeQuery = true)
+    int deleteByStatDateRange(@Param("fromDate") LocalDate fromDate, @Param("toDate") LocalDate toDate);
+
+    /**
+     * 從 orders 表重新彙總時間範圍 [fromTime, toTime) 內建立的訂單
+     */
+    @Modifying
+    @Query(value = "INSERT INTO daily_order_stats (stat_date, status, payment_method, order_count, " +
+           "total_amount, discount_amount, final_amount, updated_at) " +
+           "SELECT DATE(created_at), COALESCE(status, -1), COALESCE(payment_method, -1), COUNT(*), " +
+           "COALESCE(SUM(total_amount), 0), COALESCE(SUM(discount_amount), 0), COALESCE(SUM(final_amount), 0), " +
+           "CURRENT_TIMESTAMP(3) " +
+           "FROM orders WHERE created_at >= :fromTime AND created_at < :toTime " +
+           "GROUP BY DATE(created_at), COALESCE(status, -1), COALESCE(payment_method, -1)",
+           nativeQuery = true)
+    int rebuildRange(@Param("fromTime") LocalDateTime fromTime, @Param("toTime") LocalDateTime toTime);
+    //endregion
+
+    //region 統計查詢
+    /**
+     * 統計各狀態的訂單數量
+     * @return 狀態編碼-數量對應列表
+     */
+    @Query("SELECT s.status, SUM(s.orderCount) FROM DailyOrderStat s GROUP BY s.status HAVING SUM(s.orderCount) > 0")
+    List<Object[]> sumOrderCountByStatus();
+
+    /**
+     * 統計各支付方式的訂單數量
+     * @return 支付方式編碼-數量對應列表
+     */
+    @Query("SELECT s.paymentMethod, SUM(s.orderCount) FROM DailyOrderStat s GROUP BY s.paymentMethod " +
+           "HAVING SUM(s.orderCount) > 0")
+    List<Object[]> sumOrderCountByPaymentMethod();
+
+    /**
+     * 統計日期範圍內每日的訂單數與實付金額
+     * @return 日期-訂單數-實付金額對應列表
+     */
+    @Query("SELECT s.statDate, SUM(s.orderCount), SUM(s.finalAmount) FROM DailyOrderStat s " +
+           "WHERE s.statDate BETWEEN :fromDate AND :toDate GROUP BY s.statDate ORDER BY s.statDate")
+    List<Object[]> sumDailyByStatDateBetween(@Param("fromDate") LocalDate fromDate, @Param("toDate") LocalDate toDate);
+    //endregion
+}
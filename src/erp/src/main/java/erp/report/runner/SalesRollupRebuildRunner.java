@@ -0,0 +1,51 @@
+package erp.report.runner;
+
+import erp.report.service.impl.SalesRollupServiceImpl;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * 每日銷售彙總重建命令
+ * 啟動參數帶入 --rebuild-rollups 時執行，可搭配 --rollup-from=yyyy-MM-dd、--rollup-to=yyyy-MM-dd 指定範圍；
+ * 未指定範圍時重建全部彙總
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class SalesRollupRebuildRunner implements ApplicationRunner {
+
+    private static final String REBUILD_OPTION = "rebuild-rollups";
+    private static final String FROM_OPTION = "rollup-from";
+    private static final String TO_OPTION = "rollup-to";
+
+    private final SalesRollupServiceImpl salesRollupService;
+
+    @Override
+    public void run(ApplicationArguments args) {
+        if (!args.containsOption(REBUILD_OPTION)) {
+            return;
+        }
+        LocalDate fromDate = parseDate(args, FROM_OPTION);
+        LocalDate toDate = parseDate(args, TO_OPTION);
+        if (fromDate == null && toDate == null) {
+            salesRollupService.rebuildAll();
+            return;
+        }
+        LocalDate today = LocalDate.now();
+        salesRollupService.rebuild(fromDate != null ? fromDate : today, toDate != null ? toDate : today);
+    }
+
+    private LocalDate parseDate(ApplicationArguments args, String option) {
+        List<String> values = args.getOptionValues(option);
+        if (values == null || values.isEmpty()) {
+            return null;
+        }
+        return LocalDate.parse(values.get(0));
+    }
+}
@@ -0,0 +1,200 @@
+package erp.report.service.impl;
+
+import erp.common.money.Money;
+import erp.report.dto.OrderItemRollupRow;
+import erp.report.dto.OrderRollupChange;
+import erp.report.dto.OrderRollupRow;
+import erp.report.repository.DailyOrderItemStatRepository;
+import erp.report.repository.DailyOrderStatRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * 每日銷售彙總維護功能實現
+ * 訂單、明細寫入時在同一交易內累加增量，並提供依原始資料重建的功能
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class SalesRollupServiceImpl {
+
+    /**
+     * 全量重建時使用的日期範圍（MySQL DATE 欄位的上下限）
+     */
+    private static final LocalDate MIN_STAT_DATE = LocalDate.of(1000, 1, 1);
+    private static final LocalDate MAX_STAT_DATE = LocalDate.of(9999, 12, 30);
+
+    private final DailyOrderStatRepository dailyOrderStatRepository;
+    private final DailyOrderItemStatRepository dailyOrderItemStatRepository;
+
+    //region 增量維護
+    /**
+     * 套用訂單異動到每日訂單彙總
+     * 必須在寫入訂單的交易內呼叫，彙總與訂單一起提交或回滾
+     * @param before 異動前的貢獻（新增時為 null）
+     * @param after 異動後的貢獻（刪除時為 null）
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void applyOrderChange(OrderRollupRow before, OrderRollupRow after) {
+        if (before != null && after != null && before.sameKey(after)) {
+            Money totalDelta = after.totalAmount().minus(before.totalAmount());
+            Money discountDelta = after.discountAmount().minus(before.discountAmount());
+            Money finalDelta = after.finalAmount().minus(before.finalAmount());
+            if (totalDelta.isZero() && discountDelta.isZero() && finalDelta.isZero()) {
+                return;
+            }
+            dailyOrderStatRepository.applyDelta(after.statDate(), after.status(), after.paymentMethod(), 0L,
+                    totalDelta.toBigDecimal(), discountDelta.toBigDecimal(), finalDelta.toBigDecimal());
+            return;
+        }
+        if (before != null) {
+            dailyOrderStatRepository.applyDelta(before.statDate(), before.status(), before.paymentMethod(), -1L,
+                    before.totalAmount().negate().toBigDecimal(), before.discountAmount().negate().toBigDecimal(),
+                    before.finalAmount().negate().toBigDecimal());
+        }
+        if (after != null) {
+            dailyOrderStatRepository.applyDelta(after.statDate(), after.status(), after.paymentMethod(), 1L,
+                    after.totalAmount().toBigDecimal(), after.discountAmount().toBigDecimal(),
+                    after.finalAmount().toBigDecimal());
+        }
+    }
+
+    /**
+     * 批次套用多筆訂單異動到每日訂單彙總
+     * 先依彙總列合併全部增量，再依日期、狀態、支付方式的順序每列更新一次，
+     * 批次狀態轉換時不需逐筆訂單更新彙總列
+     * @param changes 各訂單異動前、後的貢獻
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void applyOrderChanges(List<OrderRollupChange> changes) {
+        Map<RollupKey, RollupDelta> deltas = new TreeMap<>();
+        for (OrderRollupChange change : changes) {
+            if (change.before() != null) {
+                deltas.computeIfAbsent(RollupKey.of(change.before()), key -> new RollupDelta()).add(change.before(), -1);
+            }
+            if (change.after() != null) {
+                deltas.computeIfAbsent(RollupKey.of(change.after()), key -> new RollupDelta()).add(change.after(), 1);
+            }
+        }
+        deltas.forEach((key, delta) -> {
+            if (delta.isEmpty()) {
+                return;
+            }
+            dailyOrderStatRepository.applyDelta(key.statDate(), key.status(), key.paymentMethod(), delta.orderCount,
+                    delta.totalAmount.toBigDecimal(), delta.discountAmount.toBigDecimal(),
+                    delta.finalAmount.toBigDecimal());
+        });
+    }
+
+    /**
+     * 套用訂單明細異動到每日商品銷售彙總
+     * 必須在寫入明細的交易內呼叫
+     * @param before 異動前的貢獻（新增時為 null）
+     * @param after 異動後的貢獻（刪除時為 null）
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void applyOrderItemChange(OrderItemRollupRow before, OrderItemRollupRow after) {
+        if (before != null && after != null && before.sameKey(after)) {
+            long qtyDelta = after.qty() - before.qty();
+            Money amountDelta = after.amount().minus(before.amount());
+            if (qtyDelta == 0 && amountDelta.isZero()) {
+                return;
+            }
+            dailyOrderItemStatRepository.applyDelta(after.statDate(), after.productType(), after.productId(), 0L,
+                    qtyDelta, amountDelta.toBigDecimal());
+            return;
+        }
+        if (before != null) {
+            dailyOrderItemStatRepository.applyDelta(before.statDate(), before.productType(), before.productId(), -1L,
+                    -before.qty(), before.amount().negate().toBigDecimal());
+        }
+        if (after != null) {
+            dailyOrderItemStatRepository.applyDelta(after.statDate(), after.productType(), after.productId(), 1L,
+                    after.qty(), after.amount().toBigDecimal());
+        }
+    }
+    //endregion
+
+    //region 重建
+    /**
+     * 依原始資料重建全部彙總
+     */
+    @Transactional
+    public void rebuildAll() {
+        rebuild(MIN_STAT_DATE, MAX_STAT_DATE);
+    }
+
+    /**
+     * 依原始資料重建日期範圍內的彙總
+     * 刪除範圍內的彙總列後重新聚合，整個過程在同一交易內完成
+     * @param fromDate 起始日期（含）
+     * @param toDate 結束日期（含）
+     */
+    @Transactional
+    public void rebuild(LocalDate fromDate, LocalDate toDate) {
+        if (fromDate.isAfter(toDate)) {
+            throw new IllegalArgumentException("起始日期不能晚於結束日期: " + fromDate + " > " + toDate);
+        }
+        log.info("重建每日銷售彙總，日期範圍: {} - {}", fromDate, toDate);
+        LocalDateTime fromTime = fromDate.atStartOfDay();
+        LocalDateTime toTime = toDate.plusDays(1).atStartOfDay();
+
+        dailyOrderStatRepository.deleteByStatDateRange(fromDate, toDate);
+        int orderRows = dailyOrderStatRepository.rebuildRange(fromTime, toTime);
+
+        dailyOrderItemStatRepository.deleteByStatDateRange(fromDate, toDate);
+        int itemRows = dailyOrderItemStatRepository.rebuildRange(fromTime, toTime);
+
+        log.info("每日銷售彙總重建完成，訂單彙總: {} 列，商品彙總: {} 列", orderRows, itemRows);
+    }
+    //endregion
+
+    /**
+     * 每日訂單彙總列的鍵，依日期、狀態、支付方式排序
+     */
+    private record RollupKey(LocalDate statDate, int status, int paymentMethod) implements Comparable<RollupKey> {
+        private static final Comparator<RollupKey> ORDER = Comparator.comparing(RollupKey::statDate)
+                .thenComparingInt(RollupKey::status)
+                .thenComparingInt(RollupKey::paymentMethod);
+
+        private static RollupKey of(OrderRollupRow row) {
+            return new RollupKey(row.statDate(), row.status(), row.paymentMethod());
+        }
+
+        @Override
+        public int compareTo(RollupKey other) {
+            return ORDER.compare(this, other);
+        }
+    }
+
+    /**
+     * 單一彙總列的累計增量
+     */
+    private static final class RollupDelta {
+        private long orderCount;
+        private Money totalAmount = Money.ZERO;
+        private Money discountAmount = Money.ZERO;
+        private Money finalAmount = Money.ZERO;
+
+        private void add(OrderRollupRow row, int sign) {
+            orderCount += sign;
+            totalAmount = sign > 0 ? totalAmount.plus(row.totalAmount()) : totalAmount.minus(row.totalAmount());
+            discountAmount = sign > 0 ? discountAmount.plus(row.discountAmount()) : discountAmount.minus(row.discountAmount());
+            finalAmount = sign > 0 ? finalAmount.plus(row.finalAmount()) : finalAmount.minus(row.finalAmount());
+        }
+
+        private boolean isEmpty() {
+            return orderCount == 0 && totalAmount.isZero() && discountAmount.isZero() && finalAmount.isZero();
+        }
+    }
+}
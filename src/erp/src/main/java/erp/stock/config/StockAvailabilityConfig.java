@@ -0,0 +1,13 @@
+package erp.stock.config;
+
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * 庫存可用量快取設定
+ * 載入快取參數
+ */
+@Configuration
+@EnableConfigurationProperties(StockAvailabilityProperties.class)
+public class StockAvailabilityConfig {
+}
@@ -0,0 +1,23 @@
+package erp.stock.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * 庫存可用量快取設定
+ * 對應 application.yml 的 erp.stock.availability 區塊
+ */
+@Data
+@ConfigurationProperties(prefix = "erp.stock.availability")
+public class StockAvailabilityProperties {
+
+    /**
+     * 是否啟用快取（未啟用時可用量檢查直接查詢資料庫）
+     */
+    private boolean enabled = true;
+
+    /**
+     * 預估商品數，決定雜湊表的初始容量
+     */
+    private int initialCapacity = 4096;
+}
@@ -0,0 +1,13 @@
+package erp.stock.config;
+
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * 庫存調整合併寫入設定
+ * 載入合併寫入參數
+ */
+@Configuration
+@EnableConfigurationProperties(StockCombinerProperties.class)
+public class StockCombinerConfig {
+}
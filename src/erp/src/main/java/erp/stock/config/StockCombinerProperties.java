@@ -0,0 +1,30 @@
+package erp.stock.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * 庫存調整合併寫入設定
+ * 對應 application.yml 的 erp.stock.combiner 區塊
+ */
+@Data
+@ConfigurationProperties(prefix = "erp.stock.combiner")
+public class StockCombinerProperties {
+
+    /**
+     * 是否啟用合併寫入（未啟用時入庫、出庫逐筆以條件 UPDATE 處理）
+     */
+    private boolean enabled = false;
+
+    /**
+     * 收集視窗：同一商品第一筆請求到達後等待的時間，期間到達的請求合併為一批
+     */
+    private Duration window = Duration.ofMillis(5);
+
+    /**
+     * 每批最多合併的請求數
+     */
+    private int maxBatchSize = 200;
+}
@@ -0,0 +1,15 @@
+package erp.stock.config;
+
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+/**
+ * 庫存異動分區維護設定
+ * 載入分區維護參數並啟用排程
+ */
+@Configuration
+@EnableScheduling
+@EnableConfigurationProperties(StockLedgerProperties.class)
+public class StockLedgerConfig {
+}
@@ -0,0 +1,45 @@
+package erp.stock.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * 庫存異動分區維護設定
+ * 對應 application.yml 的 erp.stock.ledger 區塊
+ */
+@Data
+@ConfigurationProperties(prefix = "erp.stock.ledger")
+public class StockLedgerProperties {
+
+    /**
+     * 是否啟用定期分區維護
+     */
+    private boolean enabled = true;
+
+    /**
+     * 預先建立的未來月份分區數
+     */
+    private int monthsAhead = 3;
+
+    /**
+     * 月初檢查點的等待時間，月初時間超過此時長後才建立，確保該時間之前的異動都已提交
+     */
+    private Duration checkpointSettleDelay = Duration.ofMinutes(10);
+
+    /**
+     * 是否啟用已結束月份的壓縮（彙總後刪除分區，明細無法復原）
+     */
+    private boolean compactEnabled = false;
+
+    /**
+     * 明細保留月數，早於此月數且已被檢查點涵蓋的已結束月份才會被壓縮
+     */
+    private int retainMonths = 24;
+
+    /**
+     * 依商品、庫存、類型查詢異動時的回溯時長，只掃描該時間範圍內的分區
+     */
+    private Duration queryLookback = Duration.ofDays(90);
+}
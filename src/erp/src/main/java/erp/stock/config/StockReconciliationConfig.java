@@ -0,0 +1,15 @@
+package erp.stock.config;
+
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+/**
+ * 庫存對帳設定
+ * 載入對帳參數並啟用排程
+ */
+@Configuration
+@EnableScheduling
+@EnableConfigurationProperties(StockReconciliationProperties.class)
+public class StockReconciliationConfig {
+}
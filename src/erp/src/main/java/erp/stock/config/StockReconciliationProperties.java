@@ -0,0 +1,43 @@
+package erp.stock.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * 庫存對帳設定
+ * 對應 application.yml 的 erp.stock.reconciliation 區塊
+ */
+@Data
+@ConfigurationProperties(prefix = "erp.stock.reconciliation")
+public class StockReconciliationProperties {
+
+    /**
+     * 是否啟用每日排程對帳
+     */
+    private boolean enabled = true;
+
+    /**
+     * 排程對帳時間（cron）
+     */
+    private String cron = "0 30 3 * * *";
+
+    /**
+     * 排程對帳時是否自動修正差異
+     */
+    private boolean autoCorrect = false;
+
+    /**
+     * 每個區塊的商品數
+     */
+    private int chunkSize = 500;
+
+    /**
+     * 同時處理的區塊數，每個區塊各佔一條資料庫連線，需小於連線池大小
+     */
+    private int parallelism = 4;
+
+    /**
+     * 報表最多列出的差異筆數，超過時只計數
+     */
+    private int maxReportedDrifts = 1000;
+}
@@ -0,0 +1,15 @@
+package erp.stock.config;
+
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+/**
+ * 庫存預留設定
+ * 載入預留參數並啟用到期清理排程
+ */
+@Configuration
+@EnableScheduling
+@EnableConfigurationProperties(StockReservationProperties.class)
+public class StockReservationConfig {
+}
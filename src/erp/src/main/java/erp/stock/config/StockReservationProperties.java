@@ -0,0 +1,35 @@
+package erp.stock.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * 庫存預留設定
+ * 對應 application.yml 的 erp.stock.reservation 區塊
+ */
+@Data
+@ConfigurationProperties(prefix = "erp.stock.reservation")
+public class StockReservationProperties {
+
+    /**
+     * 是否啟用到期預留的定期清理
+     */
+    private boolean enabled = true;
+
+    /**
+     * 已下單訂單的預留保留時長，逾時未付款即釋放
+     */
+    private Duration pendingTtl = Duration.ofHours(24);
+
+    /**
+     * 每批清理的預留數
+     */
+    private int batchSize = 500;
+
+    /**
+     * 每輪最多清理的批數，超過的部分留待下一輪
+     */
+    private int maxBatchesPerCycle = 20;
+}
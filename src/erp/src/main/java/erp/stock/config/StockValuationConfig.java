@@ -0,0 +1,13 @@
+package erp.stock.config;
+
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * 庫存評價報表設定
+ * 載入評價報表參數
+ */
+@Configuration
+@EnableConfigurationProperties(StockValuationProperties.class)
+public class StockValuationConfig {
+}
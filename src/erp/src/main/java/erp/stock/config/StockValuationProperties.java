@@ -0,0 +1,23 @@
+package erp.stock.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * 庫存評價報表設定
+ * 對應 application.yml 的 erp.stock.valuation 區塊
+ */
+@Data
+@ConfigurationProperties(prefix = "erp.stock.valuation")
+public class StockValuationProperties {
+
+    /**
+     * 同時計算的商品數，每個商品各佔一條資料庫連線，需小於連線池大小
+     */
+    private int parallelism = 4;
+
+    /**
+     * 單次報表最多的期間數
+     */
+    private int maxPeriods = 120;
+}
@@ -1,5 +1,6 @@
 package erp.stock.controller;
 
+import erp.common.dto.BasePageResponse;
 import erp.stock.dto.*;
 import erp.stock.service.StockService;
 import io.swagger.v3.oas.annotations.Operation;
@@ -10,9 +11,17 @@ import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.List;
 
 @RestController
 @RequestMapping("/api/stocks")
@@ -35,6 +44,18 @@ public class StockController {
         return ResponseEntity.ok(response);
     }
 
+    /**
+     * 批次入庫操作 (控制器業務用)
+     */
+    @PostMapping("/inbound/batch")
+    @Operation(summary = "批次入庫操作", description = "一次處理整批供應商到貨，同一交易內更新庫存並回報各明細結果")
+    public ResponseEntity<StockBatchInboundResponse> processStockInboundBatch(
+            @RequestBody @Valid StockBatchInboundRequest request) {
+        
+        StockBatchInboundResponse response = stockService.processStockInboundBatch(request);
+        return ResponseEntity.ok(response);
+    }
+
     /**
      * 庫存出庫操作 (控制器業務用)
      */
@@ -59,14 +80,51 @@ public class StockController {
         return ResponseEntity.ok(response);
     }
 
+    /**
+     * 檢查整張訂單的庫存可用性
+     */
+    @PostMapping("/availability/order")
+    @Operation(summary = "檢查整張訂單庫存可用性", description = "一次檢查訂單所有明細的庫存，同一商品多筆明細合計檢查")
+    public ResponseEntity<StockOrderAvailabilityResponse> checkOrderAvailability(
+            @RequestBody @Valid StockOrderAvailabilityRequest request) {
+        
+        StockOrderAvailabilityResponse response = stockService.checkOrderAvailability(request);
+        return ResponseEntity.ok(response);
+    }
+
+    /**
+     * 設定庫存門檻
+     */
+    @PostMapping("/thresholds")
+    @Operation(summary = "設定庫存門檻", description = "設定商品的再訂購點與安全庫存，兩者皆為空時不再追蹤低庫存")
+    public ResponseEntity<StockResponse> updateStockThresholds(@RequestBody @Valid StockThresholdRequest request) {
+        
+        StockResponse stock = stockService.updateStockThresholds(request);
+        return ResponseEntity.ok(stock);
+    }
+
+    /**
+     * 查詢低庫存商品
+     */
+    @PostMapping("/below-threshold")
+    @Operation(summary = "查詢低庫存商品", description = "列出庫存小於等於再訂購點或安全庫存的商品，由記憶體索引回傳")
+    public ResponseEntity<List<StockThresholdResponse>> getBelowThresholdStocks() {
+        
+        List<StockThresholdResponse> stocks = stockService.getBelowThresholdStocks();
+        return ResponseEntity.ok(stocks);
+    }
+
     /**
      * 查詢所有庫存
      */
     @PostMapping("/query")
-    @Operation(summary = "查詢所有庫存", description = "分頁查詢所有庫存記錄")
-    public ResponseEntity<Page<StockResponse>> getAllStocks(
+    @Operation(summary = "查詢所有庫存", description = "分頁查詢所有庫存記錄，回傳 Spring Page；withTotal=false 時不計算總數，改回傳 BasePageResponse")
+    public ResponseEntity<?> getAllStocks(
             @RequestBody @Valid StockQueryRequest request) {
         
+        if (request.isSliceMode()) {
+            return ResponseEntity.ok(stockService.queryStocksBySlice(request));
+        }
         Pageable pageable = PageRequest.of(
             request.getPage(), 
             request.getSize(), 
@@ -77,6 +135,81 @@ public class StockController {
         return ResponseEntity.ok(stocks);
     }
 
+    /**
+     * 查詢庫存異動記錄
+     */
+    @PostMapping("/movements/search")
+    @Operation(summary = "查詢庫存異動記錄", description = "多條件查詢庫存異動記錄，帶入 cursor 時使用游標分頁")
+    public ResponseEntity<BasePageResponse<StockMovementResponse>> searchStockMovements(
+            @RequestBody StockMovementSearchRequest request) {
+        
+        BasePageResponse<StockMovementResponse> movements = stockService.searchStockMovements(request);
+        return ResponseEntity.ok(movements);
+    }
+
+    /**
+     * 查詢歷史時點庫存
+     */
+    @PostMapping("/as-of")
+    @Operation(summary = "查詢歷史時點庫存", description = "由最近的庫存檢查點加上其後的異動重播，求得指定時點的庫存與價值")
+    public ResponseEntity<List<StockSnapshotResponse>> getStocksAsOf(@RequestBody @Valid StockAsOfRequest request) {
+        
+        List<StockSnapshotResponse> snapshots = stockService.getStocksAsOf(request.getProductId(), request.getAsOf());
+        return ResponseEntity.ok(snapshots);
+    }
+
+    /**
+     * 庫存評價報表
+     */
+    @PostMapping("/valuation")
+    @Operation(summary = "庫存評價報表", description = "依期間列出各商品加權平均法與先進先出法的期初、期末價值及銷貨成本")
+    public ResponseEntity<StockValuationResponse> getValuation(@RequestBody @Valid StockValuationRequest request) {
+        
+        StockValuationResponse valuation = stockService.getValuation(request);
+        return ResponseEntity.ok(valuation);
+    }
+
+    /**
+     * 匯出庫存評價報表
+     * 以串流方式逐商品寫出 CSV
+     */
+    @PostMapping("/valuation/export")
+    @Operation(summary = "匯出庫存評價報表", description = "以 CSV 串流匯出庫存評價報表，內容與評價報表相同")
+    public ResponseEntity<StreamingResponseBody> exportValuation(@RequestBody @Valid StockValuationRequest request) {
+        
+        String fileName = "stock-valuation-" + LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyyMMddHHmmss"))
+                + ".csv";
+        StreamingResponseBody body = outputStream -> stockService.exportValuation(request, outputStream);
+        
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType("text/csv;charset=UTF-8"))
+                .header(HttpHeaders.CONTENT_DISPOSITION,
+                        ContentDisposition.attachment().filename(fileName).build().toString())
+                .body(body);
+    }
+
+    /**
+     * 庫存對帳
+     */
+    @PostMapping("/reconciliation")
+    @Operation(summary = "庫存對帳", description = "比對庫存列與異動帳推算的數量及價值，列出差異，可選擇自動修正")
+    public ResponseEntity<StockReconciliationResponse> reconcile(@RequestBody(required = false) StockReconciliationRequest request) {
+        
+        StockReconciliationResponse report = stockService.reconcile(request);
+        return ResponseEntity.ok(report);
+    }
+
+    /**
+     * 庫存對帳進度
+     */
+    @PostMapping("/reconciliation/progress")
+    @Operation(summary = "庫存對帳進度", description = "查詢執行中（或最近一次）庫存對帳的區塊進度與差異數")
+    public ResponseEntity<StockReconciliationProgressResponse> getReconciliationProgress() {
+        
+        StockReconciliationProgressResponse progress = stockService.getReconciliationProgress();
+        return ResponseEntity.ok(progress);
+    }
+
     /**
      * 根據ID查詢庫存
      */
@@ -0,0 +1,29 @@
+package erp.stock.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.PastOrPresent;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import lombok.AllArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * 歷史時點庫存查詢請求DTO
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(description = "歷史時點庫存查詢請求")
+public class StockAsOfRequest {
+
+    @Schema(description = "商品ID（未指定時查詢全部商品）", example = "1")
+    private Long productId;
+
+    @NotNull(message = "查詢時點不能為空")
+    @PastOrPresent(message = "查詢時點不能晚於現在")
+    @Schema(description = "查詢時點（包含此時間的異動）", example = "2025-08-31T23:59:59.999",
+            requiredMode = Schema.RequiredMode.REQUIRED)
+    private LocalDateTime asOf;
+}
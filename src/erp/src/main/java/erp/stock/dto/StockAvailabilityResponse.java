@@ -17,7 +17,7 @@ public class StockAvailabilityResponse {
     @Schema(description = "商品ID", example = "1")
     private Long productId;
 
-    @Schema(description = "當前庫存數量", example = "50")
+    @Schema(description = "當前可用數量（庫存數量扣除已預留數量）", example = "50")
     private Integer currentQty;
 
     @Schema(description = "所需數量", example = "10")
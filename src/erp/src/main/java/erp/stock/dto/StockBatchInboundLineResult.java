@@ -0,0 +1,31 @@
+package erp.stock.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import lombok.AllArgsConstructor;
+
+/**
+ * 批次入庫單筆明細結果DTO
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(description = "批次入庫單筆明細結果")
+public class StockBatchInboundLineResult {
+
+    @Schema(description = "明細序號（從0開始，對應請求中的順序）", example = "0")
+    private Integer lineNo;
+
+    @Schema(description = "商品ID", example = "1")
+    private Long productId;
+
+    @Schema(description = "是否成功", example = "true")
+    private Boolean success;
+
+    @Schema(description = "失敗原因", example = "入庫數量必須大於0")
+    private String message;
+
+    @Schema(description = "建立的庫存異動記錄（失敗時為空）")
+    private StockMovementResponse movement;
+}
@@ -0,0 +1,26 @@
+package erp.stock.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import lombok.AllArgsConstructor;
+
+import java.util.List;
+
+/**
+ * 批次入庫請求DTO（一次供應商到貨）
+ * 各明細在服務層逐筆驗證，不合法的明細回報失敗，不影響其他明細
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(description = "批次入庫請求")
+public class StockBatchInboundRequest {
+
+    @NotEmpty(message = "入庫明細不能為空")
+    @Size(max = 500, message = "單次入庫明細不能超過500筆")
+    @Schema(description = "入庫明細", requiredMode = Schema.RequiredMode.REQUIRED)
+    private List<StockInboundRequest> items;
+}
@@ -0,0 +1,27 @@
+package erp.stock.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import lombok.AllArgsConstructor;
+
+import java.util.List;
+
+/**
+ * 批次入庫響應DTO
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(description = "批次入庫響應")
+public class StockBatchInboundResponse {
+
+    @Schema(description = "成功筆數", example = "48")
+    private Integer successCount;
+
+    @Schema(description = "失敗筆數", example = "2")
+    private Integer failureCount;
+
+    @Schema(description = "各明細結果（依請求順序）")
+    private List<StockBatchInboundLineResult> results;
+}
@@ -0,0 +1,48 @@
+package erp.stock.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+
+import java.math.BigDecimal;
+
+/**
+ * 庫存對帳差異DTO
+ * 庫存列與異動帳推算結果不一致的商品
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@Schema(description = "庫存對帳差異")
+public class StockDriftLine {
+
+    @Schema(description = "商品ID", example = "1")
+    private Long productId;
+
+    @Schema(description = "庫存列數量", example = "105")
+    private Integer stockQty;
+
+    @Schema(description = "異動帳推算數量（檢查點數量加其後異動）", example = "100")
+    private Long ledgerQty;
+
+    @Schema(description = "已預留數量", example = "3")
+    private Integer reservedQty;
+
+    @Schema(description = "數量差異（庫存列減異動帳）", example = "5")
+    private Long qtyDrift;
+
+    @Schema(description = "庫存列價值", example = "2677.50")
+    private BigDecimal totalCost;
+
+    @Schema(description = "應有價值（平均成本乘異動帳數量）", example = "2550.00")
+    private BigDecimal expectedTotalCost;
+
+    @Schema(description = "是否已修正", example = "false")
+    private Boolean corrected;
+
+    @Schema(description = "要求自動修正但未修正的原因", example = "異動帳數量低於已預留數量")
+    private String uncorrectedReason;
+}
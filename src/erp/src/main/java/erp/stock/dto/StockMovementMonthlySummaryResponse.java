@@ -0,0 +1,40 @@
+package erp.stock.dto;
+
+import erp.stock.enums.MovementType;
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+/**
+ * 庫存異動月彙總響應DTO
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@Schema(description = "庫存異動月彙總響應")
+public class StockMovementMonthlySummaryResponse {
+
+    @Schema(description = "彙總月份", example = "2025-08-01")
+    private LocalDate summaryMonth;
+
+    @Schema(description = "商品ID", example = "1")
+    private Long productId;
+
+    @Schema(description = "異動類型", example = "IN")
+    private MovementType movementType;
+
+    @Schema(description = "異動筆數", example = "120")
+    private Long movementCount;
+
+    @Schema(description = "異動數量合計", example = "1500")
+    private Long totalQty;
+
+    @Schema(description = "異動總成本合計", example = "37500.00")
+    private BigDecimal totalCost;
+}
@@ -29,6 +29,9 @@ public class StockMovementResponse {
     @Schema(description = "商品ID", example = "1")
     private Long productId;
 
+    @Schema(description = "訂單ID（訂單出貨扣庫存、取消回補時）", example = "1")
+    private Long orderId;
+
     @Schema(description = "商品名稱", example = "皇家貓糧")
     private String productName; // 冗餘欄位
 
@@ -1,10 +1,12 @@
 package erp.stock.dto;
 
+import erp.common.dto.BasePageableRequest;
 import erp.stock.enums.MovementType;
 import io.swagger.v3.oas.annotations.media.Schema;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 import lombok.AllArgsConstructor;
+import lombok.EqualsAndHashCode;
 
 import java.time.LocalDateTime;
 
@@ -12,10 +14,11 @@ import java.time.LocalDateTime;
  * 庫存異動查詢請求DTO
  */
 @Data
+@EqualsAndHashCode(callSuper = true)
 @NoArgsConstructor
 @AllArgsConstructor
 @Schema(description = "庫存異動查詢請求")
-public class StockMovementSearchRequest {
+public class StockMovementSearchRequest extends BasePageableRequest {
 
     @Schema(description = "庫存ID", example = "1")
     private Long stockId;
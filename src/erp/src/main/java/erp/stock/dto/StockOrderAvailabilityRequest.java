@@ -0,0 +1,27 @@
+package erp.stock.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import lombok.AllArgsConstructor;
+
+import java.util.List;
+
+/**
+ * 整張訂單庫存可用性檢查請求DTO
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(description = "整張訂單庫存可用性檢查請求")
+public class StockOrderAvailabilityRequest {
+
+    @NotEmpty(message = "訂單明細不能為空")
+    @Size(max = 500, message = "訂單明細不能超過500筆")
+    @Valid
+    @Schema(description = "訂單明細（同一商品多筆時合計檢查）", requiredMode = Schema.RequiredMode.REQUIRED)
+    private List<StockAvailabilityRequest> items;
+}
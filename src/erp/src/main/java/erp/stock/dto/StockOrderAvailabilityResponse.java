@@ -0,0 +1,24 @@
+package erp.stock.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import lombok.AllArgsConstructor;
+
+import java.util.List;
+
+/**
+ * 整張訂單庫存可用性響應DTO
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(description = "整張訂單庫存可用性響應")
+public class StockOrderAvailabilityResponse {
+
+    @Schema(description = "是否全部商品皆有足夠庫存", example = "true")
+    private Boolean isAvailable;
+
+    @Schema(description = "各商品檢查結果（同一商品合計為一筆，依首次出現的順序）")
+    private List<StockAvailabilityResponse> items;
+}
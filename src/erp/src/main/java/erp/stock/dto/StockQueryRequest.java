@@ -1,5 +1,6 @@
 package erp.stock.dto;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import io.swagger.v3.oas.annotations.media.Schema;
 import jakarta.validation.constraints.Min;
 import lombok.Data;
@@ -28,4 +29,26 @@ public class StockQueryRequest {
 
     @Schema(description = "排序方向", example = "DESC", allowableValues = {"ASC", "DESC"})
     private String direction = "DESC";
+
+    @Schema(description = "是否計算總數，false 時不執行 COUNT 查詢，回應改為不含總數的 BasePageResponse", example = "true")
+    private Boolean withTotal = true;
+
+    @Schema(description = "不計算總數時，第一頁是否附上快取的總數", example = "false")
+    private Boolean cachedTotal = false;
+
+    /**
+     * 是否使用不計算總數的分頁（Slice）
+     */
+    @JsonIgnore
+    public boolean isSliceMode() {
+        return Boolean.FALSE.equals(withTotal);
+    }
+
+    /**
+     * 是否需要附上快取的總數
+     */
+    @JsonIgnore
+    public boolean isCachedTotalRequested() {
+        return Boolean.TRUE.equals(cachedTotal);
+    }
 }
\ No newline at end of file
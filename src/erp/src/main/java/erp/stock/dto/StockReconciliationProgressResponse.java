@@ -0,0 +1,44 @@
+package erp.stock.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+
+import java.time.LocalDateTime;
+
+/**
+ * 庫存對帳進度響應DTO
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@Schema(description = "庫存對帳進度響應")
+public class StockReconciliationProgressResponse {
+
+    @Schema(description = "是否執行中", example = "true")
+    private Boolean running;
+
+    @Schema(description = "本次（或最近一次）開始時間", example = "2025-08-06T03:30:00")
+    private LocalDateTime startedAt;
+
+    @Schema(description = "最近一次完成時間", example = "2025-08-06T03:32:10")
+    private LocalDateTime lastFinishedAt;
+
+    @Schema(description = "區塊總數", example = "20")
+    private Integer totalChunks;
+
+    @Schema(description = "已完成區塊數", example = "12")
+    private Integer completedChunks;
+
+    @Schema(description = "已檢查商品數", example = "6000")
+    private Long checkedProducts;
+
+    @Schema(description = "差異商品數", example = "2")
+    private Long driftCount;
+
+    @Schema(description = "已修正商品數", example = "0")
+    private Long correctedCount;
+}
@@ -0,0 +1,19 @@
+package erp.stock.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import lombok.AllArgsConstructor;
+
+/**
+ * 庫存對帳請求DTO
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(description = "庫存對帳請求")
+public class StockReconciliationRequest {
+
+    @Schema(description = "是否自動修正差異（未指定時不修正）", example = "false")
+    private Boolean autoCorrect;
+}
@@ -0,0 +1,48 @@
+package erp.stock.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * 庫存對帳報表響應DTO
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@Schema(description = "庫存對帳報表響應")
+public class StockReconciliationResponse {
+
+    @Schema(description = "開始時間", example = "2025-08-06T03:30:00")
+    private LocalDateTime startedAt;
+
+    @Schema(description = "結束時間", example = "2025-08-06T03:32:10")
+    private LocalDateTime finishedAt;
+
+    @Schema(description = "異動帳起點檢查點時間（無檢查點時為空，表示由全部異動推算）", example = "2025-08-01T00:00:00")
+    private LocalDateTime checkpointAt;
+
+    @Schema(description = "是否自動修正", example = "false")
+    private Boolean autoCorrect;
+
+    @Schema(description = "區塊數", example = "20")
+    private Integer chunkCount;
+
+    @Schema(description = "已檢查商品數", example = "10000")
+    private Long checkedProducts;
+
+    @Schema(description = "差異商品數", example = "3")
+    private Long driftCount;
+
+    @Schema(description = "已修正商品數", example = "0")
+    private Long correctedCount;
+
+    @Schema(description = "差異明細，依商品ID排序，最多列出設定的筆數")
+    private List<StockDriftLine> drifts;
+}
@@ -0,0 +1,10 @@
+package erp.stock.dto;
+
+/**
+ * 訂單明細的應預留內容
+ * @param orderItemId 訂單明細ID
+ * @param productId 商品ID
+ * @param qty 數量
+ */
+public record StockReservationLine(Long orderItemId, Long productId, int qty) {
+}
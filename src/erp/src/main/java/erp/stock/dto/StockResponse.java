@@ -31,12 +31,21 @@ public class StockResponse {
     @Schema(description = "庫存數量", example = "100")
     private Integer qty;
 
+    @Schema(description = "已預留數量（未出貨訂單保留）", example = "10")
+    private Integer reservedQty;
+
     @Schema(description = "平均成本", example = "25.50")
     private BigDecimal avgCost;
 
     @Schema(description = "庫存價值", example = "2550.00")
     private BigDecimal totalCost;
 
+    @Schema(description = "再訂購點", example = "20")
+    private Integer reorderPoint;
+
+    @Schema(description = "安全庫存", example = "5")
+    private Integer safetyStock;
+
     @Schema(description = "最後更新時間", example = "2025-08-10T01:19:00")
     private LocalDateTime updatedAt;
 }
\ No newline at end of file
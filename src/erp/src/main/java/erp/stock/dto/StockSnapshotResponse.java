@@ -0,0 +1,42 @@
+package erp.stock.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * 歷史時點庫存響應DTO
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@Schema(description = "歷史時點庫存響應")
+public class StockSnapshotResponse {
+
+    @Schema(description = "商品ID", example = "1")
+    private Long productId;
+
+    @Schema(description = "查詢時點", example = "2025-08-31T23:59:59.999")
+    private LocalDateTime asOf;
+
+    @Schema(description = "庫存數量", example = "100")
+    private Integer qty;
+
+    @Schema(description = "平均成本", example = "25.00")
+    private BigDecimal avgCost;
+
+    @Schema(description = "庫存價值", example = "2500.00")
+    private BigDecimal totalCost;
+
+    @Schema(description = "重播起點的檢查點時間（無檢查點時為空）", example = "2025-08-01T00:00:00")
+    private LocalDateTime checkpointAt;
+
+    @Schema(description = "自檢查點起重播的異動筆數", example = "42")
+    private Integer replayedMovements;
+}
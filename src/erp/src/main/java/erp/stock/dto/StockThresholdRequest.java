@@ -0,0 +1,30 @@
+package erp.stock.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotNull;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import lombok.AllArgsConstructor;
+
+/**
+ * 設定庫存門檻請求DTO
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(description = "設定庫存門檻請求")
+public class StockThresholdRequest {
+
+    @NotNull(message = "商品ID不能為空")
+    @Schema(description = "商品ID", example = "1", requiredMode = Schema.RequiredMode.REQUIRED)
+    private Long productId;
+
+    @Min(value = 0, message = "再訂購點不能為負數")
+    @Schema(description = "再訂購點（為空時清除）", example = "20")
+    private Integer reorderPoint;
+
+    @Min(value = 0, message = "安全庫存不能為負數")
+    @Schema(description = "安全庫存（為空時清除）", example = "5")
+    private Integer safetyStock;
+}
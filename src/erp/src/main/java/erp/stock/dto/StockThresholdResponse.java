@@ -0,0 +1,32 @@
+package erp.stock.dto;
+
+import erp.stock.enums.StockLevel;
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import lombok.AllArgsConstructor;
+
+/**
+ * 低庫存商品響應DTO
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(description = "低庫存商品響應")
+public class StockThresholdResponse {
+
+    @Schema(description = "商品ID", example = "1")
+    private Long productId;
+
+    @Schema(description = "庫存數量", example = "12")
+    private Integer qty;
+
+    @Schema(description = "再訂購點", example = "20")
+    private Integer reorderPoint;
+
+    @Schema(description = "安全庫存", example = "5")
+    private Integer safetyStock;
+
+    @Schema(description = "庫存水位", example = "REORDER")
+    private StockLevel level;
+}
@@ -0,0 +1,64 @@
+package erp.stock.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+/**
+ * 庫存評價報表單一商品單一期間DTO
+ * 同時列出加權平均法與先進先出法的期初、期末價值與銷貨成本
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@Schema(description = "庫存評價報表明細（單一商品單一期間）")
+public class StockValuationLine {
+
+    @Schema(description = "商品ID", example = "1")
+    private Long productId;
+
+    @Schema(description = "期間起日", example = "2025-08-01")
+    private LocalDate periodStart;
+
+    @Schema(description = "期間迄日（不含）", example = "2025-09-01")
+    private LocalDate periodEnd;
+
+    @Schema(description = "期初數量", example = "100")
+    private Long openingQty;
+
+    @Schema(description = "期初價值（加權平均）", example = "2500.00")
+    private BigDecimal openingValueAvg;
+
+    @Schema(description = "期初價值（先進先出）", example = "2480.00")
+    private BigDecimal openingValueFifo;
+
+    @Schema(description = "期間入庫數量", example = "50")
+    private Long inboundQty;
+
+    @Schema(description = "期間入庫金額", example = "1300.00")
+    private BigDecimal inboundValue;
+
+    @Schema(description = "期間出庫數量", example = "80")
+    private Long outboundQty;
+
+    @Schema(description = "銷貨成本（加權平均）", example = "2030.00")
+    private BigDecimal cogsAvg;
+
+    @Schema(description = "銷貨成本（先進先出）", example = "1990.00")
+    private BigDecimal cogsFifo;
+
+    @Schema(description = "期末數量", example = "70")
+    private Long closingQty;
+
+    @Schema(description = "期末價值（加權平均）", example = "1770.00")
+    private BigDecimal closingValueAvg;
+
+    @Schema(description = "期末價值（先進先出）", example = "1790.00")
+    private BigDecimal closingValueFifo;
+}
@@ -0,0 +1,37 @@
+package erp.stock.dto;
+
+import erp.stock.enums.ValuationPeriod;
+import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.validation.constraints.NotNull;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import lombok.AllArgsConstructor;
+
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * 庫存評價報表請求DTO
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(description = "庫存評價報表請求")
+public class StockValuationRequest {
+
+    @NotNull(message = "起始日期不能為空")
+    @Schema(description = "起始日期（取所屬期間的第一天）", example = "2025-01-01",
+            requiredMode = Schema.RequiredMode.REQUIRED)
+    private LocalDate from;
+
+    @NotNull(message = "結束日期不能為空")
+    @Schema(description = "結束日期（包含所屬的整個期間）", example = "2025-12-31",
+            requiredMode = Schema.RequiredMode.REQUIRED)
+    private LocalDate to;
+
+    @Schema(description = "期間（預設為月）", example = "MONTH")
+    private ValuationPeriod period;
+
+    @Schema(description = "商品ID清單（未指定時為全部商品）", example = "[1, 2, 3]")
+    private List<Long> productIds;
+}
@@ -0,0 +1,32 @@
+package erp.stock.dto;
+
+import erp.stock.enums.ValuationPeriod;
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import lombok.AllArgsConstructor;
+
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * 庫存評價報表響應DTO
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(description = "庫存評價報表響應")
+public class StockValuationResponse {
+
+    @Schema(description = "報表起日（第一個期間的起日）", example = "2025-01-01")
+    private LocalDate from;
+
+    @Schema(description = "報表迄日（不含，最後一個期間的迄日）", example = "2026-01-01")
+    private LocalDate to;
+
+    @Schema(description = "期間", example = "MONTH")
+    private ValuationPeriod period;
+
+    @Schema(description = "各商品各期間明細，依商品ID、期間排序；整段期間無庫存且無異動的商品不列出")
+    private List<StockValuationLine> lines;
+}
@@ -1,8 +1,8 @@
 package erp.stock.entity;
 
+import erp.common.money.Money;
 import io.swagger.v3.oas.annotations.media.Schema;
 import jakarta.persistence.*;
-import jakarta.validation.constraints.DecimalMin;
 import jakarta.validation.constraints.Min;
 import jakarta.validation.constraints.NotNull;
 import lombok.Data;
@@ -20,7 +20,7 @@ import java.time.LocalDateTime;
 @Entity
 @Schema(description = "庫存快照實體")
 @Table(name = "stock", indexes = {
-    @Index(name = "idx_stock_product", columnList = "product_id"),
+    @Index(name = "uk_stock_product", columnList = "product_id", unique = true),
 })
 @Data
 @NoArgsConstructor
@@ -54,15 +54,23 @@ public class Stock {
     @Schema(description = "庫存數量", example = "100")
     private Integer qty = 0;
 
+    /**
+     * 已預留數量（未出貨訂單保留，可用量 = 庫存數量 - 已預留數量）
+     */
+    @Column(name = "reserved_qty", nullable = false,
+            columnDefinition = "INT COMMENT '已預留數量（未出貨訂單保留，可用量 = 庫存數量 - 已預留數量）'")
+    @Min(value = 0, message = "已預留數量不能為負數")
+    @Schema(description = "已預留數量", example = "10")
+    private Integer reservedQty = 0;
+
     /**
      * 平均成本
      */
     @Column(name = "avg_cost", precision = 10, scale = 2, nullable = false, 
             columnDefinition = "DECIMAL(10,2) COMMENT '平均成本'")
     @NotNull(message = "平均成本不能為空")
-    @DecimalMin(value = "0.00", message = "平均成本不能為負數")
-    @Schema(description = "平均成本", example = "25.50")
-    private BigDecimal avgCost = BigDecimal.ZERO;
+    @Schema(implementation = BigDecimal.class, description = "平均成本", example = "25.50")
+    private Money avgCost = Money.ZERO;
 
     /**
      * 庫存價值
@@ -70,9 +78,32 @@ public class Stock {
     @Column(name = "total_cost", precision = 10, scale = 2, nullable = false, 
             columnDefinition = "DECIMAL(10,2) COMMENT '庫存價值'")
     @NotNull(message = "庫存價值不能為空")
-    @DecimalMin(value = "0.00", message = "庫存價值不能為負數")
-    @Schema(description = "庫存價值", example = "2550.00")
-    private BigDecimal totalCost = BigDecimal.ZERO;
+    @Schema(implementation = BigDecimal.class, description = "庫存價值", example = "2550.00")
+    private Money totalCost = Money.ZERO;
+
+    /**
+     * 再訂購點（庫存小於等於此值時需補貨，未設定時不追蹤）
+     */
+    @Column(name = "reorder_point", columnDefinition = "INT COMMENT '再訂購點（庫存小於等於此值時需補貨）'")
+    @Min(value = 0, message = "再訂購點不能為負數")
+    @Schema(description = "再訂購點", example = "20")
+    private Integer reorderPoint;
+
+    /**
+     * 安全庫存（庫存小於等於此值時為緊急）
+     */
+    @Column(name = "safety_stock", columnDefinition = "INT COMMENT '安全庫存（庫存小於等於此值時為緊急）'")
+    @Min(value = 0, message = "安全庫存不能為負數")
+    @Schema(description = "安全庫存", example = "5")
+    private Integer safetyStock;
+
+    /**
+     * 版本號（每次更新遞增，原生 UPDATE 需自行遞增）
+     */
+    @Version
+    @Column(name = "version", nullable = false, columnDefinition = "BIGINT COMMENT '版本號（每次更新遞增）'")
+    @Schema(description = "版本號", example = "12")
+    private Long version;
 
     /**
      * 建立時間
@@ -0,0 +1,84 @@
+package erp.stock.entity;
+
+import erp.common.money.Money;
+import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.persistence.*;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * 庫存檢查點實體類
+ * 對應資料庫表：stock_checkpoints
+ * 記錄某時間點（不含）之前全部異動套用後的各商品庫存，由 StockHistoryServiceImpl 每月月初建立
+ */
+@Entity
+@Schema(description = "庫存檢查點實體")
+@Table(name = "stock_checkpoints", indexes = {
+    @Index(name = "uk_checkpoint_product_at", columnList = "product_id, checkpoint_at", unique = true),
+    @Index(name = "idx_checkpoint_at", columnList = "checkpoint_at")
+})
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class StockCheckpoint {
+
+    /**
+     * 檢查點ID
+     */
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @Column(name = "id", nullable = false, columnDefinition = "BIGINT COMMENT '檢查點ID'")
+    @Schema(description = "檢查點ID", example = "1")
+    private Long id;
+
+    /**
+     * 商品ID
+     */
+    @Column(name = "product_id", nullable = false, columnDefinition = "BIGINT COMMENT '商品ID'")
+    @Schema(description = "商品ID", example = "1")
+    private Long productId;
+
+    /**
+     * 檢查點時間（包含此時間之前的全部異動）
+     */
+    @Column(name = "checkpoint_at", nullable = false,
+            columnDefinition = "DATETIME(3) COMMENT '檢查點時間（包含此時間之前的全部異動）'")
+    @Schema(description = "檢查點時間", example = "2025-09-01T00:00:00")
+    private LocalDateTime checkpointAt;
+
+    /**
+     * 庫存數量
+     */
+    @Column(name = "qty", nullable = false, columnDefinition = "INT COMMENT '庫存數量'")
+    @Schema(description = "庫存數量", example = "100")
+    private Integer qty;
+
+    /**
+     * 平均成本
+     */
+    @Column(name = "avg_cost", nullable = false, precision = 10, scale = 2,
+            columnDefinition = "DECIMAL(10,2) COMMENT '平均成本'")
+    @Schema(implementation = BigDecimal.class, description = "平均成本", example = "25.00")
+    private Money avgCost;
+
+    /**
+     * 庫存價值
+     */
+    @Column(name = "total_cost", nullable = false, precision = 14, scale = 2,
+            columnDefinition = "DECIMAL(14,2) COMMENT '庫存價值'")
+    @Schema(implementation = BigDecimal.class, description = "庫存價值", example = "2500.00")
+    private Money totalCost;
+
+    /**
+     * 建立時間
+     */
+    @Column(name = "created_at", nullable = false, columnDefinition = "DATETIME(3) COMMENT '建立時間'")
+    @Schema(description = "建立時間", example = "2025-09-01T00:10:00")
+    private LocalDateTime createdAt;
+}
@@ -1,9 +1,9 @@
 package erp.stock.entity;
 
+import erp.common.money.Money;
 import erp.stock.enums.MovementType;
 import io.swagger.v3.oas.annotations.media.Schema;
 import jakarta.persistence.*;
-import jakarta.validation.constraints.DecimalMin;
 import jakarta.validation.constraints.Min;
 import jakarta.validation.constraints.NotNull;
 import lombok.Data;
@@ -17,14 +17,16 @@ import java.time.LocalDateTime;
 /**
  * 庫存異動表實體類
  * 對應資料庫表：stock_movements
+ * 依 created_at 按月分區，主鍵為 (id, created_at)；查詢時帶上時間條件才能只掃描相關分區
  */
 @Entity
 @Schema(description = "庫存異動實體")
 @Table(name = "stock_movements", indexes = {
-    @Index(name = "idx_movement_stock", columnList = "stock_id"),
-    @Index(name = "idx_movement_product", columnList = "product_id"),
-    @Index(name = "idx_movement_type", columnList = "movement_type"),
-    @Index(name = "idx_movement_created", columnList = "created_at")
+    @Index(name = "idx_movement_stock_created", columnList = "stock_id, created_at"),
+    @Index(name = "idx_movement_product_created", columnList = "product_id, created_at"),
+    @Index(name = "idx_movement_type_created", columnList = "movement_type, created_at"),
+    @Index(name = "idx_movement_created_id", columnList = "created_at, id"),
+    @Index(name = "idx_movement_order", columnList = "order_id")
 })
 @Data
 @NoArgsConstructor
@@ -36,7 +38,9 @@ public class StockMovement {
      * 異動紀錄ID
      */
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.TABLE, generator = "stock_movements_id")
+    @TableGenerator(name = "stock_movements_id", table = "id_generators", pkColumnName = "gen_name",
+            valueColumnName = "gen_value", pkColumnValue = "stock_movements", allocationSize = 50)
     @Column(name = "id", nullable = false, columnDefinition = "BIGINT COMMENT '異動紀錄ID'")
     @Schema(description = "異動紀錄ID", example = "1")
     private Long id;
@@ -57,6 +61,13 @@ public class StockMovement {
     @Schema(description = "商品ID", example = "1")
     private Long productId;
 
+    /**
+     * 訂單ID（訂單出貨扣庫存、取消回補時）
+     */
+    @Column(name = "order_id", columnDefinition = "BIGINT COMMENT '訂單ID（訂單出貨扣庫存、取消回補時）'")
+    @Schema(description = "訂單ID", example = "1")
+    private Long orderId;
+
     /**
      * 異動類型：1=入庫、2=出庫
      */
@@ -79,22 +90,20 @@ public class StockMovement {
      * 單位成本
      */
     @Column(name = "unit_cost", precision = 10, scale = 2, columnDefinition = "DECIMAL(10,2) COMMENT '單位成本'")
-    @DecimalMin(value = "0.00", message = "單位成本不能為負數")
-    @Schema(description = "單位成本", example = "25.00")
-    private BigDecimal unitCost;
+    @Schema(implementation = BigDecimal.class, description = "單位成本", example = "25.00")
+    private Money unitCost;
 
     /**
      * 異動總成本
      */
     @Column(name = "total_cost", precision = 10, scale = 2, columnDefinition = "DECIMAL(10,2) COMMENT '異動總成本'")
-    @DecimalMin(value = "0.00", message = "異動總成本不能為負數")
-    @Schema(description = "異動總成本", example = "250.00")
-    private BigDecimal totalCost;
+    @Schema(implementation = BigDecimal.class, description = "異動總成本", example = "250.00")
+    private Money totalCost;
 
     /**
      * 建立時間
      */
-    @Column(name = "created_at", columnDefinition = "DATETIME(3) COMMENT '建立時間'")
+    @Column(name = "created_at", nullable = false, updatable = false, columnDefinition = "DATETIME(3) COMMENT '建立時間'")
     @Schema(description = "建立時間", example = "2025-08-06T22:18:00")
     private LocalDateTime createdAt;
 
@@ -130,7 +139,7 @@ public class StockMovement {
      */
     private void calculateTotalCost() {
         if (qty != null && unitCost != null) {
-            totalCost = unitCost.multiply(BigDecimal.valueOf(qty));
+            totalCost = unitCost.times(qty);
         }
     }
 }
\ No newline at end of file
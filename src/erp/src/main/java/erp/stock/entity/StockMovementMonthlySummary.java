@@ -0,0 +1,99 @@
+package erp.stock.entity;
+
+import erp.common.money.Money;
+import erp.stock.enums.MovementType;
+import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.persistence.*;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * 庫存異動月彙總實體類
+ * 對應資料庫表：stock_movement_monthly_summaries
+ * 由 StockMovementPartitionServiceImpl 壓縮已結束月份時產生，同一月份、商品、類型只會有一筆
+ */
+@Entity
+@Schema(description = "庫存異動月彙總實體")
+@Table(name = "stock_movement_monthly_summaries", indexes = {
+    @Index(name = "uk_movement_summary", columnList = "summary_month, product_id, movement_type", unique = true),
+    @Index(name = "idx_movement_summary_product", columnList = "product_id, summary_month")
+})
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class StockMovementMonthlySummary {
+
+    /**
+     * 彙總ID
+     */
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @Column(name = "id", nullable = false, columnDefinition = "BIGINT COMMENT '彙總ID'")
+    @Schema(description = "彙總ID", example = "1")
+    private Long id;
+
+    /**
+     * 彙總月份（該月1日）
+     */
+    @Column(name = "summary_month", nullable = false, columnDefinition = "DATE COMMENT '彙總月份（該月1日）'")
+    @Schema(description = "彙總月份", example = "2025-08-01")
+    private LocalDate summaryMonth;
+
+    /**
+     * 商品ID
+     */
+    @Column(name = "product_id", nullable = false, columnDefinition = "BIGINT COMMENT '商品ID'")
+    @Schema(description = "商品ID", example = "1")
+    private Long productId;
+
+    /**
+     * 異動類型：1=入庫、2=出庫
+     */
+    @Column(name = "movement_type", nullable = false,
+            columnDefinition = "TINYINT COMMENT '異動類型：1=入庫、2=出庫'")
+    @Schema(description = "異動類型", example = "IN")
+    private MovementType movementType;
+
+    /**
+     * 異動筆數
+     */
+    @Column(name = "movement_count", nullable = false, columnDefinition = "BIGINT COMMENT '異動筆數'")
+    @Schema(description = "異動筆數", example = "120")
+    private Long movementCount;
+
+    /**
+     * 異動數量合計
+     */
+    @Column(name = "total_qty", nullable = false, columnDefinition = "BIGINT COMMENT '異動數量合計'")
+    @Schema(description = "異動數量合計", example = "1500")
+    private Long totalQty;
+
+    /**
+     * 異動總成本合計
+     */
+    @Column(name = "total_cost", nullable = false, precision = 14, scale = 2,
+            columnDefinition = "DECIMAL(14,2) COMMENT '異動總成本合計'")
+    @Schema(implementation = BigDecimal.class, description = "異動總成本合計", example = "37500.00")
+    private Money totalCost;
+
+    /**
+     * 建立時間
+     */
+    @Column(name = "created_at", nullable = false, columnDefinition = "DATETIME(3) COMMENT '建立時間'")
+    @Schema(description = "建立時間", example = "2025-08-06T22:18:00")
+    private LocalDateTime createdAt;
+
+    /**
+     * 最後更新時間
+     */
+    @Column(name = "updated_at", nullable = false, columnDefinition = "DATETIME(3) COMMENT '最後更新時間'")
+    @Schema(description = "最後更新時間", example = "2025-08-06T22:18:00")
+    private LocalDateTime updatedAt;
+}
@@ -0,0 +1,106 @@
+package erp.stock.entity;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.persistence.*;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+
+import java.time.LocalDateTime;
+
+/**
+ * 庫存預留實體類
+ * 對應資料庫表：stock_reservations
+ * 每筆訂單明細至多一筆，由 StockReservationServiceImpl 依訂單狀態建立、調整與釋放，
+ * 預留數量同時累加在 stock.reserved_qty
+ */
+@Entity
+@Schema(description = "庫存預留實體")
+@Table(name = "stock_reservations", indexes = {
+    @Index(name = "uk_reservation_order_item", columnList = "order_item_id", unique = true),
+    @Index(name = "idx_reservation_order", columnList = "order_id"),
+    @Index(name = "idx_reservation_expires", columnList = "expires_at")
+})
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class StockReservation {
+
+    /**
+     * 預留ID
+     */
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @Column(name = "id", nullable = false, columnDefinition = "BIGINT COMMENT '預留ID'")
+    @Schema(description = "預留ID", example = "1")
+    private Long id;
+
+    /**
+     * 訂單ID
+     */
+    @Column(name = "order_id", nullable = false, columnDefinition = "BIGINT COMMENT '訂單ID'")
+    @Schema(description = "訂單ID", example = "1")
+    private Long orderId;
+
+    /**
+     * 訂單明細ID
+     */
+    @Column(name = "order_item_id", nullable = false, columnDefinition = "BIGINT COMMENT '訂單明細ID'")
+    @Schema(description = "訂單明細ID", example = "1")
+    private Long orderItemId;
+
+    /**
+     * 商品ID
+     */
+    @Column(name = "product_id", nullable = false, columnDefinition = "BIGINT COMMENT '商品ID'")
+    @Schema(description = "商品ID", example = "1")
+    private Long productId;
+
+    /**
+     * 預留數量
+     */
+    @Column(name = "qty", nullable = false, columnDefinition = "INT COMMENT '預留數量'")
+    @Schema(description = "預留數量", example = "2")
+    private Integer qty;
+
+    /**
+     * 到期時間（已付款訂單為空，不會到期）
+     */
+    @Column(name = "expires_at", columnDefinition = "DATETIME(3) COMMENT '到期時間（已付款訂單為空，不會到期）'")
+    @Schema(description = "到期時間", example = "2025-08-07T22:18:00")
+    private LocalDateTime expiresAt;
+
+    /**
+     * 建立時間
+     */
+    @Column(name = "created_at", columnDefinition = "DATETIME(3) COMMENT '建立時間'")
+    @Schema(description = "建立時間", example = "2025-08-06T22:18:00")
+    private LocalDateTime createdAt;
+
+    /**
+     * 最後更新時間
+     */
+    @Column(name = "updated_at", columnDefinition = "DATETIME(3) COMMENT '最後更新時間'")
+    @Schema(description = "最後更新時間", example = "2025-08-06T22:18:00")
+    private LocalDateTime updatedAt;
+
+    /**
+     * 在持久化之前設置創建時間
+     */
+    @PrePersist
+    protected void onCreate() {
+        LocalDateTime now = LocalDateTime.now();
+        createdAt = now;
+        updatedAt = now;
+    }
+
+    /**
+     * 在更新之前設置更新時間
+     */
+    @PreUpdate
+    protected void onUpdate() {
+        updatedAt = LocalDateTime.now();
+    }
+}
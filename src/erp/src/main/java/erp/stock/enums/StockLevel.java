@@ -0,0 +1,39 @@
+package erp.stock.enums;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.Getter;
+
+/**
+ * 庫存水位枚舉
+ * 依各商品的再訂購點與安全庫存判斷
+ */
+@Getter
+@Schema(description = "庫存水位", example = "REORDER")
+public enum StockLevel {
+    NORMAL("正常"),
+    REORDER("需補貨"),
+    CRITICAL("低於安全庫存");
+
+    private final String description;
+
+    StockLevel(String description) {
+        this.description = description;
+    }
+
+    /**
+     * 判斷庫存水位
+     * @param qty 庫存數量
+     * @param reorderPoint 再訂購點（可為空）
+     * @param safetyStock 安全庫存（可為空）
+     * @return 庫存水位
+     */
+    public static StockLevel of(int qty, Integer reorderPoint, Integer safetyStock) {
+        if (safetyStock != null && qty <= safetyStock) {
+            return CRITICAL;
+        }
+        if (reorderPoint != null && qty <= reorderPoint) {
+            return REORDER;
+        }
+        return NORMAL;
+    }
+}
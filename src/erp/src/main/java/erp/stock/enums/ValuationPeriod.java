@@ -0,0 +1,44 @@
+package erp.stock.enums;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.Getter;
+
+import java.time.LocalDate;
+
+/**
+ * 庫存評價期間枚舉
+ */
+@Getter
+@Schema(description = "庫存評價期間", example = "MONTH")
+public enum ValuationPeriod {
+    MONTH(1, "月"),
+    QUARTER(3, "季"),
+    YEAR(12, "年");
+
+    private final int months;
+    private final String description;
+
+    ValuationPeriod(int months, String description) {
+        this.months = months;
+        this.description = description;
+    }
+
+    /**
+     * 取得日期所屬期間的第一天
+     * @param date 日期
+     * @return 期間起日
+     */
+    public LocalDate startOf(LocalDate date) {
+        int month = (date.getMonthValue() - 1) / months * months + 1;
+        return LocalDate.of(date.getYear(), month, 1);
+    }
+
+    /**
+     * 取得下一期間的第一天
+     * @param periodStart 期間起日
+     * @return 下一期間起日
+     */
+    public LocalDate next(LocalDate periodStart) {
+        return periodStart.plusMonths(months);
+    }
+}
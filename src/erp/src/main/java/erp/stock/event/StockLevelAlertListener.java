@@ -0,0 +1,26 @@
+package erp.stock.event;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+/**
+ * 庫存水位提醒
+ * 交易提交後記錄水位變化，其他通知方式可另外監聽 StockLevelChangedEvent
+ */
+@Component
+@Slf4j
+public class StockLevelAlertListener {
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onStockLevelChanged(StockLevelChangedEvent event) {
+        if (event.isDeteriorated()) {
+            log.warn("庫存水位下降，商品ID: {}, {} -> {}, 目前庫存: {}, 再訂購點: {}, 安全庫存: {}",
+                    event.productId(), event.previousLevel(), event.currentLevel(), event.qty(),
+                    event.reorderPoint(), event.safetyStock());
+        } else {
+            log.info("庫存水位回復，商品ID: {}, {} -> {}, 目前庫存: {}",
+                    event.productId(), event.previousLevel(), event.currentLevel(), event.qty());
+        }
+    }
+}
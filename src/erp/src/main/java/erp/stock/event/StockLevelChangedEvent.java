@@ -0,0 +1,28 @@
+package erp.stock.event;
+
+import erp.stock.enums.StockLevel;
+
+import java.time.LocalDateTime;
+
+/**
+ * 庫存水位變化事件
+ * 由 StockThresholdIndexImpl 在庫存跨越再訂購點或安全庫存時發布，
+ * 監聽端以 @TransactionalEventListener 在交易提交後處理
+ * @param productId 商品ID
+ * @param previousLevel 變化前水位
+ * @param currentLevel 變化後水位
+ * @param qty 目前庫存數量
+ * @param reorderPoint 再訂購點
+ * @param safetyStock 安全庫存
+ * @param occurredAt 發生時間
+ */
+public record StockLevelChangedEvent(Long productId, StockLevel previousLevel, StockLevel currentLevel, int qty,
+                                     Integer reorderPoint, Integer safetyStock, LocalDateTime occurredAt) {
+
+    /**
+     * 是否為水位下降（需要提醒）
+     */
+    public boolean isDeteriorated() {
+        return currentLevel.ordinal() > previousLevel.ordinal();
+    }
+}
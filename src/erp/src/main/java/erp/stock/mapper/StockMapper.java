@@ -1,5 +1,6 @@
 package erp.stock.mapper;
 
+import erp.common.money.MoneyMapper;
 import erp.stock.dto.StockResponse;
 import erp.stock.entity.Stock;
 import org.mapstruct.*;
@@ -14,7 +15,8 @@ import java.util.List;
 @Mapper(
     componentModel = "spring",
     unmappedTargetPolicy = ReportingPolicy.IGNORE,
-    nullValuePropertyMappingStrategy = NullValuePropertyMappingStrategy.IGNORE
+    nullValuePropertyMappingStrategy = NullValuePropertyMappingStrategy.IGNORE,
+    uses = MoneyMapper.class
 )
 public interface StockMapper {
 
@@ -41,8 +43,9 @@ public interface StockMapper {
     @Mapping(target = "id", ignore = true)
     @Mapping(target = "productId", source = "productId")
     @Mapping(target = "qty", constant = "0")
-    @Mapping(target = "avgCost", expression = "java(java.math.BigDecimal.ZERO)")
-    @Mapping(target = "totalCost", expression = "java(java.math.BigDecimal.ZERO)")
+    @Mapping(target = "reservedQty", constant = "0")
+    @Mapping(target = "avgCost", expression = "java(erp.common.money.Money.ZERO)")
+    @Mapping(target = "totalCost", expression = "java(erp.common.money.Money.ZERO)")
     @Mapping(target = "createdAt", ignore = true)
     @Mapping(target = "updatedAt", ignore = true)
     Stock createEntity(Long productId);
@@ -1,8 +1,11 @@
 package erp.stock.mapper;
 
+import erp.common.money.MoneyMapper;
 import erp.stock.dto.StockMovementCreateRequest;
+import erp.stock.dto.StockMovementMonthlySummaryResponse;
 import erp.stock.dto.StockMovementResponse;
 import erp.stock.entity.StockMovement;
+import erp.stock.entity.StockMovementMonthlySummary;
 import erp.stock.enums.MovementType;
 import org.mapstruct.*;
 import org.springframework.data.domain.Page;
@@ -16,7 +19,8 @@ import java.util.List;
 @Mapper(
     componentModel = "spring",
     unmappedTargetPolicy = ReportingPolicy.IGNORE,
-    nullValuePropertyMappingStrategy = NullValuePropertyMappingStrategy.IGNORE
+    nullValuePropertyMappingStrategy = NullValuePropertyMappingStrategy.IGNORE,
+    uses = MoneyMapper.class
 )
 public interface StockMovementMapper {
 
@@ -37,6 +41,11 @@ public interface StockMovementMapper {
         return stockMovementPage.map(this::toResponse);
     }
 
+    /**
+     * 將異動月彙總實體清單轉換為響應清單
+     */
+    List<StockMovementMonthlySummaryResponse> toSummaryResponseList(List<StockMovementMonthlySummary> summaries);
+
     /**
      * 將 StockMovementCreateRequest 轉換為 StockMovement 實體
      */
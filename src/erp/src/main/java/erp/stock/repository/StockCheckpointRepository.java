@@ -0,0 +1,38 @@
+package erp.stock.repository;
+
+import erp.stock.entity.StockCheckpoint;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface StockCheckpointRepository extends JpaRepository<StockCheckpoint, Long> {
+
+    /**
+     * 根據商品ID尋找指定時間（含）之前最近的檢查點
+     */
+    Optional<StockCheckpoint> findFirstByProductIdAndCheckpointAtLessThanEqualOrderByCheckpointAtDesc(
+            Long productId, LocalDateTime asOf);
+
+    /**
+     * 尋找指定檢查點時間的全部商品檢查點
+     */
+    List<StockCheckpoint> findByCheckpointAt(LocalDateTime checkpointAt);
+
+    /**
+     * 指定時間（含）之前最近的檢查點時間
+     */
+    @Query("SELECT MAX(c.checkpointAt) FROM StockCheckpoint c WHERE c.checkpointAt <= :asOf")
+    Optional<LocalDateTime> findLatestCheckpointAt(@Param("asOf") LocalDateTime asOf);
+
+    /**
+     * 最近的檢查點時間
+     */
+    @Query("SELECT MAX(c.checkpointAt) FROM StockCheckpoint c")
+    Optional<LocalDateTime> findLatestCheckpointAt();
+}
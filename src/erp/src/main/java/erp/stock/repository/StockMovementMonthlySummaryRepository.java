@@ -0,0 +1,18 @@
+package erp.stock.repository;
+
+import erp.stock.entity.StockMovementMonthlySummary;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.util.List;
+
+@Repository
+public interface StockMovementMonthlySummaryRepository extends JpaRepository<StockMovementMonthlySummary, Long> {
+
+    /**
+     * 根據商品ID尋找月份範圍內的彙總
+     */
+    List<StockMovementMonthlySummary> findByProductIdAndSummaryMonthBetweenOrderBySummaryMonthDesc(
+            Long productId, LocalDate fromMonth, LocalDate toMonth);
+}
@@ -22,6 +22,16 @@ public interface StockMovementRepository extends JpaRepository<StockMovement, Lo
      */
     List<StockMovement> findByProductIdOrderByCreatedAtDesc(Long productId);
     
+    /**
+     * 根據庫存ID尋找指定時間之後的變動記錄（只掃描該時間之後的分區）
+     */
+    List<StockMovement> findByStockIdAndCreatedAtGreaterThanEqualOrderByCreatedAtDesc(Long stockId, LocalDateTime since);
+    
+    /**
+     * 根據商品ID尋找指定時間之後的變動記錄（只掃描該時間之後的分區）
+     */
+    List<StockMovement> findByProductIdAndCreatedAtGreaterThanEqualOrderByCreatedAtDesc(Long productId, LocalDateTime since);
+    
     /**
      * 根據日期範圍尋找變動記錄
      */
@@ -31,4 +41,9 @@ public interface StockMovementRepository extends JpaRepository<StockMovement, Lo
      * 根據變動類型尋找記錄
      */
     List<StockMovement> findByMovementType(MovementType movementType);
-}
\ No newline at end of file
+    
+    /**
+     * 根據變動類型尋找指定時間之後的記錄（只掃描該時間之後的分區）
+     */
+    List<StockMovement> findByMovementTypeAndCreatedAtGreaterThanEqual(MovementType movementType, LocalDateTime since);
+}
@@ -1,11 +1,18 @@
 package erp.stock.repository;
 
+import erp.common.money.Money;
 import erp.stock.entity.Stock;
+import jakarta.persistence.LockModeType;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.math.BigDecimal;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -13,10 +20,25 @@ import java.util.Optional;
 public interface StockRepository extends JpaRepository<Stock, Long>, JpaSpecificationExecutor<Stock> {
     
     /**
-     * 根據商品ID尋找庫存
+     * 根據商品ID尋找庫存（商品ID為唯一索引，至多一筆）
      */
     Optional<Stock> findByProductId(Long productId);
     
+    /**
+     * 根據商品ID尋找庫存並加上寫鎖（SELECT ... FOR UPDATE）
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT s FROM Stock s WHERE s.productId = :productId")
+    Optional<Stock> findForUpdateByProductId(@Param("productId") Long productId);
+    
+    /**
+     * 根據商品ID清單尋找庫存並加上寫鎖，依商品ID順序鎖定
+     * 多筆批次同時鎖定重疊的商品時，一致的鎖定順序可避免死結
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT s FROM Stock s WHERE s.productId IN :productIds ORDER BY s.productId")
+    List<Stock> findForUpdateByProductIdIn(@Param("productIds") Collection<Long> productIds);
+    
     /**
      * 根據商品ID清單尋找庫存
      */
@@ -27,8 +49,97 @@ public interface StockRepository extends JpaRepository<Stock, Long>, JpaSpecific
      */
     List<Stock> findByQtyLessThan(Integer threshold);
     
+    /**
+     * 尋找有設定再訂購點或安全庫存的庫存（低庫存索引載入用）
+     */
+    List<Stock> findByReorderPointIsNotNullOrSafetyStockIsNotNull();
+    
     /**
      * 根據庫存價值範圍尋找
      */
-    List<Stock> findByTotalCostBetween(BigDecimal minValue, BigDecimal maxValue);
-}
\ No newline at end of file
+    List<Stock> findByTotalCostBetween(Money minValue, Money maxValue);
+    
+    //region 原子調整
+    /**
+     * 建立空的庫存記錄，已存在時不變動
+     * 以唯一索引判斷，同時建立同一商品時只有一筆成功；不清除持久化內容，已鎖定的實體仍可使用
+     * @return 影響筆數（0 表示庫存記錄已存在）
+     */
+    @Modifying
+    @Query(value = "INSERT IGNORE INTO stock (product_id, qty, avg_cost, total_cost, version, created_at, updated_at) " +
+           "VALUES (:productId, 0, 0, 0, 0, CURRENT_TIMESTAMP(3), CURRENT_TIMESTAMP(3))",
+           nativeQuery = true)
+    int insertIfAbsent(@Param("productId") Long productId);
+
+    /**
+     * 根據商品ID鎖定庫存，不存在時先建立空的庫存記錄再鎖定
+     */
+    default Stock lockOrCreate(Long productId) {
+        return findForUpdateByProductId(productId).orElseGet(() -> {
+            insertIfAbsent(productId);
+            return findForUpdateByProductId(productId)
+                    .orElseThrow(() -> new RuntimeException("庫存記錄不存在: " + productId));
+        });
+    }
+
+    /**
+     * 入庫：以單一 INSERT ... ON DUPLICATE KEY UPDATE 建立或累加庫存
+     * 尚無庫存記錄時以本次入庫建立；已存在時累加數量並重算加權平均成本，
+     * MySQL 依序套用 UPDATE 子句，avg_cost 以調整前的 qty 計算，total_cost 以調整後的值計算
+     * @return 影響筆數（1 為新建，2 為累加）
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query(value = "INSERT INTO stock (product_id, qty, avg_cost, total_cost, version, created_at, updated_at) " +
+           "VALUES (:productId, :qty, :unitCost, :unitCost * :qty, 0, CURRENT_TIMESTAMP(3), CURRENT_TIMESTAMP(3)) " +
+           "ON DUPLICATE KEY UPDATE " +
+           "avg_cost = ROUND((avg_cost * qty + :unitCost * :qty) / (qty + :qty), 2), " +
+           "qty = qty + :qty, " +
+           "total_cost = avg_cost * qty, " +
+           "version = version + 1, " +
+           "updated_at = CURRENT_TIMESTAMP(3)",
+           nativeQuery = true)
+    int upsertInbound(@Param("productId") Long productId, @Param("qty") int qty,
+                      @Param("unitCost") BigDecimal unitCost);
+
+    /**
+     * 出庫：僅在可用量（庫存數量扣除已預留數量）足夠時扣減數量，平均成本不變
+     * @return 影響筆數（0 表示庫存記錄不存在或可用量不足）
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query(value = "UPDATE stock SET " +
+           "qty = qty - :qty, " +
+           "total_cost = avg_cost * qty, " +
+           "version = version + 1, " +
+           "updated_at = CURRENT_TIMESTAMP(3) " +
+           "WHERE product_id = :productId AND qty - reserved_qty >= :qty",
+           nativeQuery = true)
+    int decreaseQtyIfSufficient(@Param("productId") Long productId, @Param("qty") int qty);
+
+    /**
+     * 預留：僅在可用量足夠時累加已預留數量
+     * 不清除持久化內容，呼叫端（訂單交易）已載入的實體仍可使用
+     * @return 影響筆數（0 表示庫存記錄不存在或可用量不足）
+     */
+    @Modifying(flushAutomatically = true)
+    @Query(value = "UPDATE stock SET " +
+           "reserved_qty = reserved_qty + :qty, " +
+           "version = version + 1, " +
+           "updated_at = CURRENT_TIMESTAMP(3) " +
+           "WHERE product_id = :productId AND qty - reserved_qty >= :qty",
+           nativeQuery = true)
+    int reserveIfAvailable(@Param("productId") Long productId, @Param("qty") int qty);
+
+    /**
+     * 釋放預留：扣減已預留數量，不低於 0
+     * @return 影響筆數（0 表示庫存記錄不存在）
+     */
+    @Modifying(flushAutomatically = true)
+    @Query(value = "UPDATE stock SET " +
+           "reserved_qty = GREATEST(reserved_qty - :qty, 0), " +
+           "version = version + 1, " +
+           "updated_at = CURRENT_TIMESTAMP(3) " +
+           "WHERE product_id = :productId",
+           nativeQuery = true)
+    int releaseReserved(@Param("productId") Long productId, @Param("qty") int qty);
+    //endregion
+}
@@ -0,0 +1,46 @@
+package erp.stock.repository;
+
+import erp.stock.entity.StockReservation;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface StockReservationRepository extends JpaRepository<StockReservation, Long> {
+
+    /**
+     * 根據訂單ID尋找預留ID（不加鎖）
+     */
+    @Query("SELECT r.id FROM StockReservation r WHERE r.orderId = :orderId")
+    List<Long> findIdsByOrderId(@Param("orderId") Long orderId);
+
+    /**
+     * 根據多筆訂單ID尋找預留ID（不加鎖）
+     */
+    @Query("SELECT r.id FROM StockReservation r WHERE r.orderId IN :orderIds")
+    List<Long> findIdsByOrderIdIn(@Param("orderIds") Collection<Long> orderIds);
+
+    /**
+     * 根據預留ID清單尋找預留並加上寫鎖
+     * 以主鍵逐筆鎖定，不會像以訂單ID範圍鎖定那樣鎖住索引間隙，同時新增預留的訂單不會互相等待
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT r FROM StockReservation r WHERE r.id IN :ids ORDER BY r.id")
+    List<StockReservation> findForUpdateByIdIn(@Param("ids") Collection<Long> ids);
+
+    /**
+     * 依到期時間索引取出一批已到期的預留並加上寫鎖
+     * 略過其他交易（訂單異動或其他節點的清理）已鎖定的預留，下一批再處理
+     */
+    @Query(value = "SELECT * FROM stock_reservations WHERE expires_at <= :now " +
+           "ORDER BY expires_at LIMIT :limit FOR UPDATE SKIP LOCKED",
+           nativeQuery = true)
+    List<StockReservation> findExpiredForUpdate(@Param("now") LocalDateTime now, @Param("limit") int limit);
+}
@@ -0,0 +1,32 @@
+package erp.stock.scheduler;
+
+import erp.stock.service.StockServiceImpl.StockAvailabilityCacheImpl;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * 庫存可用量快取重新整理排程
+ * 定期從資料庫重新載入，補上其他節點的調整，erp.stock.availability.enabled=false 時不註冊
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+@ConditionalOnProperty(prefix = "erp.stock.availability", name = "enabled", havingValue = "true", matchIfMissing = true)
+public class StockAvailabilityScheduler {
+
+    private final StockAvailabilityCacheImpl availabilityCache;
+
+    @Scheduled(initialDelayString = "${erp.stock.availability.initial-delay:PT1M}",
+               fixedDelayString = "${erp.stock.availability.fixed-delay:PT1M}")
+    public void refresh() {
+        try {
+            availabilityCache.refresh();
+        } catch (RuntimeException e) {
+            // 單輪失敗不影響後續排程，快取保持上一輪的內容
+            log.error("庫存可用量快取重新整理失敗", e);
+        }
+    }
+}
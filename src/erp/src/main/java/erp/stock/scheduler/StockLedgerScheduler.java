@@ -0,0 +1,38 @@
+package erp.stock.scheduler;
+
+import erp.stock.service.StockServiceImpl.StockHistoryServiceImpl;
+import erp.stock.service.StockServiceImpl.StockMovementPartitionServiceImpl;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * 庫存異動分區維護排程
+ * 定期建立未來月份分區、補建月初庫存檢查點並壓縮超過保留期的月份，
+ * erp.stock.ledger.enabled=false 時不註冊
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+@ConditionalOnProperty(prefix = "erp.stock.ledger", name = "enabled", havingValue = "true", matchIfMissing = true)
+public class StockLedgerScheduler {
+
+    private final StockMovementPartitionServiceImpl partitionService;
+    private final StockHistoryServiceImpl historyService;
+
+    @Scheduled(initialDelayString = "${erp.stock.ledger.initial-delay:PT2M}",
+               fixedDelayString = "${erp.stock.ledger.fixed-delay:PT24H}")
+    public void maintainPartitions() {
+        try {
+            partitionService.ensureFuturePartitions();
+            // 壓縮前先補建檢查點，壓縮只處理已被檢查點涵蓋的月份
+            historyService.createMissingCheckpoints();
+            partitionService.compactClosedMonths();
+        } catch (RuntimeException e) {
+            // 單輪失敗不影響後續排程，未完成的分區下一輪重試
+            log.error("庫存異動分區維護失敗", e);
+        }
+    }
+}
@@ -0,0 +1,33 @@
+package erp.stock.scheduler;
+
+import erp.stock.config.StockReconciliationProperties;
+import erp.stock.service.StockServiceImpl.StockReconciliationServiceImpl;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * 庫存對帳排程
+ * 每日比對庫存列與異動帳，erp.stock.reconciliation.enabled=false 時不註冊
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+@ConditionalOnProperty(prefix = "erp.stock.reconciliation", name = "enabled", havingValue = "true", matchIfMissing = true)
+public class StockReconciliationScheduler {
+
+    private final StockReconciliationServiceImpl reconciliationService;
+    private final StockReconciliationProperties properties;
+
+    @Scheduled(cron = "${erp.stock.reconciliation.cron:0 30 3 * * *}")
+    public void reconcile() {
+        try {
+            reconciliationService.reconcile(properties.isAutoCorrect());
+        } catch (RuntimeException e) {
+            // 單輪失敗不影響後續排程，隔日重新對帳
+            log.error("庫存對帳失敗", e);
+        }
+    }
+}
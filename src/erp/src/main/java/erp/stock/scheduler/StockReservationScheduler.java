@@ -0,0 +1,32 @@
+package erp.stock.scheduler;
+
+import erp.stock.service.StockServiceImpl.StockReservationServiceImpl;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * 到期庫存預留清理排程
+ * 以固定間隔釋放已到期的預留，erp.stock.reservation.enabled=false 時不註冊
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+@ConditionalOnProperty(prefix = "erp.stock.reservation", name = "enabled", havingValue = "true", matchIfMissing = true)
+public class StockReservationScheduler {
+
+    private final StockReservationServiceImpl reservationService;
+
+    @Scheduled(initialDelayString = "${erp.stock.reservation.initial-delay:PT1M}",
+               fixedDelayString = "${erp.stock.reservation.fixed-delay:PT1M}")
+    public void expireReservations() {
+        try {
+            reservationService.expireReservations();
+        } catch (RuntimeException e) {
+            // 單輪失敗不影響後續排程，未清理的預留下一輪重試
+            log.error("到期庫存預留清理失敗", e);
+        }
+    }
+}
@@ -0,0 +1,32 @@
+package erp.stock.scheduler;
+
+import erp.stock.service.StockServiceImpl.StockThresholdIndexImpl;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * 低庫存索引重新同步排程
+ * 定期從資料庫重新載入門檻商品，補上其他節點的調整，erp.stock.threshold.enabled=false 時不註冊
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+@ConditionalOnProperty(prefix = "erp.stock.threshold", name = "enabled", havingValue = "true", matchIfMissing = true)
+public class StockThresholdScheduler {
+
+    private final StockThresholdIndexImpl thresholdIndex;
+
+    @Scheduled(initialDelayString = "${erp.stock.threshold.initial-delay:PT5M}",
+               fixedDelayString = "${erp.stock.threshold.fixed-delay:PT5M}")
+    public void resync() {
+        try {
+            thresholdIndex.resync();
+        } catch (RuntimeException e) {
+            // 單輪失敗不影響後續排程，索引保持上一輪的內容
+            log.error("低庫存索引重新同步失敗", e);
+        }
+    }
+}
@@ -1,11 +1,15 @@
 package erp.stock.service;
 
+import erp.common.dto.BasePageResponse;
 import erp.stock.dto.*;
 import erp.stock.enums.MovementType;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 
+import java.io.IOException;
+import java.io.OutputStream;
 import java.math.BigDecimal;
+import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.util.List;
 
@@ -19,6 +23,7 @@ public interface StockService {
     StockResponse getStockById(Long id);
     StockResponse getStockByProductId(Long productId);
     Page<StockResponse> getAllStocks(Pageable pageable);
+    BasePageResponse<StockResponse> queryStocksBySlice(StockQueryRequest request);
     Page<StockResponse> searchStocks(StockSearchRequest request, Pageable pageable);
     List<StockResponse> getStocksByProductIds(List<Long> productIds);
     List<StockResponse> getLowStockProducts(Integer threshold);
@@ -31,15 +36,53 @@ public interface StockService {
     StockResponse adjustStock(Long productId, Integer quantity, BigDecimal unitCost, MovementType type);
     StockResponse adjustStockWithReason(Long productId, Integer quantity, BigDecimal unitCost, MovementType type, String reason);
     void deleteStock(Long id);
+    
+    /**
+     * 設定商品的再訂購點與安全庫存
+     */
+    StockResponse updateStockThresholds(StockThresholdRequest request);
+    
+    /**
+     * 取得低於再訂購點或安全庫存的商品（由記憶體索引回傳，不查詢資料庫）
+     */
+    List<StockThresholdResponse> getBelowThresholdStocks();
     //endregion
     
     //region 庫存變動記錄相關方法
     Page<StockMovementResponse> getStockMovements(StockMovementSearchRequest request, Pageable pageable);
+    BasePageResponse<StockMovementResponse> searchStockMovements(StockMovementSearchRequest request);
     StockMovementResponse createStockMovement(StockMovementCreateRequest request);
     List<StockMovementResponse> getMovementsByProductId(Long productId);
     List<StockMovementResponse> getMovementsByStockId(Long stockId);
     List<StockMovementResponse> getMovementsByDateRange(LocalDateTime start, LocalDateTime end);
     List<StockMovementResponse> getMovementsByType(MovementType movementType);
+    List<StockMovementMonthlySummaryResponse> getMonthlySummaries(Long productId, LocalDate fromMonth, LocalDate toMonth);
+    
+    /**
+     * 查詢歷史時點的庫存，由最近的檢查點加上其後的異動重播求得
+     * 未指定商品ID時回傳全部商品
+     */
+    List<StockSnapshotResponse> getStocksAsOf(Long productId, LocalDateTime asOf);
+    
+    /**
+     * 庫存評價報表：各商品各期間的加權平均與先進先出評價及銷貨成本
+     */
+    StockValuationResponse getValuation(StockValuationRequest request);
+    
+    /**
+     * 以 CSV 串流匯出庫存評價報表
+     */
+    void exportValuation(StockValuationRequest request, OutputStream outputStream) throws IOException;
+    
+    /**
+     * 庫存對帳：比對庫存列與異動帳，列出差異並可自動修正
+     */
+    StockReconciliationResponse reconcile(StockReconciliationRequest request);
+    
+    /**
+     * 取得目前（或最近一次）庫存對帳的進度
+     */
+    StockReconciliationProgressResponse getReconciliationProgress();
     //endregion
     
     //region 控制器專用業務邏輯區塊
@@ -49,6 +92,12 @@ public interface StockService {
      */
     StockMovementResponse processStockInbound(StockInboundRequest request);
     
+    /**
+     * 控制器專用：批次入庫（一次供應商到貨）
+     * 回報各明細結果
+     */
+    StockBatchInboundResponse processStockInboundBatch(StockBatchInboundRequest request);
+    
     /**
      * 控制器專用：通過庫存異動進行出庫操作
      * 自動更新庫存記錄
@@ -60,5 +109,11 @@ public interface StockService {
      * 用於出庫前的庫存檢查
      */
     StockAvailabilityResponse checkStockAvailability(Long productId, Integer requiredQty);
+
+    /**
+     * 控制器專用：檢查整張訂單的庫存可用性
+     * 同一商品多筆明細合計後檢查
+     */
+    StockOrderAvailabilityResponse checkOrderAvailability(StockOrderAvailabilityRequest request);
     //endregion
 }
\ No newline at end of file
@@ -0,0 +1,267 @@
+package erp.stock.service.StockServiceImpl;
+
+import erp.common.money.Money;
+import erp.stock.config.StockCombinerProperties;
+import erp.stock.dto.StockInboundRequest;
+import erp.stock.dto.StockMovementResponse;
+import erp.stock.dto.StockOutboundRequest;
+import erp.stock.entity.Stock;
+import erp.stock.entity.StockMovement;
+import erp.stock.enums.MovementType;
+import erp.stock.mapper.StockMovementMapper;
+import erp.stock.repository.StockMovementRepository;
+import erp.stock.repository.StockRepository;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * 庫存調整合併寫入實作
+ * 依商品ID排隊，收集視窗內同一商品的入庫、出庫請求合併為一批：
+ * 鎖定庫存列一次、依到達順序逐筆判斷、只寫回一次庫存列並批次新增異動記錄；
+ * 每筆請求各自成功或失敗，庫存不足的出庫單獨拒絕，不影響同批其他請求；
+ * 佇列清空且沒有處理中的工作時移除該商品的佇列，佇列數量只與近期有調整的商品數有關
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class StockAdjustmentCombinerImpl {
+
+    private final StockRepository stockRepository;
+    private final StockMovementRepository stockMovementRepository;
+    private final StockMovementMapper stockMovementMapper;
+    private final StockValidationServiceImpl validationService;
+    private final StockThresholdIndexImpl thresholdIndex;
+    private final StockAvailabilityCacheImpl availabilityCache;
+    private final TransactionTemplate transactionTemplate;
+    private final StockCombinerProperties properties;
+
+    /**
+     * 各商品的排隊佇列，同一商品同時只有一個處理中的工作
+     * 排入與移除都在 compute 內進行，已移除的佇列不會再有請求排入
+     */
+    private final ConcurrentHashMap<Long, Lane> lanes = new ConcurrentHashMap<>();
+    private final ExecutorService drainExecutor = Executors.newVirtualThreadPerTaskExecutor();
+
+    /**
+     * 是否啟用合併寫入
+     */
+    public boolean isEnabled() {
+        return properties.isEnabled();
+    }
+
+    //region 提交
+    /**
+     * 合併寫入入庫，等待所屬批次提交後回傳異動記錄
+     */
+    public StockMovementResponse processStockInbound(StockInboundRequest request) {
+        validationService.validateInboundRequest(request);
+        return submit(request.getProductId(), request.getQty(), request.getUnitCost(), MovementType.IN);
+    }
+
+    /**
+     * 合併寫入出庫，以批次處理時的平均成本記錄，等待所屬批次提交後回傳異動記錄
+     */
+    public StockMovementResponse processStockOutbound(StockOutboundRequest request) {
+        validationService.validateOutboundRequest(request);
+        return submit(request.getProductId(), request.getQty(), null, MovementType.OUT);
+    }
+
+    /**
+     * 提交一筆庫存調整並等待結果
+     * 呼叫端不可持有交易，否則等待期間會佔用連線
+     * @param productId 商品ID
+     * @param quantity 數量
+     * @param unitCost 入庫單位成本（出庫時忽略）
+     * @param type 異動類型
+     * @return 建立的異動記錄
+     */
+    public StockMovementResponse submit(Long productId, Integer quantity, BigDecimal unitCost, MovementType type) {
+        validationService.validateStockAdjustment(productId, quantity, type);
+        PendingAdjustment pending = new PendingAdjustment(quantity,
+                type == MovementType.IN ? Money.of(unitCost) : null, type);
+
+        Lane lane = lanes.compute(productId, (id, existing) -> {
+            Lane current = existing != null ? existing : new Lane();
+            current.queue.add(pending);
+            return current;
+        });
+        if (lane.draining.compareAndSet(false, true)) {
+            drainExecutor.execute(() -> drain(productId, lane));
+        }
+
+        try {
+            return pending.result.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+    //endregion
+
+    //region 批次處理
+    /**
+     * 處理單一商品的佇列直到清空
+     * 先等待收集視窗讓同時到達的請求排入，之後每批最多 maxBatchSize 筆
+     */
+    private void drain(Long productId, Lane lane) {
+        sleepWindow();
+        while (true) {
+            List<PendingAdjustment> batch = new ArrayList<>();
+            PendingAdjustment next;
+            while (batch.size() < Math.max(1, properties.getMaxBatchSize()) && (next = lane.queue.poll()) != null) {
+                batch.add(next);
+            }
+            if (batch.isEmpty()) {
+                lane.draining.set(false);
+                // 釋放後若又有請求排入且沒有其他工作接手，繼續處理
+                if (lane.queue.isEmpty() || !lane.draining.compareAndSet(false, true)) {
+                    evictIfIdle(productId, lane);
+                    return;
+                }
+                continue;
+            }
+            applyBatch(productId, batch);
+        }
+    }
+
+    /**
+     * 佇列已清空且沒有工作接手時移除，移除前又排入請求或已有工作接手時保留
+     */
+    private void evictIfIdle(Long productId, Lane lane) {
+        lanes.computeIfPresent(productId, (id, current) ->
+                current == lane && current.queue.isEmpty() && !current.draining.get() ? null : current);
+    }
+
+    /**
+     * 在單一交易內套用一批調整，提交後才通知各請求
+     */
+    private void applyBatch(Long productId, List<PendingAdjustment> batch) {
+        try {
+            transactionTemplate.executeWithoutResult(status -> combine(productId, batch));
+        } catch (RuntimeException e) {
+            log.error("庫存合併寫入失敗，商品ID: {}, 批次筆數: {}", productId, batch.size(), e);
+            batch.forEach(pending -> pending.result.completeExceptionally(e));
+            return;
+        }
+        for (PendingAdjustment pending : batch) {
+            if (pending.rejection != null) {
+                pending.result.completeExceptionally(pending.rejection);
+            } else {
+                pending.result.complete(stockMovementMapper.toResponse(pending.movement));
+            }
+        }
+    }
+
+    /**
+     * 鎖定庫存列，依到達順序計算淨變動，寫回一次並批次新增異動記錄
+     */
+    private void combine(Long productId, List<PendingAdjustment> batch) {
+        Stock stock = stockRepository.lockOrCreate(productId);
+
+        int qty = stock.getQty();
+        int reservedQty = stock.getReservedQty();
+        Money avgCost = stock.getAvgCost();
+        List<StockMovement> movements = new ArrayList<>(batch.size());
+
+        for (PendingAdjustment pending : batch) {
+            Money unitCost;
+            if (pending.type == MovementType.IN) {
+                avgCost = qty == 0 ? pending.unitCost
+                        : Money.weightedAverage(avgCost, qty, pending.unitCost, pending.quantity);
+                qty = Math.addExact(qty, pending.quantity);
+                unitCost = pending.unitCost;
+            } else {
+                // 可用量不足的出庫單獨拒絕，庫存不會變成負數，已預留給訂單的數量也不會被出庫
+                if (qty - reservedQty < pending.quantity) {
+                    pending.rejection = new RuntimeException("庫存不足，目前庫存: " + qty + "，已預留: " + reservedQty
+                            + "，需要出庫: " + pending.quantity);
+                    continue;
+                }
+                qty -= pending.quantity;
+                unitCost = avgCost;
+            }
+            pending.movement = StockMovement.builder()
+                    .stockId(stock.getId())
+                    .productId(productId)
+                    .movementType(pending.type)
+                    .qty(pending.quantity)
+                    .unitCost(unitCost)
+                    .build();
+            movements.add(pending.movement);
+        }
+
+        if (movements.isEmpty()) {
+            return;
+        }
+        stock.setQty(qty);
+        stock.setAvgCost(avgCost);
+        stock.setTotalCost(avgCost.times(qty));
+        stockMovementRepository.saveAll(movements);
+        // 先 flush 取得遞增後的版本號再寫入快取
+        stockRepository.flush();
+        thresholdIndex.record(stock);
+        availabilityCache.record(stock);
+    }
+
+    private void sleepWindow() {
+        long windowMillis = properties.getWindow() != null ? properties.getWindow().toMillis() : 0L;
+        if (windowMillis <= 0) {
+            return;
+        }
+        try {
+            Thread.sleep(windowMillis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+    //endregion
+
+    @PreDestroy
+    void shutdown() {
+        drainExecutor.shutdown();
+    }
+
+    /**
+     * 單一商品的排隊佇列
+     */
+    private static final class Lane {
+        private final Queue<PendingAdjustment> queue = new ConcurrentLinkedQueue<>();
+        private final AtomicBoolean draining = new AtomicBoolean(false);
+    }
+
+    /**
+     * 等待處理的調整請求
+     * movement 與 rejection 只由處理工作寫入，提交後才透過 result 交給請求執行緒
+     */
+    private static final class PendingAdjustment {
+        private final int quantity;
+        private final Money unitCost;
+        private final MovementType type;
+        private final CompletableFuture<StockMovementResponse> result = new CompletableFuture<>();
+        private StockMovement movement;
+        private RuntimeException rejection;
+
+        private PendingAdjustment(int quantity, Money unitCost, MovementType type) {
+            this.quantity = quantity;
+            this.unitCost = unitCost;
+            this.type = type;
+        }
+    }
+}
@@ -0,0 +1,305 @@
+package erp.stock.service.StockServiceImpl;
+
+import erp.stock.config.StockAvailabilityProperties;
+import erp.stock.entity.Stock;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.concurrent.locks.StampedLock;
+
+/**
+ * 庫存可用量快取實作
+ * 以開放定址的 long → int 雜湊表保存各商品的可用量（庫存數量扣除已預留數量）與版本號，啟動時載入，
+ * 庫存寫入路徑在交易提交後寫入；只接受版本號較新的值，提交後回呼的先後順序不影響結果，
+ * 回滾的調整也不會進入快取。快取只用於可用量檢查，實際扣減仍以條件 UPDATE 為準
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class StockAvailabilityCacheImpl {
+
+    /**
+     * 查無商品時的回傳值
+     */
+    public static final int MISSING = -1;
+
+    private static final String LOAD_SQL = "SELECT product_id, qty - reserved_qty AS available_qty, version " +
+            "FROM stock WHERE product_id IS NOT NULL";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final StockAvailabilityProperties properties;
+
+    private final StampedLock lock = new StampedLock();
+    private volatile LongIntVersionMap map;
+    private volatile boolean loaded;
+
+    /**
+     * 是否可使用快取（已啟用且已完成載入）
+     */
+    public boolean isReady() {
+        return properties.isEnabled() && loaded;
+    }
+
+    /**
+     * 取得商品的快取可用量
+     * @param productId 商品ID
+     * @return 可用量，不在快取中時回傳 MISSING
+     */
+    public int getQty(long productId) {
+        LongIntVersionMap current = map;
+        if (current == null) {
+            return MISSING;
+        }
+        long stamp = lock.tryOptimisticRead();
+        int qty = current.get(productId);
+        if (!lock.validate(stamp)) {
+            stamp = lock.readLock();
+            try {
+                qty = map.get(productId);
+            } finally {
+                lock.unlockRead(stamp);
+            }
+        }
+        return qty;
+    }
+
+    /**
+     * 寫入調整後的庫存
+     * 交易中呼叫時於提交後寫入，回滾時不寫入；需在庫存列的版本號已更新後呼叫（原生 UPDATE 讀回或 flush 之後）
+     * @param stock 調整後的庫存
+     */
+    public void record(Stock stock) {
+        if (stock.getProductId() == null || stock.getVersion() == null) {
+            return;
+        }
+        int qty = stock.getQty() != null ? stock.getQty() : 0;
+        int reservedQty = stock.getReservedQty() != null ? stock.getReservedQty() : 0;
+        record(stock.getProductId(), qty - reservedQty, stock.getVersion());
+    }
+
+    /**
+     * 寫入調整後的可用量（預留異動以原生 SQL 讀回時使用）
+     * @param productId 商品ID
+     * @param qty 可用量
+     * @param version 庫存列版本號
+     */
+    public void record(long productId, int qty, long version) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            put(productId, qty, version);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                put(productId, qty, version);
+            }
+        });
+    }
+
+    /**
+     * 移除商品（庫存記錄刪除時）
+     * 交易中呼叫時於提交後移除；之後的可用量檢查改查資料庫，重新建立的庫存列版本號從頭開始也會被接受
+     * @param productId 商品ID
+     */
+    public void remove(long productId) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            evict(productId);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                evict(productId);
+            }
+        });
+    }
+
+    /**
+     * 從資料庫載入全部庫存，只覆寫版本號較新的值
+     * 啟動時與定期執行，補上其他節點的調整；第一次載入前先建立空表，載入期間提交的調整不會遺失
+     * @return 載入筆數
+     */
+    public int refresh() {
+        if (!properties.isEnabled()) {
+            return 0;
+        }
+        if (map == null) {
+            long stamp = lock.writeLock();
+            try {
+                if (map == null) {
+                    map = new LongIntVersionMap(properties.getInitialCapacity());
+                }
+            } finally {
+                lock.unlockWrite(stamp);
+            }
+        }
+        int[] count = {0};
+        jdbcTemplate.query(LOAD_SQL, rs -> {
+            put(rs.getLong("product_id"), rs.getInt("available_qty"), rs.getLong("version"));
+            count[0]++;
+        });
+        loaded = true;
+        return count[0];
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        try {
+            log.info("庫存可用量快取載入完成，商品數: {}", refresh());
+        } catch (RuntimeException e) {
+            // 載入失敗時可用量檢查改查資料庫，由定期重新整理補上
+            log.error("庫存可用量快取載入失敗", e);
+        }
+    }
+
+    private void put(long productId, int qty, long version) {
+        if (map == null) {
+            return;
+        }
+        long stamp = lock.writeLock();
+        try {
+            map.put(productId, qty, version);
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    private void evict(long productId) {
+        if (map == null) {
+            return;
+        }
+        long stamp = lock.writeLock();
+        try {
+            map.evict(productId);
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    /**
+     * 開放定址（線性探測）雜湊表，鍵為商品ID（0 保留為空位），值為可用量與版本號
+     * 使用率超過一半時擴充；線性探測不便刪除鍵，刪除的商品保留位置但值設為 MISSING、版本號設為最小值，
+     * 讀取時視為不在快取中，重新建立的庫存列任何版本號都會覆寫
+     * 寫入需持有寫鎖，讀取可在樂觀讀下進行：陣列只在擴充時整組替換，探測必定遇到空位而結束
+     */
+    private static final class LongIntVersionMap {
+        private volatile Table table;
+        private int size;
+
+        private LongIntVersionMap(int initialCapacity) {
+            int capacity = Integer.highestOneBit(Math.max(16, initialCapacity * 2 - 1)) << 1;
+            this.table = new Table(capacity);
+        }
+
+        private int get(long key) {
+            if (key == 0) {
+                return MISSING;
+            }
+            Table t = table;
+            int mask = t.keys.length - 1;
+            for (int i = mix(key) & mask; ; i = (i + 1) & mask) {
+                long k = t.keys[i];
+                if (k == key) {
+                    return t.values[i];
+                }
+                if (k == 0) {
+                    return MISSING;
+                }
+            }
+        }
+
+        /**
+         * 寫入，已存在且版本號不舊於傳入值時忽略
+         */
+        private void put(long key, int value, long version) {
+            if (key == 0) {
+                return;
+            }
+            Table t = table;
+            int index = t.indexOf(key);
+            if (index >= 0) {
+                if (t.versions[index] < version) {
+                    t.values[index] = value;
+                    t.versions[index] = version;
+                }
+                return;
+            }
+            if ((size + 1) * 2 > t.keys.length) {
+                t = resize(t);
+                index = t.indexOf(key);
+            }
+            int slot = -index - 1;
+            t.values[slot] = value;
+            t.versions[slot] = version;
+            t.keys[slot] = key;
+            size++;
+        }
+
+        /**
+         * 標記為不在快取中，保留鍵的位置
+         */
+        private void evict(long key) {
+            if (key == 0) {
+                return;
+            }
+            Table t = table;
+            int index = t.indexOf(key);
+            if (index >= 0) {
+                t.values[index] = MISSING;
+                t.versions[index] = Long.MIN_VALUE;
+            }
+        }
+
+        private Table resize(Table old) {
+            Table grown = new Table(old.keys.length * 2);
+            for (int i = 0; i < old.keys.length; i++) {
+                if (old.keys[i] != 0) {
+                    int slot = -grown.indexOf(old.keys[i]) - 1;
+                    grown.keys[slot] = old.keys[i];
+                    grown.values[slot] = old.values[i];
+                    grown.versions[slot] = old.versions[i];
+                }
+            }
+            table = grown;
+            return grown;
+        }
+
+        private static int mix(long key) {
+            long h = key * 0x9E3779B97F4A7C15L;
+            return (int) (h ^ (h >>> 32));
+        }
+
+        private static final class Table {
+            private final long[] keys;
+            private final int[] values;
+            private final long[] versions;
+
+            private Table(int capacity) {
+                this.keys = new long[capacity];
+                this.values = new int[capacity];
+                this.versions = new long[capacity];
+            }
+
+            /**
+             * 找到時回傳位置，找不到時回傳 -(空位位置 + 1)
+             */
+            private int indexOf(long key) {
+                int mask = keys.length - 1;
+                for (int i = mix(key) & mask; ; i = (i + 1) & mask) {
+                    if (keys[i] == key) {
+                        return i;
+                    }
+                    if (keys[i] == 0) {
+                        return -i - 1;
+                    }
+                }
+            }
+        }
+    }
+}
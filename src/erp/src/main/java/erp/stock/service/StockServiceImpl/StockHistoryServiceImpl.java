@@ -0,0 +1,250 @@
+package erp.stock.service.StockServiceImpl;
+
+import erp.common.enums.CodedEnum;
+import erp.common.money.Money;
+import erp.stock.config.StockLedgerProperties;
+import erp.stock.dto.StockSnapshotResponse;
+import erp.stock.entity.StockCheckpoint;
+import erp.stock.enums.MovementType;
+import erp.stock.repository.StockCheckpointRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * 歷史時點庫存實作
+ * 每月月初建立各商品的庫存檢查點，查詢某時點的庫存時從該時點之前最近的檢查點出發，
+ * 只重播其後到查詢時點的異動，重播量不隨異動表總量增加；
+ * 重播規則與入庫、出庫相同：入庫以加權平均重算成本，出庫只扣數量；
+ * 異動明細已壓縮的時點無法重播，查詢時直接拒絕
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class StockHistoryServiceImpl {
+
+    /**
+     * 尚無檢查點時的重播起點
+     */
+    private static final LocalDateTime REPLAY_START = LocalDateTime.of(1970, 1, 1, 0, 0);
+
+    private static final String REPLAY_PRODUCT_SQL = "SELECT product_id, movement_type, qty, unit_cost " +
+            "FROM stock_movements WHERE product_id = ? AND created_at >= ? AND created_at <= ? " +
+            "ORDER BY created_at, id";
+
+    private static final String REPLAY_ALL_UNTIL_SQL = "SELECT product_id, movement_type, qty, unit_cost " +
+            "FROM stock_movements WHERE created_at >= ? AND created_at <= ? " +
+            "ORDER BY created_at, id";
+
+    private static final String REPLAY_ALL_BEFORE_SQL = "SELECT product_id, movement_type, qty, unit_cost " +
+            "FROM stock_movements WHERE created_at >= ? AND created_at < ? " +
+            "ORDER BY created_at, id";
+
+    /**
+     * 以唯一鍵 (product_id, checkpoint_at) 去重，重複執行時已存在的檢查點直接略過
+     */
+    private static final String INSERT_CHECKPOINT_SQL = "INSERT IGNORE INTO stock_checkpoints " +
+            "(product_id, checkpoint_at, qty, avg_cost, total_cost, created_at) VALUES (?, ?, ?, ?, ?, ?)";
+
+    private final StockCheckpointRepository checkpointRepository;
+    private final JdbcTemplate jdbcTemplate;
+    private final StockLedgerProperties properties;
+    private final StockMovementPartitionServiceImpl partitionService;
+
+    //region 歷史時點查詢
+    /**
+     * 查詢單一商品在指定時點的庫存
+     * @param productId 商品ID
+     * @param asOf 查詢時點（包含此時間的異動）
+     * @return 該時點的庫存
+     */
+    @Transactional(readOnly = true)
+    public StockSnapshotResponse getStockAsOf(Long productId, LocalDateTime asOf) {
+        validateAsOf(asOf);
+        if (productId == null) {
+            throw new IllegalArgumentException("商品ID不能為空");
+        }
+        validateRetained(asOf);
+        StockCheckpoint checkpoint = checkpointRepository
+                .findFirstByProductIdAndCheckpointAtLessThanEqualOrderByCheckpointAtDesc(productId, asOf)
+                .orElse(null);
+
+        ReplayState state = checkpoint != null
+                ? new ReplayState(checkpoint.getQty(), checkpoint.getAvgCost())
+                : new ReplayState(0, Money.ZERO);
+        LocalDateTime from = checkpoint != null ? checkpoint.getCheckpointAt() : REPLAY_START;
+        jdbcTemplate.query(REPLAY_PRODUCT_SQL, rs -> {
+            state.apply(readType(rs), rs.getInt("qty"), Money.ofNullable(rs.getBigDecimal("unit_cost")));
+        }, productId, Timestamp.valueOf(from), Timestamp.valueOf(asOf));
+
+        return toResponse(productId, asOf, state, checkpoint != null ? from : null);
+    }
+
+    /**
+     * 查詢全部商品在指定時點的庫存
+     * 從該時點之前最近的一組檢查點出發，一次讀取區間內的異動依序重播
+     * @param asOf 查詢時點（包含此時間的異動）
+     * @return 各商品在該時點的庫存，依商品ID排序
+     */
+    @Transactional(readOnly = true)
+    public List<StockSnapshotResponse> getStocksAsOf(LocalDateTime asOf) {
+        validateAsOf(asOf);
+        validateRetained(asOf);
+        LocalDateTime checkpointAt = checkpointRepository.findLatestCheckpointAt(asOf).orElse(null);
+        Map<Long, ReplayState> states = replay(checkpointAt, asOf, true);
+
+        List<StockSnapshotResponse> responses = new ArrayList<>(states.size());
+        states.forEach((productId, state) -> responses.add(toResponse(productId, asOf, state, checkpointAt)));
+        return responses;
+    }
+    //endregion
+
+    //region 檢查點建立
+    /**
+     * 補建尚未建立的月初檢查點
+     * 由最近一組檢查點（沒有時從第一筆異動的月份）逐月向後推進到本月月初，
+     * 月初時間需已超過等待時間，避免建立時仍有該時間之前的異動尚未提交
+     * @return 建立的檢查點組數
+     */
+    public synchronized int createMissingCheckpoints() {
+        LocalDateTime latest = checkpointRepository.findLatestCheckpointAt().orElse(null);
+        LocalDateTime next;
+        if (latest != null) {
+            next = latest.plusMonths(1);
+        } else {
+            Timestamp firstMovementAt = jdbcTemplate.queryForObject(
+                    "SELECT MIN(created_at) FROM stock_movements", Timestamp.class);
+            if (firstMovementAt == null) {
+                return 0;
+            }
+            next = firstMovementAt.toLocalDateTime().truncatedTo(ChronoUnit.DAYS).withDayOfMonth(1).plusMonths(1);
+        }
+
+        LocalDateTime settledBefore = LocalDateTime.now().minus(properties.getCheckpointSettleDelay());
+        int created = 0;
+        while (!next.isAfter(settledBefore)) {
+            createCheckpoint(latest, next);
+            latest = next;
+            next = next.plusMonths(1);
+            created++;
+        }
+        return created;
+    }
+
+    /**
+     * 由上一組檢查點重播到下一個月初，批次寫入新的檢查點
+     */
+    private void createCheckpoint(LocalDateTime previous, LocalDateTime checkpointAt) {
+        Map<Long, ReplayState> states = replay(previous, checkpointAt, false);
+        Timestamp at = Timestamp.valueOf(checkpointAt);
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+
+        List<Object[]> rows = new ArrayList<>(states.size());
+        states.forEach((productId, state) -> rows.add(new Object[]{
+                productId, at, state.qty, state.avgCost.toBigDecimal(), state.totalCost().toBigDecimal(), now}));
+        jdbcTemplate.batchUpdate(INSERT_CHECKPOINT_SQL, rows);
+        log.info("庫存檢查點 {} 已建立，商品數: {}", checkpointAt, rows.size());
+    }
+    //endregion
+
+    //region 私有方法
+    /**
+     * 由指定檢查點出發重播異動
+     * @param checkpointAt 起點檢查點時間（null 表示從頭重播）
+     * @param until 重播終點
+     * @param inclusive 是否包含終點時間的異動
+     * @return 各商品重播後的狀態
+     */
+    private Map<Long, ReplayState> replay(LocalDateTime checkpointAt, LocalDateTime until, boolean inclusive) {
+        Map<Long, ReplayState> states = new TreeMap<>();
+        if (checkpointAt != null) {
+            for (StockCheckpoint checkpoint : checkpointRepository.findByCheckpointAt(checkpointAt)) {
+                states.put(checkpoint.getProductId(), new ReplayState(checkpoint.getQty(), checkpoint.getAvgCost()));
+            }
+        }
+        LocalDateTime from = checkpointAt != null ? checkpointAt : REPLAY_START;
+        jdbcTemplate.query(inclusive ? REPLAY_ALL_UNTIL_SQL : REPLAY_ALL_BEFORE_SQL, rs -> {
+            states.computeIfAbsent(rs.getLong("product_id"), id -> new ReplayState(0, Money.ZERO))
+                    .apply(readType(rs), rs.getInt("qty"), Money.ofNullable(rs.getBigDecimal("unit_cost")));
+        }, Timestamp.valueOf(from), Timestamp.valueOf(until));
+        return states;
+    }
+
+    private static MovementType readType(ResultSet rs) throws SQLException {
+        return CodedEnum.fromCode(MovementType.class, rs.getInt("movement_type"));
+    }
+
+    private static void validateAsOf(LocalDateTime asOf) {
+        if (asOf == null) {
+            throw new IllegalArgumentException("查詢時點不能為空");
+        }
+    }
+
+    /**
+     * 查詢時點早於保留的異動明細起點時拒絕，該時點之前的明細已壓縮，重播結果不正確
+     */
+    private void validateRetained(LocalDateTime asOf) {
+        LocalDateTime floor = partitionService.findRetainedFloor();
+        if (floor != null && asOf.isBefore(floor)) {
+            throw new IllegalArgumentException("查詢時點早於保留的異動明細起點: " + floor.toLocalDate());
+        }
+    }
+
+    private static StockSnapshotResponse toResponse(Long productId, LocalDateTime asOf, ReplayState state,
+                                                    LocalDateTime checkpointAt) {
+        return StockSnapshotResponse.builder()
+                .productId(productId)
+                .asOf(asOf)
+                .qty(state.qty)
+                .avgCost(state.avgCost.toBigDecimal())
+                .totalCost(state.totalCost().toBigDecimal())
+                .checkpointAt(checkpointAt)
+                .replayedMovements(state.replayed)
+                .build();
+    }
+    //endregion
+
+    /**
+     * 單一商品的重播狀態
+     */
+    private static final class ReplayState {
+        private int qty;
+        private Money avgCost;
+        private int replayed;
+
+        private ReplayState(int qty, Money avgCost) {
+            this.qty = qty;
+            this.avgCost = avgCost != null ? avgCost : Money.ZERO;
+        }
+
+        /**
+         * 套用一筆異動，規則與 StockTransactionServiceImpl 相同
+         */
+        private void apply(MovementType type, int quantity, Money unitCost) {
+            if (type == MovementType.IN) {
+                Money cost = unitCost != null ? unitCost : Money.ZERO;
+                avgCost = qty == 0 ? cost : Money.weightedAverage(avgCost, qty, cost, quantity);
+                qty = Math.addExact(qty, quantity);
+            } else {
+                qty = Math.subtractExact(qty, quantity);
+            }
+            replayed++;
+        }
+
+        private Money totalCost() {
+            return avgCost.times(qty);
+        }
+    }
+}
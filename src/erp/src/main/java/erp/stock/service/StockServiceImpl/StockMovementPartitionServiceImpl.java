@@ -0,0 +1,179 @@
+package erp.stock.service.StockServiceImpl;
+
+import erp.stock.config.StockLedgerProperties;
+import erp.stock.repository.StockCheckpointRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.List;
+import java.util.StringJoiner;
+
+/**
+ * 庫存異動分區維護實作
+ * stock_movements 依 created_at 按月分區，查詢帶時間條件時由 MySQL 只掃描相關分區；
+ * 此處負責預先從 pmax 切出未來月份，並在啟用壓縮時將超過保留期的月份彙總到
+ * stock_movement_monthly_summaries 後刪除該分區；只壓縮已被庫存檢查點涵蓋的月份，
+ * 歷史時點查詢不需重播已刪除的明細。帶訂單ID的異動在刪除前另存到 stock_order_movements，
+ * 取消較早出貨的訂單時仍可回補庫存
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class StockMovementPartitionServiceImpl {
+
+    private static final String MAX_PARTITION = "pmax";
+    private static final DateTimeFormatter PARTITION_NAME_FORMAT = DateTimeFormatter.ofPattern("'p'yyyyMM");
+
+    private static final String SELECT_PARTITIONS_SQL = "SELECT PARTITION_NAME, PARTITION_DESCRIPTION " +
+            "FROM information_schema.PARTITIONS " +
+            "WHERE TABLE_SCHEMA = DATABASE() AND TABLE_NAME = 'stock_movements' AND PARTITION_NAME IS NOT NULL " +
+            "ORDER BY PARTITION_ORDINAL_POSITION";
+
+    /**
+     * 以唯一鍵 (summary_month, product_id, movement_type) 覆寫，重複執行結果相同
+     */
+    private static final String COMPACT_PARTITION_SQL = "INSERT INTO stock_movement_monthly_summaries " +
+            "(summary_month, product_id, movement_type, movement_count, total_qty, total_cost, created_at, updated_at) " +
+            "SELECT * FROM (" +
+            "SELECT DATE_FORMAT(created_at, '%%Y-%%m-01') AS summary_month, product_id, movement_type, " +
+            "COUNT(*) AS movement_count, SUM(qty) AS total_qty, COALESCE(SUM(total_cost), 0) AS total_cost, " +
+            "CURRENT_TIMESTAMP(3) AS created_at, CURRENT_TIMESTAMP(3) AS updated_at " +
+            "FROM stock_movements PARTITION (`%s`) " +
+            "GROUP BY summary_month, product_id, movement_type) AS s " +
+            "ON DUPLICATE KEY UPDATE movement_count = s.movement_count, total_qty = s.total_qty, " +
+            "total_cost = s.total_cost, updated_at = s.updated_at";
+
+    /**
+     * 以主鍵（原異動ID）去重，重複執行結果相同
+     */
+    private static final String ARCHIVE_ORDER_MOVEMENTS_SQL = "INSERT IGNORE INTO stock_order_movements " +
+            "(id, order_id, product_id, movement_type, qty, unit_cost, created_at) " +
+            "SELECT id, order_id, product_id, movement_type, qty, unit_cost, created_at " +
+            "FROM stock_movements PARTITION (`%s`) WHERE order_id IS NOT NULL";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final StockCheckpointRepository checkpointRepository;
+    private final StockLedgerProperties properties;
+
+    /**
+     * 預先建立未來月份的分區
+     * 從 pmax 切出缺少的月份，pmax 正常情況下沒有資料，重組成本很低
+     * @return 新增的分區數
+     */
+    public synchronized int ensureFuturePartitions() {
+        List<PartitionInfo> partitions = loadPartitions();
+        if (partitions.isEmpty()) {
+            log.warn("stock_movements 尚未分區，略過分區維護");
+            return 0;
+        }
+
+        LocalDate lastBound = partitions.stream()
+                .map(PartitionInfo::upperBound)
+                .filter(bound -> bound != null)
+                .max(LocalDate::compareTo)
+                .orElse(null);
+        LocalDate targetBound = LocalDate.now().withDayOfMonth(1).plusMonths(properties.getMonthsAhead() + 1L);
+        if (lastBound == null || !lastBound.isBefore(targetBound)) {
+            return 0;
+        }
+
+        StringJoiner definitions = new StringJoiner(", ");
+        int added = 0;
+        for (LocalDate month = lastBound; month.isBefore(targetBound); month = month.plusMonths(1)) {
+            definitions.add("PARTITION " + month.format(PARTITION_NAME_FORMAT) +
+                    " VALUES LESS THAN ('" + month.plusMonths(1) + "')");
+            added++;
+        }
+        definitions.add("PARTITION " + MAX_PARTITION + " VALUES LESS THAN (MAXVALUE)");
+
+        jdbcTemplate.execute("ALTER TABLE stock_movements REORGANIZE PARTITION " + MAX_PARTITION +
+                " INTO (" + definitions + ")");
+        log.info("stock_movements 新增 {} 個月份分區，至 {} 前", added, targetBound);
+        return added;
+    }
+
+    /**
+     * 壓縮超過保留期的已結束月份
+     * 逐個分區彙總為每商品每類型一筆、另存帶訂單ID的異動後刪除分區；彙總為覆寫、另存以主鍵去重，
+     * 刪除前中斷時重新執行結果相同
+     * 分區上界晚於最近檢查點的月份不壓縮
+     * @return 壓縮的分區數
+     */
+    public synchronized int compactClosedMonths() {
+        if (!properties.isCompactEnabled()) {
+            return 0;
+        }
+        LocalDate latestCheckpoint = checkpointRepository.findLatestCheckpointAt()
+                .map(LocalDateTime::toLocalDate)
+                .orElse(null);
+        if (latestCheckpoint == null) {
+            log.warn("尚未建立庫存檢查點，略過異動壓縮");
+            return 0;
+        }
+        LocalDate cutoff = LocalDate.now().withDayOfMonth(1).minusMonths(Math.max(1, properties.getRetainMonths()));
+        if (latestCheckpoint.isBefore(cutoff)) {
+            cutoff = latestCheckpoint;
+        }
+
+        int compacted = 0;
+        for (PartitionInfo partition : loadPartitions()) {
+            if (partition.upperBound() == null || partition.upperBound().isAfter(cutoff)) {
+                continue;
+            }
+            int summaries = jdbcTemplate.update(String.format(COMPACT_PARTITION_SQL, partition.name()));
+            jdbcTemplate.update(String.format(ARCHIVE_ORDER_MOVEMENTS_SQL, partition.name()));
+            jdbcTemplate.execute("ALTER TABLE stock_movements DROP PARTITION `" + partition.name() + "`");
+            log.info("stock_movements 分區 {} 已壓縮，寫入彙總 {} 筆", partition.name(), summaries);
+            compacted++;
+        }
+        return compacted;
+    }
+
+    /**
+     * 取得保留異動明細的起點
+     * 為最早一筆仍保留的異動之前最近的檢查點；未壓縮過時沒有此檢查點，回傳 null 表示明細完整，
+     * 早於此時點的庫存無法由明細重播
+     * @return 保留明細的起點，明細完整時為 null
+     */
+    public LocalDateTime findRetainedFloor() {
+        Timestamp firstMovementAt = jdbcTemplate.queryForObject(
+                "SELECT MIN(created_at) FROM stock_movements", Timestamp.class);
+        if (firstMovementAt == null) {
+            return checkpointRepository.findLatestCheckpointAt().orElse(null);
+        }
+        return checkpointRepository.findLatestCheckpointAt(firstMovementAt.toLocalDateTime()).orElse(null);
+    }
+
+    //region 私有方法
+    private List<PartitionInfo> loadPartitions() {
+        return jdbcTemplate.query(SELECT_PARTITIONS_SQL, (rs, rowNum) -> new PartitionInfo(
+                rs.getString("PARTITION_NAME"), parseUpperBound(rs.getString("PARTITION_DESCRIPTION"))));
+    }
+
+    /**
+     * 解析分區上界，MAXVALUE 回傳 null
+     * RANGE COLUMNS 的上界格式為 '2025-02-01 00:00:00' 或 '2025-02-01'
+     */
+    private static LocalDate parseUpperBound(String description) {
+        if (description == null || description.equalsIgnoreCase("MAXVALUE")) {
+            return null;
+        }
+        String value = description.replace("'", "").trim();
+        return value.length() > 10 ? LocalDateTime.parse(value.replace(' ', 'T')).toLocalDate() : LocalDate.parse(value);
+    }
+    //endregion
+
+    /**
+     * 分區資訊
+     * @param name 分區名稱
+     * @param upperBound 分區上界（不含），MAXVALUE 為 null
+     */
+    private record PartitionInfo(String name, LocalDate upperBound) {
+    }
+}
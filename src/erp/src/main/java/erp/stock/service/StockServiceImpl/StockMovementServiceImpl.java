@@ -1,29 +1,45 @@
 package erp.stock.service.StockServiceImpl;
 
+import erp.common.dto.BasePageResponse;
+import erp.common.pagination.CursorToken;
+import erp.common.pagination.KeysetPaginationExecutor;
+import erp.common.pagination.SlicePaginationExecutor;
+import erp.common.specification.SpecificationBuilder;
+import erp.stock.config.StockLedgerProperties;
 import erp.stock.dto.*;
 import erp.stock.entity.StockMovement;
 import erp.stock.enums.MovementType;
 import erp.stock.mapper.StockMovementMapper;
+import erp.stock.repository.StockMovementMonthlySummaryRepository;
 import erp.stock.repository.StockMovementRepository;
 import lombok.RequiredArgsConstructor;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
 import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Component;
 
+import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.util.Arrays;
 import java.util.List;
 
 /**
  * 庫存變動記錄服務實作
  * 專門處理庫存變動記錄的管理
+ * stock_movements 依 created_at 按月分區，依商品、庫存、類型的查詢一律帶上回溯時間，
+ * 由 MySQL 分區裁剪只掃描近期分區；已壓縮月份改由月彙總查詢
  */
 @Component
 @RequiredArgsConstructor
 public class StockMovementServiceImpl {
     
     private final StockMovementRepository stockMovementRepository;
+    private final StockMovementMonthlySummaryRepository monthlySummaryRepository;
     private final StockMovementMapper stockMovementMapper;
+    private final KeysetPaginationExecutor keysetPaginationExecutor;
+    private final SlicePaginationExecutor slicePaginationExecutor;
+    private final StockLedgerProperties ledgerProperties;
     
     /**
      * 取得庫存變動記錄（分頁搜尋）
@@ -34,6 +50,28 @@ public class StockMovementServiceImpl {
         return stockMovementMapper.toResponsePage(movements);
     }
     
+    /**
+     * 搜尋庫存變動記錄
+     * 帶入 cursor 時使用游標分頁，withTotal=false 時不計算總數（皆不執行 COUNT），否則使用頁碼分頁
+     */
+    public BasePageResponse<StockMovementResponse> searchStockMovements(StockMovementSearchRequest request) {
+        if (!request.isCursorMode() && !request.isSliceMode()) {
+            return BasePageResponse.of(getStockMovements(request, request.toPageable()));
+        }
+        Specification<StockMovement> spec = buildMovementSearchSpecification(request);
+        if (request.isSliceMode()) {
+            return slicePaginationExecutor
+                .findSlice(StockMovement.class, spec, request, Sort.unsorted(),
+                    Arrays.asList(request.getStockId(), request.getProductId(), request.getMovementType(),
+                        request.getStartTime(), request.getEndTime(), request.getMinQty(), request.getMaxQty()))
+                .map(stockMovementMapper::toResponse);
+        }
+        return keysetPaginationExecutor
+            .findPage(StockMovement.class, spec, request,
+                movement -> new CursorToken(movement.getCreatedAt(), movement.getId()))
+            .map(stockMovementMapper::toResponse);
+    }
+    
     /**
      * 建立庫存變動記錄
      */
@@ -44,20 +82,20 @@ public class StockMovementServiceImpl {
     }
     
     /**
-     * 根據商品ID取得變動記錄
+     * 根據商品ID取得回溯期間內的變動記錄
      */
     public List<StockMovementResponse> getMovementsByProductId(Long productId) {
         List<StockMovement> movements = stockMovementRepository
-            .findByProductIdOrderByCreatedAtDesc(productId);
+            .findByProductIdAndCreatedAtGreaterThanEqualOrderByCreatedAtDesc(productId, lookbackStart());
         return stockMovementMapper.toResponseList(movements);
     }
     
     /**
-     * 根據庫存ID取得變動記錄
+     * 根據庫存ID取得回溯期間內的變動記錄
      */
     public List<StockMovementResponse> getMovementsByStockId(Long stockId) {
         List<StockMovement> movements = stockMovementRepository
-            .findByStockIdOrderByCreatedAtDesc(stockId);
+            .findByStockIdAndCreatedAtGreaterThanEqualOrderByCreatedAtDesc(stockId, lookbackStart());
         return stockMovementMapper.toResponseList(movements);
     }
     
@@ -71,52 +109,42 @@ public class StockMovementServiceImpl {
     }
     
     /**
-     * 根據變動類型取得記錄
+     * 根據變動類型取得回溯期間內的記錄
      */
     public List<StockMovementResponse> getMovementsByType(MovementType movementType) {
         List<StockMovement> movements = stockMovementRepository
-            .findByMovementType(movementType);
+            .findByMovementTypeAndCreatedAtGreaterThanEqual(movementType, lookbackStart());
         return stockMovementMapper.toResponseList(movements);
     }
     
+    /**
+     * 根據商品ID取得月份範圍內的異動月彙總（已壓縮月份的明細只保留彙總）
+     */
+    public List<StockMovementMonthlySummaryResponse> getMonthlySummaries(Long productId, LocalDate fromMonth, LocalDate toMonth) {
+        return stockMovementMapper.toSummaryResponseList(monthlySummaryRepository
+            .findByProductIdAndSummaryMonthBetweenOrderBySummaryMonthDesc(
+                productId, fromMonth.withDayOfMonth(1), toMonth.withDayOfMonth(1)));
+    }
+    
     // === 私有方法 ===
     
+    /**
+     * 回溯查詢起點
+     */
+    private LocalDateTime lookbackStart() {
+        return LocalDateTime.now().minus(ledgerProperties.getQueryLookback());
+    }
+    
     /**
      * 建構變動記錄搜尋條件
      */
     private Specification<StockMovement> buildMovementSearchSpecification(StockMovementSearchRequest request) {
-        return (root, query, cb) -> {
-            var predicates = cb.conjunction();
-            
-            if (request.getStockId() != null) {
-                predicates = cb.and(predicates, cb.equal(root.get("stockId"), request.getStockId()));
-            }
-            
-            if (request.getProductId() != null) {
-                predicates = cb.and(predicates, cb.equal(root.get("productId"), request.getProductId()));
-            }
-            
-            if (request.getMovementType() != null) {
-                predicates = cb.and(predicates, cb.equal(root.get("movementType"), request.getMovementType()));
-            }
-            
-            if (request.getStartTime() != null) {
-                predicates = cb.and(predicates, cb.greaterThanOrEqualTo(root.get("createdAt"), request.getStartTime()));
-            }
-            
-            if (request.getEndTime() != null) {
-                predicates = cb.and(predicates, cb.lessThanOrEqualTo(root.get("createdAt"), request.getEndTime()));
-            }
-            
-            if (request.getMinQty() != null) {
-                predicates = cb.and(predicates, cb.greaterThanOrEqualTo(root.get("qty"), request.getMinQty()));
-            }
-            
-            if (request.getMaxQty() != null) {
-                predicates = cb.and(predicates, cb.lessThanOrEqualTo(root.get("qty"), request.getMaxQty()));
-            }
-            
-            return predicates;
-        };
+        return SpecificationBuilder.of(StockMovement.class)
+            .equal("stockId", request.getStockId())
+            .equal("productId", request.getProductId())
+            .equal("movementType", request.getMovementType())
+            .between("createdAt", request.getStartTime(), request.getEndTime())
+            .between("qty", request.getMinQty(), request.getMaxQty())
+            .build();
     }
-}
\ No newline at end of file
+}
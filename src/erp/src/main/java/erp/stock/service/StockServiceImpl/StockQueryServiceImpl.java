@@ -1,12 +1,18 @@
 package erp.stock.service.StockServiceImpl;
 
+import erp.common.dto.BasePageResponse;
+import erp.common.money.Money;
+import erp.common.pagination.SlicePaginationExecutor;
+import erp.common.specification.SpecificationBuilder;
 import erp.stock.dto.*;
 import erp.stock.entity.Stock;
 import erp.stock.mapper.StockMapper;
 import erp.stock.repository.StockRepository;
 import lombok.RequiredArgsConstructor;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
 import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Component;
 
@@ -23,6 +29,7 @@ public class StockQueryServiceImpl {
     
     private final StockRepository stockRepository;
     private final StockMapper stockMapper;
+    private final SlicePaginationExecutor slicePaginationExecutor;
 
     /**
      * 根據庫存ID取得庫存資訊
@@ -50,6 +57,18 @@ public class StockQueryServiceImpl {
         return stockMapper.toResponsePage(stocks);
     }
     
+    /**
+     * 查詢所有庫存（不計算總數）
+     * 不執行 COUNT，只回傳是否還有下一頁
+     */
+    public BasePageResponse<StockResponse> queryStocksBySlice(StockQueryRequest request) {
+        Sort sort = Sort.by(Sort.Direction.fromString(request.getDirection()), request.getSort());
+        Pageable pageable = PageRequest.of(request.getPage(), request.getSize(), sort);
+        return slicePaginationExecutor
+            .findSlice(Stock.class, null, pageable, sort, request.isCachedTotalRequested(), "all")
+            .map(stockMapper::toResponse);
+    }
+    
     /**
      * 搜尋庫存（分頁）
      */
@@ -86,7 +105,7 @@ public class StockQueryServiceImpl {
      * 根據庫存價值範圍取得庫存
      */
     public List<StockResponse> getStocksByValueRange(BigDecimal minValue, BigDecimal maxValue) {
-        List<Stock> stocks = stockRepository.findByTotalCostBetween(minValue, maxValue);
+        List<Stock> stocks = stockRepository.findByTotalCostBetween(Money.ofNullable(minValue), Money.ofNullable(maxValue));
         return stockMapper.toResponseList(stocks);
     }
     
@@ -96,30 +115,10 @@ public class StockQueryServiceImpl {
      * 建構搜尋條件
      */
     private Specification<Stock> buildSearchSpecification(StockSearchRequest request) {
-        return (root, query, cb) -> {
-            var predicates = cb.conjunction();
-            
-            if (request.getProductId() != null) {
-                predicates = cb.and(predicates, cb.equal(root.get("productId"), request.getProductId()));
-            }
-            
-            if (request.getMinQty() != null) {
-                predicates = cb.and(predicates, cb.greaterThanOrEqualTo(root.get("qty"), request.getMinQty()));
-            }
-            
-            if (request.getMaxQty() != null) {
-                predicates = cb.and(predicates, cb.lessThanOrEqualTo(root.get("qty"), request.getMaxQty()));
-            }
-            
-            if (request.getMinAvgCost() != null) {
-                predicates = cb.and(predicates, cb.greaterThanOrEqualTo(root.get("avgCost"), request.getMinAvgCost()));
-            }
-            
-            if (request.getMaxAvgCost() != null) {
-                predicates = cb.and(predicates, cb.lessThanOrEqualTo(root.get("avgCost"), request.getMaxAvgCost()));
-            }
-            
-            return predicates;
-        };
+        return SpecificationBuilder.of(Stock.class)
+            .equal("productId", request.getProductId())
+            .between("qty", request.getMinQty(), request.getMaxQty())
+            .between("avgCost", Money.ofNullable(request.getMinAvgCost()), Money.ofNullable(request.getMaxAvgCost()))
+            .build();
     }
-}
\ No newline at end of file
+}
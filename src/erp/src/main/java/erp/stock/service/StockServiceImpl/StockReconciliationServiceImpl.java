@@ -0,0 +1,342 @@
+package erp.stock.service.StockServiceImpl;
+
+import erp.common.money.Money;
+import erp.stock.config.StockReconciliationProperties;
+import erp.stock.dto.StockDriftLine;
+import erp.stock.dto.StockReconciliationProgressResponse;
+import erp.stock.dto.StockReconciliationResponse;
+import erp.stock.entity.Stock;
+import erp.stock.enums.MovementType;
+import erp.stock.repository.StockCheckpointRepository;
+import erp.stock.repository.StockRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 庫存對帳實作
+ * 依商品ID將庫存列切成區塊，以虛擬執行緒並行處理，同時進行的區塊數受並行數限制；
+ * 每個區塊在唯讀的一致性快照內讀取庫存列、最近檢查點與一次分組彙總的異動，不加鎖，
+ * 異動帳數量 = 檢查點數量 + 其後入庫 - 出庫，應有價值 = 平均成本 × 異動帳數量；
+ * 自動修正以版本號為條件逐筆更新，快照之後已被調整的庫存列不修正，修正後數量低於已預留數量時也不修正；
+ * 修正在各自的交易內讀回庫存列，更新低庫存索引並於提交後寫入可用量快取
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class StockReconciliationServiceImpl {
+
+    /**
+     * 尚無檢查點時的異動起點
+     */
+    private static final LocalDateTime LEDGER_START = LocalDateTime.of(1970, 1, 1, 0, 0);
+
+    private static final String PRODUCT_IDS_SQL =
+            "SELECT product_id FROM stock WHERE product_id IS NOT NULL ORDER BY product_id";
+
+    private static final String CHUNK_STOCKS_SQL = "SELECT product_id, qty, reserved_qty, avg_cost, total_cost, version " +
+            "FROM stock WHERE product_id BETWEEN ? AND ? ORDER BY product_id";
+
+    private static final String CHUNK_CHECKPOINTS_SQL = "SELECT product_id, qty FROM stock_checkpoints " +
+            "WHERE checkpoint_at = ? AND product_id BETWEEN ? AND ?";
+
+    private static final String CHUNK_MOVEMENTS_SQL = "SELECT product_id, " +
+            "SUM(CASE WHEN movement_type = ? THEN qty ELSE -qty END) AS net_qty " +
+            "FROM stock_movements WHERE product_id BETWEEN ? AND ? AND created_at >= ? " +
+            "GROUP BY product_id";
+
+    /**
+     * MySQL 依序套用 SET，total_cost 以修正後的 qty 計算；修正後數量不可低於已預留數量
+     */
+    private static final String CORRECT_SQL = "UPDATE stock SET qty = ?, total_cost = avg_cost * qty, " +
+            "version = version + 1, updated_at = CURRENT_TIMESTAMP(3) " +
+            "WHERE product_id = ? AND version = ? AND reserved_qty <= ?";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final StockRepository stockRepository;
+    private final StockThresholdIndexImpl thresholdIndex;
+    private final StockAvailabilityCacheImpl availabilityCache;
+    private final StockCheckpointRepository checkpointRepository;
+    private final StockReconciliationProperties properties;
+    private final MeterRegistry meterRegistry;
+
+    private final AtomicBoolean running = new AtomicBoolean();
+    private final AtomicInteger totalChunks = new AtomicInteger();
+    private final AtomicInteger completedChunks = new AtomicInteger();
+    private final AtomicLong checkedProducts = new AtomicLong();
+    private final AtomicLong driftCount = new AtomicLong();
+    private final AtomicLong correctedCount = new AtomicLong();
+    private volatile LocalDateTime startedAt;
+    private volatile LocalDateTime lastFinishedAt;
+
+    @PostConstruct
+    void registerMetrics() {
+        meterRegistry.gauge("erp.stock.reconciliation.chunks.total", totalChunks);
+        meterRegistry.gauge("erp.stock.reconciliation.chunks.completed", completedChunks);
+        meterRegistry.gauge("erp.stock.reconciliation.products.checked", checkedProducts);
+        meterRegistry.gauge("erp.stock.reconciliation.drift", driftCount);
+        meterRegistry.gauge("erp.stock.reconciliation.corrected", correctedCount);
+    }
+
+    //region 對帳
+    /**
+     * 比對全部庫存列與異動帳，產生差異報表
+     * 同一時間只允許一次對帳
+     * @param autoCorrect 是否將庫存列修正為異動帳的數量
+     * @return 差異報表
+     */
+    public StockReconciliationResponse reconcile(boolean autoCorrect) {
+        if (!running.compareAndSet(false, true)) {
+            throw new RuntimeException("庫存對帳執行中，請稍後再試");
+        }
+        try {
+            return run(autoCorrect);
+        } finally {
+            lastFinishedAt = LocalDateTime.now();
+            running.set(false);
+        }
+    }
+
+    /**
+     * 取得目前（或最近一次）對帳的進度
+     */
+    public StockReconciliationProgressResponse getProgress() {
+        return StockReconciliationProgressResponse.builder()
+                .running(running.get())
+                .startedAt(startedAt)
+                .lastFinishedAt(lastFinishedAt)
+                .totalChunks(totalChunks.get())
+                .completedChunks(completedChunks.get())
+                .checkedProducts(checkedProducts.get())
+                .driftCount(driftCount.get())
+                .correctedCount(correctedCount.get())
+                .build();
+    }
+
+    /**
+     * 並行處理各區塊，依商品ID順序彙整差異
+     * 同時進行中的區塊數限制在並行數，已完成但尚未彙整的結果不會無限累積
+     */
+    private StockReconciliationResponse run(boolean autoCorrect) {
+        LocalDateTime start = LocalDateTime.now();
+        startedAt = start;
+        completedChunks.set(0);
+        checkedProducts.set(0);
+        driftCount.set(0);
+        correctedCount.set(0);
+
+        LocalDateTime checkpointAt = checkpointRepository.findLatestCheckpointAt().orElse(null);
+        List<long[]> chunks = splitChunks(Math.max(1, properties.getChunkSize()));
+        totalChunks.set(chunks.size());
+        int parallelism = Math.max(1, properties.getParallelism());
+        log.info("庫存對帳開始，區塊數: {}，並行數: {}，檢查點: {}，自動修正: {}",
+                chunks.size(), parallelism, checkpointAt, autoCorrect);
+
+        TransactionTemplate snapshot = new TransactionTemplate(transactionTemplate.getTransactionManager());
+        snapshot.setReadOnly(true);
+        snapshot.setIsolationLevel(TransactionDefinition.ISOLATION_REPEATABLE_READ);
+
+        int maxReported = Math.max(0, properties.getMaxReportedDrifts());
+        List<StockDriftLine> drifts = new ArrayList<>();
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            Deque<Future<List<StockDriftLine>>> pending = new ArrayDeque<>();
+            for (long[] chunk : chunks) {
+                pending.add(executor.submit(() -> reconcileChunk(chunk, checkpointAt, autoCorrect, snapshot)));
+                if (pending.size() >= parallelism) {
+                    collect(await(pending.poll()), drifts, maxReported);
+                }
+            }
+            while (!pending.isEmpty()) {
+                collect(await(pending.poll()), drifts, maxReported);
+            }
+        }
+
+        LocalDateTime finishedAt = LocalDateTime.now();
+        log.info("庫存對帳完成，商品數: {}，差異: {}，已修正: {}",
+                checkedProducts.get(), driftCount.get(), correctedCount.get());
+        return StockReconciliationResponse.builder()
+                .startedAt(start)
+                .finishedAt(finishedAt)
+                .checkpointAt(checkpointAt)
+                .autoCorrect(autoCorrect)
+                .chunkCount(chunks.size())
+                .checkedProducts(checkedProducts.get())
+                .driftCount(driftCount.get())
+                .correctedCount(correctedCount.get())
+                .drifts(drifts)
+                .build();
+    }
+
+    /**
+     * 對帳單一區塊
+     * 庫存列、檢查點與異動彙總在同一個一致性快照內讀取，快照期間提交的調整不會造成假差異
+     */
+    private List<StockDriftLine> reconcileChunk(long[] chunk, LocalDateTime checkpointAt, boolean autoCorrect,
+                                                TransactionTemplate snapshot) {
+        ChunkSnapshot data = snapshot.execute(status -> readSnapshot(chunk, checkpointAt));
+
+        List<StockDriftLine> drifts = new ArrayList<>();
+        for (StockRow row : data.rows) {
+            long ledgerQty = data.ledgerQtys.getOrDefault(row.productId, 0L);
+            Money expectedTotalCost = row.avgCost.times(ledgerQty);
+            if (row.qty == ledgerQty && row.totalCost.equals(expectedTotalCost)) {
+                continue;
+            }
+            String uncorrectedReason = autoCorrect ? correct(row, ledgerQty) : null;
+            boolean corrected = autoCorrect && uncorrectedReason == null;
+            if (corrected) {
+                correctedCount.incrementAndGet();
+            }
+            driftCount.incrementAndGet();
+            drifts.add(StockDriftLine.builder()
+                    .productId(row.productId)
+                    .stockQty(row.qty)
+                    .ledgerQty(ledgerQty)
+                    .reservedQty(row.reservedQty)
+                    .qtyDrift(row.qty - ledgerQty)
+                    .totalCost(row.totalCost.toBigDecimal())
+                    .expectedTotalCost(expectedTotalCost.toBigDecimal())
+                    .corrected(corrected)
+                    .uncorrectedReason(uncorrectedReason)
+                    .build());
+        }
+        checkedProducts.addAndGet(data.rows.size());
+        int completed = completedChunks.incrementAndGet();
+        if (completed % 100 == 0) {
+            log.info("庫存對帳進度: {}/{} 區塊", completed, totalChunks.get());
+        }
+        return drifts;
+    }
+    //endregion
+
+    //region 私有方法
+    /**
+     * 依商品ID順序切分區塊，每個區塊以首尾商品ID表示
+     */
+    private List<long[]> splitChunks(int chunkSize) {
+        List<long[]> chunks = new ArrayList<>();
+        long[] current = new long[2];
+        int[] count = {0};
+        jdbcTemplate.query(PRODUCT_IDS_SQL, rs -> {
+            long productId = rs.getLong("product_id");
+            if (count[0] == 0) {
+                current[0] = productId;
+            }
+            current[1] = productId;
+            if (++count[0] == chunkSize) {
+                chunks.add(current.clone());
+                count[0] = 0;
+            }
+        });
+        if (count[0] > 0) {
+            chunks.add(current.clone());
+        }
+        return chunks;
+    }
+
+    private ChunkSnapshot readSnapshot(long[] chunk, LocalDateTime checkpointAt) {
+        List<StockRow> rows = jdbcTemplate.query(CHUNK_STOCKS_SQL, (rs, rowNum) -> new StockRow(
+                rs.getLong("product_id"),
+                rs.getInt("qty"),
+                rs.getInt("reserved_qty"),
+                moneyOrZero(rs.getBigDecimal("avg_cost")),
+                moneyOrZero(rs.getBigDecimal("total_cost")),
+                rs.getLong("version")), chunk[0], chunk[1]);
+
+        Map<Long, Long> ledgerQtys = new HashMap<>();
+        if (checkpointAt != null) {
+            jdbcTemplate.query(CHUNK_CHECKPOINTS_SQL, rs -> {
+                ledgerQtys.put(rs.getLong("product_id"), rs.getLong("qty"));
+            }, Timestamp.valueOf(checkpointAt), chunk[0], chunk[1]);
+        }
+        jdbcTemplate.query(CHUNK_MOVEMENTS_SQL, rs -> {
+            ledgerQtys.merge(rs.getLong("product_id"), rs.getLong("net_qty"), Long::sum);
+        }, MovementType.IN.getCode(), chunk[0], chunk[1],
+                Timestamp.valueOf(checkpointAt != null ? checkpointAt : LEDGER_START));
+        return new ChunkSnapshot(rows, ledgerQtys);
+    }
+
+    /**
+     * 以快照時的版本號為條件修正庫存列，只列入報表而不修正的情況：
+     * 異動帳數量為負數或超出範圍、低於已預留數量（修正後可用量會是負數）、快照之後已被調整
+     * 修正與讀回在同一交易內，低庫存索引隨交易更新，可用量快取於提交後寫入
+     * @return 未修正的原因，已修正時為 null
+     */
+    private String correct(StockRow row, long ledgerQty) {
+        if (ledgerQty < 0 || ledgerQty > Integer.MAX_VALUE) {
+            return "異動帳數量超出範圍";
+        }
+        if (ledgerQty < row.reservedQty) {
+            log.warn("庫存對帳未修正商品 {}：異動帳數量 {} 低於已預留數量 {}", row.productId, ledgerQty, row.reservedQty);
+            return "異動帳數量低於已預留數量";
+        }
+        return transactionTemplate.execute(status -> {
+            if (jdbcTemplate.update(CORRECT_SQL, ledgerQty, row.productId, row.version, ledgerQty) == 0) {
+                return "庫存列已於對帳後調整";
+            }
+            Stock stock = stockRepository.findByProductId(row.productId)
+                    .orElseThrow(() -> new RuntimeException("庫存記錄不存在: " + row.productId));
+            thresholdIndex.record(stock);
+            availabilityCache.record(stock);
+            log.warn("庫存對帳修正商品 {}：數量 {} -> {}", row.productId, row.qty, ledgerQty);
+            return null;
+        });
+    }
+
+    private static Money moneyOrZero(BigDecimal amount) {
+        return amount != null ? Money.of(amount) : Money.ZERO;
+    }
+
+    private static void collect(List<StockDriftLine> chunkDrifts, List<StockDriftLine> drifts, int maxReported) {
+        for (StockDriftLine drift : chunkDrifts) {
+            if (drifts.size() >= maxReported) {
+                return;
+            }
+            drifts.add(drift);
+        }
+    }
+
+    private static List<StockDriftLine> await(Future<List<StockDriftLine>> future) {
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("庫存對帳中斷", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw new RuntimeException("庫存對帳失敗", e.getCause());
+        }
+    }
+
+    private record StockRow(long productId, int qty, int reservedQty, Money avgCost, Money totalCost, long version) {
+    }
+
+    private record ChunkSnapshot(List<StockRow> rows, Map<Long, Long> ledgerQtys) {
+    }
+    //endregion
+}
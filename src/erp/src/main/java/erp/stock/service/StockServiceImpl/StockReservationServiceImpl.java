@@ -0,0 +1,217 @@
+package erp.stock.service.StockServiceImpl;
+
+import erp.common.constant.ErrorCode;
+import erp.common.exception.BusinessException;
+import erp.stock.config.StockReservationProperties;
+import erp.stock.dto.StockReservationLine;
+import erp.stock.entity.StockReservation;
+import erp.stock.repository.StockRepository;
+import erp.stock.repository.StockReservationRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * 庫存預留實作
+ * 已下單、已付款訂單的每筆明細各有一筆預留，預留數量同時累加在 stock.reserved_qty，
+ * 可用量 = 庫存數量 - 已預留數量，每次異動只以差額更新，不需彙總預留表；
+ * 預留以條件 UPDATE 在可用量足夠時才成立，兩張訂單不會同時承諾最後一件庫存；
+ * 已下單訂單的預留設有到期時間，由排程依到期時間索引分批釋放
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class StockReservationServiceImpl {
+
+    private final StockRepository stockRepository;
+    private final StockReservationRepository reservationRepository;
+    private final StockAvailabilityCacheImpl availabilityCache;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final StockReservationProperties properties;
+
+    //region 訂單預留
+    /**
+     * 依訂單目前的明細調整預留
+     * 與既有預留比對後只套用差額：新增或增加的數量在可用量足夠時預留，不足時拋出例外，
+     * 減少或移除的數量釋放；必須在寫入訂單的交易內呼叫，預留與訂單一起提交或回滾
+     * @param orderId 訂單ID
+     * @param lines 應預留的明細
+     * @param expiring 是否設定到期時間（已下單為是，已付款為否，已付款時既有預留也不再到期）
+     */
+    @Transactional
+    public void syncOrder(Long orderId, List<StockReservationLine> lines, boolean expiring) {
+        List<Long> reservationIds = reservationRepository.findIdsByOrderId(orderId);
+        if (reservationIds.isEmpty() && lines.isEmpty()) {
+            return;
+        }
+        Map<Long, StockReservation> existing = new HashMap<>();
+        if (!reservationIds.isEmpty()) {
+            for (StockReservation reservation : reservationRepository.findForUpdateByIdIn(reservationIds)) {
+                existing.put(reservation.getOrderItemId(), reservation);
+            }
+        }
+
+        LocalDateTime expiresAt = expiring ? LocalDateTime.now().plus(properties.getPendingTtl()) : null;
+        Map<Long, Integer> deltas = new TreeMap<>();
+        List<StockReservation> toSave = new ArrayList<>();
+        for (StockReservationLine line : lines) {
+            StockReservation reservation = existing.remove(line.orderItemId());
+            if (reservation == null) {
+                deltas.merge(line.productId(), line.qty(), Math::addExact);
+                toSave.add(StockReservation.builder()
+                        .orderId(orderId)
+                        .orderItemId(line.orderItemId())
+                        .productId(line.productId())
+                        .qty(line.qty())
+                        .expiresAt(expiresAt)
+                        .build());
+                continue;
+            }
+            boolean changed = false;
+            if (!reservation.getProductId().equals(line.productId()) || reservation.getQty() != line.qty()) {
+                deltas.merge(reservation.getProductId(), -reservation.getQty(), Math::addExact);
+                deltas.merge(line.productId(), line.qty(), Math::addExact);
+                reservation.setProductId(line.productId());
+                reservation.setQty(line.qty());
+                changed = true;
+            }
+            if (!expiring && reservation.getExpiresAt() != null) {
+                reservation.setExpiresAt(null);
+                changed = true;
+            }
+            if (changed) {
+                toSave.add(reservation);
+            }
+        }
+        Collection<StockReservation> removed = existing.values();
+        for (StockReservation reservation : removed) {
+            deltas.merge(reservation.getProductId(), -reservation.getQty(), Math::addExact);
+        }
+
+        applyDeltas(deltas);
+        reservationRepository.deleteAll(removed);
+        reservationRepository.saveAll(toSave);
+    }
+
+    /**
+     * 釋放訂單的全部預留（訂單取消、出貨或退回草稿時）
+     * @param orderId 訂單ID
+     */
+    @Transactional
+    public void releaseOrder(Long orderId) {
+        syncOrder(orderId, List.of(), false);
+    }
+
+    /**
+     * 釋放多筆訂單的全部預留（批次狀態轉換時）
+     * 一次鎖定全部預留，合併各商品的釋放數量後依商品ID順序套用
+     * @param orderIds 訂單ID
+     */
+    @Transactional
+    public void releaseOrders(Collection<Long> orderIds) {
+        if (orderIds.isEmpty()) {
+            return;
+        }
+        List<Long> reservationIds = reservationRepository.findIdsByOrderIdIn(orderIds);
+        if (reservationIds.isEmpty()) {
+            return;
+        }
+        List<StockReservation> reservations = reservationRepository.findForUpdateByIdIn(reservationIds);
+        Map<Long, Integer> deltas = new TreeMap<>();
+        for (StockReservation reservation : reservations) {
+            deltas.merge(reservation.getProductId(), -reservation.getQty(), Math::addExact);
+        }
+        applyDeltas(deltas);
+        reservationRepository.deleteAllInBatch(reservations);
+    }
+    //endregion
+
+    //region 到期清理
+    /**
+     * 釋放已到期的預留
+     * 每批在獨立交易內鎖定並刪除一批到期預留、扣減對應的已預留數量，每輪最多 maxBatchesPerCycle 批
+     * @return 本輪釋放的預留數
+     */
+    public int expireReservations() {
+        int batchSize = Math.max(1, properties.getBatchSize());
+        int expired = 0;
+        for (int batch = 0; batch < properties.getMaxBatchesPerCycle(); batch++) {
+            Integer count = transactionTemplate.execute(status -> expireBatch(batchSize));
+            expired += count != null ? count : 0;
+            if (count == null || count < batchSize) {
+                break;
+            }
+        }
+        if (expired > 0) {
+            log.info("已釋放到期庫存預留: {} 筆", expired);
+        }
+        return expired;
+    }
+
+    private int expireBatch(int batchSize) {
+        List<StockReservation> expired = reservationRepository.findExpiredForUpdate(LocalDateTime.now(), batchSize);
+        if (expired.isEmpty()) {
+            return 0;
+        }
+        Map<Long, Integer> deltas = new TreeMap<>();
+        for (StockReservation reservation : expired) {
+            deltas.merge(reservation.getProductId(), -reservation.getQty(), Math::addExact);
+        }
+        applyDeltas(deltas);
+        reservationRepository.deleteAllInBatch(expired);
+        return expired.size();
+    }
+    //endregion
+
+    //region 私有方法
+    /**
+     * 依商品ID順序套用已預留數量的差額，並在提交後更新可用量快取
+     */
+    private void applyDeltas(Map<Long, Integer> deltas) {
+        List<Long> touched = new ArrayList<>(deltas.size());
+        deltas.forEach((productId, delta) -> {
+            if (delta > 0) {
+                if (stockRepository.reserveIfAvailable(productId, delta) == 0) {
+                    int available = stockRepository.findByProductId(productId)
+                            .map(stock -> stock.getQty() - stock.getReservedQty())
+                            .orElse(0);
+                    throw new BusinessException("可用庫存不足，商品ID: " + productId
+                            + "，可用: " + available + "，需要預留: " + delta, ErrorCode.INSUFFICIENT_STOCK);
+                }
+                touched.add(productId);
+            } else if (delta < 0) {
+                stockRepository.releaseReserved(productId, -delta);
+                touched.add(productId);
+            }
+        });
+        recordAvailability(touched);
+    }
+
+    /**
+     * 讀回調整後的可用量與版本號寫入快取
+     */
+    private void recordAvailability(List<Long> productIds) {
+        if (productIds.isEmpty()) {
+            return;
+        }
+        String sql = "SELECT product_id, qty - reserved_qty AS available_qty, version FROM stock WHERE product_id IN ("
+                + String.join(",", Collections.nCopies(productIds.size(), "?")) + ")";
+        jdbcTemplate.query(sql, rs -> {
+            availabilityCache.record(rs.getLong("product_id"), rs.getInt("available_qty"), rs.getLong("version"));
+        }, productIds.toArray());
+    }
+    //endregion
+}
@@ -1,5 +1,6 @@
 package erp.stock.service.StockServiceImpl;
 
+import erp.common.dto.BasePageResponse;
 import erp.stock.dto.*;
 import erp.stock.enums.MovementType;
 import erp.stock.service.StockService;
@@ -8,7 +9,10 @@ import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 
+import java.io.IOException;
+import java.io.OutputStream;
 import java.math.BigDecimal;
+import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.util.List;
 
@@ -24,6 +28,11 @@ public class StockServiceMainImpl implements StockService {
     private final StockOperationServiceImpl operationService;
     private final StockMovementServiceImpl movementService;
     private final StockControllerServiceImpl controllerService;
+    private final StockAdjustmentCombinerImpl adjustmentCombiner;
+    private final StockHistoryServiceImpl historyService;
+    private final StockValuationServiceImpl valuationService;
+    private final StockReconciliationServiceImpl reconciliationService;
+    private final StockThresholdIndexImpl thresholdIndex;
     
     //region 查詢方法委派
     @Override
@@ -41,6 +50,11 @@ public class StockServiceMainImpl implements StockService {
         return queryService.getAllStocks(pageable);
     }
     
+    @Override
+    public BasePageResponse<StockResponse> queryStocksBySlice(StockQueryRequest request) {
+        return queryService.queryStocksBySlice(request);
+    }
+    
     @Override
     public Page<StockResponse> searchStocks(StockSearchRequest request, Pageable pageable) {
         return queryService.searchStocks(request, pageable);
@@ -88,6 +102,16 @@ public class StockServiceMainImpl implements StockService {
     public void deleteStock(Long id) {
         operationService.deleteStock(id);
     }
+    
+    @Override
+    public StockResponse updateStockThresholds(StockThresholdRequest request) {
+        return operationService.updateThresholds(request);
+    }
+    
+    @Override
+    public List<StockThresholdResponse> getBelowThresholdStocks() {
+        return thresholdIndex.getBelowThreshold();
+    }
     //endregion
     
     //region 庫存變動記錄方法委派
@@ -96,6 +120,11 @@ public class StockServiceMainImpl implements StockService {
         return movementService.getStockMovements(request, pageable);
     }
     
+    @Override
+    public BasePageResponse<StockMovementResponse> searchStockMovements(StockMovementSearchRequest request) {
+        return movementService.searchStockMovements(request);
+    }
+    
     @Override
     public StockMovementResponse createStockMovement(StockMovementCreateRequest request) {
         return movementService.createStockMovement(request);
@@ -120,16 +149,60 @@ public class StockServiceMainImpl implements StockService {
     public List<StockMovementResponse> getMovementsByType(MovementType movementType) {
         return movementService.getMovementsByType(movementType);
     }
+    
+    @Override
+    public List<StockMovementMonthlySummaryResponse> getMonthlySummaries(Long productId, LocalDate fromMonth, LocalDate toMonth) {
+        return movementService.getMonthlySummaries(productId, fromMonth, toMonth);
+    }
+    
+    @Override
+    public List<StockSnapshotResponse> getStocksAsOf(Long productId, LocalDateTime asOf) {
+        return productId != null
+                ? List.of(historyService.getStockAsOf(productId, asOf))
+                : historyService.getStocksAsOf(asOf);
+    }
+    
+    @Override
+    public StockValuationResponse getValuation(StockValuationRequest request) {
+        return valuationService.getValuation(request);
+    }
+    
+    @Override
+    public void exportValuation(StockValuationRequest request, OutputStream outputStream) throws IOException {
+        valuationService.exportValuation(request, outputStream);
+    }
+    
+    @Override
+    public StockReconciliationResponse reconcile(StockReconciliationRequest request) {
+        return reconciliationService.reconcile(request != null && Boolean.TRUE.equals(request.getAutoCorrect()));
+    }
+    
+    @Override
+    public StockReconciliationProgressResponse getReconciliationProgress() {
+        return reconciliationService.getProgress();
+    }
     //endregion
     
     //region 控制器專用業務邏輯方法委派
     @Override
     public StockMovementResponse processStockInbound(StockInboundRequest request) {
+        // 合併寫入需在交易外等待批次結果，因此在此分流
+        if (adjustmentCombiner.isEnabled()) {
+            return adjustmentCombiner.processStockInbound(request);
+        }
         return controllerService.processStockInbound(request);
     }
     
+    @Override
+    public StockBatchInboundResponse processStockInboundBatch(StockBatchInboundRequest request) {
+        return controllerService.processStockInboundBatch(request);
+    }
+    
     @Override
     public StockMovementResponse processStockOutbound(StockOutboundRequest request) {
+        if (adjustmentCombiner.isEnabled()) {
+            return adjustmentCombiner.processStockOutbound(request);
+        }
         return controllerService.processStockOutbound(request);
     }
     
@@ -137,5 +210,10 @@ public class StockServiceMainImpl implements StockService {
     public StockAvailabilityResponse checkStockAvailability(Long productId, Integer requiredQty) {
         return controllerService.checkStockAvailability(productId, requiredQty);
     }
+    
+    @Override
+    public StockOrderAvailabilityResponse checkOrderAvailability(StockOrderAvailabilityRequest request) {
+        return controllerService.checkOrderAvailability(request);
+    }
     //endregion
 }
\ No newline at end of file
@@ -0,0 +1,209 @@
+package erp.stock.service.StockServiceImpl;
+
+import erp.stock.dto.StockThresholdResponse;
+import erp.stock.entity.Stock;
+import erp.stock.enums.StockLevel;
+import erp.stock.event.StockLevelChangedEvent;
+import erp.stock.repository.StockRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 低庫存索引實作
+ * 在記憶體中保存有設定再訂購點或安全庫存的商品水位，另以集合保存低於門檻的商品，
+ * 查詢低庫存清單只需走訪該集合；每次庫存調整在持有庫存列鎖時更新索引，
+ * 水位變化時發布 StockLevelChangedEvent，交易回滾時還原索引且事件不會送出；
+ * 其他節點的調整由定期重新同步反映
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class StockThresholdIndexImpl {
+
+    private final StockRepository stockRepository;
+    private final ApplicationEventPublisher eventPublisher;
+
+    private final ConcurrentHashMap<Long, Entry> entries = new ConcurrentHashMap<>();
+    private final Set<Long> belowThreshold = ConcurrentHashMap.newKeySet();
+
+    //region 查詢
+    /**
+     * 取得低於門檻（需補貨或低於安全庫存）的商品，順序不固定
+     * @return 低庫存商品
+     */
+    public List<StockThresholdResponse> getBelowThreshold() {
+        List<StockThresholdResponse> responses = new ArrayList<>(belowThreshold.size());
+        for (Long productId : belowThreshold) {
+            Entry entry = entries.get(productId);
+            if (entry != null && entry.level != StockLevel.NORMAL) {
+                responses.add(new StockThresholdResponse(productId, entry.qty, entry.reorderPoint,
+                        entry.safetyStock, entry.level));
+            }
+        }
+        return responses;
+    }
+    //endregion
+
+    //region 更新
+    /**
+     * 依調整後的庫存列更新索引
+     * 呼叫端需持有該庫存列的鎖（條件 UPDATE 或 FOR UPDATE），同一商品的更新因此依提交順序進行
+     * @param stock 調整後的庫存
+     */
+    public void record(Stock stock) {
+        Entry previous = entries.get(stock.getProductId());
+        Entry current = update(stock.getProductId(), stock.getQty(), stock.getReorderPoint(), stock.getSafetyStock());
+        if (previous != current) {
+            registerRollback(stock.getProductId(), previous, current);
+        }
+    }
+
+    /**
+     * 移除商品（庫存記錄刪除時）
+     * @param productId 商品ID
+     */
+    public void remove(Long productId) {
+        Entry previous = entries.remove(productId);
+        belowThreshold.remove(productId);
+        if (previous != null) {
+            registerRollback(productId, previous, null);
+        }
+    }
+
+    /**
+     * 從資料庫重新載入全部有設定門檻的商品
+     * 啟動時與定期執行，補上其他節點的調整
+     * @return 追蹤中的商品數
+     */
+    public synchronized int resync() {
+        Set<Long> tracked = new HashSet<>();
+        for (Stock stock : stockRepository.findByReorderPointIsNotNullOrSafetyStockIsNotNull()) {
+            tracked.add(stock.getProductId());
+            update(stock.getProductId(), stock.getQty(), stock.getReorderPoint(), stock.getSafetyStock());
+        }
+        entries.keySet().removeIf(productId -> !tracked.contains(productId));
+        belowThreshold.removeIf(productId -> !tracked.contains(productId));
+        return tracked.size();
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        try {
+            log.info("低庫存索引載入完成，追蹤商品數: {}", resync());
+        } catch (RuntimeException e) {
+            // 載入失敗時由定期重新同步補上
+            log.error("低庫存索引載入失敗", e);
+        }
+    }
+    //endregion
+
+    //region 私有方法
+    /**
+     * 寫入商品水位，水位變化時發布事件；未設定任何門檻的商品不追蹤
+     * @return 寫入後的項目（不追蹤時為 null）
+     */
+    private Entry update(Long productId, Integer qty, Integer reorderPoint, Integer safetyStock) {
+        if (reorderPoint == null && safetyStock == null) {
+            entries.remove(productId);
+            belowThreshold.remove(productId);
+            return null;
+        }
+        int currentQty = qty != null ? qty : 0;
+        Entry current = new Entry(currentQty, reorderPoint, safetyStock,
+                StockLevel.of(currentQty, reorderPoint, safetyStock));
+        Entry previous = entries.put(productId, current);
+        applyMembership(productId, current);
+
+        StockLevel previousLevel = previous != null ? previous.level : StockLevel.NORMAL;
+        if (previousLevel != current.level) {
+            eventPublisher.publishEvent(new StockLevelChangedEvent(productId, previousLevel, current.level,
+                    currentQty, reorderPoint, safetyStock, LocalDateTime.now()));
+        }
+        return current;
+    }
+
+    private void applyMembership(Long productId, Entry entry) {
+        if (entry != null && entry.level != StockLevel.NORMAL) {
+            belowThreshold.add(productId);
+        } else {
+            belowThreshold.remove(productId);
+        }
+    }
+
+    /**
+     * 交易回滾時還原為交易開始前的項目
+     * 同一交易多次更新同一商品時只記錄最早的原值；回滾前已被其他交易覆寫的項目不還原
+     */
+    private void registerRollback(Long productId, Entry previous, Entry current) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            return;
+        }
+        RollbackRestore restore = (RollbackRestore) TransactionSynchronizationManager.getResource(this);
+        if (restore == null) {
+            restore = new RollbackRestore();
+            TransactionSynchronizationManager.bindResource(this, restore);
+            TransactionSynchronizationManager.registerSynchronization(restore);
+        }
+        restore.originals.putIfAbsent(productId, new Entry[]{previous});
+        restore.latest.put(productId, current);
+    }
+
+    /**
+     * 索引項目，以物件身分比對，回滾時只還原本交易寫入的項目
+     */
+    private static final class Entry {
+        private final int qty;
+        private final Integer reorderPoint;
+        private final Integer safetyStock;
+        private final StockLevel level;
+
+        private Entry(int qty, Integer reorderPoint, Integer safetyStock, StockLevel level) {
+            this.qty = qty;
+            this.reorderPoint = reorderPoint;
+            this.safetyStock = safetyStock;
+            this.level = level;
+        }
+    }
+
+    /**
+     * 單一交易內的索引變更，回滾時還原
+     */
+    private final class RollbackRestore implements TransactionSynchronization {
+        private final Map<Long, Entry[]> originals = new HashMap<>();
+        private final Map<Long, Entry> latest = new HashMap<>();
+
+        @Override
+        public void afterCompletion(int status) {
+            TransactionSynchronizationManager.unbindResourceIfPossible(StockThresholdIndexImpl.this);
+            if (status == STATUS_COMMITTED) {
+                return;
+            }
+            originals.forEach((productId, original) -> {
+                Entry installed = latest.get(productId);
+                Entry restored = original[0];
+                boolean reverted = installed != null
+                        ? (restored != null ? entries.replace(productId, installed, restored) : entries.remove(productId, installed))
+                        : restored != null && entries.putIfAbsent(productId, restored) == null;
+                if (reverted) {
+                    applyMembership(productId, entries.get(productId));
+                }
+            });
+        }
+    }
+    //endregion
+}
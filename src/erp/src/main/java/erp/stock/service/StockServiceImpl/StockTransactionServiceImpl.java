@@ -0,0 +1,403 @@
+package erp.stock.service.StockServiceImpl;
+
+import erp.common.constant.ErrorCode;
+import erp.common.enums.CodedEnum;
+import erp.common.exception.BusinessException;
+import erp.common.money.Money;
+import erp.stock.dto.StockBatchInboundLineResult;
+import erp.stock.dto.StockBatchInboundRequest;
+import erp.stock.dto.StockBatchInboundResponse;
+import erp.stock.dto.StockInboundRequest;
+import erp.stock.dto.StockMovementResponse;
+import erp.stock.dto.StockOutboundRequest;
+import erp.stock.entity.Stock;
+import erp.stock.entity.StockMovement;
+import erp.stock.enums.MovementType;
+import erp.stock.mapper.StockMovementMapper;
+import erp.stock.repository.StockMovementRepository;
+import erp.stock.repository.StockRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+
+/**
+ * 庫存異動交易實作
+ * 入庫、出庫的單一路徑：驗證、條件 UPDATE 庫存列、讀回一次、新增一筆異動記錄，
+ * 所有呼叫端（控制器、庫存調整）都經由此處，不再各自重複查詢或寫入異動；
+ * 整批到貨、訂單出貨與取消回補則鎖定全部相關庫存列後在記憶體中套用，一次 flush 寫回
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+@Transactional
+public class StockTransactionServiceImpl {
+
+    /**
+     * 訂單的庫存異動，包含分區壓縮前另存到 stock_order_movements 的記錄；
+     * 另存後刪除分區前中斷時同一筆會出現在兩邊，以 UNION 依原異動ID去重
+     */
+    private static final String ORDER_MOVEMENTS_SQL = "SELECT id, order_id, product_id, movement_type, qty, unit_cost " +
+            "FROM stock_movements WHERE order_id IN (%s) " +
+            "UNION SELECT id, order_id, product_id, movement_type, qty, unit_cost " +
+            "FROM stock_order_movements WHERE order_id IN (%s)";
+
+    private final StockRepository stockRepository;
+    private final StockMovementRepository stockMovementRepository;
+    private final StockValidationServiceImpl validationService;
+    private final StockThresholdIndexImpl thresholdIndex;
+    private final StockAvailabilityCacheImpl availabilityCache;
+    private final StockReservationServiceImpl reservationService;
+    private final JdbcTemplate jdbcTemplate;
+    private final StockMovementMapper stockMovementMapper;
+
+    /**
+     * 入庫並回傳建立的異動記錄
+     */
+    public StockMovementResponse processInbound(StockInboundRequest request) {
+        validationService.validateInboundRequest(request);
+        return stockMovementMapper.toResponse(
+                adjust(request.getProductId(), request.getQty(), request.getUnitCost(), MovementType.IN).movement());
+    }
+
+    /**
+     * 出庫並回傳建立的異動記錄，單位成本為庫存目前的平均成本
+     */
+    public StockMovementResponse processOutbound(StockOutboundRequest request) {
+        validationService.validateOutboundRequest(request);
+        return stockMovementMapper.toResponse(
+                adjust(request.getProductId(), request.getQty(), null, MovementType.OUT).movement());
+    }
+
+    /**
+     * 調整庫存並新增一筆異動記錄
+     * 以單一條件 UPDATE 調整庫存，由影響筆數判斷是否成功，避免先讀後寫造成的超賣
+     * @param productId 商品ID
+     * @param quantity 數量
+     * @param unitCost 單位成本（出庫未指定時以目前平均成本記錄）
+     * @param type 異動類型
+     * @return 調整後的庫存與建立的異動記錄
+     */
+    public StockAdjustment adjust(Long productId, Integer quantity, BigDecimal unitCost, MovementType type) {
+        // 參數驗證
+        validationService.validateStockAdjustment(productId, quantity, type);
+
+        Stock stock = type == MovementType.IN
+                ? applyInbound(productId, quantity, Money.of(unitCost))
+                : applyOutbound(productId, quantity);
+        thresholdIndex.record(stock);
+        availabilityCache.record(stock);
+
+        StockMovement movement = stockMovementRepository.save(StockMovement.builder()
+                .stockId(stock.getId())
+                .productId(productId)
+                .movementType(type)
+                .qty(quantity)
+                .unitCost(unitCost != null ? Money.of(unitCost) : stock.getAvgCost())
+                .build());
+        return new StockAdjustment(stock, movement);
+    }
+
+    /**
+     * 批次入庫（一次供應商到貨）
+     * 逐筆驗證明細，合法明細在同一交易內依商品ID順序鎖定庫存列、補建缺少的庫存列、
+     * 依明細順序重算加權平均成本，最後一次 flush 批次寫回庫存列與全部異動記錄
+     * @param request 批次入庫請求
+     * @return 各明細結果
+     */
+    public StockBatchInboundResponse processInboundBatch(StockBatchInboundRequest request) {
+        List<StockInboundRequest> items = request.getItems();
+        StockBatchInboundLineResult[] results = new StockBatchInboundLineResult[items.size()];
+        Money[] unitCosts = new Money[items.size()];
+        Set<Long> productIds = new TreeSet<>();
+
+        // 逐筆驗證，不合法的明細直接回報失敗
+        for (int i = 0; i < items.size(); i++) {
+            StockInboundRequest item = items.get(i);
+            try {
+                validationService.validateInboundRequest(item);
+                validationService.validateProductExists(item.getProductId());
+                unitCosts[i] = Money.of(item.getUnitCost());
+                productIds.add(item.getProductId());
+            } catch (IllegalArgumentException e) {
+                results[i] = new StockBatchInboundLineResult(i, item != null ? item.getProductId() : null,
+                        false, e.getMessage(), null);
+            }
+        }
+
+        // 依商品ID順序鎖定庫存列，缺少的庫存列補建後鎖定
+        Map<Long, Stock> stocks = lockStocks(productIds, true);
+
+        // 依明細順序套用到記憶體中的庫存列
+        List<StockMovement> movements = new ArrayList<>();
+        StockMovement[] lineMovements = new StockMovement[items.size()];
+        for (int i = 0; i < items.size(); i++) {
+            if (results[i] != null) {
+                continue;
+            }
+            StockInboundRequest item = items.get(i);
+            Stock stock = stocks.get(item.getProductId());
+            int qty = stock.getQty();
+            Money avgCost = qty == 0 ? unitCosts[i]
+                    : Money.weightedAverage(stock.getAvgCost(), qty, unitCosts[i], item.getQty());
+            int newQty = Math.addExact(qty, item.getQty());
+            stock.setQty(newQty);
+            stock.setAvgCost(avgCost);
+            stock.setTotalCost(avgCost.times(newQty));
+
+            lineMovements[i] = StockMovement.builder()
+                    .stockId(stock.getId())
+                    .productId(stock.getProductId())
+                    .movementType(MovementType.IN)
+                    .qty(item.getQty())
+                    .unitCost(unitCosts[i])
+                    .build();
+            movements.add(lineMovements[i]);
+        }
+
+        // 庫存列更新與異動新增在同一次 flush 以 JDBC 批次送出
+        writeBack(stocks.values(), movements);
+
+        int successCount = 0;
+        for (int i = 0; i < items.size(); i++) {
+            if (lineMovements[i] != null) {
+                results[i] = new StockBatchInboundLineResult(i, items.get(i).getProductId(), true, null,
+                        stockMovementMapper.toResponse(lineMovements[i]));
+                successCount++;
+            }
+        }
+        return new StockBatchInboundResponse(successCount, items.size() - successCount, Arrays.asList(results));
+    }
+
+    /**
+     * 訂單出貨扣庫存
+     * 任一商品可用量不足時整張訂單不扣減並拋出例外
+     * @param orderId 訂單ID
+     * @param quantities 各商品出貨數量
+     * @return 建立的異動記錄
+     */
+    public List<StockMovement> shipOrder(Long orderId, Map<Long, Integer> quantities) {
+        List<StockMovement> movements = new ArrayList<>();
+        Map<Long, String> rejected = shipOrders(Map.of(orderId, quantities), movements);
+        if (!rejected.isEmpty()) {
+            throw new BusinessException(rejected.get(orderId), ErrorCode.INSUFFICIENT_STOCK);
+        }
+        return movements;
+    }
+
+    /**
+     * 多筆訂單出貨扣庫存
+     * 先釋放訂單的預留，再在同一交易內依商品ID順序一次鎖定全部相關庫存列，
+     * 依訂單ID順序逐張檢查：任一商品可用量不足時該張訂單不扣減並回報原因，其餘訂單照常扣減；
+     * 異動記錄帶訂單ID，與庫存列一次 flush 寫回。未出貨訂單的預留由呼叫端重新建立
+     * @param orders 訂單ID → 各商品出貨數量
+     * @param movements 建立的異動記錄（輸出）
+     * @return 未出貨的訂單ID → 原因
+     */
+    public Map<Long, String> shipOrders(Map<Long, Map<Long, Integer>> orders, List<StockMovement> movements) {
+        Map<Long, String> rejected = new HashMap<>();
+        if (orders.isEmpty()) {
+            return rejected;
+        }
+        reservationService.releaseOrders(orders.keySet());
+        Set<Long> productIds = new TreeSet<>();
+        orders.values().forEach(quantities -> productIds.addAll(quantities.keySet()));
+        Map<Long, Stock> stocks = lockStocks(productIds, false);
+
+        List<StockMovement> created = new ArrayList<>();
+        new TreeMap<>(orders).forEach((orderId, quantities) -> {
+            Map<Long, Integer> sorted = new TreeMap<>(quantities);
+            sorted.values().removeIf(qty -> qty == null || qty <= 0);
+            // 全部商品檢查通過後才套用
+            for (Map.Entry<Long, Integer> line : sorted.entrySet()) {
+                Stock stock = stocks.get(line.getKey());
+                int available = stock != null ? stock.getQty() - stock.getReservedQty() : 0;
+                if (available < line.getValue()) {
+                    rejected.put(orderId, "庫存不足，無法出貨，訂單ID: " + orderId + "，商品ID: " + line.getKey()
+                            + "，可用: " + available + "，需要出庫: " + line.getValue());
+                    return;
+                }
+            }
+            sorted.forEach((productId, qty) -> {
+                Stock stock = stocks.get(productId);
+                int newQty = stock.getQty() - qty;
+                stock.setQty(newQty);
+                stock.setTotalCost(stock.getAvgCost().times(newQty));
+                created.add(StockMovement.builder()
+                        .stockId(stock.getId())
+                        .productId(productId)
+                        .orderId(orderId)
+                        .movementType(MovementType.OUT)
+                        .qty(qty)
+                        .unitCost(stock.getAvgCost())
+                        .build());
+            });
+        });
+        writeBack(stocks.values(), created);
+        movements.addAll(created);
+        return rejected;
+    }
+
+    /**
+     * 取消已出貨訂單時回補庫存
+     * @param orderId 訂單ID
+     * @return 建立的異動記錄
+     */
+    public List<StockMovement> reverseOrderShipment(Long orderId) {
+        return reverseOrderShipments(List.of(orderId));
+    }
+
+    /**
+     * 取消多筆已出貨訂單時回補庫存
+     * 依訂單的異動記錄（含分區壓縮前另存的記錄）計算各訂單、各商品尚未回補的出庫數量與成本，
+     * 依商品ID順序一次鎖定全部相關庫存列，以出貨時的單位成本入庫；重複呼叫時淨出庫為 0 不會重複回補
+     * @param orderIds 訂單ID
+     * @return 建立的異動記錄
+     */
+    public List<StockMovement> reverseOrderShipments(Collection<Long> orderIds) {
+        Map<Long, Map<Long, Integer>> netQtys = new TreeMap<>();
+        Map<Long, Map<Long, Money>> netCosts = new HashMap<>();
+        Set<Long> productIds = new TreeSet<>();
+        if (orderIds.isEmpty()) {
+            return List.of();
+        }
+        String placeholders = String.join(",", Collections.nCopies(orderIds.size(), "?"));
+        Object[] args = new Object[orderIds.size() * 2];
+        int index = 0;
+        for (int pass = 0; pass < 2; pass++) {
+            for (Long orderId : orderIds) {
+                args[index++] = orderId;
+            }
+        }
+        jdbcTemplate.query(String.format(ORDER_MOVEMENTS_SQL, placeholders, placeholders), rs -> {
+            long orderId = rs.getLong("order_id");
+            long productId = rs.getLong("product_id");
+            int qty = rs.getInt("qty");
+            int sign = CodedEnum.fromCode(MovementType.class, rs.getInt("movement_type")) == MovementType.OUT ? 1 : -1;
+            Money unitCost = Money.ofNullable(rs.getBigDecimal("unit_cost"));
+            Money cost = unitCost != null ? unitCost.times(qty) : Money.ZERO;
+            netQtys.computeIfAbsent(orderId, id -> new TreeMap<>()).merge(productId, sign * qty, Integer::sum);
+            netCosts.computeIfAbsent(orderId, id -> new HashMap<>())
+                    .merge(productId, sign > 0 ? cost : cost.negate(), Money::plus);
+        }, args);
+        netQtys.values().forEach(quantities -> {
+            quantities.values().removeIf(qty -> qty <= 0);
+            productIds.addAll(quantities.keySet());
+        });
+        if (productIds.isEmpty()) {
+            log.warn("訂單沒有待回補的出貨異動，ID: {}", orderIds);
+            return List.of();
+        }
+
+        // 出貨後刪除的庫存列補建後回補
+        Map<Long, Stock> stocks = lockStocks(productIds, true);
+        List<StockMovement> movements = new ArrayList<>();
+        netQtys.forEach((orderId, quantities) -> quantities.forEach((productId, qty) -> {
+            Stock stock = stocks.get(productId);
+            Money unitCost = netCosts.get(orderId).get(productId).dividedBy(qty);
+            int currentQty = stock.getQty();
+            Money avgCost = currentQty == 0 ? unitCost
+                    : Money.weightedAverage(stock.getAvgCost(), currentQty, unitCost, qty);
+            int newQty = Math.addExact(currentQty, qty);
+            stock.setQty(newQty);
+            stock.setAvgCost(avgCost);
+            stock.setTotalCost(avgCost.times(newQty));
+            movements.add(StockMovement.builder()
+                    .stockId(stock.getId())
+                    .productId(productId)
+                    .orderId(orderId)
+                    .movementType(MovementType.IN)
+                    .qty(qty)
+                    .unitCost(unitCost)
+                    .build());
+        }));
+        writeBack(stocks.values(), movements);
+        return movements;
+    }
+
+    //region 私有方法
+    /**
+     * 依商品ID順序鎖定庫存列
+     * @param productIds 商品ID
+     * @param create 缺少的庫存列是否補建後鎖定
+     * @return 商品ID → 已鎖定的庫存列
+     */
+    private Map<Long, Stock> lockStocks(Set<Long> productIds, boolean create) {
+        Map<Long, Stock> stocks = new HashMap<>();
+        if (productIds.isEmpty()) {
+            return stocks;
+        }
+        for (Stock stock : stockRepository.findForUpdateByProductIdIn(productIds)) {
+            stocks.put(stock.getProductId(), stock);
+        }
+        if (create) {
+            for (Long productId : productIds) {
+                if (!stocks.containsKey(productId)) {
+                    stocks.put(productId, stockRepository.lockOrCreate(productId));
+                }
+            }
+        }
+        return stocks;
+    }
+
+    /**
+     * 新增異動並 flush 寫回庫存列，更新低庫存索引與可用量快取
+     */
+    private void writeBack(Collection<Stock> stocks, List<StockMovement> movements) {
+        stockMovementRepository.saveAll(movements);
+        stockRepository.flush();
+        for (Stock stock : stocks) {
+            thresholdIndex.record(stock);
+            availabilityCache.record(stock);
+        }
+    }
+
+    /**
+     * 入庫：以單一 upsert 建立或累加庫存，在 SQL 內重算加權平均成本
+     */
+    private Stock applyInbound(Long productId, int quantity, Money unitCost) {
+        stockRepository.upsertInbound(productId, quantity, unitCost.toBigDecimal());
+        return readBack(productId);
+    }
+
+    /**
+     * 出庫：僅在可用量足夠時扣減，已預留給訂單的數量不可出庫；影響筆數為 0 時才讀取目前庫存組成錯誤訊息
+     */
+    private Stock applyOutbound(Long productId, int quantity) {
+        if (stockRepository.decreaseQtyIfSufficient(productId, quantity) == 0) {
+            Stock current = stockRepository.findByProductId(productId).orElse(null);
+            int currentQty = current != null ? current.getQty() : 0;
+            int reservedQty = current != null ? current.getReservedQty() : 0;
+            throw new RuntimeException("庫存不足，目前庫存: " + currentQty + "，已預留: " + reservedQty
+                    + "，需要出庫: " + quantity);
+        }
+        return readBack(productId);
+    }
+
+    private Stock readBack(Long productId) {
+        return stockRepository.findByProductId(productId)
+                .orElseThrow(() -> new RuntimeException("庫存記錄不存在: " + productId));
+    }
+    //endregion
+
+    /**
+     * 庫存調整結果
+     * @param stock 調整後的庫存
+     * @param movement 建立的異動記錄
+     */
+    public record StockAdjustment(Stock stock, StockMovement movement) {
+    }
+}
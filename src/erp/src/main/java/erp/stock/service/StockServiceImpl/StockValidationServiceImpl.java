@@ -1,10 +1,13 @@
 package erp.stock.service.StockServiceImpl;
 
+import erp.stock.dto.StockInboundRequest;
+import erp.stock.dto.StockOutboundRequest;
 import erp.stock.enums.MovementType;
-import erp.stock.repository.StockRepository;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Component;
 
+import java.math.BigDecimal;
+
 /**
  * 庫存驗證服務實作
  * 專門處理庫存相關的業務驗證
@@ -13,7 +16,6 @@ import org.springframework.stereotype.Component;
 @RequiredArgsConstructor
 public class StockValidationServiceImpl {
     
-    private final StockRepository stockRepository;
     // private final ProductService productService; // 假設存在產品服務
     
     /**
@@ -35,10 +37,7 @@ public class StockValidationServiceImpl {
         // 驗證商品存在性
         validateProductExists(productId);
         
-        // 出庫時驗證庫存充足性
-        if (type == MovementType.OUT) {
-            validateStockSufficiency(productId, quantity);
-        }
+        // 出庫的庫存充足性由條件扣減的影響筆數判斷，不在此預先讀取
     }
     
     /**
@@ -51,17 +50,39 @@ public class StockValidationServiceImpl {
         // }
     }
     
+    //region 請求驗證
+    
+    /**
+     * 驗證入庫請求
+     */
+    public void validateInboundRequest(StockInboundRequest request) {
+        if (request == null) {
+            throw new IllegalArgumentException("入庫請求不能為空");
+        }
+        if (request.getProductId() == null) {
+            throw new IllegalArgumentException("商品ID不能為空");
+        }
+        if (request.getQty() == null || request.getQty() <= 0) {
+            throw new IllegalArgumentException("入庫數量必須大於0");
+        }
+        if (request.getUnitCost() == null || request.getUnitCost().compareTo(BigDecimal.ZERO) < 0) {
+            throw new IllegalArgumentException("單位成本不能為負數");
+        }
+    }
+    
     /**
-     * 驗證庫存充足性
+     * 驗證出庫請求
      */
-    public void validateStockSufficiency(Long productId, Integer quantity) {
-        stockRepository.findByProductId(productId)
-            .ifPresent(stock -> {
-                if (stock.getQty() < quantity) {
-                    throw new RuntimeException(
-                        String.format("庫存不足，目前庫存: %d，需要出庫: %d", stock.getQty(), quantity)
-                    );
-                }
-            });
+    public void validateOutboundRequest(StockOutboundRequest request) {
+        if (request == null) {
+            throw new IllegalArgumentException("出庫請求不能為空");
+        }
+        if (request.getProductId() == null) {
+            throw new IllegalArgumentException("商品ID不能為空");
+        }
+        if (request.getQty() == null || request.getQty() <= 0) {
+            throw new IllegalArgumentException("出庫數量必須大於0");
+        }
     }
-}
\ No newline at end of file
+    //endregion
+}
@@ -0,0 +1,472 @@
+package erp.stock.service.StockServiceImpl;
+
+import erp.common.enums.CodedEnum;
+import erp.common.money.Money;
+import erp.stock.config.StockValuationProperties;
+import erp.stock.dto.StockValuationLine;
+import erp.stock.dto.StockValuationRequest;
+import erp.stock.dto.StockValuationResponse;
+import erp.stock.entity.StockCheckpoint;
+import erp.stock.enums.MovementType;
+import erp.stock.enums.ValuationPeriod;
+import erp.stock.repository.StockCheckpointRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeSet;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.Consumer;
+
+/**
+ * 庫存評價報表實作
+ * 每個商品以一條串流查詢依 created_at 順序讀取異動，同時計算加權平均法與先進先出法，
+ * 每個商品只保留目前狀態與先進先出成本層，記憶體與異動筆數無關；
+ * 多個商品並行計算，結果依商品ID順序輸出，API 與匯出共用同一套計算
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class StockValuationServiceImpl {
+
+    /**
+     * 尚無檢查點時的重播起點
+     */
+    private static final LocalDateTime REPLAY_START = LocalDateTime.of(1970, 1, 1, 0, 0);
+
+    private static final String PRODUCT_IDS_SQL =
+            "SELECT DISTINCT product_id FROM stock WHERE product_id IS NOT NULL ORDER BY product_id";
+
+    private static final String PRODUCT_MOVEMENTS_SQL = "SELECT movement_type, qty, unit_cost, created_at " +
+            "FROM stock_movements WHERE product_id = ? AND created_at >= ? AND created_at < ? " +
+            "ORDER BY created_at, id";
+
+    private static final String[] CSV_HEADER = {
+            "product_id", "period_start", "period_end", "opening_qty", "opening_value_avg", "opening_value_fifo",
+            "inbound_qty", "inbound_value", "outbound_qty", "cogs_avg", "cogs_fifo",
+            "closing_qty", "closing_value_avg", "closing_value_fifo"
+    };
+
+    private static final byte[] UTF8_BOM = {(byte) 0xEF, (byte) 0xBB, (byte) 0xBF};
+
+    /**
+     * MySQL 驅動以此值逐列串流讀取結果集
+     */
+    private static final int STREAMING_FETCH_SIZE = Integer.MIN_VALUE;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final StockCheckpointRepository checkpointRepository;
+    private final StockValuationProperties properties;
+    private final StockMovementPartitionServiceImpl partitionService;
+
+    /**
+     * 產生庫存評價報表
+     * @param request 期間與商品條件
+     * @return 各商品各期間的評價與銷貨成本
+     */
+    public StockValuationResponse getValuation(StockValuationRequest request) {
+        ValuationPlan plan = buildPlan(request);
+        List<StockValuationLine> lines = new ArrayList<>();
+        run(plan, lines::add);
+        return new StockValuationResponse(plan.bounds[0], plan.bounds[plan.bounds.length - 1], plan.period, lines);
+    }
+
+    /**
+     * 以 CSV 串流匯出庫存評價報表
+     * @param request 期間與商品條件
+     * @param outputStream 輸出串流（由呼叫端負責關閉）
+     * @throws IOException 寫出失敗時拋出
+     */
+    public void exportValuation(StockValuationRequest request, OutputStream outputStream) throws IOException {
+        ValuationPlan plan = buildPlan(request);
+        outputStream.write(UTF8_BOM);
+        Writer out = new BufferedWriter(new OutputStreamWriter(outputStream, StandardCharsets.UTF_8));
+        writeCsvLine(out, CSV_HEADER);
+        try {
+            run(plan, line -> {
+                try {
+                    writeCsvLine(out, toCsvFields(line));
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+        out.flush();
+    }
+
+    //region 計算
+    /**
+     * 並行計算各商品，依商品ID順序交給輸出端
+     * 同時進行中的商品數限制在並行數的兩倍，已完成但尚未輸出的結果不會無限累積
+     */
+    private void run(ValuationPlan plan, Consumer<StockValuationLine> sink) {
+        int parallelism = Math.max(1, properties.getParallelism());
+        log.info("庫存評價報表開始，期間: {} ~ {}，商品數: {}，並行數: {}",
+                plan.bounds[0], plan.bounds[plan.bounds.length - 1], plan.productIds.size(), parallelism);
+
+        ExecutorService executor = Executors.newFixedThreadPool(parallelism);
+        try {
+            Deque<Future<List<StockValuationLine>>> pending = new ArrayDeque<>();
+            for (Long productId : plan.productIds) {
+                pending.add(executor.submit(() -> valueProduct(productId, plan)));
+                if (pending.size() >= parallelism * 2) {
+                    await(pending.poll()).forEach(sink);
+                }
+            }
+            while (!pending.isEmpty()) {
+                await(pending.poll()).forEach(sink);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    /**
+     * 串流讀取單一商品的異動並依期間彙總
+     */
+    private List<StockValuationLine> valueProduct(Long productId, ValuationPlan plan) {
+        StockCheckpoint seed = plan.seeds.get(productId);
+        ProductValuation valuation = seed != null
+                ? new ProductValuation(productId, plan, seed.getQty(), seed.getAvgCost())
+                : new ProductValuation(productId, plan, 0, Money.ZERO);
+
+        jdbcTemplate.query(con -> {
+            PreparedStatement ps = con.prepareStatement(PRODUCT_MOVEMENTS_SQL,
+                    ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+            ps.setFetchSize(STREAMING_FETCH_SIZE);
+            ps.setLong(1, productId);
+            ps.setTimestamp(2, Timestamp.valueOf(plan.replayFrom));
+            ps.setTimestamp(3, Timestamp.valueOf(plan.bounds[plan.bounds.length - 1].atStartOfDay()));
+            return ps;
+        }, rs -> {
+            valuation.apply(rs.getTimestamp("created_at").toLocalDateTime(),
+                    CodedEnum.fromCode(MovementType.class, rs.getInt("movement_type")),
+                    rs.getInt("qty"),
+                    Money.ofNullable(rs.getBigDecimal("unit_cost")));
+        });
+        return valuation.finish();
+    }
+
+    private static List<StockValuationLine> await(Future<List<StockValuationLine>> future) {
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("庫存評價報表中斷", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw new RuntimeException("庫存評價報表計算失敗", e.getCause());
+        }
+    }
+    //endregion
+
+    //region 私有方法
+    /**
+     * 驗證請求並決定期間邊界、商品清單與重播起點
+     * 重播起點為最早一筆仍保留的異動之前最近的檢查點；未壓縮過時沒有此檢查點，從頭重播
+     */
+    private ValuationPlan buildPlan(StockValuationRequest request) {
+        if (request.getFrom() == null || request.getTo() == null) {
+            throw new IllegalArgumentException("起始日期與結束日期不能為空");
+        }
+        if (request.getTo().isBefore(request.getFrom())) {
+            throw new IllegalArgumentException("結束日期不能早於起始日期");
+        }
+        ValuationPeriod period = request.getPeriod() != null ? request.getPeriod() : ValuationPeriod.MONTH;
+
+        List<LocalDate> bounds = new ArrayList<>();
+        LocalDate end = period.next(period.startOf(request.getTo()));
+        for (LocalDate start = period.startOf(request.getFrom()); !start.isAfter(end); start = period.next(start)) {
+            bounds.add(start);
+            if (bounds.size() > properties.getMaxPeriods() + 1) {
+                throw new IllegalArgumentException("期間數超過上限: " + properties.getMaxPeriods());
+            }
+        }
+
+        List<Long> productIds = request.getProductIds() != null && !request.getProductIds().isEmpty()
+                ? new ArrayList<>(new TreeSet<>(request.getProductIds()))
+                : jdbcTemplate.queryForList(PRODUCT_IDS_SQL, Long.class);
+
+        LocalDateTime seedAt = partitionService.findRetainedFloor();
+        // 已壓縮的月份沒有明細，報表不能從重播起點之前開始
+        if (seedAt != null && bounds.get(0).atStartOfDay().isBefore(seedAt)) {
+            throw new IllegalArgumentException("起始日期早於保留的異動明細起點: " + seedAt.toLocalDate());
+        }
+        Map<Long, StockCheckpoint> seeds = new HashMap<>();
+        if (seedAt != null) {
+            checkpointRepository.findByCheckpointAt(seedAt).forEach(checkpoint -> seeds.put(checkpoint.getProductId(), checkpoint));
+        }
+
+        return new ValuationPlan(period, bounds.toArray(LocalDate[]::new), productIds,
+                seedAt != null ? seedAt : REPLAY_START, seeds);
+    }
+
+    private static String[] toCsvFields(StockValuationLine line) {
+        return new String[]{
+                String.valueOf(line.getProductId()),
+                line.getPeriodStart().toString(),
+                line.getPeriodEnd().toString(),
+                String.valueOf(line.getOpeningQty()),
+                line.getOpeningValueAvg().toPlainString(),
+                line.getOpeningValueFifo().toPlainString(),
+                String.valueOf(line.getInboundQty()),
+                line.getInboundValue().toPlainString(),
+                String.valueOf(line.getOutboundQty()),
+                line.getCogsAvg().toPlainString(),
+                line.getCogsFifo().toPlainString(),
+                String.valueOf(line.getClosingQty()),
+                line.getClosingValueAvg().toPlainString(),
+                line.getClosingValueFifo().toPlainString()
+        };
+    }
+
+    /**
+     * 欄位皆為數字與日期，不需要跳脫
+     */
+    private static void writeCsvLine(Writer out, String[] values) throws IOException {
+        out.write(String.join(",", values));
+        out.write("\r\n");
+    }
+    //endregion
+
+    /**
+     * 報表計算條件
+     * @param period 期間
+     * @param bounds 期間邊界，第 i 個期間為 [bounds[i], bounds[i+1])
+     * @param productIds 依商品ID排序的商品清單
+     * @param replayFrom 重播起點
+     * @param seeds 重播起點的各商品檢查點
+     */
+    private record ValuationPlan(ValuationPeriod period, LocalDate[] bounds, List<Long> productIds,
+                                 LocalDateTime replayFrom, Map<Long, StockCheckpoint> seeds) {
+    }
+
+    /**
+     * 單一商品的評價狀態
+     * 依時間順序套用異動，跨越期間邊界時結算上一期間；金額皆以分計算
+     */
+    private static final class ProductValuation {
+        private final Long productId;
+        private final ValuationPlan plan;
+        private final FifoLayers fifo = new FifoLayers();
+        private final List<StockValuationLine> lines = new ArrayList<>();
+
+        private long qty;
+        private Money avgCost;
+
+        /**
+         * 目前所在期間，-1 表示尚在第一個期間之前
+         */
+        private int periodIndex = -1;
+        private long openingQty;
+        private long openingValueAvg;
+        private long openingValueFifo;
+        private long inboundQty;
+        private long inboundValue;
+        private long outboundQty;
+        private long cogsAvg;
+        private long cogsFifo;
+        private boolean active;
+
+        private ProductValuation(Long productId, ValuationPlan plan, int qty, Money avgCost) {
+            this.productId = productId;
+            this.plan = plan;
+            this.qty = qty;
+            this.avgCost = avgCost != null ? avgCost : Money.ZERO;
+            // 檢查點只有平均成本，先進先出以單一成本層作為期初
+            fifo.push(qty, this.avgCost.minorUnits());
+        }
+
+        /**
+         * 套用一筆異動，規則與 StockTransactionServiceImpl 相同：入庫以加權平均重算成本，出庫以目前平均成本計
+         */
+        private void apply(LocalDateTime at, MovementType type, int quantity, Money unitCost) {
+            rollTo(at.toLocalDate());
+            boolean inPeriod = periodIndex >= 0 && periodIndex < plan.bounds.length - 1;
+            if (type == MovementType.IN) {
+                Money cost = unitCost != null ? unitCost : Money.ZERO;
+                avgCost = qty == 0 ? cost : Money.weightedAverage(avgCost, qty, cost, quantity);
+                qty += quantity;
+                fifo.push(quantity, cost.minorUnits());
+                if (inPeriod) {
+                    inboundQty += quantity;
+                    inboundValue += cost.times(quantity).minorUnits();
+                }
+            } else {
+                long fifoCost = fifo.consume(quantity);
+                qty -= quantity;
+                if (inPeriod) {
+                    outboundQty += quantity;
+                    cogsAvg += avgCost.times(quantity).minorUnits();
+                    cogsFifo += fifoCost;
+                }
+            }
+            if (inPeriod) {
+                active = true;
+            }
+        }
+
+        /**
+         * 結算到最後一個期間並回傳各期間明細
+         */
+        private List<StockValuationLine> finish() {
+            rollTo(plan.bounds[plan.bounds.length - 1]);
+            return lines;
+        }
+
+        /**
+         * 推進到日期所屬的期間，途經的期間依序結算
+         */
+        private void rollTo(LocalDate date) {
+            LocalDate[] bounds = plan.bounds;
+            while (periodIndex + 1 < bounds.length && !date.isBefore(bounds[periodIndex + 1])) {
+                if (periodIndex >= 0) {
+                    closePeriod();
+                }
+                periodIndex++;
+                if (periodIndex < bounds.length - 1) {
+                    openPeriod();
+                }
+            }
+        }
+
+        private void openPeriod() {
+            openingQty = qty;
+            openingValueAvg = avgCost.times(qty).minorUnits();
+            openingValueFifo = fifo.totalCost();
+            inboundQty = 0;
+            inboundValue = 0;
+            outboundQty = 0;
+            cogsAvg = 0;
+            cogsFifo = 0;
+            active = false;
+        }
+
+        /**
+         * 期初、期末皆無庫存且期間內沒有異動時不輸出
+         */
+        private void closePeriod() {
+            if (!active && openingQty == 0 && qty == 0) {
+                return;
+            }
+            lines.add(StockValuationLine.builder()
+                    .productId(productId)
+                    .periodStart(plan.bounds[periodIndex])
+                    .periodEnd(plan.bounds[periodIndex + 1])
+                    .openingQty(openingQty)
+                    .openingValueAvg(Money.ofMinor(openingValueAvg).toBigDecimal())
+                    .openingValueFifo(Money.ofMinor(openingValueFifo).toBigDecimal())
+                    .inboundQty(inboundQty)
+                    .inboundValue(Money.ofMinor(inboundValue).toBigDecimal())
+                    .outboundQty(outboundQty)
+                    .cogsAvg(Money.ofMinor(cogsAvg).toBigDecimal())
+                    .cogsFifo(Money.ofMinor(cogsFifo).toBigDecimal())
+                    .closingQty(qty)
+                    .closingValueAvg(avgCost.times(qty).toBigDecimal())
+                    .closingValueFifo(Money.ofMinor(fifo.totalCost()).toBigDecimal())
+                    .build());
+        }
+    }
+
+    /**
+     * 先進先出成本層
+     * 以兩個 long 陣列組成環狀佇列保存各層的數量與單位成本（分），相鄰同成本的入庫合併為一層
+     */
+    private static final class FifoLayers {
+        private long[] quantities = new long[8];
+        private long[] unitCosts = new long[8];
+        private int head;
+        private int size;
+        private long totalCost;
+        private long lastUnitCost;
+
+        private void push(long quantity, long unitCost) {
+            if (quantity <= 0) {
+                return;
+            }
+            totalCost += quantity * unitCost;
+            if (size > 0) {
+                int tail = index(size - 1);
+                if (unitCosts[tail] == unitCost) {
+                    quantities[tail] += quantity;
+                    return;
+                }
+            }
+            if (size == quantities.length) {
+                grow();
+            }
+            int tail = index(size);
+            quantities[tail] = quantity;
+            unitCosts[tail] = unitCost;
+            size++;
+        }
+
+        /**
+         * 從最早的成本層依序扣減，回傳扣減的成本（分）
+         * 成本層不足時（理論上不會發生，出庫有庫存檢查）以最後一次的單位成本計算不足的部分
+         */
+        private long consume(long quantity) {
+            long cost = 0;
+            long remaining = quantity;
+            while (remaining > 0 && size > 0) {
+                long taken = Math.min(remaining, quantities[head]);
+                lastUnitCost = unitCosts[head];
+                cost += taken * lastUnitCost;
+                quantities[head] -= taken;
+                remaining -= taken;
+                if (quantities[head] == 0) {
+                    head = index(1);
+                    size--;
+                }
+            }
+            totalCost -= cost;
+            return cost + remaining * lastUnitCost;
+        }
+
+        private long totalCost() {
+            return totalCost;
+        }
+
+        private int index(int offset) {
+            return (head + offset) % quantities.length;
+        }
+
+        private void grow() {
+            long[] newQuantities = new long[quantities.length * 2];
+            long[] newUnitCosts = new long[unitCosts.length * 2];
+            for (int i = 0; i < size; i++) {
+                newQuantities[i] = quantities[index(i)];
+                newUnitCosts[i] = unitCosts[index(i)];
+            }
+            quantities = newQuantities;
+            unitCosts = newUnitCosts;
+            head = 0;
+        }
+    }
+}
@@ -0,0 +1,136 @@
+package erp.order.service.impl;
+
+import erp.common.exception.OrderConflictException;
+import erp.order.dto.OrderBulkStatusResultDto;
+import erp.order.dto.OrderBulkStatusUpdateResponseDto;
+import erp.order.entity.Order;
+import erp.order.enums.OrderStatus;
+import erp.order.repository.OrderReminderRepository;
+import erp.order.repository.OrderRepository;
+import erp.report.service.impl.SalesRollupServiceImpl;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * 訂單狀態批次轉換測試
+ */
+@ExtendWith(MockitoExtension.class)
+class OrderCreateUpdateServiceImplTest {
+
+    @Mock
+    private OrderRepository orderRepository;
+
+    @Mock
+    private OrderQueryServiceImpl queryService;
+
+    @Mock
+    private OrderNoAllocatorServiceImpl orderNoAllocator;
+
+    @Mock
+    private SalesRollupServiceImpl salesRollupService;
+
+    @Mock
+    private OrderStockServiceImpl orderStockService;
+
+    @Mock
+    private OrderReminderRepository orderReminderRepository;
+
+    @InjectMocks
+    private OrderCreateUpdateServiceImpl createUpdateService;
+
+    @Test
+    void bulkUpdateOrderStatusReportsEachOrderSeparately() {
+        Order shipped = order(1L, OrderStatus.PAID);
+        Order outOfStock = order(2L, OrderStatus.PAID);
+        Order completed = order(3L, OrderStatus.COMPLETED);
+        when(orderRepository.findForUpdateByIdIn(Set.of(1L, 2L, 3L, 4L)))
+                .thenReturn(List.of(shipped, outOfStock, completed));
+        when(orderStockService.applyBulkStatusChange(
+                eq(Map.of(1L, OrderStatus.PAID, 2L, OrderStatus.PAID)), eq(OrderStatus.SHIPPED)))
+                .thenReturn(Map.of(2L, "庫存不足"));
+        when(orderRepository.bulkTransitionStatus(eq(Set.of(1L)), eq(OrderStatus.SHIPPED), any(LocalDateTime.class)))
+                .thenReturn(1);
+
+        OrderBulkStatusUpdateResponseDto response =
+                createUpdateService.bulkUpdateOrderStatus(List.of(1L, 2L, 3L, 4L), OrderStatus.SHIPPED);
+
+        assertEquals(1, response.getSuccessCount());
+        assertEquals(3, response.getFailureCount());
+        List<OrderBulkStatusResultDto> results = response.getResults();
+
+        // 可出貨的訂單轉換成功，版本號遞增
+        assertTrue(results.get(0).isSuccess());
+        assertEquals(OrderStatus.PAID, results.get(0).getPreviousStatus());
+        assertEquals(OrderStatus.SHIPPED, results.get(0).getStatus());
+        assertEquals(2L, results.get(0).getVersion());
+
+        // 庫存不足的訂單維持原狀態並回報原因
+        assertFalse(results.get(1).isSuccess());
+        assertEquals(OrderStatus.PAID, results.get(1).getStatus());
+        assertEquals("庫存不足", results.get(1).getMessage());
+
+        // 不允許的狀態轉換與不存在的訂單
+        assertFalse(results.get(2).isSuccess());
+        assertEquals(OrderStatus.COMPLETED, results.get(2).getStatus());
+        assertFalse(results.get(3).isSuccess());
+        assertNull(results.get(3).getStatus());
+
+        verify(orderReminderRepository).resolveByOrderIdIn(eq(Set.of(1L)), any(LocalDateTime.class));
+    }
+
+    @Test
+    void bulkUpdateOrderStatusSkipsUpdateWhenEveryOrderIsRejected() {
+        when(orderRepository.findForUpdateByIdIn(Set.of(1L)))
+                .thenReturn(List.of(order(1L, OrderStatus.PAID)));
+        when(orderStockService.applyBulkStatusChange(Map.of(1L, OrderStatus.PAID), OrderStatus.SHIPPED))
+                .thenReturn(Map.of(1L, "庫存不足"));
+
+        OrderBulkStatusUpdateResponseDto response =
+                createUpdateService.bulkUpdateOrderStatus(List.of(1L), OrderStatus.SHIPPED);
+
+        assertEquals(0, response.getSuccessCount());
+        verify(orderRepository, never()).bulkTransitionStatus(anyCollection(), any(), any());
+    }
+
+    @Test
+    void bulkUpdateOrderStatusFailsWhenAnOrderChangedConcurrently() {
+        when(orderRepository.findForUpdateByIdIn(Set.of(1L)))
+                .thenReturn(List.of(order(1L, OrderStatus.PENDING)));
+        when(orderStockService.applyBulkStatusChange(Map.of(1L, OrderStatus.PENDING), OrderStatus.PAID))
+                .thenReturn(Map.of());
+        when(orderRepository.bulkTransitionStatus(eq(Set.of(1L)), eq(OrderStatus.PAID), any(LocalDateTime.class)))
+                .thenReturn(0);
+
+        assertThrows(OrderConflictException.class,
+                () -> createUpdateService.bulkUpdateOrderStatus(List.of(1L), OrderStatus.PAID));
+    }
+
+    private static Order order(Long id, OrderStatus status) {
+        return Order.builder()
+                .id(id)
+                .status(status)
+                .version(1L)
+                .createdAt(LocalDateTime.now())
+                .build();
+    }
+}
@@ -0,0 +1,78 @@
+package erp.order.service.impl;
+
+import erp.common.money.Money;
+import erp.order.dto.OrderCreateRequestDto;
+import erp.order.dto.OrderCreateResponseDto;
+import erp.order.dto.OrderItemCreateDto;
+import erp.order.entity.Order;
+import erp.order.entity.OrderItem;
+import erp.order.enums.OrderStatus;
+import erp.order.service.OrderItemService;
+import erp.product.enums.ProductType;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * 訂單建立測試
+ */
+@ExtendWith(MockitoExtension.class)
+class OrderServiceMainImplTest {
+
+    @Mock
+    private OrderQueryServiceImpl queryService;
+
+    @Mock
+    private OrderCreateUpdateServiceImpl createUpdateService;
+
+    @Mock
+    private OrderExportServiceImpl exportService;
+
+    @Mock
+    private OrderReminderServiceImpl reminderService;
+
+    @Mock
+    private OrderItemService orderItemService;
+
+    @InjectMocks
+    private OrderServiceMainImpl orderService;
+
+    @Test
+    void createOrderAppliesStockForRequestedStatus() {
+        OrderCreateRequestDto request = OrderCreateRequestDto.builder()
+                .customerId(1L)
+                .status(OrderStatus.SHIPPED)
+                .orderItems(List.of(OrderItemCreateDto.builder()
+                        .productId(100L)
+                        .productName("貓飼料")
+                        .productType(ProductType.PET_FOOD)
+                        .qty(2)
+                        .unitPrice(new BigDecimal("50.00"))
+                        .build()))
+                .build();
+        when(createUpdateService.createOrder(eq(1L), eq(OrderStatus.SHIPPED), any(Money.class), any(Money.class),
+                any(Money.class), isNull(), isNull()))
+                .thenReturn(Order.builder().id(10L).customerId(1L).status(OrderStatus.SHIPPED).build());
+        when(orderItemService.createInitialOrderItems(eq(10L), eq(OrderStatus.SHIPPED), anyList()))
+                .thenReturn(List.of(OrderItem.builder().id(20L).orderId(10L).productId(100L).qty(2).build()));
+
+        OrderCreateResponseDto response = orderService.createOrder(request);
+
+        assertEquals(OrderStatus.SHIPPED, response.getStatus());
+        verify(orderItemService, never()).createOrderItems(any(), anyList());
+    }
+}
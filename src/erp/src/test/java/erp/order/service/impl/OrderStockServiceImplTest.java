@@ -0,0 +1,162 @@
+package erp.order.service.impl;
+
+import erp.common.exception.OrderException;
+import erp.order.entity.Order;
+import erp.order.entity.OrderItem;
+import erp.order.enums.OrderStatus;
+import erp.order.repository.OrderItemRepository;
+import erp.order.repository.OrderRepository;
+import erp.product.enums.ProductType;
+import erp.stock.dto.StockReservationLine;
+import erp.stock.service.StockServiceImpl.StockReservationServiceImpl;
+import erp.stock.service.StockServiceImpl.StockTransactionServiceImpl;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+/**
+ * 訂單庫存同步測試
+ */
+@ExtendWith(MockitoExtension.class)
+class OrderStockServiceImplTest {
+
+    private static final long ORDER_ID = 1L;
+
+    @Mock
+    private OrderRepository orderRepository;
+
+    @Mock
+    private OrderItemRepository orderItemRepository;
+
+    @Mock
+    private StockReservationServiceImpl stockReservationService;
+
+    @Mock
+    private StockTransactionServiceImpl stockTransactionService;
+
+    @InjectMocks
+    private OrderStockServiceImpl orderStockService;
+
+    @Test
+    void syncReservesOnlyStockTrackedLines() {
+        when(orderRepository.findById(ORDER_ID))
+                .thenReturn(Optional.of(Order.builder().id(ORDER_ID).status(OrderStatus.PENDING).build()));
+        when(orderItemRepository.findByOrderId(ORDER_ID)).thenReturn(List.of(
+                item(10L, 100L, ProductType.PET_FOOD, 2),
+                item(11L, 200L, ProductType.PET_SERVICE, 1)));
+
+        orderStockService.sync(ORDER_ID);
+
+        verify(stockReservationService).syncOrder(ORDER_ID,
+                List.of(new StockReservationLine(10L, 100L, 2)), true);
+    }
+
+    @Test
+    void syncRejectsItemChangesAfterShipment() {
+        when(orderRepository.findById(ORDER_ID))
+                .thenReturn(Optional.of(Order.builder().id(ORDER_ID).status(OrderStatus.SHIPPED).build()));
+
+        assertThrows(OrderException.class, () -> orderStockService.sync(ORDER_ID));
+
+        verifyNoInteractions(stockReservationService, stockTransactionService);
+    }
+
+    @Test
+    void creatingShippedOrderDeductsStock() {
+        when(orderItemRepository.findByOrderId(ORDER_ID)).thenReturn(List.of(
+                item(10L, 100L, ProductType.PET_FOOD, 2),
+                item(11L, 200L, ProductType.PET_SERVICE, 1)));
+
+        orderStockService.applyCreation(ORDER_ID, OrderStatus.SHIPPED);
+
+        verify(stockTransactionService).shipOrder(ORDER_ID, Map.of(100L, 2));
+        verifyNoInteractions(orderRepository, stockReservationService);
+    }
+
+    @Test
+    void creatingCompletedOrderDeductsStock() {
+        when(orderItemRepository.findByOrderId(ORDER_ID)).thenReturn(List.of(item(10L, 100L, ProductType.PET_FOOD, 2)));
+
+        orderStockService.applyCreation(ORDER_ID, OrderStatus.COMPLETED);
+
+        verify(stockTransactionService).shipOrder(ORDER_ID, Map.of(100L, 2));
+    }
+
+    @Test
+    void creatingPaidOrderReservesWithoutExpiry() {
+        when(orderItemRepository.findByOrderId(ORDER_ID)).thenReturn(List.of(item(10L, 100L, ProductType.PET_FOOD, 2)));
+
+        orderStockService.applyCreation(ORDER_ID, OrderStatus.PAID);
+
+        verify(stockReservationService).syncOrder(ORDER_ID, List.of(new StockReservationLine(10L, 100L, 2)), false);
+        verifyNoInteractions(stockTransactionService);
+    }
+
+    @Test
+    void shippingDeductsOnlyStockTrackedLines() {
+        when(orderItemRepository.findByOrderId(ORDER_ID)).thenReturn(List.of(
+                item(10L, 100L, ProductType.PET_FOOD, 2),
+                item(11L, 200L, ProductType.PET_SERVICE, 1)));
+
+        orderStockService.applyStatusChange(ORDER_ID, OrderStatus.PAID, OrderStatus.SHIPPED);
+
+        verify(stockTransactionService).shipOrder(ORDER_ID, Map.of(100L, 2));
+    }
+
+    @Test
+    void cancellingShippedOrderRestoresStock() {
+        orderStockService.applyStatusChange(ORDER_ID, OrderStatus.SHIPPED, OrderStatus.CANCELLED);
+
+        verify(stockTransactionService).reverseOrderShipment(ORDER_ID);
+        verifyNoInteractions(stockReservationService);
+    }
+
+    @Test
+    void bulkShippingSkipsServiceLinesAndRestoresReservationsOfRejectedOrders() {
+        long rejectedOrderId = 2L;
+        when(orderItemRepository.findByOrderIdIn(Set.of(ORDER_ID, rejectedOrderId))).thenReturn(List.of(
+                item(10L, 100L, ProductType.PET_FOOD, 2),
+                item(11L, 200L, ProductType.PET_SERVICE, 1),
+                OrderItem.builder().id(20L).orderId(rejectedOrderId).productId(100L)
+                        .productType(ProductType.PET_FOOD).qty(9).build()));
+        when(stockTransactionService.shipOrders(eq(Map.of(
+                ORDER_ID, Map.of(100L, 2),
+                rejectedOrderId, Map.of(100L, 9))), anyList()))
+                .thenReturn(Map.of(rejectedOrderId, "庫存不足"));
+        when(orderItemRepository.findByOrderId(rejectedOrderId)).thenReturn(List.of(
+                OrderItem.builder().id(20L).orderId(rejectedOrderId).productId(100L)
+                        .productType(ProductType.PET_FOOD).qty(9).build()));
+
+        Map<Long, String> rejected = orderStockService.applyBulkStatusChange(
+                Map.of(ORDER_ID, OrderStatus.PAID, rejectedOrderId, OrderStatus.PAID), OrderStatus.SHIPPED);
+
+        assertEquals(Set.of(rejectedOrderId), rejected.keySet());
+        verify(stockReservationService).syncOrder(rejectedOrderId,
+                List.of(new StockReservationLine(20L, 100L, 9)), false);
+    }
+
+    private static OrderItem item(Long id, Long productId, ProductType productType, int qty) {
+        return OrderItem.builder()
+                .id(id)
+                .orderId(ORDER_ID)
+                .productId(productId)
+                .productType(productType)
+                .qty(qty)
+                .build();
+    }
+}
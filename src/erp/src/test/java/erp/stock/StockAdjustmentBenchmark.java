@@ -0,0 +1,107 @@
+package erp.stock;
+
+import erp.stock.enums.MovementType;
+import erp.stock.service.StockServiceImpl.StockAdjustmentCombinerImpl;
+import erp.stock.service.StockServiceImpl.StockOperationServiceImpl;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * 熱門商品出庫吞吐量比較：逐筆條件 UPDATE 與合併寫入
+ * 需連線實際資料庫，手動執行：mvn test -Dtest=StockAdjustmentBenchmark -Dbenchmark=true
+ * 可用 -Dbenchmark.threads、-Dbenchmark.ops、-Dbenchmark.productId 調整參數
+ */
+@SpringBootTest
+@Slf4j
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+class StockAdjustmentBenchmark {
+
+    private static final int THREADS = Integer.getInteger("benchmark.threads", 32);
+    private static final int OPS_PER_THREAD = Integer.getInteger("benchmark.ops", 200);
+    private static final long PRODUCT_ID = Long.getLong("benchmark.productId", 990_001L);
+
+    @Autowired
+    private StockOperationServiceImpl operationService;
+
+    @Autowired
+    private StockAdjustmentCombinerImpl adjustmentCombiner;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @AfterEach
+    void cleanUp() {
+        jdbcTemplate.update("DELETE FROM stock_movements WHERE product_id = ?", PRODUCT_ID);
+        jdbcTemplate.update("DELETE FROM stock WHERE product_id = ?", PRODUCT_ID);
+    }
+
+    @Test
+    void compareOutboundThroughput() throws Exception {
+        int totalOps = THREADS * OPS_PER_THREAD;
+
+        seedStock(totalOps);
+        double directOpsPerSecond = run("逐筆條件 UPDATE", () ->
+                operationService.adjustStock(PRODUCT_ID, 1, null, MovementType.OUT));
+        assertEquals(0, currentQty());
+
+        seedStock(totalOps);
+        double combinedOpsPerSecond = run("合併寫入", () ->
+                adjustmentCombiner.submit(PRODUCT_ID, 1, null, MovementType.OUT));
+        assertEquals(0, currentQty());
+
+        log.info("執行緒: {}，每執行緒出庫: {}，合併寫入 / 逐筆 = {}x",
+                THREADS, OPS_PER_THREAD, String.format("%.2f", combinedOpsPerSecond / directOpsPerSecond));
+    }
+
+    private void seedStock(int qty) {
+        operationService.adjustStock(PRODUCT_ID, qty, new BigDecimal("10.00"), MovementType.IN);
+    }
+
+    private int currentQty() {
+        return jdbcTemplate.queryForObject("SELECT qty FROM stock WHERE product_id = ?", Integer.class, PRODUCT_ID);
+    }
+
+    private double run(String label, Runnable outbound) throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        AtomicInteger failures = new AtomicInteger();
+        List<Future<?>> futures = new ArrayList<>(THREADS);
+        long start = System.nanoTime();
+        for (int t = 0; t < THREADS; t++) {
+            futures.add(executor.submit(() -> {
+                for (int i = 0; i < OPS_PER_THREAD; i++) {
+                    try {
+                        outbound.run();
+                    } catch (RuntimeException e) {
+                        failures.incrementAndGet();
+                    }
+                }
+            }));
+        }
+        for (Future<?> future : futures) {
+            future.get();
+        }
+        long elapsedNanos = System.nanoTime() - start;
+        executor.shutdown();
+
+        double opsPerSecond = THREADS * OPS_PER_THREAD / (elapsedNanos / 1_000_000_000.0);
+        log.info("{}：{} 筆/秒，耗時 {} ms，失敗 {} 筆",
+                label, Math.round(opsPerSecond), elapsedNanos / 1_000_000, failures.get());
+        assertEquals(0, failures.get());
+        return opsPerSecond;
+    }
+}
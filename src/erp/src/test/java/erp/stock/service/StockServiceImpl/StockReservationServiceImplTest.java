@@ -0,0 +1,151 @@
+package erp.stock.service.StockServiceImpl;
+
+import erp.common.exception.BusinessException;
+import erp.stock.config.StockReservationProperties;
+import erp.stock.dto.StockReservationLine;
+import erp.stock.entity.Stock;
+import erp.stock.entity.StockReservation;
+import erp.stock.repository.StockRepository;
+import erp.stock.repository.StockReservationRepository;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InOrder;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * 庫存預留測試
+ */
+@ExtendWith(MockitoExtension.class)
+class StockReservationServiceImplTest {
+
+    private static final long ORDER_ID = 1L;
+
+    @Mock
+    private StockRepository stockRepository;
+
+    @Mock
+    private StockReservationRepository reservationRepository;
+
+    @Mock
+    private StockAvailabilityCacheImpl availabilityCache;
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    @Mock
+    private TransactionTemplate transactionTemplate;
+
+    @Spy
+    private StockReservationProperties properties = new StockReservationProperties();
+
+    @InjectMocks
+    private StockReservationServiceImpl reservationService;
+
+    //region 訂單預留
+    @Test
+    void syncOrderAppliesOnlyDeltasInProductOrder() {
+        StockReservation kept = reservation(10L, 100L, 2);
+        StockReservation removed = reservation(11L, 200L, 1);
+        when(reservationRepository.findIdsByOrderId(ORDER_ID)).thenReturn(List.of(1L, 2L));
+        when(reservationRepository.findForUpdateByIdIn(List.of(1L, 2L))).thenReturn(List.of(kept, removed));
+        when(stockRepository.reserveIfAvailable(anyLong(), anyInt())).thenReturn(1);
+
+        // 明細10 由 2 改為 5、明細11 刪除、新增明細12
+        reservationService.syncOrder(ORDER_ID, List.of(
+                new StockReservationLine(10L, 100L, 5),
+                new StockReservationLine(12L, 300L, 1)), true);
+
+        InOrder order = inOrder(stockRepository);
+        order.verify(stockRepository).reserveIfAvailable(100L, 3);
+        order.verify(stockRepository).releaseReserved(200L, 1);
+        order.verify(stockRepository).reserveIfAvailable(300L, 1);
+        assertEquals(5, kept.getQty());
+        verify(reservationRepository).deleteAll(argThat(deleted ->
+                deleted instanceof Collection<?> collection && collection.size() == 1 && collection.contains(removed)));
+    }
+
+    @Test
+    void syncOrderRejectsWhenAvailableIsInsufficient() {
+        when(reservationRepository.findIdsByOrderId(ORDER_ID)).thenReturn(List.of());
+        when(stockRepository.reserveIfAvailable(100L, 3)).thenReturn(0);
+        when(stockRepository.findByProductId(100L))
+                .thenReturn(Optional.of(Stock.builder().productId(100L).qty(5).reservedQty(4).build()));
+
+        assertThrows(BusinessException.class, () -> reservationService.syncOrder(ORDER_ID,
+                List.of(new StockReservationLine(10L, 100L, 3)), true));
+
+        verify(reservationRepository, never()).saveAll(any());
+    }
+
+    @Test
+    void syncOrderClearsExpiryOncePaid() {
+        StockReservation pending = reservation(10L, 100L, 2);
+        when(reservationRepository.findIdsByOrderId(ORDER_ID)).thenReturn(List.of(1L));
+        when(reservationRepository.findForUpdateByIdIn(List.of(1L))).thenReturn(List.of(pending));
+
+        reservationService.syncOrder(ORDER_ID, List.of(new StockReservationLine(10L, 100L, 2)), false);
+
+        assertNull(pending.getExpiresAt());
+        verify(stockRepository, never()).reserveIfAvailable(anyLong(), anyInt());
+        verify(stockRepository, never()).releaseReserved(anyLong(), anyInt());
+        verify(reservationRepository).saveAll(List.of(pending));
+    }
+    //endregion
+
+    //region 到期清理
+    @Test
+    void expireReservationsReleasesInBatchesUntilShortBatch() {
+        properties.setBatchSize(2);
+        when(transactionTemplate.execute(any())).thenAnswer(invocation ->
+                invocation.<TransactionCallback<?>>getArgument(0).doInTransaction(null));
+        when(reservationRepository.findExpiredForUpdate(any(LocalDateTime.class), eq(2))).thenReturn(
+                List.of(reservation(10L, 100L, 1), reservation(11L, 200L, 2)),
+                List.of(reservation(12L, 100L, 3)));
+
+        int expired = reservationService.expireReservations();
+
+        assertEquals(3, expired);
+        verify(stockRepository).releaseReserved(100L, 1);
+        verify(stockRepository).releaseReserved(200L, 2);
+        verify(stockRepository).releaseReserved(100L, 3);
+        verify(reservationRepository, times(2)).deleteAllInBatch(anyCollection());
+        verify(stockRepository, never()).reserveIfAvailable(anyLong(), anyInt());
+    }
+    //endregion
+
+    private static StockReservation reservation(Long orderItemId, Long productId, int qty) {
+        return StockReservation.builder()
+                .orderId(ORDER_ID)
+                .orderItemId(orderItemId)
+                .productId(productId)
+                .qty(qty)
+                .expiresAt(LocalDateTime.now().plusHours(1))
+                .build();
+    }
+}
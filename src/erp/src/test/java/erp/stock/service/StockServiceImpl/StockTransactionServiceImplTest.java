@@ -0,0 +1,167 @@
+package erp.stock.service.StockServiceImpl;
+
+import erp.common.exception.BusinessException;
+import erp.common.money.Money;
+import erp.stock.entity.Stock;
+import erp.stock.entity.StockMovement;
+import erp.stock.enums.MovementType;
+import erp.stock.mapper.StockMovementMapper;
+import erp.stock.repository.StockMovementRepository;
+import erp.stock.repository.StockRepository;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+
+import java.math.BigDecimal;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * 訂單出貨扣減與取消回補測試
+ */
+@ExtendWith(MockitoExtension.class)
+class StockTransactionServiceImplTest {
+
+    @Mock
+    private StockRepository stockRepository;
+
+    @Mock
+    private StockMovementRepository stockMovementRepository;
+
+    @Mock
+    private StockValidationServiceImpl validationService;
+
+    @Mock
+    private StockThresholdIndexImpl thresholdIndex;
+
+    @Mock
+    private StockAvailabilityCacheImpl availabilityCache;
+
+    @Mock
+    private StockReservationServiceImpl reservationService;
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    @Mock
+    private StockMovementMapper stockMovementMapper;
+
+    @InjectMocks
+    private StockTransactionServiceImpl transactionService;
+
+    //region 出貨
+    @Test
+    void shipOrderDeductsNothingWhenAnyLineIsShort() {
+        Stock plenty = stock(100L, 10, 0);
+        Stock short1 = stock(200L, 4, 2);
+        when(stockRepository.findForUpdateByProductIdIn(Set.of(100L, 200L))).thenReturn(List.of(plenty, short1));
+
+        assertThrows(BusinessException.class, () -> transactionService.shipOrder(1L, Map.of(100L, 2, 200L, 3)));
+
+        assertEquals(10, plenty.getQty());
+        assertEquals(4, short1.getQty());
+        verify(reservationService).releaseOrders(Set.of(1L));
+        verify(stockMovementRepository).saveAll(List.of());
+    }
+
+    @Test
+    void shipOrdersRejectsOnlyOrdersThatNoLongerFit() {
+        Stock stock = stock(100L, 10, 0);
+        when(stockRepository.findForUpdateByProductIdIn(Set.of(100L))).thenReturn(List.of(stock));
+        List<StockMovement> movements = new ArrayList<>();
+
+        // 依訂單ID順序，訂單1 扣減後訂單2 只剩 8 件
+        Map<Long, String> rejected = transactionService.shipOrders(
+                Map.of(1L, Map.of(100L, 2), 2L, Map.of(100L, 9)), movements);
+
+        assertEquals(Set.of(2L), rejected.keySet());
+        assertEquals(8, stock.getQty());
+        assertEquals(1, movements.size());
+        assertEquals(1L, movements.get(0).getOrderId());
+        assertEquals(MovementType.OUT, movements.get(0).getMovementType());
+    }
+    //endregion
+
+    //region 取消回補
+    @Test
+    void reverseOrderShipmentRestoresShippedQtyAtShipmentCost() throws SQLException {
+        Stock stock = stock(100L, 3, 0);
+        when(stockRepository.findForUpdateByProductIdIn(Set.of(100L))).thenReturn(List.of(stock));
+        stubOrderMovements(row(1L, 100L, MovementType.OUT, 2, "10.00"));
+
+        List<StockMovement> movements = transactionService.reverseOrderShipment(1L);
+
+        assertEquals(5, stock.getQty());
+        assertEquals(1, movements.size());
+        StockMovement movement = movements.get(0);
+        assertEquals(MovementType.IN, movement.getMovementType());
+        assertEquals(2, movement.getQty());
+        assertEquals(0, new BigDecimal("10.00").compareTo(movement.getUnitCost().toBigDecimal()));
+    }
+
+    @Test
+    void reverseOrderShipmentSkipsAlreadyReversedOrders() throws SQLException {
+        stubOrderMovements(
+                row(1L, 100L, MovementType.OUT, 2, "10.00"),
+                row(1L, 100L, MovementType.IN, 2, "10.00"));
+
+        List<StockMovement> movements = transactionService.reverseOrderShipment(1L);
+
+        assertTrue(movements.isEmpty());
+        verify(stockRepository, never()).findForUpdateByProductIdIn(anyCollection());
+    }
+    //endregion
+
+    private void stubOrderMovements(ResultSet... rows) {
+        doAnswer(invocation -> {
+            RowCallbackHandler handler = invocation.getArgument(1);
+            for (ResultSet row : rows) {
+                handler.processRow(row);
+            }
+            return null;
+        }).when(jdbcTemplate).query(anyString(), any(RowCallbackHandler.class), any(Object[].class));
+    }
+
+    private static ResultSet row(long orderId, long productId, MovementType type, int qty, String unitCost)
+            throws SQLException {
+        ResultSet rs = mock(ResultSet.class);
+        when(rs.getLong("order_id")).thenReturn(orderId);
+        when(rs.getLong("product_id")).thenReturn(productId);
+        when(rs.getInt("movement_type")).thenReturn(type.getCode());
+        when(rs.getInt("qty")).thenReturn(qty);
+        when(rs.getBigDecimal("unit_cost")).thenReturn(new BigDecimal(unitCost));
+        return rs;
+    }
+
+    private static Stock stock(Long productId, int qty, int reservedQty) {
+        Money avgCost = Money.of(new BigDecimal("12.00"));
+        return Stock.builder()
+                .id(productId)
+                .productId(productId)
+                .qty(qty)
+                .reservedQty(reservedQty)
+                .avgCost(avgCost)
+                .totalCost(avgCost.times(qty))
+                .build();
+    }
+}